@@ -0,0 +1,41 @@
+package com.workflow.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "account-purge")
+public class AccountPurgeProperties {
+
+    /**
+     * Silme isteğinden sonra hesabın geri alınabildiği gün sayısı.
+     */
+    private int graceDays = 30;
+
+    private int chunkSize = 100; // parça başına silinen hesap (her parça ayrı, kısa bir transaction)
+    private int maxChunks = 500; // tur başına en fazla parça (kalan bir sonraki turda devam eder)
+
+    public int getGraceDays() {
+        return graceDays;
+    }
+
+    public void setGraceDays(int graceDays) {
+        this.graceDays = graceDays;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getMaxChunks() {
+        return maxChunks;
+    }
+
+    public void setMaxChunks(int maxChunks) {
+        this.maxChunks = maxChunks;
+    }
+}
@@ -0,0 +1,43 @@
+package com.workflow.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "profile-picture.variants")
+public class AvatarVariantProperties {
+
+    /**
+     * Yüklemeden sonra üretilecek kare küçültülmüş boyutlar (piksel).
+     */
+    private List<Integer> sizes = List.of(32, 64, 128, 256);
+
+    private int threads = 2; // üretim eş zamanlılığı; büyük resimlerin decode maliyetini sınırlar
+    private int queueCapacity = 256; // dolarsa iş atlanır, istek geldiğinde tekrar planlanır
+
+    public List<Integer> getSizes() {
+        return sizes;
+    }
+
+    public void setSizes(List<Integer> sizes) {
+        this.sizes = sizes;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+}
@@ -0,0 +1,76 @@
+package com.workflow.backend.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level cache (JCache + Caffeine) ayarları.
+ *
+ * Her entity kendi region'ına sahiptir; region boyutu ve TTL burada açıkça tanımlanır.
+ * Query cache, natural key sorgularını (findByUsername, findByUserId vb.) kapsar ve
+ * ilgili tabloya yazıldığında Hibernate tarafından otomatik geçersiz kılınır.
+ * Cache'lenen her entity'nin diğer node'lardaki kopyası HibernateCacheRelay ile bırakılır; relay'in
+ * kapsamadığı entity'ler (ör. pano silinirken native SQL ile silinen Label) L2'ye alınmamalıdır.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String USER_REGION = "users";
+    public static final String BOARD_MEMBER_REGION = "boardMembers";
+    public static final String PRIVACY_SETTINGS_REGION = "userPrivacySettings";
+    public static final String PROFILE_PICTURE_REGION = "userProfilePictures";
+
+    // Hibernate'in varsayılan query cache region'ları
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        // Provider, Caching registry yerine doğrudan oluşturulur: her application context kendi
+        // CacheManager'ına sahip olur (testlerde birden fazla context aynı region'ları paylaşmaz)
+        CaffeineCachingProvider provider = new CaffeineCachingProvider();
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+        createRegion(cacheManager, USER_REGION, 10_000, Duration.ofMinutes(30));
+        createRegion(cacheManager, BOARD_MEMBER_REGION, 20_000, Duration.ofMinutes(30));
+        createRegion(cacheManager, PRIVACY_SETTINGS_REGION, 10_000, Duration.ofMinutes(30));
+        createRegion(cacheManager, PROFILE_PICTURE_REGION, 10_000, Duration.ofMinutes(30));
+        createRegion(cacheManager, QUERY_RESULTS_REGION, 20_000, Duration.ofMinutes(10));
+        // Timestamps region'ı expire edilmemeli, aksi halde eski query sonuçları geçerli sayılabilir
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, 1_000, null);
+
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateSecondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put("hibernate.cache.use_second_level_cache", true);
+            properties.put("hibernate.cache.use_query_cache", true);
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+            // Tanımlanmamış bir region kullanılırsa başlangıçta hata ver (region'lar yukarıda açıkça tanımlı)
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        };
+    }
+
+    private void createRegion(CacheManager cacheManager, String name, long maximumSize, Duration expireAfterWrite) {
+        if (cacheManager.getCache(name) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        if (expireAfterWrite != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        }
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+}
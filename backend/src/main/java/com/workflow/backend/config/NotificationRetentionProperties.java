@@ -0,0 +1,54 @@
+package com.workflow.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "notification.retention")
+public class NotificationRetentionProperties {
+
+    /**
+     * Bildirimlerin tutulacağı ay sayısı. Daha eski aylık partition'lar tamamen silinir (0: kapalı).
+     */
+    private int months = 12;
+
+    /**
+     * İleriye dönük önceden oluşturulacak aylık partition sayısı.
+     */
+    private int premakeMonths = 3;
+
+    private int staleCleanupBatchSize = 1000; // parça başına taranan CONNECTION_REQUEST bildirimi
+    private int staleCleanupMaxBatches = 50; // tur başına en fazla parça (kalan bir sonraki turda devam eder)
+
+    public int getMonths() {
+        return months;
+    }
+
+    public void setMonths(int months) {
+        this.months = months;
+    }
+
+    public int getPremakeMonths() {
+        return premakeMonths;
+    }
+
+    public void setPremakeMonths(int premakeMonths) {
+        this.premakeMonths = premakeMonths;
+    }
+
+    public int getStaleCleanupBatchSize() {
+        return staleCleanupBatchSize;
+    }
+
+    public void setStaleCleanupBatchSize(int staleCleanupBatchSize) {
+        this.staleCleanupBatchSize = staleCleanupBatchSize;
+    }
+
+    public int getStaleCleanupMaxBatches() {
+        return staleCleanupMaxBatches;
+    }
+
+    public void setStaleCleanupMaxBatches(int staleCleanupMaxBatches) {
+        this.staleCleanupMaxBatches = staleCleanupMaxBatches;
+    }
+}
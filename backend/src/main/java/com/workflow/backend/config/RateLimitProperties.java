@@ -0,0 +1,81 @@
+package com.workflow.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Bucket backend: "memory" (tek node) veya "jdbc" (replikalar arasi paylasimli)
+     */
+    private String backend = "memory";
+    private Jdbc jdbc = new Jdbc();
+
+    public String getBackend() {
+        return backend;
+    }
+
+    public void setBackend(String backend) {
+        this.backend = backend;
+    }
+
+    public Jdbc getJdbc() {
+        return jdbc;
+    }
+
+    public void setJdbc(Jdbc jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public static class Jdbc {
+        private String tableName = "rate_limit_buckets";
+        private int localCacheSize = 10_000; // node basina yerel bucket proxy sayisi
+        private double maxUnsynchronizedFraction = 0.1; // kapasitenin senkronize edilmeden harcanabilecek orani
+        private Duration maxUnsynchronizedTimeout = Duration.ofMillis(500); // yerel durumun en fazla bayat kalma suresi
+        private Duration idleGrace = Duration.ofMinutes(1); // bucket tamamen dolduktan sonra silinebilir olana kadar beklenen sure
+
+        public String getTableName() {
+            return tableName;
+        }
+
+        public void setTableName(String tableName) {
+            this.tableName = tableName;
+        }
+
+        public int getLocalCacheSize() {
+            return localCacheSize;
+        }
+
+        public void setLocalCacheSize(int localCacheSize) {
+            this.localCacheSize = localCacheSize;
+        }
+
+        public double getMaxUnsynchronizedFraction() {
+            return maxUnsynchronizedFraction;
+        }
+
+        public void setMaxUnsynchronizedFraction(double maxUnsynchronizedFraction) {
+            this.maxUnsynchronizedFraction = maxUnsynchronizedFraction;
+        }
+
+        public Duration getMaxUnsynchronizedTimeout() {
+            return maxUnsynchronizedTimeout;
+        }
+
+        public void setMaxUnsynchronizedTimeout(Duration maxUnsynchronizedTimeout) {
+            this.maxUnsynchronizedTimeout = maxUnsynchronizedTimeout;
+        }
+
+        public Duration getIdleGrace() {
+            return idleGrace;
+        }
+
+        public void setIdleGrace(Duration idleGrace) {
+            this.idleGrace = idleGrace;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.workflow.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "scheduled-jobs")
+public class ScheduledJobProperties {
+
+    /**
+     * Bakım işlerini çalıştıran havuzun thread sayısı. Zamanlayıcı thread'i sadece işi havuza
+     * bırakır; uzun süren bir temizlik outbox gibi sık çalışan işleri geciktirmez.
+     */
+    private int threads = 2;
+
+    /**
+     * Kilidi tutan node ölürse kilidin kendiliğinden düştüğü süre (iş bazında ayrıca verilebilir).
+     */
+    private Duration defaultLockAtMostFor = Duration.ofMinutes(30);
+
+    private int historyRetentionDays = 30; // scheduled_job_runs satırlarının saklanma süresi
+    private int deleteBatchSize = 1000; // parça parça silen işlerin parça boyutu (her parça ayrı transaction)
+    private int maxChunksPerRun = 1000; // çalışma başına en fazla parça (kalan bir sonraki çalışmada silinir)
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public Duration getDefaultLockAtMostFor() {
+        return defaultLockAtMostFor;
+    }
+
+    public void setDefaultLockAtMostFor(Duration defaultLockAtMostFor) {
+        this.defaultLockAtMostFor = defaultLockAtMostFor;
+    }
+
+    public int getHistoryRetentionDays() {
+        return historyRetentionDays;
+    }
+
+    public void setHistoryRetentionDays(int historyRetentionDays) {
+        this.historyRetentionDays = historyRetentionDays;
+    }
+
+    public int getDeleteBatchSize() {
+        return deleteBatchSize;
+    }
+
+    public void setDeleteBatchSize(int deleteBatchSize) {
+        this.deleteBatchSize = deleteBatchSize;
+    }
+
+    public int getMaxChunksPerRun() {
+        return maxChunksPerRun;
+    }
+
+    public void setMaxChunksPerRun(int maxChunksPerRun) {
+        this.maxChunksPerRun = maxChunksPerRun;
+    }
+}
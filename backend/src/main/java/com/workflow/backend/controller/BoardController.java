@@ -6,10 +6,12 @@ import com.workflow.backend.dto.LabelDto;
 import com.workflow.backend.dto.UpdateBoardRequest;
 import com.workflow.backend.dto.UpdateBoardStatusRequest;
 import com.workflow.backend.entity.Board;
+import com.workflow.backend.hateoas.CursorPages;
 import com.workflow.backend.hateoas.assembler.BoardModelAssembler;
 import com.workflow.backend.hateoas.assembler.LabelModelAssembler;
 import com.workflow.backend.hateoas.model.BoardModel;
 import com.workflow.backend.hateoas.model.LabelModel;
+import com.workflow.backend.security.RateLimitCost;
 import com.workflow.backend.service.BoardService;
 import com.workflow.backend.service.LabelService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -79,6 +81,7 @@ public class BoardController {
             @ApiResponse(responseCode = "401", description = "Kimlik doğrulama gerekli"),
             @ApiResponse(responseCode = "403", description = "Bu kullanıcının panolarına erişim yetkiniz yok")
     })
+    @RateLimitCost(2)
     @GetMapping("/user/{userId}")
     public ResponseEntity<PagedModel<BoardModel>> getUserBoards(
             @Parameter(description = "Kullanıcı ID") @PathVariable Long userId,
@@ -138,11 +141,54 @@ public class BoardController {
         return ResponseEntity.ok(pagedModel);
     }
 
+    @Operation(summary = "Kullanıcının panolarını imleç (keyset) ile getir",
+            description = "OFFSET ve COUNT yerine (createdAt, id) üzerinden, en yeni panodan başlayarak ilerler. "
+                    + "İlk sayfa için cursor boş gönderilir, sonraki sayfa 'next' linkindeki imleçle istenir. "
+                    + "Sıralama sabittir; toplam sayı sadece withTotal=true ise hesaplanır.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Panolar başarıyla getirildi"),
+            @ApiResponse(responseCode = "400", description = "Geçersiz imleç"),
+            @ApiResponse(responseCode = "401", description = "Kimlik doğrulama gerekli"),
+            @ApiResponse(responseCode = "403", description = "Bu kullanıcının panolarına erişim yetkiniz yok")
+    })
+    @RateLimitCost(2)
+    @GetMapping(value = "/user/{userId}", params = "cursor")
+    public ResponseEntity<PagedModel<BoardModel>> getUserBoardsByCursor(
+            @Parameter(description = "Kullanıcı ID") @PathVariable Long userId,
+            @Parameter(description = "Önceki sayfadan dönen imleç (ilk sayfa için boş)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Sayfa başına kayıt sayısı") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Toplam kayıt sayısı da dönülsün mü") @RequestParam(defaultValue = "false") boolean withTotal,
+            @Parameter(description = "Durum filtresi") @RequestParam(required = false) String status,
+            @Parameter(description = "Kategori filtresi") @RequestParam(required = false) String category,
+            @Parameter(description = "Pano tipi filtresi") @RequestParam(required = false) String boardType) {
+        int safeSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        var paginatedResult = boardService.getAllBoardsFiltered(userId, status, category, boardType, cursor, safeSize, withTotal);
+
+        List<BoardModel> boardModels = paginatedResult.content().stream()
+                .map(boardAssembler::toModel)
+                .collect(Collectors.toList());
+
+        PagedModel<BoardModel> pagedModel = CursorPages.toPagedModel(boardModels, paginatedResult);
+        pagedModel.add(linkTo(methodOn(BoardController.class)
+                .getUserBoardsByCursor(userId, cursor, size, withTotal, status, category, boardType))
+                .withSelfRel());
+        if (paginatedResult.nextCursor() != null) {
+            pagedModel.add(linkTo(methodOn(BoardController.class)
+                    .getUserBoardsByCursor(userId, paginatedResult.nextCursor(), size, withTotal, status, category, boardType))
+                    .withRel("next"));
+        }
+        pagedModel.add(linkTo(methodOn(BoardController.class).createBoard(null))
+                .withRel("create-board"));
+
+        return ResponseEntity.ok(pagedModel);
+    }
+
     @Operation(summary = "Atandığım panoları getir", description = "Kullanıcının sorumlu olarak atandığı panoları getirir")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Atandığım panolar başarıyla getirildi"),
             @ApiResponse(responseCode = "401", description = "Kimlik doğrulama gerekli")
     })
+    @RateLimitCost(2)
     @GetMapping("/assigned")
     public ResponseEntity<PagedModel<BoardModel>> getAssignedBoards(
             @Parameter(description = "Sayfa numarası (0'dan başlar)") @RequestParam(defaultValue = "0") int page,
@@ -170,6 +216,7 @@ public class BoardController {
             @ApiResponse(responseCode = "200", description = "Takım panoları başarıyla getirildi"),
             @ApiResponse(responseCode = "401", description = "Kimlik doğrulama gerekli")
     })
+    @RateLimitCost(2)
     @GetMapping("/my-team-boards")
     public ResponseEntity<PagedModel<BoardModel>> getMyTeamBoards(
             @Parameter(description = "Sayfa numarası (0'dan başlar)") @RequestParam(defaultValue = "0") int page,
@@ -200,6 +247,7 @@ public class BoardController {
             @ApiResponse(responseCode = "403", description = "Bu panoya erişim yetkiniz yok"),
             @ApiResponse(responseCode = "404", description = "Pano bulunamadı")
     })
+    @RateLimitCost(5)
     @GetMapping("/{slug}/details")
     public ResponseEntity<BoardModel> getBoardDetails(
             @Parameter(description = "Pano slug'ı") @PathVariable String slug) {
@@ -2,6 +2,8 @@ package com.workflow.backend.controller;
 
 import com.workflow.backend.dto.CreateConnectionRequest;
 import com.workflow.backend.dto.ConnectionResponse;
+import com.workflow.backend.dto.PaginatedResponse;
+import com.workflow.backend.hateoas.CursorPages;
 import com.workflow.backend.hateoas.assembler.ConnectionModelAssembler;
 import com.workflow.backend.hateoas.model.ConnectionModel;
 import com.workflow.backend.service.ConnectionService;
@@ -25,6 +27,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
 @RestController
 @RequestMapping("/connections")
 @RequiredArgsConstructor
@@ -131,6 +135,72 @@ public class ConnectionController {
         return ResponseEntity.ok(PagedModel.of(models, metadata));
     }
 
+    @Operation(summary = "Bekleyen baglanti isteklerini imlec (keyset) ile getir",
+            description = "(createdAt, id) uzerinden ilerler; ilk sayfa icin cursor bos gonderilir, sonraki sayfa 'next' linkindeki imlecle istenir.")
+    @GetMapping(value = "/pending", params = "cursor")
+    public ResponseEntity<PagedModel<ConnectionModel>> getPendingRequestsByCursor(
+            @Parameter(description = "Onceki sayfadan donen imlec (ilk sayfa icin bos)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Sayfa boyutu") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Toplam sayi da donulsun mu") @RequestParam(defaultValue = "false") boolean withTotal) {
+        int safeSize = Math.min(Math.max(size, 1), 100);
+        PaginatedResponse<ConnectionResponse> result = connectionService.getPendingRequests(cursor, safeSize, withTotal);
+        List<ConnectionModel> models = result.content().stream()
+                .map(connectionAssembler::toModel)
+                .collect(Collectors.toList());
+
+        PagedModel<ConnectionModel> pagedModel = CursorPages.toPagedModel(models, result);
+        pagedModel.add(linkTo(methodOn(ConnectionController.class).getPendingRequestsByCursor(cursor, size, withTotal)).withSelfRel());
+        if (result.nextCursor() != null) {
+            pagedModel.add(linkTo(methodOn(ConnectionController.class)
+                    .getPendingRequestsByCursor(result.nextCursor(), size, withTotal)).withRel("next"));
+        }
+        return ResponseEntity.ok(pagedModel);
+    }
+
+    @Operation(summary = "Gonderilen baglanti isteklerini imlec (keyset) ile getir",
+            description = "(createdAt, id) uzerinden ilerler; ilk sayfa icin cursor bos gonderilir, sonraki sayfa 'next' linkindeki imlecle istenir.")
+    @GetMapping(value = "/sent", params = "cursor")
+    public ResponseEntity<PagedModel<ConnectionModel>> getSentRequestsByCursor(
+            @Parameter(description = "Onceki sayfadan donen imlec (ilk sayfa icin bos)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Sayfa boyutu") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Toplam sayi da donulsun mu") @RequestParam(defaultValue = "false") boolean withTotal) {
+        int safeSize = Math.min(Math.max(size, 1), 100);
+        PaginatedResponse<ConnectionResponse> result = connectionService.getSentRequests(cursor, safeSize, withTotal);
+        List<ConnectionModel> models = result.content().stream()
+                .map(connectionAssembler::toModel)
+                .collect(Collectors.toList());
+
+        PagedModel<ConnectionModel> pagedModel = CursorPages.toPagedModel(models, result);
+        pagedModel.add(linkTo(methodOn(ConnectionController.class).getSentRequestsByCursor(cursor, size, withTotal)).withSelfRel());
+        if (result.nextCursor() != null) {
+            pagedModel.add(linkTo(methodOn(ConnectionController.class)
+                    .getSentRequestsByCursor(result.nextCursor(), size, withTotal)).withRel("next"));
+        }
+        return ResponseEntity.ok(pagedModel);
+    }
+
+    @Operation(summary = "Kabul edilmis baglantilari imlec (keyset) ile getir",
+            description = "(updatedAt, id) uzerinden ilerler; ilk sayfa icin cursor bos gonderilir, sonraki sayfa 'next' linkindeki imlecle istenir.")
+    @GetMapping(value = "/accepted", params = "cursor")
+    public ResponseEntity<PagedModel<ConnectionModel>> getAcceptedConnectionsByCursor(
+            @Parameter(description = "Onceki sayfadan donen imlec (ilk sayfa icin bos)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Sayfa boyutu") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Toplam sayi da donulsun mu") @RequestParam(defaultValue = "false") boolean withTotal) {
+        int safeSize = Math.min(Math.max(size, 1), 100);
+        PaginatedResponse<ConnectionResponse> result = connectionService.getAcceptedConnections(cursor, safeSize, withTotal);
+        List<ConnectionModel> models = result.content().stream()
+                .map(connectionAssembler::toModel)
+                .collect(Collectors.toList());
+
+        PagedModel<ConnectionModel> pagedModel = CursorPages.toPagedModel(models, result);
+        pagedModel.add(linkTo(methodOn(ConnectionController.class).getAcceptedConnectionsByCursor(cursor, size, withTotal)).withSelfRel());
+        if (result.nextCursor() != null) {
+            pagedModel.add(linkTo(methodOn(ConnectionController.class)
+                    .getAcceptedConnectionsByCursor(result.nextCursor(), size, withTotal)).withRel("next"));
+        }
+        return ResponseEntity.ok(pagedModel);
+    }
+
     @Operation(summary = "Baglantiyi kaldir")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Baglanti kaldirildi"),
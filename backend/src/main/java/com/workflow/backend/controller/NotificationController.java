@@ -1,6 +1,8 @@
 package com.workflow.backend.controller;
 
 import com.workflow.backend.dto.NotificationResponse;
+import com.workflow.backend.dto.PaginatedResponse;
+import com.workflow.backend.hateoas.CursorPages;
 import com.workflow.backend.hateoas.assembler.NotificationModelAssembler;
 import com.workflow.backend.hateoas.model.NotificationModel;
 import com.workflow.backend.service.NotificationService;
@@ -14,8 +16,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.hateoas.PagedModel;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 
@@ -59,6 +63,33 @@ public class NotificationController {
         return ResponseEntity.ok(pagedModel);
     }
 
+    @Operation(summary = "Bildirimleri imlec (keyset) ile getir",
+            description = "OFFSET ve COUNT yerine (createdAt, id) uzerinden ilerler. Ilk sayfa icin cursor bos gonderilir, "
+                    + "sonraki sayfa 'next' linkindeki imlecle istenir. Toplam sayi sadece withTotal=true ise hesaplanir.")
+    @GetMapping(params = "cursor")
+    public ResponseEntity<PagedModel<NotificationModel>> getNotificationsByCursor(
+            @Parameter(description = "Onceki sayfadan donen imlec (ilk sayfa icin bos)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Sayfa boyutu") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Toplam bildirim sayisi da donulsun mu") @RequestParam(defaultValue = "false") boolean withTotal) {
+        int safeSize = Math.min(Math.max(size, 1), 100);
+        PaginatedResponse<NotificationResponse> result = notificationService.getNotifications(cursor, safeSize, withTotal);
+        List<NotificationModel> models = result.content().stream()
+                .map(notificationAssembler::toModel)
+                .collect(Collectors.toList());
+
+        PagedModel<NotificationModel> pagedModel = CursorPages.toPagedModel(models, result);
+        pagedModel.add(linkTo(methodOn(NotificationController.class)
+                .getNotificationsByCursor(cursor, size, withTotal))
+                .withSelfRel());
+        if (result.nextCursor() != null) {
+            pagedModel.add(linkTo(methodOn(NotificationController.class)
+                    .getNotificationsByCursor(result.nextCursor(), size, withTotal))
+                    .withRel("next"));
+        }
+
+        return ResponseEntity.ok(pagedModel);
+    }
+
     @Operation(summary = "Okunmamis bildirim sayisini getir")
     @GetMapping("/unread-count")
     public ResponseEntity<Map<String, Long>> getUnreadCount() {
@@ -66,6 +97,14 @@ public class NotificationController {
         return ResponseEntity.ok(Map.of("count", count));
     }
 
+    @Operation(summary = "Bildirim akisi (Server-Sent Events)",
+            description = "Yeni bildirimleri (notification) ve okunmamis sayi degisikliklerini (unread-count) push eder. "
+                    + "Baglanti kurulamazsa istemci /unread-count polling'ine doner.")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return notificationService.subscribe();
+    }
+
     @Operation(summary = "Bildirimi okundu olarak isaretle")
     @PutMapping("/{id}/read")
     public ResponseEntity<NotificationModel> markAsRead(
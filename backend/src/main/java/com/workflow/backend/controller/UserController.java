@@ -1,6 +1,7 @@
 package com.workflow.backend.controller;
 
 import com.workflow.backend.dto.*;
+import com.workflow.backend.exception.PayloadTooLargeException;
 import com.workflow.backend.exception.UnauthorizedAccessException;
 import com.workflow.backend.hateoas.assembler.UserModelAssembler;
 import com.workflow.backend.hateoas.assembler.UserProfileModelAssembler;
@@ -8,9 +9,12 @@ import com.workflow.backend.hateoas.assembler.UserSearchModelAssembler;
 import com.workflow.backend.hateoas.model.UserModel;
 import com.workflow.backend.hateoas.model.UserProfileModel;
 import com.workflow.backend.hateoas.model.UserSearchModel;
-import com.workflow.backend.repository.UserProfilePictureRepository;
+import com.workflow.backend.security.RateLimitCost;
+import com.workflow.backend.service.AvatarResolver;
 import com.workflow.backend.service.CurrentUserService;
+import com.workflow.backend.service.HotAvatarCache;
 import com.workflow.backend.service.ProfilePictureStorageService;
+import com.workflow.backend.service.ProfilePictureStorageService.StoredPicture;
 import com.workflow.backend.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -21,18 +25,29 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.RepresentationModel;
 import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -45,13 +60,22 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 @SecurityRequirement(name = "bearerAuth")
 public class UserController {
 
+    private static final CacheControl PROFILE_PICTURE_CACHE = CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic();
+    private static final CacheControl PROFILE_PICTURE_FALLBACK_CACHE = CacheControl.maxAge(1, TimeUnit.MINUTES).cachePublic();
+    // Tomcat sendfile istek attribute'lari; kucuk dosyalarda (Tomcat'in varsayilan esigi) normal kopyalama daha ucuz
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
     private final UserService userService;
     private final CurrentUserService currentUserService;
     private final UserModelAssembler userAssembler;
     private final UserSearchModelAssembler userSearchAssembler;
     private final UserProfileModelAssembler userProfileAssembler;
-    private final UserProfilePictureRepository profilePictureRepository;
-    private final ProfilePictureStorageService profilePictureStorageService;
+    private final AvatarResolver avatarResolver;
+    private final HotAvatarCache hotAvatarCache;
     private final org.springframework.core.env.Environment environment;
 
     private void verifyCurrentUser(Long userId) {
@@ -78,26 +102,83 @@ public class UserController {
         return ResponseEntity.ok(model);
     }
 
-    @Operation(summary = "Profil resmini getir", description = "Kullanicinin profil resmini dosya olarak dondurur (kimlik dogrulama gerektirmez)")
+    @Operation(summary = "Profil resmini getir", description = "Kullanicinin profil resmini dosya olarak dondurur (kimlik dogrulama gerektirmez). " +
+            "ETag/Last-Modified ile kosullu istekleri (304) ve Range isteklerini (206) destekler. " +
+            "size verilirse en yakin kucultulmus variant, hazir degilse orijinal doner")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Profil resmi basariyla getirildi"),
+            @ApiResponse(responseCode = "206", description = "Istenen byte araligi dondu"),
+            @ApiResponse(responseCode = "304", description = "Istemcideki kopya guncel"),
             @ApiResponse(responseCode = "404", description = "Profil resmi bulunamadi")
     })
+    @RateLimitCost(0)
     @GetMapping("/{id}/profile-picture")
-    public ResponseEntity<byte[]> getProfilePicture(
-            @Parameter(description = "Kullanici ID") @PathVariable Long id) {
-        String filePath = profilePictureRepository.findFilePathByUserId(id).orElse(null);
-        if (filePath == null) {
+    public ResponseEntity<Resource> getProfilePicture(
+            @Parameter(description = "Kullanici ID") @PathVariable Long id,
+            @Parameter(description = "Istenen kenar uzunlugu (piksel), ornegin 32/64/128/256")
+            @RequestParam(required = false) Integer size,
+            ServletWebRequest webRequest) {
+        StoredPicture picture = avatarResolver.findFile(id, size).orElse(null);
+        if (picture == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // Kosullu istek: cache'teki ETag/Last-Modified ile, dosyaya dokunmadan 304
+        if (webRequest.checkNotModified(picture.etag(), picture.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(cacheControlFor(picture, size))
+                    .build();
+        }
+
+        if (!Files.isReadable(picture.path())) {
+            // Resim baska bir node'da degismis olabilir, meta veriyi yenileyip tekrar dene
+            avatarResolver.invalidate(id);
+            picture = avatarResolver.findFile(id, size).orElse(null);
+            if (picture == null) {
+                return ResponseEntity.notFound().build();
+            }
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(picture.contentType()))
+                .contentLength(picture.size())
+                .eTag(picture.etag())
+                .lastModified(picture.lastModified())
+                .cacheControl(cacheControlFor(picture, size))
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        // Sik istenen kucuk avatarlar (variant'lar) bellekten
+        Optional<Resource> hot = hotAvatarCache.get(id, picture);
+        if (hot.isPresent()) {
+            return response.body(hot.get());
+        }
+        if (!Files.isReadable(picture.path())) {
+            // Dosya kontrol ile okuma arasinda silinmis (ornegin resim degisti)
             return ResponseEntity.notFound().build();
         }
 
-        byte[] imageBytes = profilePictureStorageService.load(filePath);
-        String contentType = profilePictureStorageService.getContentType(filePath);
+        HttpServletRequest request = webRequest.getRequest();
+        if (canSendfile(request, picture)) {
+            // Tomcat dosyayi istek bittikten sonra FileChannel.transferTo ile dogrudan sokete yazar
+            request.setAttribute(SENDFILE_FILENAME, picture.path().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, picture.size());
+            return response.build();
+        }
+        // Range istekleri ve cache disi kucuk dosyalar: Spring Resource'u akitir, Range varsa 206 doner
+        return response.body(new FileSystemResource(picture.path()));
+    }
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_TYPE, contentType)
-                .cacheControl(CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic())
-                .body(imageBytes);
+    // Variant hazir olmadigi icin orijinal donduyse istemci kisa sure sonra variant'i tekrar istemeli
+    private CacheControl cacheControlFor(StoredPicture picture, Integer requestedSize) {
+        boolean fallback = picture.variantSize() != avatarResolver.variantSizeFor(requestedSize);
+        return fallback ? PROFILE_PICTURE_FALLBACK_CACHE : PROFILE_PICTURE_CACHE;
+    }
+
+    private static boolean canSendfile(HttpServletRequest request, StoredPicture picture) {
+        return Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))
+                && request.getHeader(HttpHeaders.RANGE) == null
+                && picture.size() >= SENDFILE_MIN_SIZE;
     }
 
     @Operation(summary = "Profil güncelle", description = "Kullanıcının profil bilgilerini (kullanıcı adı, profil resmi) günceller")
@@ -126,6 +207,33 @@ public class UserController {
         return ResponseEntity.ok(model);
     }
 
+    @Operation(summary = "Profil resmi yükle", description = "Profil resmini multipart/form-data olarak yükler (file alanı, en fazla 2MB; png, jpg, gif, webp). " +
+            "Dosya türü içerikten belirlenir")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Profil resmi güncellendi",
+                    content = @Content(schema = @Schema(implementation = UserModel.class))),
+            @ApiResponse(responseCode = "400", description = "Desteklenmeyen dosya türü"),
+            @ApiResponse(responseCode = "401", description = "Kimlik doğrulama gerekli"),
+            @ApiResponse(responseCode = "403", description = "Bu profili güncelleme yetkiniz yok"),
+            @ApiResponse(responseCode = "413", description = "Dosya boyut sınırını aşıyor")
+    })
+    @RateLimitCost(3)
+    @PutMapping(value = "/{id}/profile-picture", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<UserModel> uploadProfilePicture(
+            @Parameter(description = "Kullanıcı ID") @PathVariable Long id,
+            @RequestPart("file") MultipartFile file) throws IOException {
+        verifyCurrentUser(id);
+        // Boyutu bilinen part'lar okunmadan reddedilir; sınır akış sırasında da uygulanır
+        if (file.getSize() > ProfilePictureStorageService.MAX_UPLOAD_BYTES) {
+            throw new PayloadTooLargeException("Profil resmi en fazla 2MB olabilir");
+        }
+
+        try (InputStream content = file.getInputStream()) {
+            UserResponse user = userService.updateProfilePicture(id, content);
+            return ResponseEntity.ok(userAssembler.toModel(user));
+        }
+    }
+
     @Operation(summary = "Şifre güncelle", description = "Kullanıcının şifresini günceller (mevcut şifre doğrulaması gerekir)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Şifre güncellendi"),
@@ -148,20 +256,22 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
-    @Operation(summary = "Kullanici ara", description = "Username ile kullanici arar (min 2 karakter)")
+    @Operation(summary = "Kullanici ara", description = "Username onekine gore kullanici arar (min 2 karakter)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Arama sonuclari"),
             @ApiResponse(responseCode = "401", description = "Kimlik dogrulama gerekli")
     })
+    @RateLimitCost(2)
     @GetMapping("/search")
     public ResponseEntity<CollectionModel<UserSearchModel>> searchUsers(
             @Parameter(description = "Arama sorgusu") @RequestParam("q") String query,
-            @Parameter(description = "Sayfa boyutu (max 20)") @RequestParam(defaultValue = "10") int size) {
+            @Parameter(description = "Sayfa boyutu (max 20)") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Sadece kabul edilmis baglantilar") @RequestParam(defaultValue = "false") boolean connected) {
         if (query == null || query.trim().length() < 2) {
             return ResponseEntity.ok(CollectionModel.empty());
         }
         int safeSize = Math.min(Math.max(size, 1), 20);
-        List<UserSearchResponse> results = userService.searchUsers(query.trim(), safeSize);
+        List<UserSearchResponse> results = userService.searchUsers(query.trim(), safeSize, connected);
         List<UserSearchModel> models = results.stream()
                 .map(userSearchAssembler::toModel)
                 .collect(Collectors.toList());
@@ -174,6 +284,7 @@ public class UserController {
             @ApiResponse(responseCode = "401", description = "Kimlik dogrulama gerekli"),
             @ApiResponse(responseCode = "404", description = "Kullanici bulunamadi")
     })
+    @RateLimitCost(3)
     @GetMapping("/profile/{username}")
     public ResponseEntity<UserProfileModel> getUserProfile(
             @Parameter(description = "Kullanici adi") @PathVariable String username) {
@@ -190,6 +301,7 @@ public class UserController {
             @ApiResponse(responseCode = "403", description = "Bu kullanicinin istatistiklerine erisim yetkiniz yok"),
             @ApiResponse(responseCode = "404", description = "Kullanici bulunamadi")
     })
+    @RateLimitCost(5)
     @GetMapping("/profile/{username}/stats")
     public ResponseEntity<EntityModel<UserProfileStatsResponse>> getUserProfileStats(
             @Parameter(description = "Kullanici adi") @PathVariable String username) {
@@ -0,0 +1,47 @@
+package com.workflow.backend.dto;
+
+import com.workflow.backend.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset (seek) sayfalama imleci: sayfanın son satırının sıralama anahtarı (zaman, id).
+ * İstemciye opak bir Base64url string olarak verilir; sonraki sayfa bu anahtardan küçük satırlardır.
+ */
+public record KeysetCursor(LocalDateTime position, Long id) {
+
+    // İlk sayfa: tüm satırlardan büyük bir anahtar, böylece ilk ve sonraki sayfalar aynı sorguyu kullanır
+    private static final KeysetCursor START = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    public static KeysetCursor start() {
+        return START;
+    }
+
+    public String encode() {
+        String raw = position + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Boş imleç ilk sayfayı ifade eder.
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new BadRequestException("Gecersiz sayfa imleci.");
+            }
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Gecersiz sayfa imleci.", e);
+        }
+    }
+}
@@ -2,12 +2,29 @@ package com.workflow.backend.dto;
 
 import java.util.List;
 
+/**
+ * Sayfalı liste sonucu.
+ * Offset sayfalamada toplam sayı her zaman doludur; keyset (imleç) sayfalamada toplam sayı
+ * sadece istenirse hesaplanır (aksi halde null) ve sonraki sayfa nextCursor ile istenir.
+ */
 public record PaginatedResponse<T>(
     List<T> content,
     int page,
     int size,
-    long totalElements,
-    int totalPages,
+    Long totalElements,
+    Integer totalPages,
     boolean first,
-    boolean last
-) {}
+    boolean last,
+    String nextCursor
+) {
+    public PaginatedResponse(List<T> content, int page, int size, long totalElements, int totalPages,
+                             boolean first, boolean last) {
+        this(content, page, size, totalElements, totalPages, first, last, null);
+    }
+
+    public static <T> PaginatedResponse<T> ofCursor(List<T> content, int size, boolean first,
+                                                    String nextCursor, Long totalElements) {
+        Integer totalPages = totalElements != null ? (int) ((totalElements + size - 1) / size) : null;
+        return new PaginatedResponse<>(content, 0, size, totalElements, totalPages, first, nextCursor == null, nextCursor);
+    }
+}
@@ -0,0 +1,20 @@
+package com.workflow.backend.dto;
+
+import com.workflow.backend.entity.PrivacyMode;
+import com.workflow.backend.entity.User;
+
+/**
+ * Kullanıcının sık okunan, değişmez özet bilgisi (UserSummaryCache'te tutulur).
+ */
+public record UserSummary(
+    Long id,
+    String username,
+    String firstName,
+    String lastName,
+    PrivacyMode privacyMode
+) {
+    public static UserSummary from(User user) {
+        return new UserSummary(user.getId(), user.getUsername(), user.getFirstName(),
+                user.getLastName(), user.getPrivacyMode());
+    }
+}
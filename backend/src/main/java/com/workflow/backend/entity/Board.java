@@ -9,7 +9,8 @@ import org.hibernate.annotations.BatchSize;
 
 @Entity
 @Table(name = "boards", indexes = {
-    @Index(name = "idx_boards_user_id", columnList = "user_id")
+    @Index(name = "idx_boards_user_id", columnList = "user_id"),
+    @Index(name = "idx_boards_user_created", columnList = "user_id, created_at DESC, id DESC")
 })
 @Getter
 @Setter
@@ -1,5 +1,6 @@
 package com.workflow.backend.entity;
 
+import com.workflow.backend.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -7,12 +8,17 @@ import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+// Yetki kontrollerinde kullanılır, eski veri görünmemeli (READ_WRITE)
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.BOARD_MEMBER_REGION)
 @Table(name = "board_members", indexes = {
     @Index(name = "idx_board_members_board_id", columnList = "board_id"),
     @Index(name = "idx_board_members_user_id", columnList = "user_id")
@@ -10,7 +10,11 @@ import java.time.LocalDateTime;
 @Table(name = "connections", indexes = {
         @Index(name = "idx_connections_sender_id", columnList = "sender_id"),
         @Index(name = "idx_connections_receiver_id", columnList = "receiver_id"),
-        @Index(name = "idx_connections_status", columnList = "status")
+        @Index(name = "idx_connections_status", columnList = "status"),
+        @Index(name = "idx_connections_receiver_status_created", columnList = "receiver_id, status, created_at DESC, id DESC"),
+        @Index(name = "idx_connections_sender_status_created", columnList = "sender_id, status, created_at DESC, id DESC"),
+        @Index(name = "idx_connections_receiver_status_updated", columnList = "receiver_id, status, updated_at DESC, id DESC"),
+        @Index(name = "idx_connections_sender_status_updated", columnList = "sender_id, status, updated_at DESC, id DESC")
 }, uniqueConstraints = {
         @UniqueConstraint(name = "uq_connections_sender_receiver", columnNames = {"sender_id", "receiver_id"})
 })
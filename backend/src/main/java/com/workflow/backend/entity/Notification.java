@@ -6,12 +6,13 @@ import lombok.Setter;
 
 import java.time.LocalDateTime;
 
+// PostgreSQL'de created_at uzerinden aylik partition'lara bolunmus tablo (V32), PK (id, created_at)
 @Entity
 @Table(name = "notifications", indexes = {
-        @Index(name = "idx_notifications_recipient_id", columnList = "recipient_id"),
         @Index(name = "idx_notifications_is_read", columnList = "recipient_id, is_read"),
-        @Index(name = "idx_notifications_created_at", columnList = "recipient_id, created_at"),
-        @Index(name = "idx_notifications_recipient_type", columnList = "recipient_id, type")
+        @Index(name = "idx_notifications_recipient_created", columnList = "recipient_id, created_at DESC, id DESC"),
+        @Index(name = "idx_notifications_recipient_type", columnList = "recipient_id, type"),
+        @Index(name = "idx_notifications_reference", columnList = "reference_id, type")
 })
 @Getter
 @Setter
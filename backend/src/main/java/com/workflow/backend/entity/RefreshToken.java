@@ -9,8 +9,9 @@ import java.time.Instant;
 
 @Entity
 @Table(name = "refresh_tokens", indexes = {
-    @Index(name = "idx_refresh_tokens_user_id", columnList = "user_id"),
-    @Index(name = "idx_refresh_tokens_token", columnList = "token")
+    @Index(name = "idx_refresh_tokens_user_expiry", columnList = "user_id, expiry_date DESC, id DESC"),
+    @Index(name = "idx_refresh_tokens_expiry", columnList = "expiry_date"),
+    @Index(name = "idx_refresh_tokens_token_hash", columnList = "token_hash", unique = true)
 })
 @Getter
 @Setter
@@ -22,7 +23,12 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    // Token'ın SHA-256 hash'i (64 karakter hex). Ham token veritabanında tutulmaz.
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    // Ham token sadece oluşturulduğu anda dolu olur (cookie'ye yazmak için), persist edilmez
+    @Transient
     private String token;
 
     @Column(nullable = false)
@@ -0,0 +1,34 @@
+package com.workflow.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Zamanlanmış işin replikalar arası kilidi (iş başına tek satır).
+ */
+@Entity
+@Table(name = "scheduled_job_locks")
+@Getter
+@Setter
+public class ScheduledJobLock {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "locked_at", nullable = false)
+    private LocalDateTime lockedAt;
+
+    @Column(name = "locked_by", nullable = false)
+    private String lockedBy;
+
+    // İşin kaldığı yer (V42); kilidi hangi node alırsa oradan devam eder
+    @Column(name = "job_cursor", nullable = false)
+    private long jobCursor;
+}
@@ -1,14 +1,20 @@
 package com.workflow.backend.entity;
 
+import com.workflow.backend.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.List;
 
+// Hemen her istekte id/username ile yüklenir; güncellemeler anında görünmeli (READ_WRITE)
 @Entity // 1. Bu bir veritabanı tablosudur
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USER_REGION)
 @Table(name = "users") // 2. SQL'de tablonun adı 'users' olsun
 @Getter
 @Setter
@@ -1,10 +1,16 @@
 package com.workflow.backend.entity;
 
+import com.workflow.backend.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+// Profil görüntülemede kontrol edilir, eski veri görünmemeli (READ_WRITE)
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.PRIVACY_SETTINGS_REGION)
 @Table(name = "user_privacy_settings")
 @Getter
 @Setter
@@ -1,15 +1,21 @@
 package com.workflow.backend.entity;
 
+import com.workflow.backend.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Profil resmini ayri bir tabloda saklar.
  * Dosya sisteminde saklanan profil resminin yolunu tutar.
  */
+// Sadece dosya yolunu tutar, nadiren değişir (NONSTRICT_READ_WRITE)
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = HibernateCacheConfig.PROFILE_PICTURE_REGION)
 @Table(name = "user_profile_pictures")
 @Getter
 @Setter
@@ -30,6 +36,11 @@ public class UserProfilePicture {
     @Column(name = "file_path", length = 500, nullable = false)
     private String filePath;
 
+    // İçerik adresli blob'un SHA-256 değeri (blob'un referans sayısı bu kolon üzerinden sayılır).
+    // Eski düz dosyalar ve harici URL'ler için null
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     public UserProfilePicture(User user, String filePath) {
         this.user = user;
         this.filePath = filePath;
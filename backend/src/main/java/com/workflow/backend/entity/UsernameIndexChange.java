@@ -0,0 +1,32 @@
+package com.workflow.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Node'lar arası kullanıcı adı indeksi değişiklik kaydı.
+ */
+@Entity
+@Table(name = "username_index_changes", indexes = {
+        @Index(name = "idx_username_index_changes_created_at", columnList = "created_at")
+})
+@Getter
+@Setter
+public class UsernameIndexChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "node_id", nullable = false, length = 36)
+    private String nodeId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
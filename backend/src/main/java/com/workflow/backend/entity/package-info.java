@@ -0,0 +1,17 @@
+/**
+ * JPA entity'leri.
+ *
+ * Aşağıdaki tablolar repository üzerinden kullanılmaz; okuma/yazma sahibi olan serviste JDBC ile yapılır.
+ * Bu entity'ler yalnızca şemayı tanımlar, testlerdeki H2 şeması entity'lerden kurulur.
+ * <ul>
+ *     <li>{@link com.workflow.backend.entity.NotificationOutboxEntry}: NotificationOutbox</li>
+ *     <li>{@link com.workflow.backend.entity.UserCacheChange}, {@link com.workflow.backend.entity.BoardMemberCacheChange},
+ *         {@link com.workflow.backend.entity.UserProfileCacheChange}: HibernateCacheRelay</li>
+ *     <li>{@link com.workflow.backend.entity.NotificationStreamChange}: NotificationStreamRelay</li>
+ *     <li>{@link com.workflow.backend.entity.SocialGraphChange}: SocialGraphIndex</li>
+ *     <li>{@link com.workflow.backend.entity.UsernameIndexChange}: UsernameIndex</li>
+ *     <li>{@link com.workflow.backend.entity.EmailOutboxEntry}: EmailOutbox</li>
+ *     <li>{@link com.workflow.backend.entity.ScheduledJobLock}, {@link com.workflow.backend.entity.ScheduledJobRun}: ScheduledJobRunner</li>
+ * </ul>
+ */
+package com.workflow.backend.entity;
@@ -9,6 +9,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -221,6 +222,24 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    /**
+     * Boyut sınırını aşan yüklemeleri yakala (413 Payload Too Large).
+     * MaxUploadSizeExceededException: multipart sınırı container tarafından okuma sırasında aşıldı.
+     */
+    @ExceptionHandler({PayloadTooLargeException.class, MaxUploadSizeExceededException.class})
+    public ResponseEntity<ErrorResponse> handlePayloadTooLargeException(RuntimeException ex) {
+        logger.warn("Yükleme boyut sınırını aştı: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.CONTENT_TOO_LARGE.value(),
+                "İçerik Çok Büyük",
+                ex instanceof PayloadTooLargeException ? ex.getMessage() : "Dosya boyutu sınırı aşıldı",
+                null
+        );
+
+        return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).body(errorResponse);
+    }
+
     /**
      * Optimistic lock çakışmalarını yakala (409 Conflict)
      */
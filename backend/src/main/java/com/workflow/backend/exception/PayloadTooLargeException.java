@@ -0,0 +1,11 @@
+package com.workflow.backend.exception;
+
+/**
+ * Yüklenen içerik izin verilen boyutu aştığında fırlatılır (HTTP 413).
+ */
+public class PayloadTooLargeException extends RuntimeException {
+
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.workflow.backend.hateoas;
+
+import com.workflow.backend.dto.PaginatedResponse;
+import org.springframework.hateoas.PagedModel;
+
+import java.util.List;
+
+/**
+ * Keyset (imleç) sayfalama sonuçlarını PagedModel'e çevirir.
+ * Toplam sayı istenmediyse sayfa metadata'sı eklenmez; sonraki sayfa "next" linkindeki imleçle istenir.
+ */
+public final class CursorPages {
+
+    private CursorPages() {}
+
+    public static <T> PagedModel<T> toPagedModel(List<T> models, PaginatedResponse<?> result) {
+        // Keyset modunda sayfa numarası yoktur, metadata'da 0 döner
+        PagedModel.PageMetadata metadata = result.totalElements() == null ? null
+                : new PagedModel.PageMetadata(result.size(), 0, result.totalElements(), result.totalPages());
+        return PagedModel.of(models, metadata);
+    }
+}
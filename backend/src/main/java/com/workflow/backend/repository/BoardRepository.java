@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -89,4 +90,29 @@ public interface BoardRepository extends JpaRepository<Board, Long> {
                                       @Param("category") String category,
                                       @Param("boardType") com.workflow.backend.entity.BoardType boardType,
                                       Pageable pageable);
+
+    // Filtered + Keyset: (createdAt, id) imlecinden eski panolar, COUNT sorgusu yok
+    @EntityGraph(attributePaths = {"user"})
+    @Query("SELECT b FROM Board b WHERE b.user.id = :userId " +
+           "AND (:status IS NULL OR b.status = :status) " +
+           "AND (:category IS NULL OR b.category = :category) " +
+           "AND (:boardType IS NULL OR b.boardType = :boardType) " +
+           "AND b.createdAt <= :createdAt AND (b.createdAt < :createdAt OR b.id < :id) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<Board> findByUserIdFilteredBefore(@Param("userId") Long userId,
+                                           @Param("status") String status,
+                                           @Param("category") String category,
+                                           @Param("boardType") com.workflow.backend.entity.BoardType boardType,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+
+    @Query("SELECT COUNT(b) FROM Board b WHERE b.user.id = :userId " +
+           "AND (:status IS NULL OR b.status = :status) " +
+           "AND (:category IS NULL OR b.category = :category) " +
+           "AND (:boardType IS NULL OR b.boardType = :boardType)")
+    long countByUserIdFiltered(@Param("userId") Long userId,
+                               @Param("status") String status,
+                               @Param("category") String category,
+                               @Param("boardType") com.workflow.backend.entity.BoardType boardType);
 }
\ No newline at end of file
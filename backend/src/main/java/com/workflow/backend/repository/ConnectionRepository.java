@@ -12,6 +12,7 @@ import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,38 +28,77 @@ public interface ConnectionRepository extends JpaRepository<Connection, Long> {
             "(c.sender.id = :userId2 AND c.receiver.id = :userId1)) AND c.status = :status")
     boolean existsBetweenUsersWithStatus(@Param("userId1") Long userId1, @Param("userId2") Long userId2, @Param("status") ConnectionStatus status);
 
-    @Query("SELECT COUNT(c) FROM Connection c WHERE " +
-            "(c.sender.id = :userId OR c.receiver.id = :userId) AND c.status = 'ACCEPTED'")
-    long countAcceptedByUserId(@Param("userId") Long userId);
-
     @Query("SELECT c FROM Connection c JOIN FETCH c.sender JOIN FETCH c.receiver WHERE c.receiver.id = :receiverId AND c.status = :status ORDER BY c.createdAt DESC")
     List<Connection> findByReceiverIdAndStatus(@Param("receiverId") Long receiverId, @Param("status") ConnectionStatus status);
 
     @Query("SELECT c FROM Connection c JOIN FETCH c.sender JOIN FETCH c.receiver WHERE c.sender.id = :senderId AND c.status = :status ORDER BY c.createdAt DESC")
     List<Connection> findBySenderIdAndStatus(@Param("senderId") Long senderId, @Param("status") ConnectionStatus status);
 
-    @Query(value = "SELECT c FROM Connection c JOIN FETCH c.sender JOIN FETCH c.receiver WHERE c.receiver.id = :receiverId AND c.status = :status ORDER BY c.createdAt DESC",
+    @Query(value = "SELECT c FROM Connection c JOIN FETCH c.sender JOIN FETCH c.receiver WHERE c.receiver.id = :receiverId AND c.status = :status ORDER BY c.createdAt DESC, c.id DESC",
             countQuery = "SELECT COUNT(c) FROM Connection c WHERE c.receiver.id = :receiverId AND c.status = :status")
     Page<Connection> findByReceiverIdAndStatus(@Param("receiverId") Long receiverId, @Param("status") ConnectionStatus status, Pageable pageable);
 
-    @Query(value = "SELECT c FROM Connection c JOIN FETCH c.sender JOIN FETCH c.receiver WHERE c.sender.id = :senderId AND c.status = :status ORDER BY c.createdAt DESC",
+    @Query("SELECT c FROM Connection c JOIN FETCH c.sender JOIN FETCH c.receiver WHERE c.receiver.id = :receiverId AND c.status = :status " +
+            "AND c.createdAt <= :createdAt AND (c.createdAt < :createdAt OR c.id < :id) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Connection> findByReceiverIdAndStatusBefore(@Param("receiverId") Long receiverId, @Param("status") ConnectionStatus status,
+                                                 @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                 Pageable pageable);
+
+    long countByReceiverIdAndStatus(Long receiverId, ConnectionStatus status);
+
+    @Query(value = "SELECT c FROM Connection c JOIN FETCH c.sender JOIN FETCH c.receiver WHERE c.sender.id = :senderId AND c.status = :status ORDER BY c.createdAt DESC, c.id DESC",
             countQuery = "SELECT COUNT(c) FROM Connection c WHERE c.sender.id = :senderId AND c.status = :status")
     Page<Connection> findBySenderIdAndStatus(@Param("senderId") Long senderId, @Param("status") ConnectionStatus status, Pageable pageable);
 
+    @Query("SELECT c FROM Connection c JOIN FETCH c.sender JOIN FETCH c.receiver WHERE c.sender.id = :senderId AND c.status = :status " +
+            "AND c.createdAt <= :createdAt AND (c.createdAt < :createdAt OR c.id < :id) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Connection> findBySenderIdAndStatusBefore(@Param("senderId") Long senderId, @Param("status") ConnectionStatus status,
+                                                 @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                 Pageable pageable);
+
+    long countBySenderIdAndStatus(Long senderId, ConnectionStatus status);
+
     @Query("SELECT c FROM Connection c JOIN FETCH c.sender JOIN FETCH c.receiver WHERE (c.sender.id = :userId OR c.receiver.id = :userId) AND c.status = 'ACCEPTED' ORDER BY c.updatedAt DESC")
     List<Connection> findAcceptedByUserId(@Param("userId") Long userId);
 
-    @Query(value = "SELECT c FROM Connection c JOIN FETCH c.sender JOIN FETCH c.receiver WHERE (c.sender.id = :userId OR c.receiver.id = :userId) AND c.status = 'ACCEPTED' ORDER BY c.updatedAt DESC",
+    @Query(value = "SELECT c FROM Connection c JOIN FETCH c.sender JOIN FETCH c.receiver WHERE (c.sender.id = :userId OR c.receiver.id = :userId) AND c.status = 'ACCEPTED' ORDER BY c.updatedAt DESC, c.id DESC",
             countQuery = "SELECT COUNT(c) FROM Connection c WHERE (c.sender.id = :userId OR c.receiver.id = :userId) AND c.status = 'ACCEPTED'")
     Page<Connection> findAcceptedByUserIdPaged(@Param("userId") Long userId, Pageable pageable);
 
-    @Query("SELECT CASE WHEN c.sender.id = :userId THEN c.receiver.id ELSE c.sender.id END " +
-            "FROM Connection c WHERE c.status = 'ACCEPTED' AND " +
-            "((c.sender.id = :userId AND c.receiver.id IN :targetUserIds) OR " +
-            "(c.receiver.id = :userId AND c.sender.id IN :targetUserIds))")
-    List<Long> findConnectedUserIds(@Param("userId") Long userId, @Param("targetUserIds") List<Long> targetUserIds);
-
+    // Kullanıcı iki taraftan biri olabilir: OR tek indeks üzerinden sıralı okunamaz, bu yüzden her taraf
+    // kendi (x_id, status, updated_at DESC, id DESC) indeksinde sınırlı bir seek ile okunur ve
+    // ConnectionService sonuçları birleştirir
+    @Query("SELECT c FROM Connection c JOIN FETCH c.sender JOIN FETCH c.receiver WHERE c.sender.id = :userId AND c.status = 'ACCEPTED' " +
+            "AND c.updatedAt <= :updatedAt AND (c.updatedAt < :updatedAt OR c.id < :id) " +
+            "ORDER BY c.updatedAt DESC, c.id DESC")
+    List<Connection> findAcceptedBySenderIdBefore(@Param("userId") Long userId,
+                                                  @Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id,
+                                                  Pageable pageable);
+
+    @Query("SELECT c FROM Connection c JOIN FETCH c.sender JOIN FETCH c.receiver WHERE c.receiver.id = :userId AND c.status = 'ACCEPTED' " +
+            "AND c.updatedAt <= :updatedAt AND (c.updatedAt < :updatedAt OR c.id < :id) " +
+            "ORDER BY c.updatedAt DESC, c.id DESC")
+    List<Connection> findAcceptedByReceiverIdBefore(@Param("userId") Long userId,
+                                                    @Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id,
+                                                    Pageable pageable);
+
+    // SocialGraphIndex yüklemesi: kullanıcının tüm kenarları (id, sender_id, receiver_id, status), entity yüklenmez
+    @Query("SELECT c.id, c.sender.id, c.receiver.id, c.status FROM Connection c " +
+            "WHERE c.sender.id = :userId OR c.receiver.id = :userId")
+    List<Object[]> findEdgesByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT c.id FROM Connection c WHERE c.id IN :ids AND c.status = 'PENDING'")
+    List<Long> findPendingIds(@Param("ids") Collection<Long> ids);
+
+    // Süresi dolan istek temizliği: parça başına (id, sender_id, receiver_id), V38'deki kısmi index üzerinden
+    @Query("SELECT c.id, c.sender.id, c.receiver.id FROM Connection c " +
+            "WHERE c.status = 'PENDING' AND c.createdAt < :expireDate")
+    List<Object[]> findExpiredPendingEdges(@Param("expireDate") LocalDateTime expireDate, Pageable pageable);
+
+    // Okuma ile silme arasında kabul edilen istekler silinmez (durum DELETE anında tekrar kontrol edilir)
     @Modifying
-    @Query("DELETE FROM Connection c WHERE c.status = 'PENDING' AND c.createdAt < :expireDate")
-    int deleteExpiredPendingConnections(@Param("expireDate") LocalDateTime expireDate);
+    @Query("DELETE FROM Connection c WHERE c.id IN :ids AND c.status = 'PENDING'")
+    int deletePendingByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -10,6 +10,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
@@ -17,13 +19,33 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Query("SELECT n FROM Notification n JOIN FETCH n.actor WHERE n.recipient.id = :recipientId ORDER BY n.createdAt DESC")
     List<Notification> findByRecipientIdOrderByCreatedAtDesc(@Param("recipientId") Long recipientId);
 
-    @Query(value = "SELECT n FROM Notification n JOIN FETCH n.actor WHERE n.recipient.id = :recipientId ORDER BY n.createdAt DESC",
+    @Query(value = "SELECT n FROM Notification n JOIN FETCH n.actor WHERE n.recipient.id = :recipientId ORDER BY n.createdAt DESC, n.id DESC",
             countQuery = "SELECT COUNT(n) FROM Notification n WHERE n.recipient.id = :recipientId")
     Page<Notification> findByRecipientIdPaged(@Param("recipientId") Long recipientId, Pageable pageable);
 
+    // Keyset: (createdAt, id) imlecinden eski bildirimler, COUNT sorgusu yok.
+    // createdAt <= :createdAt koşulu (recipient_id, created_at DESC, id DESC) indeksinde aralık taramasını sağlar.
+    @Query("SELECT n FROM Notification n JOIN FETCH n.actor WHERE n.recipient.id = :recipientId " +
+            "AND n.createdAt <= :createdAt AND (n.createdAt < :createdAt OR n.id < :id) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findByRecipientIdBefore(@Param("recipientId") Long recipientId,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
+
+    long countByRecipientId(Long recipientId);
+
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.recipient.id = :recipientId AND n.isRead = false")
     long countUnreadByRecipientId(@Param("recipientId") Long recipientId);
 
+    // Sayaç mutabakatı için: verilen kullanıcıların okunmamış sayıları tek sorguda [recipientId, count]
+    @Query("SELECT n.recipient.id, COUNT(n) FROM Notification n WHERE n.recipient.id IN :recipientIds AND n.isRead = false GROUP BY n.recipient.id")
+    List<Object[]> countUnreadGroupedByRecipientIds(@Param("recipientIds") Collection<Long> recipientIds);
+
+    // deleteByReferenceIdAndType öncesi: silinecek okunmamış bildirimlerin alıcıları (sayaç düşürmek için)
+    @Query("SELECT n.recipient.id FROM Notification n WHERE n.referenceId = :referenceId AND n.type = :type AND n.isRead = false")
+    List<Long> findUnreadRecipientIdsByReference(@Param("referenceId") Long referenceId, @Param("type") NotificationType type);
+
     @Modifying
     @Query("UPDATE Notification n SET n.isRead = true WHERE n.recipient.id = :recipientId AND n.isRead = false")
     void markAllAsReadByRecipientId(@Param("recipientId") Long recipientId);
@@ -32,10 +54,9 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Query("DELETE FROM Notification n WHERE n.referenceId = :referenceId AND n.type = :type")
     void deleteByReferenceIdAndType(@Param("referenceId") Long referenceId, @Param("type") NotificationType type);
 
-    @Modifying
-    @Query("DELETE FROM Notification n WHERE n.type = 'CONNECTION_REQUEST' " +
-            "AND n.referenceId IS NOT NULL " +
-            "AND NOT EXISTS (SELECT 1 FROM Connection c WHERE c.id = n.referenceId AND c.status = 'PENDING')")
-    void deleteStaleConnectionRequestNotifications();
+    // Eski baglanti istegi temizligi icin id sirasiyla bir parca: [id, referenceId, recipientId, isRead]
+    @Query("SELECT n.id, n.referenceId, n.recipient.id, n.isRead FROM Notification n " +
+            "WHERE n.type = 'CONNECTION_REQUEST' AND n.referenceId IS NOT NULL AND n.id > :afterId ORDER BY n.id")
+    List<Object[]> findConnectionRequestsAfter(@Param("afterId") Long afterId, Pageable pageable);
 
 }
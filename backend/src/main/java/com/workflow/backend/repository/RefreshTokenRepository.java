@@ -2,30 +2,52 @@ package com.workflow.backend.repository;
 
 import com.workflow.backend.entity.RefreshToken;
 import com.workflow.backend.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.util.List;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
-    Optional<RefreshToken> findByToken(String token);
+    // Token hash'i ile arama, kullanıcı tek sorguda yüklenir (/auth/refresh için)
+    @Query("SELECT r FROM RefreshToken r JOIN FETCH r.user WHERE r.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHashWithUser(@Param("tokenHash") String tokenHash);
 
-    Optional<RefreshToken> findByUser(User user);
-
-    long countByUser(User user);
-
-    List<RefreshToken> findByUserOrderByExpiryDateAsc(User user);
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
 
     @Modifying
     @Query("DELETE FROM RefreshToken r WHERE r.user = :user")
     void deleteByUser(@Param("user") User user);
 
+    /**
+     * Kullanıcının en yeni {@code keep} adet token'ı dışındakileri tek sorguda siler.
+     * (user_id, expiry_date, id) index'i üzerinden çalışır, kullanıcı başına token sayısıyla sınırlıdır.
+     */
+    // Native DML sadece refresh_tokens'ı etkiler; belirtilmezse Hibernate tüm second-level cache'i temizler
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "refresh_tokens"))
+    @Query(value = "DELETE FROM refresh_tokens WHERE user_id = :userId AND id NOT IN ("
+            + "SELECT id FROM refresh_tokens WHERE user_id = :userId "
+            + "ORDER BY expiry_date DESC, id DESC LIMIT :keep)", nativeQuery = true)
+    int trimTokensForUser(@Param("userId") Long userId, @Param("keep") int keep);
+
+    /**
+     * Süresi dolmuş token'lardan en fazla {@code batchSize} adedini siler.
+     * Her çağrı kendi transaction'ında çalışır, böylece büyük temizlikler uzun süreli kilit tutmaz.
+     */
+    @Transactional
     @Modifying
-    @Query("DELETE FROM RefreshToken r WHERE r.expiryDate < :now")
-    void deleteExpiredTokens(@Param("now") Instant now);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "refresh_tokens"))
+    @Query(value = "DELETE FROM refresh_tokens WHERE id IN ("
+            + "SELECT id FROM refresh_tokens WHERE expiry_date < :now LIMIT :batchSize)", nativeQuery = true)
+    int deleteExpiredTokensBatch(@Param("now") Instant now, @Param("batchSize") int batchSize);
 }
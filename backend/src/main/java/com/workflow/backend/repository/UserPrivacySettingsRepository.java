@@ -1,10 +1,14 @@
 package com.workflow.backend.repository;
 
 import com.workflow.backend.entity.UserPrivacySettings;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface UserPrivacySettingsRepository extends JpaRepository<UserPrivacySettings, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<UserPrivacySettings> findByUserId(Long userId);
 }
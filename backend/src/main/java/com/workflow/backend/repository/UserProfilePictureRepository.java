@@ -1,8 +1,11 @@
 package com.workflow.backend.repository;
 
 import com.workflow.backend.entity.UserProfilePicture;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.Collection;
@@ -11,13 +14,19 @@ import java.util.Optional;
 
 public interface UserProfilePictureRepository extends JpaRepository<UserProfilePicture, Long> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<UserProfilePicture> findByUserId(Long userId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT p.filePath FROM UserProfilePicture p WHERE p.user.id = :userId")
     Optional<String> findFilePathByUserId(@Param("userId") Long userId);
 
     @Query("SELECT p.user.id, p.filePath FROM UserProfilePicture p WHERE p.user.id IN :userIds")
     List<Object[]> findFilePathsByUserIds(@Param("userIds") Collection<Long> userIds);
 
+    // Verilen blob'lardan hâlâ en az bir kullanıcının referans verdikleri (GC)
+    @Query("SELECT DISTINCT p.contentHash FROM UserProfilePicture p WHERE p.contentHash IN :hashes")
+    List<String> findReferencedContentHashes(@Param("hashes") Collection<String> hashes);
+
     void deleteByUserId(Long userId);
 }
@@ -0,0 +1,117 @@
+package com.workflow.backend.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Kullanıcı adı araması (user picker).
+ *
+ * PostgreSQL'de pg_trgm GIN indeksi (V34) üzerinden içeren (LIKE '%q%') ve benzer (% operatörü)
+ * kullanıcı adlarını bulur; sonuçlar tam eşleşme, önek, similarity() ve alfabetik sırayla döner.
+ * H2'de (testler) similarity olmadığından aynı filtre ve sıralama uzunluk ile yaklaşıklanır.
+ * Entity yüklenmez, sadece id ve username okunur.
+ * Sadece bağlantılar istendiğinde filtre LIMIT'ten önce SQL içinde uygulanır (kabul edilmiş bağlantı, iki yön).
+ */
+@Repository
+public class UserSearchRepository {
+
+    private static final String CONNECTED_FILTER =
+            "AND (NOT :connectedOnly OR EXISTS (SELECT 1 FROM connections c WHERE c.status = 'ACCEPTED' " +
+            "AND ((c.sender_id = :currentUserId AND c.receiver_id = u.id) " +
+            "OR (c.receiver_id = :currentUserId AND c.sender_id = u.id)))) ";
+
+    // Sıra: tam eşleşme, önek (alfabetik; UsernameIndex ile aynı), sonra içeren/benzer (benzerlik sırasıyla)
+    private static final String POSTGRES_SQL =
+            "SELECT u.id, u.username FROM users u " +
+            "WHERE u.id <> :currentUserId " +
+            "AND (LOWER(u.username) LIKE :contains ESCAPE '\\' OR LOWER(u.username) % :query) " +
+            "AND (:includePrefix OR LOWER(u.username) NOT LIKE :prefix ESCAPE '\\') " +
+            CONNECTED_FILTER +
+            "ORDER BY CASE WHEN LOWER(u.username) = :query THEN 0 " +
+            "WHEN LOWER(u.username) LIKE :prefix ESCAPE '\\' THEN 1 ELSE 2 END, " +
+            "CASE WHEN LOWER(u.username) LIKE :prefix ESCAPE '\\' THEN 0 " +
+            "ELSE 1 - similarity(LOWER(u.username), :query) END, LOWER(u.username) ASC " +
+            "LIMIT :limit";
+
+    private static final String FALLBACK_SQL =
+            "SELECT u.id, u.username FROM users u " +
+            "WHERE u.id <> :currentUserId " +
+            "AND LOWER(u.username) LIKE :contains ESCAPE '\\' " +
+            "AND (:includePrefix OR LOWER(u.username) NOT LIKE :prefix ESCAPE '\\') " +
+            CONNECTED_FILTER +
+            "ORDER BY CASE WHEN LOWER(u.username) = :query THEN 0 " +
+            "WHEN LOWER(u.username) LIKE :prefix ESCAPE '\\' THEN 1 ELSE 2 END, " +
+            "CASE WHEN LOWER(u.username) LIKE :prefix ESCAPE '\\' THEN 0 ELSE LENGTH(u.username) END, " +
+            "LOWER(u.username) ASC " +
+            "LIMIT :limit";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private volatile String searchSql;
+
+    public UserSearchRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Sorguya uyan kullanıcılar (arayan hariç), en iyi eşleşme önce.
+     */
+    public List<Hit> search(String query, Long currentUserId, int limit) {
+        return search(query, currentUserId, limit, false);
+    }
+
+    /**
+     * connectedOnly: sadece arayanla kabul edilmiş bağlantısı olan kullanıcılar.
+     */
+    public List<Hit> search(String query, Long currentUserId, int limit, boolean connectedOnly) {
+        return query(query, currentUserId, limit, true, connectedOnly);
+    }
+
+    /**
+     * Sadece önek olmayan (içeren/benzer) eşleşmeler. Önek eşleşmeleri UsernameIndex'ten gelir;
+     * bu sorgu indeks sonucu limiti doldurmadığında kalan kısmı tamamlar.
+     */
+    public List<Hit> searchNonPrefix(String query, Long currentUserId, int limit, boolean connectedOnly) {
+        return query(query, currentUserId, limit, false, connectedOnly);
+    }
+
+    private List<Hit> query(String query, Long currentUserId, int limit, boolean includePrefix, boolean connectedOnly) {
+        String normalized = query.toLowerCase(Locale.ROOT);
+        String escaped = escapeLike(normalized);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("currentUserId", currentUserId)
+                .addValue("query", normalized)
+                .addValue("contains", "%" + escaped + "%")
+                .addValue("prefix", escaped + "%")
+                .addValue("includePrefix", includePrefix)
+                .addValue("connectedOnly", connectedOnly)
+                .addValue("limit", limit);
+        return namedJdbcTemplate.query(searchSql(), params,
+                (rs, rowNum) -> new Hit(rs.getLong("id"), rs.getString("username")));
+    }
+
+    private String searchSql() {
+        if (searchSql == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            searchSql = "PostgreSQL".equalsIgnoreCase(product) ? POSTGRES_SQL : FALLBACK_SQL;
+        }
+        return searchSql;
+    }
+
+    // Kullanıcı girdisindeki LIKE jokerleri literal olarak aranır
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    public record Hit(Long id, String username) {
+    }
+}
@@ -0,0 +1,330 @@
+package com.workflow.backend.scheduling;
+
+import com.workflow.backend.config.ScheduledJobProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongSupplier;
+
+/**
+ * Bakım işlerini (süresi dolan token/bağlantı temizliği, hesap silme vb.) replikalar arasında
+ * tek bir node'da çalıştırır.
+ *
+ * - Kilit: scheduled_job_locks tablosunda iş başına bir satır (V38). Satır locked_until geçmişse
+ *   koşullu UPDATE ile sahiplenilir; kilidi tutan node ölürse en geç lockAtMostFor sonra düşer.
+ *   Bağlantı iş boyunca tutulmaz (advisory lock'tan farkı) ve H2 üzerinde de çalışır.
+ *   lockAtLeastFor, zamanlayıcısı birkaç saniye kaymış diğer node'ların aynı turu tekrar
+ *   çalıştırmasını engeller. Kilit zamanları node saatinden değil veritabanı saatinden alınır;
+ *   saatleri kaymış node'lar birbirinin kilidini erken düşürmez.
+ * - Havuz: @Scheduled metodu işi sadece bu sınıfın havuzuna bırakır (scheduled-jobs.threads);
+ *   aynı iş bu node'da hâlâ çalışıyorsa yeni tur atlanır.
+ * - Geçmiş ve metrikler: her çalışma scheduled_job_runs'a yazılır; süre, silinen satır ve atlanan
+ *   tur sayısı iş bazında Micrometer'a raporlanır.
+ */
+@Slf4j
+@Service
+public class ScheduledJobRunner {
+
+    static final String STATUS_RUNNING = "RUNNING";
+    static final String STATUS_SUCCEEDED = "SUCCEEDED";
+    static final String STATUS_FAILED = "FAILED";
+
+    private static final String HISTORY_PRUNE_JOB = "scheduled-job-history-prune";
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private static final String CLAIM_SQL = "UPDATE scheduled_job_locks SET locked_until = ?, locked_at = ?, locked_by = ? "
+            + "WHERE job_name = ? AND locked_until <= ?";
+    private static final String INSERT_LOCK_SQL = "INSERT INTO scheduled_job_locks "
+            + "(job_name, locked_until, locked_at, locked_by, job_cursor) VALUES (?, ?, ?, ?, 0)";
+    // Sadece kendi kilidimizi bırakırız; süresi dolup başka node'a geçmişse dokunulmaz
+    private static final String RELEASE_SQL = "UPDATE scheduled_job_locks SET locked_until = ? "
+            + "WHERE job_name = ? AND locked_by = ? AND locked_at = ?";
+    private static final String NOW_SQL = "SELECT CURRENT_TIMESTAMP";
+    private static final String SELECT_CURSOR_SQL = "SELECT job_cursor FROM scheduled_job_locks WHERE job_name = ?";
+    private static final String UPDATE_CURSOR_SQL = "UPDATE scheduled_job_locks SET job_cursor = ? WHERE job_name = ?";
+    private static final String INSERT_RUN_SQL = "INSERT INTO scheduled_job_runs "
+            + "(job_name, node_id, status, rows_affected, started_at) VALUES (?, ?, ?, 0, ?)";
+    private static final String FINISH_RUN_SQL = "UPDATE scheduled_job_runs "
+            + "SET status = ?, rows_affected = ?, finished_at = ?, error = ? WHERE id = ?";
+    private static final String PRUNE_HISTORY_SQL = "DELETE FROM scheduled_job_runs WHERE id IN ("
+            + "SELECT id FROM scheduled_job_runs WHERE started_at < ? LIMIT ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ScheduledJobProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId;
+
+    // Bu node'da çalışan ya da kuyrukta bekleyen işler
+    private final Set<String> activeJobs = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicLong> lastSuccess = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @Autowired
+    public ScheduledJobRunner(DataSource dataSource, ScheduledJobProperties properties, MeterRegistry meterRegistry) {
+        this(dataSource, properties, meterRegistry, hostName() + "/" + UUID.randomUUID().toString().substring(0, 8));
+    }
+
+    ScheduledJobRunner(DataSource dataSource, ScheduledJobProperties properties, MeterRegistry meterRegistry,
+                       String nodeId) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.nodeId = nodeId;
+    }
+
+    @PostConstruct
+    void startExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "scheduled-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * İşi varsayılan kilit süresiyle havuza bırakır. Bkz. {@link #submit(String, Duration, Duration, LongSupplier)}.
+     */
+    public void submit(String jobName, LongSupplier job) {
+        submit(jobName, properties.getDefaultLockAtMostFor(), Duration.ZERO, job);
+    }
+
+    /**
+     * İşi havuza bırakır ve hemen döner. Aynı iş bu node'da hâlâ çalışıyorsa veya başka bir node
+     * kilidi tutuyorsa tur atlanır. {@code job} etkilediği satır sayısını döner.
+     */
+    public void submit(String jobName, Duration lockAtMostFor, Duration lockAtLeastFor, LongSupplier job) {
+        if (!activeJobs.add(jobName)) {
+            skipped(jobName, "running");
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    runLocked(jobName, lockAtMostFor, lockAtLeastFor, job);
+                } finally {
+                    activeJobs.remove(jobName);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            activeJobs.remove(jobName);
+            skipped(jobName, "rejected");
+        }
+    }
+
+    /**
+     * İşi çağıran thread'de, kilidi alabilirse çalıştırır. Kilit başka node'daysa false döner.
+     * İşin hatası yutulur ve geçmişe FAILED olarak yazılır; kilit her durumda bırakılır.
+     */
+    public boolean runLocked(String jobName, Duration lockAtMostFor, Duration lockAtLeastFor, LongSupplier job) {
+        LocalDateTime lockedAt = dbNow();
+        if (!tryLock(jobName, lockedAt, lockAtMostFor)) {
+            skipped(jobName, "locked");
+            return false;
+        }
+
+        String status = STATUS_SUCCEEDED;
+        String error = null;
+        long rows = 0;
+        long start = System.nanoTime();
+        Long runId = null;
+        try {
+            runId = insertRun(jobName, lockedAt);
+            rows = job.getAsLong();
+        } catch (RuntimeException e) {
+            status = STATUS_FAILED;
+            error = truncate(e.toString());
+            log.error("Zamanlanmis is basarisiz: {}", jobName, e);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            try {
+                if (runId != null) {
+                    jdbcTemplate.update(FINISH_RUN_SQL, status, rows, Timestamp.valueOf(dbNow()), error, runId);
+                }
+            } finally {
+                release(jobName, lockedAt, lockAtLeastFor);
+            }
+            record(jobName, status, rows, elapsed);
+        }
+        return true;
+    }
+
+    /**
+     * Büyük silmeleri, her biri kısa bir transaction olan parçalara böler. {@code deleteChunk}
+     * en fazla verilen sayıda satır silip silinen sayıyı döner; parça dolu gelmediğinde veya
+     * çalışma başına parça sınırına ulaşıldığında durulur (kalan bir sonraki çalışmada silinir).
+     */
+    public long deleteInChunks(IntUnaryOperator deleteChunk) {
+        int batchSize = properties.getDeleteBatchSize();
+        long total = 0;
+        for (int i = 0; i < properties.getMaxChunksPerRun(); i++) {
+            int deleted = deleteChunk.applyAsInt(batchSize);
+            total += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * İşin kaldığı yer (ör. son işlenen id; hiç kaydedilmediyse 0). Kilit satırında saklanır, böylece
+     * kilidi sonraki turda hangi node alırsa alsın aynı yerden devam eder.
+     */
+    public long getCursor(String jobName) {
+        return jdbcTemplate.query(SELECT_CURSOR_SQL, rs -> rs.next() ? rs.getLong(1) : 0L, jobName);
+    }
+
+    /**
+     * İşin kaldığı yeri kaydeder. Kilidi tutan iş içinden çağrılmalıdır.
+     */
+    public void saveCursor(String jobName, long cursor) {
+        jdbcTemplate.update(UPDATE_CURSOR_SQL, cursor, jobName);
+    }
+
+    // Eski çalışma kayıtlarını sil (her gece 04:30)
+    @Scheduled(cron = "${scheduled-jobs.history-prune-cron:0 30 4 * * *}")
+    public void pruneHistory() {
+        submit(HISTORY_PRUNE_JOB, Duration.ofMinutes(30), Duration.ofMinutes(10), () -> {
+            Timestamp cutoff = Timestamp.valueOf(dbNow().minusDays(properties.getHistoryRetentionDays()));
+            return deleteInChunks(batchSize -> jdbcTemplate.update(PRUNE_HISTORY_SQL, cutoff, batchSize));
+        });
+    }
+
+    String getNodeId() {
+        return nodeId;
+    }
+
+    private boolean tryLock(String jobName, LocalDateTime lockedAt, Duration lockAtMostFor) {
+        Timestamp at = Timestamp.valueOf(lockedAt);
+        Timestamp until = Timestamp.valueOf(lockedAt.plus(lockAtMostFor));
+        if (jdbcTemplate.update(CLAIM_SQL, until, at, nodeId, jobName, at) == 1) {
+            return true;
+        }
+        try {
+            // İş ilk kez çalışıyor: satırı ekleyen node kilidi alır, diğerleri unique ihlali alır
+            return jdbcTemplate.update(INSERT_LOCK_SQL, jobName, until, at, nodeId) == 1;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private void release(String jobName, LocalDateTime lockedAt, Duration lockAtLeastFor) {
+        LocalDateTime releasedAt = dbNow();
+        LocalDateTime earliest = lockedAt.plus(lockAtLeastFor);
+        LocalDateTime until = releasedAt.isAfter(earliest) ? releasedAt : earliest;
+        try {
+            jdbcTemplate.update(RELEASE_SQL, Timestamp.valueOf(until), jobName, nodeId, Timestamp.valueOf(lockedAt));
+        } catch (RuntimeException e) {
+            // Kilit en geç lockAtMostFor sonunda kendiliğinden düşer
+            log.warn("Zamanlanmis is kilidi birakilamadi: {}", jobName, e);
+        }
+    }
+
+    private Long insertRun(String jobName, LocalDateTime startedAt) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_RUN_SQL, new String[]{"id"});
+            ps.setString(1, jobName);
+            ps.setString(2, nodeId);
+            ps.setString(3, STATUS_RUNNING);
+            ps.setTimestamp(4, Timestamp.valueOf(startedAt));
+            return ps;
+        }, keyHolder);
+        Number key = keyHolder.getKey();
+        return key != null ? key.longValue() : null;
+    }
+
+    private void record(String jobName, String status, long rows, long elapsedNanos) {
+        Timer.builder("scheduled.job.duration")
+                .tag("job", jobName)
+                .tag("status", status)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (rows > 0) {
+            Counter.builder("scheduled.job.rows")
+                    .description("Islerin sildigi/guncelledigi satir sayisi")
+                    .tag("job", jobName)
+                    .register(meterRegistry)
+                    .increment(rows);
+        }
+        if (STATUS_SUCCEEDED.equals(status)) {
+            lastSuccess.computeIfAbsent(jobName, name -> {
+                AtomicLong value = new AtomicLong();
+                Gauge.builder("scheduled.job.last.success", value, AtomicLong::get)
+                        .description("Isin bu node'da son basarili bitisi (epoch saniye)")
+                        .tag("job", name)
+                        .register(meterRegistry);
+                return value;
+            }).set(System.currentTimeMillis() / 1000);
+        }
+    }
+
+    private void skipped(String jobName, String reason) {
+        Counter.builder("scheduled.job.skipped")
+                .description("Kilit baska node'da oldugu veya is hala calistigi icin atlanan turlar")
+                .tag("job", jobName)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        log.debug("Zamanlanmis is atlandi: {} ({})", jobName, reason);
+    }
+
+    // Tüm node'lar için ortak saat: veritabanı. Milisaniyeye kırpılır; kilidi bırakırken
+    // locked_at eşitlik karşılaştırması DB'nin sakladığı hassasiyetle aynı kalsın
+    private LocalDateTime dbNow() {
+        Timestamp now = jdbcTemplate.queryForObject(NOW_SQL, Timestamp.class);
+        return now.toLocalDateTime().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
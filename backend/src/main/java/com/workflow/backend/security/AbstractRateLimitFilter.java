@@ -0,0 +1,79 @@
+package com.workflow.backend.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workflow.backend.exception.GlobalExceptionHandler;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rate limit filtrelerinin ortak kısmı: bucket'tan token harcama, 429 yanıtı ve RateLimit-* header'ları.
+ */
+abstract class AbstractRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbstractRateLimitFilter.class);
+
+    // Rate limiting dışında tutulacak path'ler (statik kaynaklar, swagger, error)
+    private static final String[] EXCLUDED_PATHS = {
+            "/swagger-ui", "/v3/api-docs", "/swagger-resources", "/error"
+    };
+
+    private final ObjectMapper objectMapper;
+    private final RateLimitBucketStore bucketStore;
+
+    AbstractRateLimitFilter(ObjectMapper objectMapper, RateLimitBucketStore bucketStore) {
+        this.objectMapper = objectMapper;
+        this.bucketStore = bucketStore;
+    }
+
+    /**
+     * Rate limit kontrolü yapar. Limit aşılmışsa 429 yanıtı döner ve false döner.
+     * Başarılı ve başarısız durumlarda RateLimit-* header'larını ekler (sonraki filtre üzerine yazar).
+     */
+    protected boolean tryConsume(String bucketKey, String clientKey, RateLimitConfig config, int cost,
+                                 HttpServletResponse response) throws IOException {
+        Bucket bucket = bucketStore.resolveBucket(bucketKey, clientKey, config);
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(cost);
+
+        response.setHeader("RateLimit-Limit", String.valueOf(config.tokens()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(probe.getRemainingTokens()));
+        response.setHeader("RateLimit-Reset", String.valueOf(
+                Math.max(0, probe.getNanosToWaitForRefill() / 1_000_000_000)));
+
+        if (probe.isConsumed()) {
+            return true;
+        }
+        logger.warn("Rate limit exceeded for client: {} on endpoint: {}", clientKey, bucketKey);
+        response.setHeader("Retry-After", String.valueOf(
+                Math.max(1, probe.getNanosToWaitForRefill() / 1_000_000_000)));
+        response.setStatus(429); // Too Many Requests
+        response.setContentType("application/json");
+        GlobalExceptionHandler.ErrorResponse errorResponse = new GlobalExceptionHandler.ErrorResponse(
+                429, "Too Many Requests",
+                "İstek limiti aşıldı. Lütfen daha sonra tekrar deneyin.", null);
+        response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+        return false;
+    }
+
+    protected boolean isExcludedPath(String path) {
+        for (String excluded : EXCLUDED_PATHS) {
+            if (path.startsWith(excluded)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected String getClientIp(HttpServletRequest request) {
+        // Sadece request.getRemoteAddr() kullanılır.
+        // X-Forwarded-For header'ı client tarafından manipüle edilebilir (IP Spoofing).
+        // Reverse proxy arkasındaysa, proxy'nin trusted IP'yi RemoteAddr olarak set etmesi gerekir.
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,54 @@
+package com.workflow.backend.security;
+
+import io.github.bucket4j.Bucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bucket'ları node belleğinde tutan varsayılan backend.
+ * Tek replika çalışan kurulumlar için yeterlidir; birden fazla replikada her node
+ * kendi limitini uygular.
+ */
+@Component
+@ConditionalOnProperty(name = "rate-limit.backend", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimitBucketStore implements RateLimitBucketStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryRateLimitBucketStore.class);
+
+    // Endpoint başına maksimum izin verilen benzersiz istemci sayısı (Memory DoS koruması)
+    private static final int MAX_BUCKETS_PER_ENDPOINT = 10_000;
+
+    // Bucket'ları tutan map (endpoint -> istemci anahtarı (userId veya IP) -> Bucket)
+    private final Map<String, Map<String, Bucket>> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public Bucket resolveBucket(String endpoint, String clientKey, RateLimitConfig config) {
+        Map<String, Bucket> endpointBuckets = buckets.computeIfAbsent(endpoint, k -> new ConcurrentHashMap<>());
+
+        // Memory DoS koruması: Endpoint başına bucket sayısı sınırını aşarsa map'i temizle
+        if (endpointBuckets.size() > MAX_BUCKETS_PER_ENDPOINT) {
+            logger.warn("Bucket limit exceeded for endpoint: {}. Clearing all buckets for this endpoint.", endpoint);
+            endpointBuckets.clear();
+        }
+
+        return endpointBuckets.computeIfAbsent(clientKey,
+                k -> Bucket.builder().addLimit(config.toBandwidth()).build());
+    }
+
+    /**
+     * Her 30 dakikada bir tüm bucket'ları temizler (bellek sızıntısını önler).
+     * Bucket'lar zaman bazlı token yenileme yaptığı için bir sonraki istekte yeniden oluşturulur.
+     */
+    @Scheduled(fixedRate = 30 * 60 * 1000) // 30 dakika
+    public void cleanup() {
+        int totalEntries = buckets.values().stream().mapToInt(Map::size).sum();
+        buckets.clear();
+        logger.info("Rate limit bucket cleanup completed. Cleared {} entries.", totalEntries);
+    }
+}
@@ -0,0 +1,167 @@
+package com.workflow.backend.security;
+
+import io.github.bucket4j.BucketExceptions;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.select_for_update.AbstractSelectForUpdateBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.select_for_update.LockAndGetResult;
+import io.github.bucket4j.distributed.proxy.generic.select_for_update.SelectForUpdateBasedTransaction;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * bucket4j'nin SELECT ... FOR UPDATE akışını sadece standart SQL ile uygulayan ProxyManager.
+ *
+ * bucket4j-postgresql'in sorguları (INSERT ... ON CONFLICT) H2'de çalışmadığı için aynı akış
+ * burada yeniden yazıldı; böylece testler üretimdeki SQL'in aynısını gömülü veritabanında çalıştırır.
+ * Eşzamanlı ilk ekleme unique ihlali ile elenir; bucket4j işlemi geri alıp yeni transaction'da
+ * tekrar dener (PostgreSQL'de hata alan transaction zaten sadece rollback kabul eder).
+ *
+ * Her yazımda {@code expires_at} (epoch ms) bucket'ın tamamen dolacağı ana ayarlanır. Bu andan
+ * sonra satırı silmek, bucket'ı tam kapasiteyle yeniden oluşturmakla aynıdır; temizlik sadece
+ * bu satırları siler ve pencere ortasındaki limitler sıfırlanmaz.
+ */
+class JdbcBucketProxyManager extends AbstractSelectForUpdateBasedProxyManager<String> {
+
+    private final DataSource dataSource;
+    private final long idleGraceMillis;
+    private final String selectSql;
+    private final String insertSql;
+    private final String updateSql;
+    private final String removeSql;
+
+    JdbcBucketProxyManager(DataSource dataSource, String tableName, Duration idleGrace) {
+        super(ClientSideConfig.getDefault());
+        this.dataSource = dataSource;
+        this.idleGraceMillis = idleGrace.toMillis();
+        this.selectSql = "SELECT state FROM " + tableName + " WHERE id = ? FOR UPDATE";
+        this.insertSql = "INSERT INTO " + tableName + " (id, state, expires_at) VALUES (?, NULL, ?)";
+        this.updateSql = "UPDATE " + tableName + " SET state = ?, expires_at = ? WHERE id = ?";
+        this.removeSql = "DELETE FROM " + tableName + " WHERE id = ?";
+    }
+
+    @Override
+    protected SelectForUpdateBasedTransaction allocateTransaction(String key, Optional<Long> requestTimeoutNanos) {
+        Connection connection;
+        try {
+            connection = dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new BucketExceptions.BucketExecutionException(e);
+        }
+        return new Transaction(connection, key);
+    }
+
+    @Override
+    public void removeProxy(String key) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(removeSql)) {
+            statement.setString(1, key);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new BucketExceptions.BucketExecutionException(e);
+        }
+    }
+
+    private long expiresAt(RemoteBucketState state) {
+        long nowMillis = System.currentTimeMillis();
+        long refillNanos = state.calculateFullRefillingTime(TimeUnit.MILLISECONDS.toNanos(nowMillis));
+        return nowMillis + TimeUnit.NANOSECONDS.toMillis(refillNanos) + idleGraceMillis;
+    }
+
+    private final class Transaction implements SelectForUpdateBasedTransaction {
+
+        private final Connection connection;
+        private final String key;
+
+        private Transaction(Connection connection, String key) {
+            this.connection = connection;
+            this.key = key;
+        }
+
+        @Override
+        public void begin(Optional<Long> requestTimeoutNanos) {
+            try {
+                connection.setAutoCommit(false);
+            } catch (SQLException e) {
+                throw new BucketExceptions.BucketExecutionException(e);
+            }
+        }
+
+        @Override
+        public LockAndGetResult tryLockAndGet(Optional<Long> requestTimeoutNanos) {
+            try (PreparedStatement statement = connection.prepareStatement(selectSql)) {
+                applyTimeout(statement, requestTimeoutNanos);
+                statement.setString(1, key);
+                try (ResultSet rs = statement.executeQuery()) {
+                    return rs.next() ? LockAndGetResult.locked(rs.getBytes(1)) : LockAndGetResult.notLocked();
+                }
+            } catch (SQLException e) {
+                throw new BucketExceptions.BucketExecutionException(e);
+            }
+        }
+
+        @Override
+        public boolean tryInsertEmptyData(Optional<Long> requestTimeoutNanos) {
+            try (PreparedStatement statement = connection.prepareStatement(insertSql)) {
+                applyTimeout(statement, requestTimeoutNanos);
+                statement.setString(1, key);
+                statement.setLong(2, System.currentTimeMillis() + idleGraceMillis);
+                return statement.executeUpdate() == 1;
+            } catch (SQLException e) {
+                // 23xxx: başka bir node aynı anahtarı bizden önce ekledi
+                if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                    return false;
+                }
+                throw new BucketExceptions.BucketExecutionException(e);
+            }
+        }
+
+        @Override
+        public void update(byte[] data, RemoteBucketState newState, Optional<Long> requestTimeoutNanos) {
+            try (PreparedStatement statement = connection.prepareStatement(updateSql)) {
+                applyTimeout(statement, requestTimeoutNanos);
+                statement.setBytes(1, data);
+                statement.setLong(2, expiresAt(newState));
+                statement.setString(3, key);
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                throw new BucketExceptions.BucketExecutionException(e);
+            }
+        }
+
+        @Override
+        public void commit(Optional<Long> requestTimeoutNanos) {
+            try {
+                connection.commit();
+            } catch (SQLException e) {
+                throw new BucketExceptions.BucketExecutionException(e);
+            }
+        }
+
+        @Override
+        public void rollback() {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                throw new BucketExceptions.BucketExecutionException(e);
+            }
+        }
+
+        @Override
+        public void release() {
+            // Autocommit geri alınamazsa da (ör. kopmuş bağlantı) bağlantı havuza iade edilir
+            try (Connection released = connection) {
+                released.setAutoCommit(true);
+            } catch (SQLException e) {
+                throw new BucketExceptions.BucketExecutionException(e);
+            }
+        }
+    }
+}
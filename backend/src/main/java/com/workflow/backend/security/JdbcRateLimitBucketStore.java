@@ -0,0 +1,109 @@
+package com.workflow.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.workflow.backend.config.RateLimitProperties;
+import com.workflow.backend.scheduling.ScheduledJobRunner;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bucket durumlarını PostgreSQL'de saklayan, replikalar arasında paylaşımlı backend.
+ *
+ * Her bucket bir satırdır ve SELECT ... FOR UPDATE tabanlı ProxyManager (JdbcBucketProxyManager)
+ * ile güncellenir; böylece /auth/login gibi limitler tüm node'larda toplamda uygulanır.
+ *
+ * Sık kullanılan anahtarların proxy'leri node üzerinde Caffeine cache'te tutulur.
+ * Kapasitesi yeterince büyük bucket'lar (ör. kullanıcı bazlı 120 token) "delaying"
+ * optimizasyonu ile çalışır: kapasitenin en fazla {@code maxUnsynchronizedFraction} kadarı
+ * veya {@code maxUnsynchronizedTimeout} süresi boyunca DB'ye gitmeden yerelde harcanır.
+ * Küçük kapasiteli bucket'lar (login, şifre sıfırlama) her istekte DB ile senkronize olur.
+ */
+@Component
+@ConditionalOnProperty(name = "rate-limit.backend", havingValue = "jdbc")
+public class JdbcRateLimitBucketStore implements RateLimitBucketStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcRateLimitBucketStore.class);
+
+    private static final String CLEANUP_JOB = "rate-limit-bucket-cleanup";
+
+    private final ProxyManager<String> proxyManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final ScheduledJobRunner jobRunner;
+    private final String deleteIdleSql;
+    private final RateLimitProperties.Jdbc settings;
+    private final Cache<String, Bucket> localBuckets;
+
+    public JdbcRateLimitBucketStore(DataSource dataSource, RateLimitProperties properties, ScheduledJobRunner jobRunner) {
+        this.settings = properties.getJdbc();
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jobRunner = jobRunner;
+        this.deleteIdleSql = "DELETE FROM " + settings.getTableName() + " WHERE expires_at < ? AND id IN ("
+                + "SELECT id FROM " + settings.getTableName() + " WHERE expires_at < ? LIMIT ?)";
+
+        this.proxyManager = new JdbcBucketProxyManager(dataSource, settings.getTableName(), settings.getIdleGrace());
+
+        this.localBuckets = Caffeine.newBuilder()
+                .maximumSize(settings.getLocalCacheSize())
+                .expireAfterAccess(10, TimeUnit.MINUTES)
+                .build();
+
+        logger.info("JDBC rate limit backend aktif: tablo={}", settings.getTableName());
+    }
+
+    @Override
+    public Bucket resolveBucket(String endpoint, String clientKey, RateLimitConfig config) {
+        String key = endpoint + "|" + clientKey;
+        return localBuckets.get(key, k -> createBucket(k, config));
+    }
+
+    private Bucket createBucket(String key, RateLimitConfig config) {
+        BucketConfiguration bucketConfiguration = config.toBucketConfiguration();
+        RemoteBucketBuilder<String> builder = proxyManager.builder();
+
+        long maxUnsynchronizedTokens = (long) (config.tokens() * settings.getMaxUnsynchronizedFraction());
+        if (maxUnsynchronizedTokens >= 1) {
+            Duration timeout = settings.getMaxUnsynchronizedTimeout();
+            builder = builder.withOptimization(
+                    Optimizations.delaying(new DelayParameters(maxUnsynchronizedTokens, timeout)));
+        }
+        return builder.build(key, () -> bucketConfiguration);
+    }
+
+    /**
+     * Her 30 dakikada bir yerel proxy cache'ini (her node'da) ve paylaşımlı tablodaki boşta kalmış
+     * bucket'ları ({@link ScheduledJobRunner} kilidiyle tek bir node'da) temizler.
+     */
+    @Scheduled(fixedRate = 30 * 60 * 1000) // 30 dakika
+    public void cleanup() {
+        localBuckets.invalidateAll();
+        jobRunner.submit(CLEANUP_JOB, Duration.ofMinutes(10), Duration.ofMinutes(25), this::deleteIdleBuckets);
+    }
+
+    /**
+     * Sadece expires_at'i geçmiş (tamamen dolmuş) bucket'ları siler ve silinen sayısını döner: bunlar bir
+     * sonraki istekte tam kapasite ile yeniden oluşturulur, pencere ortasındaki limitler korunur.
+     * Tablo parça parça silinir; tek bir büyük DELETE, SELECT ... FOR UPDATE bekleyen istekleri
+     * temizlik boyunca bloklamaz. Dış koşul, silme sırasında güncellenmiş satırı tekrar kontrol eder.
+     */
+    long deleteIdleBuckets() {
+        long now = System.currentTimeMillis();
+        long total = jobRunner.deleteInChunks(batchSize -> jdbcTemplate.update(deleteIdleSql, now, now, batchSize));
+        logger.info("Rate limit bucket cleanup completed. Cleared {} entries.", total);
+        return total;
+    }
+}
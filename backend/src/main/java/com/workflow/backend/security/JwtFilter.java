@@ -42,7 +42,6 @@ public class JwtFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
 
         // 1. Header kontrolü: "Bearer " ile mi başlıyor? Yoksa cookie'den oku
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -58,30 +57,28 @@ public class JwtFilter extends OncePerRequestFilter {
         }
 
         try {
-            username = jwtService.extractUsername(jwt);
+            // Token tek seferde parse ve doğrulanır (imza + süre); tekrar eden token'lar cache'ten gelir
+            JwtPrincipal principal = jwtService.verify(jwt);
+            String username = principal.username();
             logger.debug("Processing token for user: {}", username);
 
             // 3. Kullanıcı doğrulaması (DB sorgusu yapmadan JWT'den userId alınır)
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtService.isTokenValid(jwt, username)) {
-                    Long userId = jwtService.extractUserId(jwt);
+                Long userId = principal.userId();
 
-                    UserDetails userDetails = new org.springframework.security.core.userdetails.User(
-                            username,
-                            "",
-                            new ArrayList<>()
-                    );
+                UserDetails userDetails = new org.springframework.security.core.userdetails.User(
+                        username,
+                        "",
+                        new ArrayList<>()
+                );
 
-                    // userId, credentials alanında saklanır (DB sorgusu gereksiz)
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, userId, userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                // userId, credentials alanında saklanır (DB sorgusu gereksiz)
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails, userId, userDetails.getAuthorities());
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    logger.debug("Authenticated user: {} (id: {})", username, userId);
-                } else {
-                    logger.warn("Token invalid for username: {}", username);
-                }
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                logger.debug("Authenticated user: {} (id: {})", username, userId);
             }
         } catch (Exception e) {
             // JWT geçersiz veya imza uyuşmazlığı - 401 Unauthorized döndür
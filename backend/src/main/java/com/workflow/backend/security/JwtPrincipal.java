@@ -0,0 +1,14 @@
+package com.workflow.backend.security;
+
+import java.time.Instant;
+
+/**
+ * İmzası doğrulanmış access token'dan çıkarılan değişmez kimlik bilgisi.
+ * userId, eski token'larda (userId claim'i olmayan) null olabilir.
+ */
+public record JwtPrincipal(String username, Long userId, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+}
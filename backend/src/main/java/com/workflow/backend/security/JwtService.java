@@ -1,26 +1,78 @@
 package com.workflow.backend.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.workflow.backend.config.JwtProperties;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Base64;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
 
 @Service
-@RequiredArgsConstructor
 public class JwtService {
 
+    // Doğrulanmış token cache'inin maksimum boyutu (aktif oturum sayısı mertebesinde)
+    private static final int VERIFIED_TOKEN_CACHE_SIZE = 10_000;
+
     private final JwtProperties jwtProperties;
 
+    // Token üretimi, imza doğrulamasındaki exp kontrolü ve cache süresi aynı saatten okunur
+    private final Clock clock;
+
     private Key signingKey;
 
+    // Thread-safe, bir kez oluşturulur (her istekte parserBuilder().build() yapılmaz)
+    private JwtParser parser;
+
+    // Token digest'i -> doğrulanmış principal. Kayıtlar token'ın süresi dolunca düşer.
+    private final Cache<String, JwtPrincipal> verifiedTokens;
+
+    @Autowired
+    public JwtService(JwtProperties jwtProperties) {
+        this(jwtProperties, Clock.systemUTC());
+    }
+
+    JwtService(JwtProperties jwtProperties, Clock clock) {
+        this.jwtProperties = jwtProperties;
+        this.clock = clock;
+        // Ticker saatin epoch zamanını verir; kalan süre exp ile currentTime farkıdır
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(VERIFIED_TOKEN_CACHE_SIZE)
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .expireAfter(new Expiry<String, JwtPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String key, JwtPrincipal principal, long currentTime) {
+                        long expiresAt = TimeUnit.MILLISECONDS.toNanos(principal.expiresAt().toEpochMilli());
+                        return Math.max(0, expiresAt - currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     @PostConstruct
     public void init() {
         String secret = jwtProperties.getSecret();
@@ -32,6 +84,10 @@ public class JwtService {
             );
         }
         this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .setClock(() -> Date.from(clock.instant()))
+                .build();
     }
 
     // 1. Kullanıcı adı ile Access Token Üret (eski token'lar için geriye uyumluluk)
@@ -48,8 +104,8 @@ public class JwtService {
     public String generateAccessToken(String username) {
         return Jwts.builder()
                 .setSubject(username)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtProperties.getAccessToken().getExpiration()))
+                .setIssuedAt(new Date(clock.millis()))
+                .setExpiration(new Date(clock.millis() + jwtProperties.getAccessToken().getExpiration()))
                 .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
@@ -59,39 +115,58 @@ public class JwtService {
         return Jwts.builder()
                 .setSubject(username)
                 .claim("userId", userId)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtProperties.getAccessToken().getExpiration()))
+                .setIssuedAt(new Date(clock.millis()))
+                .setExpiration(new Date(clock.millis() + jwtProperties.getAccessToken().getExpiration()))
                 .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Token'ı tek seferde parse edip imzasını doğrular ve kimlik bilgisini döner.
+     * Aynı token için sonraki çağrılar, token süresi dolana kadar SHA-256 digest'i
+     * ile anahtarlanan cache'ten karşılanır (tekrar HMAC doğrulaması ve JSON parse yapılmaz).
+     *
+     * @throws io.jsonwebtoken.JwtException token geçersiz, imzası uyuşmuyor veya süresi dolmuşsa
+     */
+    public JwtPrincipal verify(String token) {
+        String cacheKey = digest(token);
+        JwtPrincipal cached = verifiedTokens.getIfPresent(cacheKey);
+        if (cached != null && !cached.isExpired(clock.instant())) {
+            return cached;
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        JwtPrincipal principal = new JwtPrincipal(
+                claims.getSubject(),
+                claims.get("userId", Long.class),
+                claims.getExpiration().toInstant());
+        verifiedTokens.put(cacheKey, principal);
+        return principal;
+    }
+
     // 2. Token'dan Kullanıcı Adını Çıkar
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).username();
     }
 
     // 3. Token'dan Kullanıcı ID'sini Çıkar
     public Long extractUserId(String token) {
-        return extractClaim(token, claims -> claims.get("userId", Long.class));
+        return verify(token).userId();
     }
 
     // Token Geçerli mi?
     public boolean isTokenValid(String token, String username) {
-        final String extractedUser = extractUsername(token);
-        return (extractedUser.equals(username) && !isTokenExpired(token));
+        JwtPrincipal principal = verify(token);
+        return principal.username().equals(username) && !principal.isExpired(clock.instant());
     }
 
     // Yardımcı Metotlar
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = Jwts.parserBuilder()
-                .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claimsResolver.apply(claims);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
+    private String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 desteklenmiyor", e);
+        }
     }
 }
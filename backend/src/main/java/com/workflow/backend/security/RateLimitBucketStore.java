@@ -0,0 +1,17 @@
+package com.workflow.backend.security;
+
+import io.github.bucket4j.Bucket;
+
+/**
+ * Rate limit bucket'larının saklandığı backend.
+ * Tek node için bellek içi, birden fazla replika için paylaşımlı (JDBC) implementasyon kullanılır.
+ * Seçim {@code rate-limit.backend} property'si ile yapılır. Boşta kalan bucket'ların periyodik
+ * temizliğini her implementasyon kendisi zamanlar.
+ */
+public interface RateLimitBucketStore {
+
+    /**
+     * Endpoint ve istemci anahtarı (userId veya IP) için bucket'ı döner, yoksa oluşturur.
+     */
+    Bucket resolveBucket(String endpoint, String clientKey, RateLimitConfig config);
+}
@@ -0,0 +1,25 @@
+package com.workflow.backend.security;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+
+import java.time.Duration;
+
+/**
+ * Bir rate limit bucket'ının kapasitesi ve yenilenme süresi.
+ */
+public record RateLimitConfig(long tokens, Duration duration) {
+
+    public Bandwidth toBandwidth() {
+        return Bandwidth.builder()
+                .capacity(tokens)
+                .refillIntervally(tokens, duration)
+                .build();
+    }
+
+    public BucketConfiguration toBucketConfiguration() {
+        return BucketConfiguration.builder()
+                .addLimit(toBandwidth())
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.workflow.backend.security;
+
+import java.lang.annotation.*;
+
+/**
+ * Authenticated endpoint'ler için istek başına harcanacak rate limit token sayısını belirler.
+ * Annotation olmayan endpoint'ler 1 token harcar.
+ * Ağır sorgular çalıştıran endpoint'ler (pano detayı, profil istatistikleri vb.)
+ * daha yüksek maliyetle işaretlenerek kullanıcı başına bütçeden daha fazla düşer.
+ * 0 maliyetli endpoint'ler (tarayıcının sık tekrarladığı, çoğu 304 dönen koşullu GET'ler) kullanıcı
+ * bütçesinden hiç düşmez; yalnızca {@link RateLimitFilter}'ın IP taşma sınırına tabidir.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimitCost {
+    int value();
+}
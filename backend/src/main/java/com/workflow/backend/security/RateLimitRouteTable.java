@@ -0,0 +1,126 @@
+package com.workflow.backend.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Authenticated endpoint'lerin rate limit maliyetlerini tutan route sınıflandırma tablosu.
+ *
+ * Uygulama ayağa kalktığında controller metotlarındaki {@link RateLimitCost} annotation'ları
+ * okunur ve path segmentlerine göre bir ağaç (trie) oluşturulur. Her istek için maliyet,
+ * tüm tabloyu taramak yerine path derinliği kadar hash lookup ile bulunur.
+ * Path değişkenleri ({id}, {slug} vb.) joker segment olarak saklanır; sabit segmentler önceliklidir.
+ */
+@Component
+public class RateLimitRouteTable implements ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitRouteTable.class);
+
+    public static final int DEFAULT_COST = 1;
+
+    private volatile Node root = new Node();
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        Node newRoot = new Node();
+        int routeCount = 0;
+
+        Map<String, RequestMappingHandlerMapping> mappings =
+                event.getApplicationContext().getBeansOfType(RequestMappingHandlerMapping.class);
+        for (RequestMappingHandlerMapping mapping : mappings.values()) {
+            for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : mapping.getHandlerMethods().entrySet()) {
+                RateLimitCost cost = entry.getValue().getMethodAnnotation(RateLimitCost.class);
+                if (cost == null) {
+                    continue;
+                }
+                Set<RequestMethod> methods = entry.getKey().getMethodsCondition().getMethods();
+                for (String pattern : entry.getKey().getPatternValues()) {
+                    register(newRoot, pattern, methods, Math.max(0, cost.value()));
+                    routeCount++;
+                }
+            }
+        }
+
+        this.root = newRoot;
+        logger.info("Rate limit route tablosu olusturuldu: {} maliyetli route", routeCount);
+    }
+
+    /**
+     * İstek metoduna ve path'e göre harcanacak token sayısını döner.
+     * Tabloda eşleşme yoksa {@link #DEFAULT_COST} döner.
+     */
+    public int resolveCost(String method, String path) {
+        Integer cost = match(root, path, 0, method);
+        return cost != null ? cost : DEFAULT_COST;
+    }
+
+    private void register(Node node, String pattern, Set<RequestMethod> methods, int cost) {
+        for (String segment : pattern.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.startsWith("{") || segment.startsWith("*")) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else {
+                node = node.literals.computeIfAbsent(segment, k -> new Node());
+            }
+        }
+        if (methods.isEmpty()) {
+            node.anyMethodCost = cost;
+        } else {
+            for (RequestMethod requestMethod : methods) {
+                node.costs.put(requestMethod.name(), cost);
+            }
+        }
+    }
+
+    private Integer match(Node node, String path, int from, String method) {
+        // Baştaki '/' karakterlerini atla
+        while (from < path.length() && path.charAt(from) == '/') {
+            from++;
+        }
+        if (from >= path.length()) {
+            Integer cost = node.costs.get(method);
+            return cost != null ? cost : node.anyMethodCost;
+        }
+
+        int end = path.indexOf('/', from);
+        if (end < 0) {
+            end = path.length();
+        }
+
+        // Önce sabit segment, sonra joker segment denenir
+        Node literal = node.literals.get(path.substring(from, end));
+        if (literal != null) {
+            Integer cost = match(literal, path, end, method);
+            if (cost != null) {
+                return cost;
+            }
+        }
+        if (node.wildcard != null) {
+            return match(node.wildcard, path, end, method);
+        }
+        return null;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private final Map<String, Integer> costs = new HashMap<>();
+        private Node wildcard;
+        private Integer anyMethodCost;
+    }
+}
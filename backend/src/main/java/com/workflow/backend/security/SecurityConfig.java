@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -17,6 +18,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.security.web.header.writers.XXssProtectionHeaderWriter;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.util.Arrays;
@@ -29,6 +31,7 @@ public class SecurityConfig {
 
         private final JwtFilter jwtFilter;
         private final RateLimitFilter rateLimitFilter;
+        private final UserRateLimitFilter userRateLimitFilter;
         private final CorsProperties corsProperties;
         private final Environment environment;
 
@@ -54,7 +57,12 @@ public class SecurityConfig {
                                                                 .maxAgeInSeconds(31536000)
                                                                 .preload(true)))
                                 .authorizeHttpRequests(auth -> {
-                                        auth.requestMatchers("/auth/**", "/error", "/users/*/profile-picture").permitAll();
+                                        // SSE (SseEmitter) tamamlandiginda yapilan async dispatch'te JwtFilter calismaz;
+                                        // istek ilk dispatch'te zaten yetkilendirildi
+                                        auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
+                                        auth.requestMatchers("/auth/**", "/error", "/actuator/health").permitAll();
+                                        // Profil resmi herkese acik, yukleme (PUT) kimlik dogrulama ister
+                                        auth.requestMatchers(HttpMethod.GET, "/users/*/profile-picture").permitAll();
                                         if (isDevProfile()) {
                                                 auth.requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**", "/swagger-resources/**").permitAll();
                                         }
@@ -67,8 +75,11 @@ public class SecurityConfig {
                                                         response.getWriter().write("{\"status\":401,\"error\":\"Unauthorized\",\"message\":\"Oturum süresi dolmuş veya giriş yapılmamış. Lütfen tekrar giriş yapın.\"}");
                                                 }))
                                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                                .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
-                                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+                                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+                                // IP bazlı limit JWT doğrulamasından önce çalışır: geçersiz token'lar da bütçe harcar
+                                .addFilterBefore(rateLimitFilter, JwtFilter.class)
+                                // Maliyetli limit JWT doğrulamasından sonra: userId varsa kullanıcı bazlı bucket kullanılır
+                                .addFilterAfter(userRateLimitFilter, JwtFilter.class);
 
                 return http.build();
         }
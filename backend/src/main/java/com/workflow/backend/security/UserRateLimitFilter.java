@@ -0,0 +1,79 @@
+package com.workflow.backend.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * JwtFilter'dan sonra çalışan, endpoint maliyetine göre harcanan rate limit.
+ * JWT'de userId varsa kullanıcı bazlı bucket kullanılır (NAT arkasındaki kullanıcılar aynı bucket'ı
+ * paylaşmaz), yoksa IP bazlı anonim bucket. Geçersiz token'lar buraya gelmeden 401 alır;
+ * onlar JwtFilter'dan önceki {@link RateLimitFilter} IP kontrolüne takılır.
+ */
+@Component
+public class UserRateLimitFilter extends AbstractRateLimitFilter {
+
+    // JWT ile kimliği doğrulanmış kullanıcı başına bütçe (dakikada 120 token, endpoint maliyetine göre harcanır)
+    static final RateLimitConfig USER_RATE_LIMIT = new RateLimitConfig(120, Duration.ofMinutes(1));
+
+    // Kimliği belirsiz istekler için IP bazlı genel rate limit (dakikada 60 token)
+    static final RateLimitConfig ANONYMOUS_RATE_LIMIT = new RateLimitConfig(60, Duration.ofMinutes(1));
+
+    private final RateLimitRouteTable routeTable;
+
+    public UserRateLimitFilter(ObjectMapper objectMapper, RateLimitBucketStore bucketStore,
+                               RateLimitRouteTable routeTable) {
+        super(objectMapper, bucketStore);
+        this.routeTable = routeTable;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String path = request.getRequestURI();
+        // Auth endpoint'leri RateLimitFilter'da endpoint bazlı sınırlanır
+        if (isExcludedPath(path) || path.startsWith("/auth/")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Her istek, route tablosundaki maliyeti kadar token harcar
+        int cost = routeTable.resolveCost(request.getMethod(), path);
+        if (cost == 0) {
+            // Ücretsiz route: bucket'a hiç gidilmez, IP taşma sınırı RateLimitFilter'da uygulandı
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Long userId = getAuthenticatedUserId();
+        boolean consumed = userId != null
+                ? tryConsume("authenticated_user", "user:" + userId, USER_RATE_LIMIT, cost, response)
+                : tryConsume("authenticated_global", getClientIp(request), ANONYMOUS_RATE_LIMIT, cost, response);
+        if (!consumed) {
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * JwtFilter tarafından set edilen authentication'dan userId'yi okur.
+     * userId, JwtFilter'da credentials alanında saklanır. Eski token'larda (userId claim'i yok)
+     * veya anonim isteklerde null döner ve IP bazlı limite düşülür.
+     */
+    private Long getAuthenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getCredentials() instanceof Long userId) {
+            return userId;
+        }
+        return null;
+    }
+}
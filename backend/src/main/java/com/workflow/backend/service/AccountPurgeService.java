@@ -0,0 +1,254 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.config.AccountPurgeProperties;
+import com.workflow.backend.scheduling.ScheduledJobRunner;
+import com.workflow.backend.util.TransactionUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Silme süresi dolan hesapları parça parça siler.
+ *
+ * - Her parça kendi kısa transaction'ındadır: hesaplar FOR UPDATE SKIP LOCKED ile sahiplenilir
+ *   (birden fazla node çakışmaz, aynı anda yapılan silme iptali kilidi bekler), bağlı veriler
+ *   FK bağımlılık sırasıyla küme bazlı DELETE'lerle silinir, en son users satırları silinir.
+ * - İş listesi users tablosunun kendisidir: parça yarıda düşerse rollback olur ve o hesaplar
+ *   bir sonraki parçada/turda tekrar seçilir; ayrı bir ilerleme kaydı gerekmez.
+ * - Dosya silme ve node içi indeks/cache güncellemeleri commit sonrasına ertelenir.
+ * - Native DML'ler HINT_NATIVE_SPACES ile sadece etkilenen tabloların second-level cache/query cache
+ *   kayıtlarını geçersiz kılar.
+ */
+@Slf4j
+@Service
+public class AccountPurgeService {
+
+    private static final String PURGE_JOB = "account-purge";
+
+    private static final String CLAIM_SQL =
+            "SELECT id, username FROM users " +
+            "WHERE deletion_scheduled_at IS NOT NULL AND deletion_scheduled_at <= :cutoff " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED";
+
+    private static final String COUNT_DUE_SQL =
+            "SELECT COUNT(*) FROM users WHERE deletion_scheduled_at IS NOT NULL AND deletion_scheduled_at <= :cutoff";
+
+    private static final String OWNED_BOARDS = "SELECT b.id FROM boards b WHERE b.user_id IN (:ids)";
+    private static final String OWNED_LISTS = "SELECT l.id FROM task_lists l WHERE l.board_id IN (" + OWNED_BOARDS + ")";
+    private static final String OWNED_TASKS = "SELECT t.id FROM tasks t WHERE t.task_list_id IN (" + OWNED_LISTS + ")";
+    private static final String OWNED_LABELS = "SELECT lb.id FROM labels lb WHERE lb.board_id IN (" + OWNED_BOARDS + ")";
+
+    // FK bağımlılık sırası: önce en alttaki çocuklar, en son users
+    private static final List<PurgeStep> STEPS = List.of(
+            new PurgeStep("subtasks", "DELETE FROM subtasks WHERE task_id IN (" + OWNED_TASKS + ")"),
+            new PurgeStep("task_labels", "DELETE FROM task_labels WHERE task_id IN (" + OWNED_TASKS + ") "
+                    + "OR label_id IN (" + OWNED_LABELS + ")"),
+            new PurgeStep("task_list_labels", "DELETE FROM task_list_labels WHERE task_list_id IN (" + OWNED_LISTS + ") "
+                    + "OR label_id IN (" + OWNED_LABELS + ")"),
+            new PurgeStep("board_member_assignments", "DELETE FROM board_member_assignments WHERE board_member_id IN ("
+                    + "SELECT m.id FROM board_members m WHERE m.user_id IN (:ids) OR m.board_id IN (" + OWNED_BOARDS + "))"),
+            new PurgeStep("board_members", "DELETE FROM board_members WHERE user_id IN (:ids) "
+                    + "OR board_id IN (" + OWNED_BOARDS + ")"),
+            new PurgeStep("tasks", "DELETE FROM tasks WHERE task_list_id IN (" + OWNED_LISTS + ")"),
+            // Başkalarının panolarındaki görevler kalır, sadece atama kaldırılır
+            new PurgeStep("tasks", "UPDATE tasks SET assignee_id = NULL WHERE assignee_id IN (:ids)"),
+            new PurgeStep("task_lists", "DELETE FROM task_lists WHERE board_id IN (" + OWNED_BOARDS + ")"),
+            new PurgeStep("labels", "DELETE FROM labels WHERE board_id IN (" + OWNED_BOARDS + ")"),
+            new PurgeStep("boards", "DELETE FROM boards WHERE user_id IN (:ids)"),
+            new PurgeStep("connections", "DELETE FROM connections WHERE sender_id IN (:ids) OR receiver_id IN (:ids)"),
+            new PurgeStep("notifications", "DELETE FROM notifications WHERE recipient_id IN (:ids) OR actor_id IN (:ids)"),
+            new PurgeStep("notification_outbox", "DELETE FROM notification_outbox WHERE recipient_id IN (:ids) "
+                    + "OR actor_id IN (:ids)"),
+            new PurgeStep("refresh_tokens", "DELETE FROM refresh_tokens WHERE user_id IN (:ids)"),
+            new PurgeStep("password_reset_tokens", "DELETE FROM password_reset_tokens WHERE user_id IN (:ids)"),
+            new PurgeStep("user_privacy_settings", "DELETE FROM user_privacy_settings WHERE user_id IN (:ids)"),
+            new PurgeStep("user_profile_pictures", "DELETE FROM user_profile_pictures WHERE user_id IN (:ids)"),
+            new PurgeStep("users", "DELETE FROM users WHERE id IN (:ids)"));
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ProfilePictureStorageService profilePictureStorageService;
+    private final SocialGraphIndex socialGraphIndex;
+    private final UsernameIndex usernameIndex;
+    private final UserSummaryCache userSummaryCache;
+    private final AvatarResolver avatarResolver;
+    private final HibernateCacheRelay hibernateCacheRelay;
+    private final AccountPurgeProperties properties;
+    private final ScheduledJobRunner jobRunner;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final Counter purgedCounter;
+    private final Counter failedChunkCounter;
+    private final Timer chunkTimer;
+
+    public AccountPurgeService(EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               ProfilePictureStorageService profilePictureStorageService,
+                               SocialGraphIndex socialGraphIndex,
+                               UsernameIndex usernameIndex,
+                               UserSummaryCache userSummaryCache,
+                               AvatarResolver avatarResolver,
+                               HibernateCacheRelay hibernateCacheRelay,
+                               AccountPurgeProperties properties,
+                               ScheduledJobRunner jobRunner,
+                               MeterRegistry meterRegistry) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.profilePictureStorageService = profilePictureStorageService;
+        this.socialGraphIndex = socialGraphIndex;
+        this.usernameIndex = usernameIndex;
+        this.userSummaryCache = userSummaryCache;
+        this.avatarResolver = avatarResolver;
+        this.hibernateCacheRelay = hibernateCacheRelay;
+        this.properties = properties;
+        this.jobRunner = jobRunner;
+
+        Gauge.builder("account.purge.pending", pending, AtomicLong::get)
+                .description("Silme zamani gelmis ama henuz silinmemis hesap sayisi")
+                .register(meterRegistry);
+        this.purgedCounter = Counter.builder("account.purge.purged").register(meterRegistry);
+        this.failedChunkCounter = Counter.builder("account.purge.failed.chunks")
+                .description("Rollback olan parca sayisi (hesaplar sonraki turda tekrar denenir)")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("account.purge.chunk").register(meterRegistry);
+    }
+
+    // ZAMANLANMIS HESAPLARI SIL (Her gece 02:00'de calisir, replikalardan sadece biri)
+    @Scheduled(cron = "${account-purge.cron:0 0 2 * * *}")
+    public void processScheduledDeletions() {
+        jobRunner.submit(PURGE_JOB, Duration.ofHours(2), Duration.ofMinutes(10),
+                () -> purgeDue(LocalDateTime.now().minusDays(properties.getGraceDays())));
+    }
+
+    /**
+     * Silme zamanı cutoff'tan önce olan hesapları parça parça siler. Silinen hesap sayısını döner.
+     */
+    public int purgeDue(LocalDateTime cutoff) {
+        refreshPending(cutoff);
+        int total = 0;
+        try {
+            for (int i = 0; i < properties.getMaxChunks(); i++) {
+                int purged = purgeChunk(cutoff);
+                total += purged;
+                pending.set(Math.max(0, pending.get() - purged));
+                if (purged < properties.getChunkSize()) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            failedChunkCounter.increment();
+            log.error("Hesap silme parcasi basarisiz, kalan hesaplar sonraki turda silinecek", e);
+        } finally {
+            refreshPending(cutoff);
+        }
+        if (total > 0) {
+            log.info("Toplam {} hesap silindi", total);
+        }
+        return total;
+    }
+
+    /**
+     * Tek bir parçayı sahiplenir ve siler. Silinen hesap sayısını döner.
+     */
+    int purgeChunk(LocalDateTime cutoff) {
+        Integer purged = chunkTimer.record(() -> transactionTemplate.execute(status -> {
+            @SuppressWarnings("unchecked")
+            List<Object[]> claimed = entityManager.createNativeQuery(CLAIM_SQL)
+                    .setParameter("cutoff", Timestamp.valueOf(cutoff))
+                    .setParameter("limit", properties.getChunkSize())
+                    .getResultList();
+            if (claimed.isEmpty()) {
+                return 0;
+            }
+
+            List<Long> userIds = new ArrayList<>(claimed.size());
+            List<String> usernames = new ArrayList<>(claimed.size());
+            for (Object[] row : claimed) {
+                userIds.add(((Number) row[0]).longValue());
+                usernames.add((String) row[1]);
+            }
+
+            @SuppressWarnings("unchecked")
+            List<String> filePaths = entityManager.createNativeQuery(
+                            "SELECT file_path FROM user_profile_pictures WHERE user_id IN (:ids)")
+                    .setParameter("ids", userIds)
+                    .getResultList();
+
+            // Bağlantılar silinmeden önce karşı taraflar okunur: sadece silinenler ve komşuları
+            // tüm node'larda geçersiz kılınır, indeksin tamamı bırakılmaz
+            @SuppressWarnings("unchecked")
+            List<Object[]> edges = entityManager.createNativeQuery(
+                            "SELECT sender_id, receiver_id FROM connections WHERE sender_id IN (:ids) OR receiver_id IN (:ids)")
+                    .setParameter("ids", userIds)
+                    .getResultList();
+            Set<Long> affectedUsers = new HashSet<>(userIds);
+            for (Object[] edge : edges) {
+                affectedUsers.add(((Number) edge[0]).longValue());
+                affectedUsers.add(((Number) edge[1]).longValue());
+            }
+            socialGraphIndex.invalidateUsers(affectedUsers);
+
+            for (PurgeStep step : STEPS) {
+                int rows = entityManager.createNativeQuery(step.sql())
+                        .setHint(HibernateHints.HINT_NATIVE_SPACES, step.table())
+                        .setParameter("ids", userIds)
+                        .executeUpdate();
+                log.debug("Hesap silme: {} -> {} satir", step.table(), rows);
+            }
+
+            // Native silmeler Hibernate olayı üretmez: diğer node'ların L2 cache'i elle bırakılır
+            hibernateCacheRelay.publishUsers(userIds);
+            hibernateCacheRelay.publishBoardMembers(userIds);
+            hibernateCacheRelay.publishUserProfiles(userIds);
+
+            for (int i = 0; i < userIds.size(); i++) {
+                usernameIndex.remove(usernames.get(i), userIds.get(i));
+                userSummaryCache.invalidate(userIds.get(i));
+                avatarResolver.invalidate(userIds.get(i));
+            }
+            // Dosyalar sadece commit sonrası bırakılır (rollback olursa kayıtlar dosyasız kalmasın)
+            TransactionUtils.afterCommit(() -> {
+                filePaths.forEach(profilePictureStorageService::release);
+                purgedCounter.increment(userIds.size());
+                log.info("{} hesap silindi: userIds={}", userIds.size(), userIds);
+            });
+            return userIds.size();
+        }));
+        return purged != null ? purged : 0;
+    }
+
+    private void refreshPending(LocalDateTime cutoff) {
+        try {
+            Number count = (Number) entityManager.createNativeQuery(COUNT_DUE_SQL)
+                    .setParameter("cutoff", Timestamp.valueOf(cutoff))
+                    .getSingleResult();
+            pending.set(count.longValue());
+        } catch (RuntimeException e) {
+            log.debug("Hesap silme metrikleri okunamadi", e);
+        }
+    }
+
+    public long getPendingCount() {
+        return pending.get();
+    }
+
+    private record PurgeStep(String table, String sql) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.workflow.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+/**
+ * Harici bir profil resmini indirir. {@link GoogleAvatarImporter} bu arayüz üzerinden çalışır;
+ * testler yerel bir stub sunucuya giden ya da tamamen sahte bir implementasyon verebilir.
+ */
+public interface AvatarFetcher {
+
+    /**
+     * Resmin gövdesini akış olarak döner (çağıran kapatır).
+     *
+     * @throws IOException bağlantı/zaman aşımı hatası veya başarısız HTTP yanıtı
+     */
+    InputStream fetch(URI uri) throws IOException;
+}
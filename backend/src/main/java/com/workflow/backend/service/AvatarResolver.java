@@ -0,0 +1,160 @@
+package com.workflow.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.workflow.backend.repository.UserProfilePictureRepository;
+import com.workflow.backend.service.ProfilePictureStorageService.StoredPicture;
+import com.workflow.backend.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Kullanıcıların profil resmi URL'lerini çözen ortak bileşen.
+ *
+ * DTO mapper'ları kullanıcı başına sorgu atmak yerine yanıttaki tüm kullanıcılar için
+ * {@link #resolveAll(Collection)} çağırır: cache'te olmayanlar tek bir IN sorgusu ile yüklenir.
+ * Node-local cache sadece "resmi var mı" bilgisini tutar (URL id'den türetilir). Yükleme/silmede
+ * {@link #invalidate(Long)} çağrılır; diğer node'lardaki kopyalar en geç TTL sonunda yenilenir.
+ *
+ * Resim sunumu için {@link #findFile(Long)} dosya yolunu, boyutu ve içerik hash'ini (ETag) aynı
+ * şekilde cache'ler; böylece 304 yanıtları veritabanına ve dosyaya dokunmadan verilir.
+ * Küçültülmüş variant'lar ({@link #findFile(Long, Integer)}) sadece hazır olduklarında
+ * cache'lenir; hazır değilken orijinal döner.
+ */
+@Component
+@RequiredArgsConstructor
+public class AvatarResolver {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+    private static final int MAX_SIZE = 50_000;
+
+    private final UserProfilePictureRepository profilePictureRepository;
+    private final ProfilePictureStorageService storageService;
+    private final HotAvatarCache hotAvatarCache;
+
+    private final Cache<Long, Boolean> hasPicture = Caffeine.newBuilder()
+            .expireAfterWrite(TTL)
+            .maximumSize(MAX_SIZE)
+            .build();
+
+    private final Cache<Long, Optional<StoredPicture>> files = Caffeine.newBuilder()
+            .expireAfterWrite(TTL)
+            .maximumSize(MAX_SIZE)
+            .build();
+
+    private final Cache<VariantKey, StoredPicture> variants = Caffeine.newBuilder()
+            .expireAfterWrite(TTL)
+            .maximumSize(MAX_SIZE)
+            .build();
+
+    public static String urlFor(Long userId) {
+        return "/users/" + userId + "/profile-picture";
+    }
+
+    /**
+     * Tek kullanıcı için profil resmi URL'si, resmi yoksa null.
+     */
+    public String resolve(Long userId) {
+        Boolean present = hasPicture.get(userId,
+                id -> profilePictureRepository.findFilePathByUserId(id).isPresent());
+        return Boolean.TRUE.equals(present) ? urlFor(userId) : null;
+    }
+
+    /**
+     * Verilen kullanıcılardan profil resmi olanların URL'leri (userId -> URL).
+     * Resmi olmayan kullanıcılar map'te yer almaz.
+     */
+    public Map<Long, String> resolveAll(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Boolean> presence = hasPicture.getAll(new HashSet<>(userIds), this::loadPresence);
+
+        Map<Long, String> urls = new HashMap<>();
+        presence.forEach((userId, present) -> {
+            if (present) {
+                urls.put(userId, urlFor(userId));
+            }
+        });
+        return urls;
+    }
+
+    /**
+     * Profil resmi dosyasının sunum meta verisi (yol, boyut, ETag). Resmi yoksa veya dosya
+     * storage dizininde değilse boş döner.
+     */
+    public Optional<StoredPicture> findFile(Long userId) {
+        return files.get(userId, id -> profilePictureRepository.findFilePathByUserId(id)
+                .flatMap(storageService::describe));
+    }
+
+    /**
+     * İstenen piksel boyutuna en yakın variant (bkz. {@link ProfilePictureStorageService#selectVariantSize(int)}).
+     * Boyut verilmemişse, orijinalden büyükse veya variant henüz üretilmemişse orijinal döner;
+     * hangisinin döndüğü {@link StoredPicture#variantSize()} ile anlaşılır.
+     */
+    public Optional<StoredPicture> findFile(Long userId, Integer requestedSize) {
+        int variantSize = variantSizeFor(requestedSize);
+        if (variantSize == 0) {
+            return findFile(userId);
+        }
+        VariantKey key = new VariantKey(userId, variantSize);
+        StoredPicture cached = variants.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<StoredPicture> original = findFile(userId);
+        if (original.isEmpty()) {
+            return original;
+        }
+        Optional<StoredPicture> variant = storageService.describeVariant(original.get().path(), variantSize);
+        variant.ifPresent(picture -> variants.put(key, picture));
+        return variant.isPresent() ? variant : original;
+    }
+
+    public int variantSizeFor(Integer requestedSize) {
+        return requestedSize != null ? storageService.selectVariantSize(requestedSize) : 0;
+    }
+
+    /**
+     * Profil resmi eklendiğinde/silindiğinde çağrılır. Aktif transaction varsa commit sonrası tekrar çıkarılır.
+     */
+    public void invalidate(Long userId) {
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionUtils.afterCommit(() -> evict(userId));
+        }
+    }
+
+    private void evict(Long userId) {
+        hasPicture.invalidate(userId);
+        files.invalidate(userId);
+        for (int size : storageService.getVariantSizes()) {
+            variants.invalidate(new VariantKey(userId, size));
+        }
+        hotAvatarCache.invalidate(userId);
+    }
+
+    // Cache'te olmayanlar için tek sorgu; sonuçta olmayan kullanıcıların resmi yoktur
+    private Map<Long, Boolean> loadPresence(Set<? extends Long> userIds) {
+        Map<Long, Boolean> presence = new HashMap<>();
+        userIds.forEach(userId -> presence.put(userId, false));
+        for (Object[] row : profilePictureRepository.findFilePathsByUserIds(new HashSet<>(userIds))) {
+            presence.put((Long) row[0], true);
+        }
+        return presence;
+    }
+
+    private record VariantKey(Long userId, int size) {
+    }
+}
@@ -31,7 +31,7 @@ public class BoardMemberService {
     private final TaskListRepository taskListRepository;
     private final TaskRepository taskRepository;
     private final SubtaskRepository subtaskRepository;
-    private final UserProfilePictureRepository profilePictureRepository;
+    private final AvatarResolver avatarResolver;
     private final CurrentUserService currentUserService;
     private final AuthorizationService authorizationService;
     private final ConnectionService connectionService;
@@ -119,10 +119,7 @@ public class BoardMemberService {
 
         // Profil resmi URL'lerini toplu olarak ön-yükle (N+1 sorgu önleme)
         Set<Long> userIds = members.stream().map(m -> m.getUser().getId()).collect(Collectors.toSet());
-        Map<Long, String> profilePictureMap = userIds.isEmpty() ? Map.of() :
-                profilePictureRepository.findFilePathsByUserIds(userIds).stream()
-                        .collect(Collectors.toMap(row -> (Long) row[0],
-                                row -> "/users/" + row[0] + "/profile-picture"));
+        Map<Long, String> profilePictureMap = avatarResolver.resolveAll(userIds);
 
         return members.stream().map(member -> {
             boolean showProfile = finalIsOwner
@@ -413,9 +410,7 @@ public class BoardMemberService {
             if (profilePictureMap != null) {
                 dto.setProfilePicture(profilePictureMap.get(member.getUser().getId()));
             } else {
-                dto.setProfilePicture(
-                        profilePictureRepository.findFilePathByUserId(member.getUser().getId())
-                                .map(fp -> "/users/" + member.getUser().getId() + "/profile-picture").orElse(null));
+                dto.setProfilePicture(avatarResolver.resolve(member.getUser().getId()));
             }
         }
 
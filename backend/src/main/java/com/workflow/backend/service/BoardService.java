@@ -9,7 +9,6 @@ import com.workflow.backend.exception.DuplicateResourceException;
 import com.workflow.backend.exception.ResourceNotFoundException;
 import com.workflow.backend.repository.BoardMemberRepository;
 import com.workflow.backend.repository.BoardRepository;
-import com.workflow.backend.repository.UserProfilePictureRepository;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -18,12 +17,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.cache.CacheManager;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -36,7 +37,7 @@ public class BoardService {
 
     private final BoardRepository boardRepository;
     private final BoardMemberRepository boardMemberRepository;
-    private final UserProfilePictureRepository profilePictureRepository;
+    private final AvatarResolver avatarResolver;
     private final CurrentUserService currentUserService;
     private final AuthorizationService authorizationService;
     private final LabelService labelService;
@@ -223,14 +224,10 @@ public class BoardService {
             connectedUserIds = connectionService.getConnectedUserIds(currentUserId, memberUserIds);
         }
 
-        // Batch: tüm üyelerin profil fotoğraflarını tek sorguda kontrol et
+        // Batch: tüm üyelerin profil fotoğrafları tek seferde çözülür
         List<Long> allMemberUserIds = boardMembers.stream()
                 .map(m -> m.getUser().getId()).toList();
-        Set<Long> membersWithPicture = new java.util.HashSet<>();
-        if (!allMemberUserIds.isEmpty()) {
-            profilePictureRepository.findFilePathsByUserIds(allMemberUserIds)
-                    .forEach(row -> membersWithPicture.add((Long) row[0]));
-        }
+        Map<Long, String> memberPictures = avatarResolver.resolveAll(allMemberUserIds);
 
         final Set<Long> finalConnectedUserIds = connectedUserIds;
         return boardMembers.stream().map(member -> {
@@ -249,9 +246,7 @@ public class BoardService {
                 memberDto.setUserId(memberUserId);
                 memberDto.setFirstName(member.getUser().getFirstName());
                 memberDto.setLastName(member.getUser().getLastName());
-                memberDto.setProfilePicture(
-                        membersWithPicture.contains(memberUserId)
-                                ? "/users/" + memberUserId + "/profile-picture" : null);
+                memberDto.setProfilePicture(memberPictures.get(memberUserId));
             }
 
             if (member.getAssignments() != null && !member.getAssignments().isEmpty()) {
@@ -421,6 +416,30 @@ public class BoardService {
                 page.getTotalElements(), page.getTotalPages(), page.isFirst(), page.isLast());
     }
 
+    // Filtered + Keyset: (createdAt, id) imlecinden sonraki panolar, toplam sayi sadece istenirse
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public PaginatedResponse<BoardResponse> getAllBoardsFiltered(Long userId, String status, String category,
+            String boardType, String cursor, int size, boolean withTotal) {
+        authorizationService.verifyUserOwnership(userId);
+        BoardType type = boardType != null ? BoardType.valueOf(boardType) : null;
+        KeysetCursor position = KeysetCursor.decode(cursor);
+
+        // Bir fazla satir: sonraki sayfa olup olmadigi COUNT olmadan anlasilir
+        List<Board> rows = boardRepository.findByUserIdFilteredBefore(userId, status, category, type,
+                position.position(), position.id(), PageRequest.of(0, size + 1));
+        boolean hasNext = rows.size() > size;
+        List<Board> boards = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Board last = boards.get(boards.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        Long total = withTotal ? boardRepository.countByUserIdFiltered(userId, status, category, type) : null;
+        List<BoardResponse> content = boards.stream().map(this::mapToResponse).collect(Collectors.toList());
+        return PaginatedResponse.ofCursor(content, size, position.equals(KeysetCursor.start()), nextCursor, total);
+    }
+
     // PANO SİL
     @Transactional
     public void deleteBoard(Long boardId) {
@@ -0,0 +1,139 @@
+package com.workflow.backend.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Node'lar arası değişiklik günlüğü (id, user_id, node_id, created_at kolonlu tablo) yazıcı/okuyucusu.
+ *
+ * - Yazma çağıranın transaction'ına katılır; değişiklik commit edilmezse kayıt da görünmez.
+ * - Okuma bu node'un yazdıklarını atlar (kendi değişikliklerini zaten uygulamıştır).
+ * - id'ler insert sırasında verilir ama transaction'lar farklı sırada commit olabilir: okunan son id'den
+ *   küçük olup henüz görünmeyen id'ler "boşluk" olarak tutulur ve sonraki turlarda tekrar sorulur.
+ *   Rollback/sequence atlaması yüzünden hiç gelmeyecek boşluklar GAP_TIMEOUT sonra bırakılır.
+ */
+final class ChangeFeed {
+
+    // Commit'i geciken transaction'ların değişikliklerinin bekleneceği süre ve izlenecek en fazla boşluk
+    private static final Duration GAP_TIMEOUT = Duration.ofMinutes(5);
+    private static final int MAX_PENDING_GAPS = 10_000;
+    private static final int POLL_LIMIT = 1000;
+
+    private static final RowMapper<Change> ROW_MAPPER = (rs, rowNum) ->
+            new Change(rs.getLong("id"), rs.getObject("user_id", Long.class), rs.getString("node_id"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final String table;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // Okunan son değişiklik id'si (-1: henüz başlangıç noktası alınmadı)
+    private long lastSeenId = -1;
+    // Henüz görünmeyen değişiklik id'si -> ilk fark edildiği an (epoch ms)
+    private final Map<Long, Long> pendingGaps = new HashMap<>();
+
+    ChangeFeed(JdbcTemplate jdbcTemplate, String table) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.table = table;
+    }
+
+    /**
+     * Verilen kullanıcılar için değişiklik kaydeder. Çağıranın transaction'ına katılır.
+     */
+    void publish(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = userIds.stream().map(id -> new Object[]{id, nodeId, now}).toList();
+        jdbcTemplate.batchUpdate("INSERT INTO " + table + " (user_id, node_id, created_at) VALUES (?, ?, ?)", args);
+    }
+
+    /**
+     * Tüm kullanıcıları etkileyen değişiklik (user_id NULL) kaydeder. Çağıranın transaction'ına katılır.
+     */
+    void publishAll() {
+        jdbcTemplate.update("INSERT INTO " + table + " (user_id, node_id, created_at) VALUES (NULL, ?, ?)",
+                nodeId, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Diğer node'ların son okumadan beri görünür olan değişikliklerini döner.
+     * reset = true ise (ilk okuma ya da boşluk taşması) tek tek değişiklikler bilinmez;
+     * çağıran yerel kopyasının tamamını bırakmalıdır.
+     */
+    synchronized Batch poll() {
+        if (lastSeenId < 0) {
+            // Başlangıç: bu noktaya kadarki değişiklikler zaten DB'den yüklenecek
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            lastSeenId = maxId != null ? maxId : 0;
+            pendingGaps.clear();
+            return Batch.RESET;
+        }
+
+        List<Change> changes = new ArrayList<>();
+        if (!pendingGaps.isEmpty()) {
+            changes.addAll(namedJdbcTemplate.query(
+                    "SELECT id, user_id, node_id FROM " + table + " WHERE id IN (:ids)",
+                    new MapSqlParameterSource("ids", new ArrayList<>(pendingGaps.keySet())), ROW_MAPPER));
+            changes.forEach(change -> pendingGaps.remove(change.id()));
+        }
+
+        long now = System.currentTimeMillis();
+        List<Change> fresh = jdbcTemplate.query(
+                "SELECT id, user_id, node_id FROM " + table + " WHERE id > ? ORDER BY id LIMIT ?",
+                ROW_MAPPER, lastSeenId, POLL_LIMIT);
+        boolean overflow = false;
+        for (Change change : fresh) {
+            if (change.id() - lastSeenId - 1 > MAX_PENDING_GAPS - pendingGaps.size()) {
+                overflow = true;
+            } else {
+                for (long missing = lastSeenId + 1; missing < change.id(); missing++) {
+                    pendingGaps.put(missing, now);
+                }
+            }
+            lastSeenId = change.id();
+        }
+        changes.addAll(fresh);
+
+        if (overflow) {
+            // Çok fazla boşluk: tek tek izlemek yerine çağıran her şeyi bırakır
+            pendingGaps.clear();
+            return Batch.RESET;
+        }
+        pendingGaps.values().removeIf(firstSeen -> now - firstSeen > GAP_TIMEOUT.toMillis());
+        return new Batch(changes.stream().filter(change -> !nodeId.equals(change.nodeId())).toList(), false);
+    }
+
+    /**
+     * Saklama süresini geçen kayıtları siler. Silinen satır sayısını döner.
+     */
+    int prune(Duration retention) {
+        return jdbcTemplate.update("DELETE FROM " + table + " WHERE created_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minus(retention)));
+    }
+
+    /**
+     * user_id NULL: tüm kullanıcılar.
+     */
+    record Change(long id, Long userId, String nodeId) {
+    }
+
+    record Batch(List<Change> changes, boolean reset) {
+
+        static final Batch RESET = new Batch(List.of(), true);
+    }
+}
@@ -1,40 +1,58 @@
 package com.workflow.backend.service;
 
 import com.workflow.backend.dto.ConnectionResponse;
+import com.workflow.backend.dto.KeysetCursor;
+import com.workflow.backend.dto.PaginatedResponse;
+import com.workflow.backend.dto.UserSummary;
 import com.workflow.backend.entity.*;
 import com.workflow.backend.exception.BadRequestException;
 import com.workflow.backend.exception.ResourceNotFoundException;
 import com.workflow.backend.repository.ConnectionRepository;
-import com.workflow.backend.repository.UserProfilePictureRepository;
 import com.workflow.backend.repository.UserRepository;
+import com.workflow.backend.scheduling.ScheduledJobRunner;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ConnectionService {
 
     private static final Logger logger = LoggerFactory.getLogger(ConnectionService.class);
+    private static final String PENDING_EXPIRY_JOB = "pending-connection-expiry";
 
     private final ConnectionRepository connectionRepository;
     private final UserRepository userRepository;
-    private final UserProfilePictureRepository profilePictureRepository;
+    private final AvatarResolver avatarResolver;
     private final NotificationService notificationService;
     private final CurrentUserService currentUserService;
+    private final UserSummaryCache userSummaryCache;
+    private final SocialGraphIndex socialGraphIndex;
+    private final ScheduledJobRunner jobRunner;
+    private final PlatformTransactionManager transactionManager;
 
     @Transactional
     public ConnectionResponse sendConnectionRequest(Long targetUserId) {
@@ -44,8 +62,10 @@ public class ConnectionService {
             throw new BadRequestException("Kendinize baglanti istegi gonderemezsiniz.");
         }
 
-        User currentUser = userRepository.findById(currentUserId)
+        // Mesaj icin sadece username gerekli: ozet cache'ten alinir, entity yerine referans kullanilir
+        UserSummary currentUserSummary = userSummaryCache.findById(currentUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("Kullanici", "id", currentUserId));
+        User currentUser = userRepository.getReferenceById(currentUserId);
 
         User targetUser = userRepository.findById(targetUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("Kullanici", "id", targetUserId));
@@ -70,11 +90,12 @@ public class ConnectionService {
             } catch (DataIntegrityViolationException e) {
                 throw new BadRequestException("Zaten bekleyen bir baglanti istegi var.");
             }
+            socialGraphIndex.put(saved);
 
             notificationService.createNotification(
                     targetUser, currentUser,
                     NotificationType.CONNECTION_REQUEST,
-                    currentUser.getUsername() + " size baglanti istegi gonderdi",
+                    currentUserSummary.username() + " size baglanti istegi gonderdi",
                     saved.getId());
 
             return mapToResponse(saved);
@@ -92,12 +113,13 @@ public class ConnectionService {
         } catch (DataIntegrityViolationException e) {
             throw new BadRequestException("Zaten bekleyen bir baglanti istegi var.");
         }
+        socialGraphIndex.put(saved);
 
         // Bildirim olustur
         notificationService.createNotification(
                 targetUser, currentUser,
                 NotificationType.CONNECTION_REQUEST,
-                currentUser.getUsername() + " size baglanti istegi gonderdi",
+                currentUserSummary.username() + " size baglanti istegi gonderdi",
                 saved.getId());
 
         return mapToResponse(saved);
@@ -120,10 +142,12 @@ public class ConnectionService {
 
         connection.setStatus(ConnectionStatus.ACCEPTED);
         Connection saved = connectionRepository.save(connection);
+        socialGraphIndex.put(saved);
 
         // Gondericiye bildirim
-        User currentUser = userRepository.findById(currentUserId)
+        UserSummary currentUserSummary = userSummaryCache.findById(currentUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("Kullanici", "id", currentUserId));
+        User currentUser = userRepository.getReferenceById(currentUserId);
 
         // Baglanti istegi bildirimini sil
         notificationService.deleteByReference(connectionId, NotificationType.CONNECTION_REQUEST);
@@ -131,7 +155,7 @@ public class ConnectionService {
         notificationService.createNotification(
                 connection.getSender(), currentUser,
                 NotificationType.CONNECTION_ACCEPTED,
-                currentUser.getUsername() + " baglanti isteginizi kabul etti",
+                currentUserSummary.username() + " baglanti isteginizi kabul etti",
                 saved.getId());
 
         return mapToResponse(saved);
@@ -154,18 +178,20 @@ public class ConnectionService {
 
         connection.setStatus(ConnectionStatus.REJECTED);
         Connection saved = connectionRepository.save(connection);
+        socialGraphIndex.put(saved);
 
         // Baglanti istegi bildirimini sil
         notificationService.deleteByReference(connectionId, NotificationType.CONNECTION_REQUEST);
 
         // Gondericiye red bildirimi gonder
-        User currentUser = userRepository.findById(currentUserId)
+        UserSummary currentUserSummary = userSummaryCache.findById(currentUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("Kullanici", "id", currentUserId));
+        User currentUser = userRepository.getReferenceById(currentUserId);
 
         notificationService.createNotification(
                 connection.getSender(), currentUser,
                 NotificationType.CONNECTION_REJECTED,
-                currentUser.getUsername() + " baglanti isteginizi reddetti",
+                currentUserSummary.username() + " baglanti isteginizi reddetti",
                 saved.getId());
 
         return mapToResponse(saved);
@@ -185,20 +211,21 @@ public class ConnectionService {
             return "SELF";
         }
 
-        Optional<Connection> connection = connectionRepository.findBetweenUsers(userId1, userId2);
-        if (connection.isEmpty()) {
+        // Bellek ici sosyal graf indeksinden cevaplanir (connections tablosuna gidilmez)
+        Optional<SocialGraphIndex.Edge> edge = socialGraphIndex.findEdge(userId1, userId2);
+        if (edge.isEmpty()) {
             return null;
         }
 
-        Connection conn = connection.get();
-        if (conn.getStatus() == ConnectionStatus.ACCEPTED) {
+        SocialGraphIndex.Edge conn = edge.get();
+        if (conn.status() == ConnectionStatus.ACCEPTED) {
             return "ACCEPTED";
         }
-        if (conn.getStatus() == ConnectionStatus.REJECTED) {
+        if (conn.status() == ConnectionStatus.REJECTED) {
             return "REJECTED";
         }
         // PENDING - kim gonderdi?
-        if (conn.getSender().getId().equals(userId1)) {
+        if (conn.outgoing()) {
             return "PENDING";
         }
         return "PENDING_RECEIVED";
@@ -208,61 +235,111 @@ public class ConnectionService {
         if (userId1.equals(userId2)) {
             return null;
         }
-        return connectionRepository.findBetweenUsers(userId1, userId2)
-                .map(Connection::getId)
+        return socialGraphIndex.findEdge(userId1, userId2)
+                .map(SocialGraphIndex.Edge::connectionId)
                 .orElse(null);
     }
 
     public long getConnectionCount(Long userId) {
-        return connectionRepository.countAcceptedByUserId(userId);
+        return socialGraphIndex.getConnectionCount(userId);
     }
 
     public Set<Long> getConnectedUserIds(Long userId, List<Long> targetUserIds) {
         if (targetUserIds == null || targetUserIds.isEmpty()) {
             return Collections.emptySet();
         }
-        return new HashSet<>(connectionRepository.findConnectedUserIds(userId, targetUserIds));
+        return socialGraphIndex.getConnectedAmong(userId, targetUserIds);
     }
 
     public long getMyConnectionCount() {
         Long currentUserId = currentUserService.getCurrentUserId();
-        return connectionRepository.countAcceptedByUserId(currentUserId);
+        return socialGraphIndex.getConnectionCount(currentUserId);
     }
 
     public List<ConnectionResponse> getPendingRequests() {
         Long currentUserId = currentUserService.getCurrentUserId();
         List<Connection> pending = connectionRepository.findByReceiverIdAndStatus(currentUserId, ConnectionStatus.PENDING);
-        return pending.stream().map(this::mapToResponse).toList();
+        return mapToResponses(pending);
     }
 
     public Page<ConnectionResponse> getPendingRequests(Pageable pageable) {
         Long currentUserId = currentUserService.getCurrentUserId();
         Page<Connection> page = connectionRepository.findByReceiverIdAndStatus(currentUserId, ConnectionStatus.PENDING, pageable);
-        return page.map(this::mapToResponse);
+        return mapPage(page);
+    }
+
+    // Keyset: (createdAt, id) imlecinden sonraki bekleyen istekler
+    public PaginatedResponse<ConnectionResponse> getPendingRequests(String cursor, int size, boolean withTotal) {
+        Long currentUserId = currentUserService.getCurrentUserId();
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        List<Connection> rows = connectionRepository.findByReceiverIdAndStatusBefore(currentUserId, ConnectionStatus.PENDING,
+                position.position(), position.id(), PageRequest.of(0, size + 1));
+        Long total = withTotal ? connectionRepository.countByReceiverIdAndStatus(currentUserId, ConnectionStatus.PENDING) : null;
+        return toCursorPage(rows, size, position, Connection::getCreatedAt, total);
     }
 
     public List<ConnectionResponse> getSentRequests() {
         Long currentUserId = currentUserService.getCurrentUserId();
         List<Connection> sent = connectionRepository.findBySenderIdAndStatus(currentUserId, ConnectionStatus.PENDING);
-        return sent.stream().map(this::mapToResponse).toList();
+        return mapToResponses(sent);
     }
 
     public Page<ConnectionResponse> getSentRequests(Pageable pageable) {
         Long currentUserId = currentUserService.getCurrentUserId();
         Page<Connection> page = connectionRepository.findBySenderIdAndStatus(currentUserId, ConnectionStatus.PENDING, pageable);
-        return page.map(this::mapToResponse);
+        return mapPage(page);
+    }
+
+    // Keyset: (createdAt, id) imlecinden sonraki gonderilen istekler
+    public PaginatedResponse<ConnectionResponse> getSentRequests(String cursor, int size, boolean withTotal) {
+        Long currentUserId = currentUserService.getCurrentUserId();
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        List<Connection> rows = connectionRepository.findBySenderIdAndStatusBefore(currentUserId, ConnectionStatus.PENDING,
+                position.position(), position.id(), PageRequest.of(0, size + 1));
+        Long total = withTotal ? connectionRepository.countBySenderIdAndStatus(currentUserId, ConnectionStatus.PENDING) : null;
+        return toCursorPage(rows, size, position, Connection::getCreatedAt, total);
     }
 
     public List<ConnectionResponse> getAcceptedConnections() {
         Long currentUserId = currentUserService.getCurrentUserId();
         List<Connection> accepted = connectionRepository.findAcceptedByUserId(currentUserId);
-        return accepted.stream().map(this::mapToResponse).toList();
+        return mapToResponses(accepted);
     }
 
     public Page<ConnectionResponse> getAcceptedConnections(Pageable pageable) {
         Long currentUserId = currentUserService.getCurrentUserId();
         Page<Connection> page = connectionRepository.findAcceptedByUserIdPaged(currentUserId, pageable);
-        return page.map(this::mapToResponse);
+        return mapPage(page);
+    }
+
+    // Keyset: (updatedAt, id) imlecinden sonraki kabul edilmis baglantilar
+    public PaginatedResponse<ConnectionResponse> getAcceptedConnections(String cursor, int size, boolean withTotal) {
+        Long currentUserId = currentUserService.getCurrentUserId();
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        // Her taraftan en fazla size + 1 satır; birleşik sıralamada ilk size + 1 satır bunların içindedir
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<Connection> rows = Stream.concat(
+                        connectionRepository.findAcceptedBySenderIdBefore(currentUserId, position.position(), position.id(), limit).stream(),
+                        connectionRepository.findAcceptedByReceiverIdBefore(currentUserId, position.position(), position.id(), limit).stream())
+                .sorted(Comparator.comparing(Connection::getUpdatedAt).thenComparing(Connection::getId).reversed())
+                .limit(size + 1)
+                .toList();
+        Long total = withTotal ? (long) socialGraphIndex.getConnectionCount(currentUserId) : null;
+        return toCursorPage(rows, size, position, Connection::getUpdatedAt, total);
+    }
+
+    // size + 1 satir cekilir: fazladan satir varsa sonraki sayfa vardir ve imlec son gosterilen satirdan uretilir
+    private PaginatedResponse<ConnectionResponse> toCursorPage(List<Connection> rows, int size, KeysetCursor position,
+                                                               Function<Connection, LocalDateTime> sortKey, Long total) {
+        boolean hasNext = rows.size() > size;
+        List<Connection> connections = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Connection last = connections.get(connections.size() - 1);
+            nextCursor = new KeysetCursor(sortKey.apply(last), last.getId()).encode();
+        }
+        List<ConnectionResponse> content = mapToResponses(connections);
+        return PaginatedResponse.ofCursor(content, size, position.equals(KeysetCursor.start()), nextCursor, total);
     }
 
     @Transactional
@@ -281,37 +358,93 @@ public class ConnectionService {
         }
 
         connectionRepository.delete(connection);
+        socialGraphIndex.remove(connection);
     }
 
     private ConnectionResponse mapToResponse(Connection connection) {
+        return mapToResponses(List.of(connection)).get(0);
+    }
+
+    private Page<ConnectionResponse> mapPage(Page<Connection> page) {
+        return new PageImpl<>(mapToResponses(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    // Sayfadaki tum taraflarin ozetleri ve profil resimleri toplu cozulur (baglanti basina sorgu yok)
+    private List<ConnectionResponse> mapToResponses(List<Connection> connections) {
+        // Proxy uzerinden getId() entity'yi yuklemez; isimler ozet cache'ten gelir
+        Set<Long> userIds = new HashSet<>();
+        for (Connection connection : connections) {
+            userIds.add(connection.getSender().getId());
+            userIds.add(connection.getReceiver().getId());
+        }
+        Map<Long, UserSummary> users = userSummaryCache.findAllById(userIds);
+        Map<Long, String> avatars = avatarResolver.resolveAll(userIds);
+        return connections.stream().map(connection -> mapToResponse(connection, users, avatars)).toList();
+    }
+
+    private ConnectionResponse mapToResponse(Connection connection, Map<Long, UserSummary> users, Map<Long, String> avatars) {
+        Long senderId = connection.getSender().getId();
+        Long receiverId = connection.getReceiver().getId();
+        UserSummary sender = users.get(senderId);
+        UserSummary receiver = users.get(receiverId);
+
         ConnectionResponse response = new ConnectionResponse();
         response.setId(connection.getId());
-        response.setSenderId(connection.getSender().getId());
-        response.setSenderUsername(connection.getSender().getUsername());
-        response.setSenderFirstName(connection.getSender().getFirstName());
-        response.setSenderLastName(connection.getSender().getLastName());
-        response.setSenderProfilePicture(
-                profilePictureRepository.findFilePathByUserId(connection.getSender().getId())
-                        .map(fp -> "/users/" + connection.getSender().getId() + "/profile-picture").orElse(null));
-        response.setReceiverId(connection.getReceiver().getId());
-        response.setReceiverUsername(connection.getReceiver().getUsername());
-        response.setReceiverFirstName(connection.getReceiver().getFirstName());
-        response.setReceiverLastName(connection.getReceiver().getLastName());
-        response.setReceiverProfilePicture(
-                profilePictureRepository.findFilePathByUserId(connection.getReceiver().getId())
-                        .map(fp -> "/users/" + connection.getReceiver().getId() + "/profile-picture").orElse(null));
+        response.setSenderId(senderId);
+        response.setSenderUsername(sender.username());
+        response.setSenderFirstName(sender.firstName());
+        response.setSenderLastName(sender.lastName());
+        response.setSenderProfilePicture(avatars.get(senderId));
+        response.setReceiverId(receiverId);
+        response.setReceiverUsername(receiver.username());
+        response.setReceiverFirstName(receiver.firstName());
+        response.setReceiverLastName(receiver.lastName());
+        response.setReceiverProfilePicture(avatars.get(receiverId));
         response.setStatus(connection.getStatus().name());
         response.setCreatedAt(connection.getCreatedAt());
         return response;
     }
 
+    // Suresi dolan baglanti isteklerini sil (her gece 03:00, replikalardan sadece biri calistirir)
     @Scheduled(cron = "0 0 3 * * *")
-    @Transactional
     public void expirePendingConnections() {
+        jobRunner.submit(PENDING_EXPIRY_JOB, Duration.ofHours(1), Duration.ofMinutes(10),
+                this::purgeExpiredPendingConnections);
+    }
+
+    /**
+     * 30 günden eski PENDING istekleri parça parça siler ve silinen sayısını döner.
+     * Her parça kısa bir transaction'dır; sosyal graf indeksinde sadece iki tarafın kullanıcıları
+     * (tüm node'larda) geçersiz kılınır.
+     */
+    public long purgeExpiredPendingConnections() {
         LocalDateTime expireDate = LocalDateTime.now().minusDays(30);
-        int deleted = connectionRepository.deleteExpiredPendingConnections(expireDate);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long deleted = jobRunner.deleteInChunks(batchSize -> {
+            Integer chunk = transactionTemplate.execute(status -> purgeExpiredPendingChunk(expireDate, batchSize));
+            return chunk != null ? chunk : 0;
+        });
         if (deleted > 0) {
             logger.info("Suresi dolmus {} baglanti istegi silindi.", deleted);
         }
+        return deleted;
+    }
+
+    // Okunan parça boyutunu döner (silinen sayısı değil), böylece kabul edilmiş satırlar döngüyü erken bitirmez
+    private int purgeExpiredPendingChunk(LocalDateTime expireDate, int batchSize) {
+        List<Object[]> edges = connectionRepository.findExpiredPendingEdges(expireDate, PageRequest.of(0, batchSize));
+        if (edges.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>(edges.size());
+        Set<Long> affectedUsers = new HashSet<>();
+        for (Object[] edge : edges) {
+            ids.add((Long) edge[0]);
+            affectedUsers.add((Long) edge[1]);
+            affectedUsers.add((Long) edge[2]);
+        }
+        connectionRepository.deletePendingByIdIn(ids);
+        socialGraphIndex.invalidateUsers(affectedUsers);
+        return edges.size();
     }
 }
@@ -8,15 +8,23 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 /**
  * SecurityContextHolder'dan mevcut kullanıcıyı alan utility service.
  * JWT authentication sonrası kullanıcı bilgilerine erişim sağlar.
+ *
+ * Kullanıcı entity'si istek başına en fazla bir kez yüklenir ve request attribute olarak
+ * saklanır; aynı istek içindeki sonraki çağrılar DB'ye gitmez. HTTP isteği dışında
+ * (scheduled job, async) her çağrı DB'den okur.
  */
 @Service
 @RequiredArgsConstructor
 public class CurrentUserService {
 
+    private static final String CURRENT_USER_ATTRIBUTE = CurrentUserService.class.getName() + ".CURRENT_USER";
+
     private final UserRepository userRepository;
 
     /**
@@ -26,10 +34,21 @@ public class CurrentUserService {
      */
     public User getCurrentUser() {
         String username = getCurrentUsername();
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            Object cached = requestAttributes.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (cached instanceof User cachedUser && username.equals(cachedUser.getUsername())) {
+                return cachedUser;
+            }
+        }
+
         User user = userRepository.findByUsername(username);
         if (user == null) {
             throw new ResourceNotFoundException("Kullanıcı", "username", username);
         }
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(CURRENT_USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
         return user;
     }
 
@@ -0,0 +1,319 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.util.TransactionUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * E-posta gönderimi için transactional outbox.
+ *
+ * - İş kodu ({@link #enqueue}) e-postayı kendi transaction'ı içinde email_outbox tablosuna ekler;
+ *   token kaydı rollback olursa e-posta da gitmez, commit olursa uygulama düşse bile kaybolmaz.
+ * - Worker zamanı gelmiş satırları parça parça sahiplenir (FOR UPDATE SKIP LOCKED + kira süresi,
+ *   birden fazla node güvenle çalışır) ve parçayı transaction dışında tek SMTP bağlantısı üzerinden gönderir.
+ * - Gönderilenler silinir; başarısızlar üstel geri çekilme ile tekrar planlanır, deneme sınırını
+ *   aşanlar loglanıp bırakılır. Teslimat en az bir kez (at-least-once).
+ * - E-postalardaki kodlar 15 dakika geçerlidir: bu süreden eski satırlar gönderilmeden silinir
+ *   (SMTP kesintisinden sonra kullanıcıya süresi dolmuş kodlar gitmez).
+ */
+@Slf4j
+@Component
+public class EmailOutbox {
+
+    private static final int BATCH_SIZE = 50;
+    private static final int MAX_BATCHES_PER_RUN = 10;
+    // 30s, 1, 2, 4, 5 dk: denemeler MAX_AGE penceresi içinde kalır
+    static final int MAX_ATTEMPTS = 6;
+    private static final Duration BASE_BACKOFF = Duration.ofSeconds(30);
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+    private static final int MAX_ERROR_LENGTH = 500;
+    // EmailVerificationService/PasswordResetService CODE_TTL ile aynı: daha eski e-postadaki kod geçersizdir
+    static final Duration MAX_AGE = Duration.ofMinutes(15);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO email_outbox (recipient, subject, body, attempts, next_attempt_at, created_at) " +
+            "VALUES (?, ?, ?, 0, ?, ?)";
+
+    private static final String CLAIM_BATCH_SQL =
+            "SELECT id, recipient, subject, body, attempts, created_at FROM email_outbox " +
+            "WHERE next_attempt_at <= ? ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    // Sahiplenilen satırlar bu süre boyunca başka node'a verilmez (parçanın en kötü SMTP süresinden uzun)
+    private static final Duration CLAIM_LEASE = Duration.ofMinutes(15);
+
+    private static final String LEASE_SQL =
+            "UPDATE email_outbox SET attempts = attempts + 1, next_attempt_at = :leaseUntil WHERE id IN (:ids)";
+
+    private static final String RESCHEDULE_SQL =
+            "UPDATE email_outbox SET next_attempt_at = ?, last_error = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JavaMailSender mailSender;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter droppedCounter;
+    private final Counter expiredCounter;
+    private final Timer sendTimer;
+
+    @Value("${email.outbox.worker-enabled:true}")
+    private boolean workerEnabled;
+
+    public EmailOutbox(DataSource dataSource,
+                       PlatformTransactionManager transactionManager,
+                       JavaMailSender mailSender,
+                       MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mailSender = mailSender;
+
+        Gauge.builder("email.outbox.pending", pending, AtomicLong::get)
+                .description("Gonderilmeyi bekleyen e-posta sayisi")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("email.outbox.sent").register(meterRegistry);
+        this.retriedCounter = Counter.builder("email.outbox.retried")
+                .description("Gonderilemeyip tekrar planlanan e-posta sayisi")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("email.outbox.dropped")
+                .description("Deneme siniri asildigi icin birakilan e-posta sayisi")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("email.outbox.expired")
+                .description("Icerdigi kodun suresi doldugu icin gonderilmeden silinen e-posta sayisi")
+                .register(meterRegistry);
+        this.sendTimer = Timer.builder("email.outbox.send")
+                .description("Bir parcanin SMTP uzerinden gonderim suresi")
+                .register(meterRegistry);
+    }
+
+    /**
+     * E-postayı outbox'a ekler. Çağıranın transaction'ına katılır; rollback olursa e-posta da gitmez.
+     */
+    public void enqueue(String recipient, String subject, String body) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(INSERT_SQL, recipient, subject, body, now, now);
+        TransactionUtils.afterCommit(pending::incrementAndGet);
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:1000}")
+    public void drain() {
+        if (!workerEnabled) {
+            return;
+        }
+        drainAll();
+    }
+
+    /**
+     * Zamanı gelmiş e-postalar bitene ya da tur başına parça sınırına ulaşılana kadar gönderir.
+     * Gönderilen e-posta sayısını döner.
+     */
+    public int drainAll() {
+        int total = 0;
+        try {
+            for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+                BatchResult result = drainBatch();
+                total += result.sent();
+                if (result.claimed() < BATCH_SIZE) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            // Satırlar outbox'ta kalır; sahiplenilmiş olanlar kira süresi dolunca tekrar denenir
+            log.error("E-posta outbox gonderimi basarisiz, tekrar denenecek", e);
+        }
+        return total;
+    }
+
+    /**
+     * Tek bir parçayı üç adımda işler; SMTP beklenirken açık transaction veya satır kilidi tutulmaz:
+     * 1. Kısa transaction: satırlar SKIP LOCKED ile seçilir, denemeleri artırılır ve next_attempt_at
+     *    kira süresi kadar ileri alınır. Commit sonrası diğer node'lar bu satırları almaz; node
+     *    gönderim sırasında düşerse satırlar kira bitince tekrar denenir.
+     * 2. Transaction dışında SMTP gönderimi.
+     * 3. Kısa transaction: gönderilenler/bırakılanlar silinir, başarısızlar geri çekilmeyle planlanır.
+     */
+    BatchResult drainBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxRow> rows = transactionTemplate.execute(status -> claimBatch(now));
+        if (rows == null || rows.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+
+        // Mesajlar sahiplenme (id) sırasıyla gönderilir; hatalar mesaj nesnesi üzerinden satıra eşlenir
+        LocalDateTime expiredBefore = now.minus(MAX_AGE);
+        List<Long> expiredIds = new ArrayList<>();
+        List<OutboxRow> sendable = new ArrayList<>(rows.size());
+        Map<SimpleMailMessage, OutboxRow> messages = new IdentityHashMap<>();
+        List<SimpleMailMessage> ordered = new ArrayList<>(rows.size());
+        for (OutboxRow row : rows) {
+            if (row.createdAt().isBefore(expiredBefore)) {
+                expiredIds.add(row.id());
+                continue;
+            }
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(row.recipient());
+            message.setSubject(row.subject());
+            message.setText(row.body());
+            messages.put(message, row);
+            ordered.add(message);
+            sendable.add(row);
+        }
+        Map<OutboxRow, Exception> failures = sendable.isEmpty()
+                ? Map.of()
+                : send(ordered.toArray(SimpleMailMessage[]::new), messages);
+
+        List<Long> sentIds = new ArrayList<>();
+        List<Object[]> retries = new ArrayList<>();
+        List<Long> droppedIds = new ArrayList<>(expiredIds);
+        Exception lastFailure = null;
+        LocalDateTime finishedAt = LocalDateTime.now();
+        for (OutboxRow row : sendable) {
+            Exception failure = failures.get(row);
+            if (failure == null) {
+                sentIds.add(row.id());
+                continue;
+            }
+            lastFailure = failure;
+            // Denemeler sahiplenirken artırıldı; row.attempts() bu denemeyi içerir
+            if (row.attempts() >= MAX_ATTEMPTS) {
+                log.error("E-posta {} denemede gonderilemedi, birakiliyor: {}", MAX_ATTEMPTS, row.recipient(), failure);
+                droppedIds.add(row.id());
+            } else {
+                retries.add(new Object[]{Timestamp.valueOf(finishedAt.plus(backoff(row.attempts()))),
+                        truncate(failure.getMessage()), row.id()});
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> deletedIds = new ArrayList<>(sentIds);
+            deletedIds.addAll(droppedIds);
+            if (!deletedIds.isEmpty()) {
+                namedJdbcTemplate.update("DELETE FROM email_outbox WHERE id IN (:ids)",
+                        new MapSqlParameterSource("ids", deletedIds));
+            }
+            if (!retries.isEmpty()) {
+                jdbcTemplate.batchUpdate(RESCHEDULE_SQL, retries);
+            }
+        });
+        if (!retries.isEmpty()) {
+            log.warn("{} e-posta gonderilemedi, tekrar denenecek", retries.size(), lastFailure);
+        }
+        if (!expiredIds.isEmpty()) {
+            log.warn("{} e-posta {} dakikadan eski oldugu icin gonderilmeden silindi", expiredIds.size(), MAX_AGE.toMinutes());
+        }
+
+        sentCounter.increment(sentIds.size());
+        retriedCounter.increment(retries.size());
+        droppedCounter.increment(droppedIds.size() - expiredIds.size());
+        expiredCounter.increment(expiredIds.size());
+        pending.updateAndGet(count -> Math.max(0, count - sentIds.size() - droppedIds.size()));
+        return new BatchResult(rows.size(), sentIds.size());
+    }
+
+    private List<OutboxRow> claimBatch(LocalDateTime now) {
+        List<OutboxRow> rows = jdbcTemplate.query(CLAIM_BATCH_SQL, (rs, rowNum) -> new OutboxRow(
+                rs.getLong("id"),
+                rs.getString("recipient"),
+                rs.getString("subject"),
+                rs.getString("body"),
+                rs.getInt("attempts") + 1,
+                rs.getTimestamp("created_at").toLocalDateTime()), Timestamp.valueOf(now), BATCH_SIZE);
+        if (!rows.isEmpty()) {
+            namedJdbcTemplate.update(LEASE_SQL, new MapSqlParameterSource()
+                    .addValue("leaseUntil", Timestamp.valueOf(now.plus(CLAIM_LEASE)))
+                    .addValue("ids", rows.stream().map(OutboxRow::id).toList()));
+        }
+        return rows;
+    }
+
+    // Parçayı tek bağlantıda gönderir; başarısız olan satırları hata ile döner
+    private Map<OutboxRow, Exception> send(SimpleMailMessage[] ordered, Map<SimpleMailMessage, OutboxRow> messages) {
+        Map<OutboxRow, Exception> failures = new IdentityHashMap<>();
+        Timer.Sample sample = Timer.start();
+        try {
+            mailSender.send(ordered);
+        } catch (MailSendException e) {
+            // Mesaj bazında hatalar; bağlantı kurulamadıysa tüm mesajlar listelenir
+            e.getFailedMessages().forEach((message, failure) -> {
+                OutboxRow row = messages.get(message);
+                if (row != null) {
+                    failures.put(row, failure);
+                }
+            });
+            if (failures.isEmpty()) {
+                messages.values().forEach(row -> failures.put(row, e));
+            }
+        } catch (MailException e) {
+            // Kimlik doğrulama vb. parça genelindeki hatalar
+            messages.values().forEach(row -> failures.put(row, e));
+        } finally {
+            sample.stop(sendTimer);
+        }
+        return failures;
+    }
+
+    static Duration backoff(int attempts) {
+        Duration delay = BASE_BACKOFF.multipliedBy(1L << Math.min(attempts - 1, 16));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    /**
+     * Bekleyen e-posta sayısını DB'den düzeltir. Arada gauge, bu node'un ekleme ve gönderimleriyle
+     * güncellenir; COUNT(*) her gönderim turunda değil bu aralıkla çalışır.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.metrics-interval-ms:60000}")
+    public void refreshBacklogMetrics() {
+        try {
+            jdbcTemplate.query("SELECT COUNT(*) FROM email_outbox", (RowCallbackHandler) rs -> pending.set(rs.getLong(1)));
+        } catch (RuntimeException e) {
+            log.debug("E-posta outbox metrikleri okunamadi", e);
+        }
+    }
+
+    public long getPendingCount() {
+        return pending.get();
+    }
+
+    record BatchResult(int claimed, int sent) {
+    }
+
+    private record OutboxRow(long id, String recipient, String subject, String body, int attempts,
+                             LocalDateTime createdAt) {
+    }
+}
@@ -3,47 +3,28 @@ package com.workflow.backend.service;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+/**
+ * Kod e-postalarını oluşturur ve {@link EmailOutbox}'a ekler. Çağıranın transaction'ına katılır;
+ * gönderim, tekrar deneme ve SMTP bağlantısı outbox worker'ındadır.
+ */
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
 
-    private final JavaMailSender mailSender;
+    private final EmailOutbox emailOutbox;
 
-    @Async
     public void sendPasswordResetCode(String toEmail, String code) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(toEmail);
-            message.setSubject("WorkFlow - Sifre Sifirlama Kodu");
-            message.setText(buildPasswordResetEmailBody(code));
-
-            mailSender.send(message);
-            logger.info("Sifre sifirlama kodu {} adresine gonderildi", toEmail);
-        } catch (Exception e) {
-            logger.error("Email gonderme hatasi: {} - {}", toEmail, e.getMessage(), e);
-        }
+        emailOutbox.enqueue(toEmail, "WorkFlow - Sifre Sifirlama Kodu", buildPasswordResetEmailBody(code));
+        logger.info("Sifre sifirlama kodu e-postasi {} icin kuyruga alindi", toEmail);
     }
 
-    @Async
     public void sendRegistrationVerificationCode(String toEmail, String code) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(toEmail);
-            message.setSubject("WorkFlow - Kayit Dogrulama Kodu");
-            message.setText(buildRegistrationVerificationEmailBody(code));
-
-            mailSender.send(message);
-            logger.info("Kayit dogrulama kodu {} adresine gonderildi", toEmail);
-        } catch (Exception e) {
-            logger.error("Email gonderme hatasi: {} - {}", toEmail, e.getMessage(), e);
-        }
+        emailOutbox.enqueue(toEmail, "WorkFlow - Kayit Dogrulama Kodu", buildRegistrationVerificationEmailBody(code));
+        logger.info("Kayit dogrulama kodu e-postasi {} icin kuyruga alindi", toEmail);
     }
 
     private String buildRegistrationVerificationEmailBody(String code) {
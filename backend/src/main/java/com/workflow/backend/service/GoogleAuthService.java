@@ -33,6 +33,9 @@ public class GoogleAuthService {
 
     private final UserRepository userRepository;
     private final UserProfilePictureRepository profilePictureRepository;
+    private final AvatarResolver avatarResolver;
+    private final UsernameIndex usernameIndex;
+    private final GoogleAvatarImporter googleAvatarImporter;
     private final JwtService jwtService;
     private final RefreshTokenService refreshTokenService;
 
@@ -82,15 +85,15 @@ public class GoogleAuthService {
 
             // Mevcut kullaniciyi bul veya yeni olustur
             User user = userRepository.findByGoogleId(googleId)
+                    .map(this::retryPendingAvatarImport)
                     .orElseGet(() -> findOrCreateUser(googleId, email, givenName, familyName, name, picture));
 
             // Token'lari olustur (userId claim ile)
             String accessToken = jwtService.generateAccessToken(user.getUsername(), user.getId());
-            RefreshToken refreshToken = refreshTokenService.createRefreshToken(user.getUsername());
+            RefreshToken refreshToken = refreshTokenService.createRefreshToken(user.getId());
 
             // Profil resmi URL'ini al
-            String profilePictureUrl = profilePictureRepository.findFilePathByUserId(user.getId())
-                    .map(fp -> "/users/" + user.getId() + "/profile-picture").orElse(null);
+            String profilePictureUrl = avatarResolver.resolve(user.getId());
 
             // UserResponse olustur (token bilgileri icermiyor)
             UserResponse userResponse = new UserResponse();
@@ -151,6 +154,9 @@ public class GoogleAuthService {
                 boolean hasPicture = profilePictureRepository.findByUserId(savedUser.getId()).isPresent();
                 if (!hasPicture) {
                     profilePictureRepository.save(new UserProfilePicture(savedUser, picture));
+                    avatarResolver.invalidate(savedUser.getId());
+                    usernameIndex.markHasPicture(savedUser.getUsername(), savedUser.getId());
+                    googleAvatarImporter.scheduleImport(savedUser.getId(), picture);
                 }
             }
             return savedUser;
@@ -171,15 +177,26 @@ public class GoogleAuthService {
         newUser.setLastName(names[1]);
 
         User savedNewUser = userRepository.save(newUser);
+        usernameIndex.put(savedNewUser.getUsername(), savedNewUser.getId(), picture != null);
 
-        // Profil resmini ayri tabloda sakla
+        // Profil resmini ayri tabloda sakla; URL yer tutucudur, resim commit sonrasi yerel storage'a aktarilir
         if (picture != null) {
             profilePictureRepository.save(new UserProfilePicture(savedNewUser, picture));
+            avatarResolver.invalidate(savedNewUser.getId());
+            googleAvatarImporter.scheduleImport(savedNewUser.getId(), picture);
         }
 
         return savedNewUser;
     }
 
+    // Profil resmi hala Google URL'si olarak duruyorsa (onceki aktarim basarisiz/eski kayit) tekrar dene
+    private User retryPendingAvatarImport(User user) {
+        profilePictureRepository.findFilePathByUserId(user.getId())
+                .filter(GoogleAvatarImporter::isRemote)
+                .ifPresent(url -> googleAvatarImporter.scheduleImport(user.getId(), url));
+        return user;
+    }
+
     private String generateUniqueUsername(String name, String email) {
         // Oncelikle ismi kullan
         String baseUsername = name != null ? name.replaceAll("\\s+", "").toLowerCase() :
@@ -0,0 +1,173 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.config.GoogleAvatarImportProperties;
+import com.workflow.backend.entity.UserProfilePicture;
+import com.workflow.backend.repository.UserProfilePictureRepository;
+import com.workflow.backend.service.ProfilePictureStorageService.StoredFile;
+import com.workflow.backend.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Google ile giriş yapan kullanıcıların profil resmini yerel storage'a aktarır.
+ *
+ * Giriş sırasında kayda Google'ın resim URL'si yer tutucu olarak yazılır; commit sonrası sınırlı bir
+ * executor resmi indirir, normal yükleme yolundan ({@link ProfilePictureStorageService#store}) geçirir
+ * (boyut sınırı, tür kontrolü, dedup, variant'lar) ve kayıt hâlâ aynı URL'yi gösteriyorsa yeni dosyayla
+ * değiştirir. Bu arada kullanıcı kendi resmini yüklediyse değişiklik yapılmaz; indirilen blob'u
+ * {@link ProfilePictureGarbageCollector} toplar. Başarısız aktarımlar kullanıcının bir sonraki
+ * girişinde tekrar denenir.
+ */
+@Slf4j
+@Service
+public class GoogleAvatarImporter {
+
+    private final AvatarFetcher avatarFetcher;
+    private final ProfilePictureStorageService storageService;
+    private final UserProfilePictureRepository profilePictureRepository;
+    private final AvatarResolver avatarResolver;
+    private final TransactionTemplate transactionTemplate;
+    private final GoogleAvatarImportProperties properties;
+
+    private ThreadPoolExecutor executor;
+
+    public GoogleAvatarImporter(AvatarFetcher avatarFetcher,
+                                ProfilePictureStorageService storageService,
+                                UserProfilePictureRepository profilePictureRepository,
+                                AvatarResolver avatarResolver,
+                                PlatformTransactionManager transactionManager,
+                                GoogleAvatarImportProperties properties) {
+        this.avatarFetcher = avatarFetcher;
+        this.storageService = storageService;
+        this.profilePictureRepository = profilePictureRepository;
+        this.avatarResolver = avatarResolver;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "google-avatar-import");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Kayıttaki yol harici bir URL mi (henüz aktarılmamış Google resmi)?
+     */
+    public static boolean isRemote(String filePath) {
+        return filePath != null && (filePath.startsWith("https://") || filePath.startsWith("http://"));
+    }
+
+    /**
+     * Aktarımı planlar; aktif transaction varsa commit sonrasına ertelenir.
+     * İzin verilmeyen host'lar ve dolu kuyruk sessizce atlanır.
+     */
+    public void scheduleImport(Long userId, String pictureUrl) {
+        if (!properties.isEnabled() || !isAllowed(pictureUrl)) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            try {
+                executor.execute(() -> importPicture(userId, pictureUrl));
+            } catch (RejectedExecutionException e) {
+                log.warn("Google avatar aktarim kuyrugu dolu, atlandi: userId={}", userId);
+            }
+        });
+    }
+
+    /**
+     * Resmi indirip kaydeder ve kaydı değiştirir. Kayıt değiştiyse false döner.
+     */
+    boolean importPicture(Long userId, String pictureUrl) {
+        StoredFile stored;
+        try (InputStream content = avatarFetcher.fetch(URI.create(pictureUrl))) {
+            stored = storageService.store(userId, content);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Google avatar aktarilamadi: userId={}, {}", userId, e.getMessage());
+            return false;
+        }
+
+        try {
+            Boolean swapped = transactionTemplate.execute(status -> swap(userId, pictureUrl, stored));
+            if (Boolean.TRUE.equals(swapped)) {
+                log.info("Google avatar yerel storage'a aktarildi: userId={}", userId);
+                return true;
+            }
+        } catch (OptimisticLockingFailureException e) {
+            log.debug("Google avatar aktarimi sirasinda kayit degisti: userId={}", userId);
+        }
+        return false;
+    }
+
+    // Kayit hala ayni URL'yi gosteriyorsa yeni dosyaya cevir (@Version ile eszamanli yuklemeye karsi korunur)
+    private boolean swap(Long userId, String pictureUrl, StoredFile stored) {
+        Optional<UserProfilePicture> current = profilePictureRepository.findByUserId(userId);
+        if (current.isEmpty() || !pictureUrl.equals(current.get().getFilePath())) {
+            return false;
+        }
+        UserProfilePicture picture = current.get();
+        picture.setFilePath(stored.filePath());
+        picture.setContentHash(stored.contentHash());
+        profilePictureRepository.saveAndFlush(picture);
+        avatarResolver.invalidate(userId);
+        return true;
+    }
+
+    private boolean isAllowed(String pictureUrl) {
+        if (!isRemote(pictureUrl)) {
+            return false;
+        }
+        URI uri;
+        try {
+            uri = URI.create(pictureUrl);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        boolean allowed = isAllowedHost(uri, properties.getAllowedHosts());
+        if (!allowed) {
+            log.warn("Google avatar host'una izin verilmiyor: {}", uri.getHost());
+        }
+        return allowed;
+    }
+
+    /**
+     * URI'nin host'u izin listesindeki bir host'un kendisi ya da alt alan adı mı?
+     * {@link HttpAvatarFetcher} yönlendirme hedeflerini de bununla kontrol eder.
+     */
+    static boolean isAllowedHost(URI uri, List<String> allowedHosts) {
+        String host = uri.getHost();
+        if (host == null) {
+            return false;
+        }
+        String normalized = host.toLowerCase(Locale.ROOT);
+        return allowedHosts.stream()
+                .anyMatch(allowedHost -> normalized.equals(allowedHost) || normalized.endsWith("." + allowedHost));
+    }
+}
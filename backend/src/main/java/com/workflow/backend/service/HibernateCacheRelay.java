@@ -0,0 +1,155 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.entity.BoardMember;
+import com.workflow.backend.entity.User;
+import com.workflow.backend.entity.UserPrivacySettings;
+import com.workflow.backend.entity.UserProfilePicture;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Hibernate second-level cache node-local olduğu için L2'de tutulan entity'lerin değişikliklerini node'lar
+ * arasında taşır (User, BoardMember, UserPrivacySettings, UserProfilePicture).
+ *
+ * - Hibernate insert/update/delete olayları aynı transaction içinde user_cache_changes,
+ *   board_member_cache_changes ve user_profile_cache_changes tablolarına kayıt atar (ör. şifre değişikliği,
+ *   üyeden çıkarma, profili gizleme). Native SQL ile yapılan toplu silmeler olay üretmez; çağıran
+ *   publishUsers/publishBoardMembers/publishUserProfiles çağırır.
+ * - Her node tabloları periyodik okur: değişen kullanıcı yerel cache'ten silinir ve query cache
+ *   (findByUsername vb.) bırakılır; üyelik değişikliğinde BoardMember region'ı tamamen bırakılır
+ *   (silinen satırın id'si bilinmez, region ilk okumalarla yeniden dolar). Gizlilik ayarı veya profil resmi
+ *   değişikliğinde iki region da aynı şekilde bırakılır; findByUserId sonuçları için query cache de bırakılır
+ *   (update-timestamps region'ı node-local olduğundan diğer node'un yazısını görmez).
+ * - Değişikliği yapan node kendi kayıtlarını atlar; kendi cache'ini Hibernate zaten güncellemiştir.
+ */
+@Slf4j
+@Component
+public class HibernateCacheRelay implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final Duration CHANGE_RETENTION = Duration.ofMinutes(10);
+
+    private final ChangeFeed userChanges;
+    private final ChangeFeed boardMemberChanges;
+    private final ChangeFeed userProfileChanges;
+    private final Cache cache;
+
+    public HibernateCacheRelay(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        this.userChanges = new ChangeFeed(jdbcTemplate, "user_cache_changes");
+        this.boardMemberChanges = new ChangeFeed(jdbcTemplate, "board_member_cache_changes");
+        this.userProfileChanges = new ChangeFeed(jdbcTemplate, "user_profile_cache_changes");
+
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.cache = sessionFactory.getCache();
+        EventListenerRegistry listeners = sessionFactory.getEventListenerRegistry();
+        listeners.appendListeners(EventType.POST_INSERT, this);
+        listeners.appendListeners(EventType.POST_UPDATE, this);
+        listeners.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    /**
+     * Kullanıcılar değişti. Çağıranın transaction'ına katılır.
+     */
+    public void publishUsers(Collection<Long> userIds) {
+        userChanges.publish(userIds);
+    }
+
+    /**
+     * Kullanıcıların pano üyelikleri değişti. Çağıranın transaction'ına katılır.
+     */
+    public void publishBoardMembers(Collection<Long> userIds) {
+        boardMemberChanges.publish(userIds);
+    }
+
+    /**
+     * Kullanıcıların gizlilik ayarları veya profil resimleri değişti. Çağıranın transaction'ına katılır.
+     */
+    public void publishUserProfiles(Collection<Long> userIds) {
+        userProfileChanges.publish(userIds);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        // Yeni kullanıcı: diğer node'larda "bu kullanıcı adı yok" diyen query cache sonucu kalmamalı
+        publish(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void publish(Object entity) {
+        if (entity instanceof User user) {
+            publishUsers(List.of(user.getId()));
+        } else if (entity instanceof BoardMember member && member.getUser() != null) {
+            publishBoardMembers(List.of(member.getUser().getId()));
+        } else if (entity instanceof UserPrivacySettings settings && settings.getUser() != null) {
+            publishUserProfiles(List.of(settings.getUser().getId()));
+        } else if (entity instanceof UserProfilePicture picture && picture.getUser() != null) {
+            publishUserProfiles(List.of(picture.getUser().getId()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${hibernate-cache.change-poll-interval-ms:1000}")
+    public void pollChanges() {
+        ChangeFeed.Batch users = userChanges.poll();
+        if (users.reset() || users.changes().stream().anyMatch(change -> change.userId() == null)) {
+            cache.evictEntityData(User.class);
+            cache.evictQueryRegions();
+        } else if (!users.changes().isEmpty()) {
+            users.changes().forEach(change -> cache.evictEntityData(User.class, change.userId()));
+            cache.evictQueryRegions();
+        }
+
+        ChangeFeed.Batch members = boardMemberChanges.poll();
+        if (members.reset() || !members.changes().isEmpty()) {
+            cache.evictEntityData(BoardMember.class);
+        }
+
+        ChangeFeed.Batch profiles = userProfileChanges.poll();
+        if (profiles.reset() || !profiles.changes().isEmpty()) {
+            cache.evictEntityData(UserPrivacySettings.class);
+            cache.evictEntityData(UserProfilePicture.class);
+            cache.evictQueryRegions();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${hibernate-cache.change-prune-interval-ms:600000}")
+    public void pruneChanges() {
+        int deleted = userChanges.prune(CHANGE_RETENTION) + boardMemberChanges.prune(CHANGE_RETENTION)
+                + userProfileChanges.prune(CHANGE_RETENTION);
+        if (deleted > 0) {
+            log.debug("Eski L2 cache degisiklik kayitlari silindi: {}", deleted);
+        }
+    }
+}
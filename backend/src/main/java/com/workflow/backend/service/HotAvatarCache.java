@@ -0,0 +1,189 @@
+package com.workflow.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.workflow.backend.service.ProfilePictureStorageService.StoredPicture;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Sık istenen avatarların encode edilmiş byte'larını bellekte tutan cache.
+ *
+ * Trafiğin çoğu en aktif birkaç yüz kullanıcının küçük variant'larına gelir; bunlar her istekte
+ * diskten okunmak yerine direct {@link ByteBuffer}'lardan sunulur (GC'nin taradığı heap'in dışında).
+ * Sınır girdi sayısı değil toplam byte'tır; Caffeine'in W-TinyLFU politikası sıcak olanları tutar.
+ * Bir avatarın ilk isteği heap'e okunan kopyadan sunulur; direct buffer ayrılıp cache'e sadece kısa
+ * süre içinde tekrar istenen avatarlar alınır (tek seferlik istekler native bellek ayırmaz).
+ * Anahtar kullanıcı + içerik hash'i (ETag) olduğundan eski içerik hiçbir zaman sunulmaz;
+ * {@link #invalidate(Long)} sadece belleği erkenden geri verir.
+ *
+ * Not: çıkarılan direct buffer'ların native belleği, buffer nesnesi GC ile toplandığında serbest
+ * kalır; -XX:MaxDirectMemorySize bu cache'in sınırından yüksek tutulmalıdır.
+ */
+@Slf4j
+@Component
+public class HotAvatarCache {
+
+    // Bir kez istenmiş, henüz cache'e alınmamış avatarlar
+    private static final int DOORKEEPER_SIZE = 10_000;
+
+    private final long maxEntryBytes;
+    private final Cache<Key, ByteBuffer> cache;
+    private final Cache<Key, Boolean> doorkeeper = Caffeine.newBuilder().maximumSize(DOORKEEPER_SIZE).build();
+
+    public HotAvatarCache(@Value("${profile-picture.hot-cache.max-bytes:67108864}") long maxBytes,
+                          @Value("${profile-picture.hot-cache.max-entry-bytes:65536}") long maxEntryBytes,
+                          MeterRegistry meterRegistry) {
+        this.maxEntryBytes = maxEntryBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, ByteBuffer bytes) -> bytes.capacity())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "hotAvatars");
+        Gauge.builder("avatar.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Bellekten sunulan avatar isteklerinin orani")
+                .register(meterRegistry);
+        Gauge.builder("avatar.cache.resident", cache,
+                        c -> c.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+                .description("Cache'te tutulan avatar byte'lari")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Avatarın bellekteki kopyası; yoksa dosyadan okunur ve tekrar isteniyorsa cache'e alınır.
+     * Girdi sınırından büyük dosyalar (orijinaller) cache'lenmez; bunlar ve okunamayan (ör. bu arada
+     * silinmiş) dosyalar için boş döner, çağıran dosyadan sunar ya da 404 döner.
+     */
+    public Optional<Resource> get(Long userId, StoredPicture picture) {
+        if (picture.size() > maxEntryBytes) {
+            return Optional.empty();
+        }
+        Key key = new Key(userId, picture.etag());
+        ByteBuffer cached = cache.getIfPresent(key);
+        Optional<ByteBuffer> bytes = cached != null ? Optional.of(cached) : read(picture).map(heap -> admit(key, heap));
+        return bytes.map(buffer -> new ByteBufferResource(buffer, picture.path().getFileName().toString()));
+    }
+
+    /**
+     * Kullanıcının tüm cache'lenmiş avatarlarını çıkarır (profil resmi değişti veya hesap silindi).
+     */
+    public void invalidate(Long userId) {
+        cache.asMap().keySet().removeIf(key -> key.userId().equals(userId));
+        doorkeeper.asMap().keySet().removeIf(key -> key.userId().equals(userId));
+    }
+
+    // İlk istek heap kopyasından sunulur; ikinci istekte direct buffer'a kopyalanıp cache'e alınır
+    private ByteBuffer admit(Key key, ByteBuffer heap) {
+        if (doorkeeper.asMap().remove(key) == null) {
+            doorkeeper.put(key, Boolean.TRUE);
+            return heap;
+        }
+        ByteBuffer direct = ByteBuffer.allocateDirect(heap.remaining());
+        direct.put(heap.duplicate()).flip();
+        ByteBuffer readOnly = direct.asReadOnlyBuffer();
+        cache.put(key, readOnly);
+        return readOnly;
+    }
+
+    private static Optional<ByteBuffer> read(StoredPicture picture) {
+        ByteBuffer buffer = ByteBuffer.allocate((int) picture.size());
+        try (FileChannel channel = FileChannel.open(picture.path(), StandardOpenOption.READ)) {
+            int read;
+            do {
+                read = channel.read(buffer);
+            } while (read != -1 && buffer.hasRemaining());
+        } catch (IOException e) {
+            log.debug("Avatar okunamadi: {}", picture.path(), e);
+            return Optional.empty();
+        }
+        buffer.flip();
+        return Optional.of(buffer.asReadOnlyBuffer());
+    }
+
+    private record Key(Long userId, String contentHash) {
+    }
+
+    /**
+     * Paylaşılan buffer üzerinde her açılışta bağımsız bir okuma görünümü; Range istekleri için
+     * tekrar tekrar açılabilir.
+     */
+    private static final class ByteBufferResource extends AbstractResource {
+
+        private final ByteBuffer bytes;
+        private final String filename;
+
+        private ByteBufferResource(ByteBuffer bytes, String filename) {
+            this.bytes = bytes;
+            this.filename = filename;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            ByteBuffer view = bytes.duplicate();
+            return new InputStream() {
+                @Override
+                public int read() {
+                    return view.hasRemaining() ? view.get() & 0xFF : -1;
+                }
+
+                @Override
+                public int read(byte[] target, int offset, int length) {
+                    if (!view.hasRemaining()) {
+                        return -1;
+                    }
+                    int count = Math.min(length, view.remaining());
+                    view.get(target, offset, count);
+                    return count;
+                }
+
+                @Override
+                public long skip(long n) {
+                    int count = (int) Math.max(0, Math.min(n, view.remaining()));
+                    view.position(view.position() + count);
+                    return count;
+                }
+
+                @Override
+                public int available() {
+                    return view.remaining();
+                }
+            };
+        }
+
+        @Override
+        public long contentLength() {
+            return bytes.remaining();
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+
+        @Override
+        public String getDescription() {
+            return "hot avatar [" + filename + "]";
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.config.GoogleAvatarImportProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * JDK {@link HttpClient} ile çalışan varsayılan {@link AvatarFetcher}.
+ *
+ * - Bağlantı ve yanıt başlıkları için ayrı zaman aşımları, yönlendirmeler ve gövde dahil tüm indirme
+ *   için toplam süre uygulanır; süre dolunca istek iptal edilir (yavaş akan gövde thread'i tutamaz).
+ * - Yönlendirmeler client'a bırakılmaz: her adımda hedef host izin listesine göre tekrar kontrol edilir
+ *   ve https'ten http'ye inilmez.
+ * - Gövde {@link ProfilePictureStorageService#MAX_UPLOAD_BYTES} sınırına kadar belleğe okunur.
+ */
+@Component
+public class HttpAvatarFetcher implements AvatarFetcher {
+
+    private static final Set<Integer> REDIRECT_STATUSES = Set.of(301, 302, 303, 307, 308);
+
+    private final HttpClient httpClient;
+    private final GoogleAvatarImportProperties properties;
+
+    public HttpAvatarFetcher(GoogleAvatarImportProperties properties) {
+        this.properties = properties;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    @Override
+    public InputStream fetch(URI uri) throws IOException {
+        long deadlineNanos = System.nanoTime() + properties.getTotalTimeout().toNanos();
+        URI current = uri;
+        for (int redirects = 0; ; redirects++) {
+            HttpResponse<byte[]> response = send(current, deadlineNanos);
+            int status = response.statusCode();
+            if (!REDIRECT_STATUSES.contains(status)) {
+                if (status != 200) {
+                    throw new IOException("Avatar indirilemedi: HTTP " + status + " " + current);
+                }
+                return new ByteArrayInputStream(response.body());
+            }
+            if (redirects >= properties.getMaxRedirects()) {
+                throw new IOException("Avatar cok fazla yonlendirildi: " + uri);
+            }
+            current = redirectTarget(current, response);
+        }
+    }
+
+    private HttpResponse<byte[]> send(URI uri, long deadlineNanos) throws IOException {
+        long remainingNanos = deadlineNanos - System.nanoTime();
+        if (remainingNanos <= 0) {
+            throw new IOException("Avatar indirme zaman asimina ugradi: " + uri);
+        }
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(properties.getReadTimeout())
+                .header("Accept", "image/*")
+                .GET()
+                .build();
+        CompletableFuture<HttpResponse<byte[]>> future = httpClient.sendAsync(request, HttpAvatarFetcher::bodySubscriber);
+        try {
+            return future.get(remainingNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new IOException("Avatar indirme zaman asimina ugradi: " + uri, e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Avatar indirme kesildi: " + uri, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Avatar indirilemedi: " + uri, e.getCause());
+        }
+    }
+
+    private URI redirectTarget(URI current, HttpResponse<?> response) throws IOException {
+        String location = response.headers().firstValue("Location")
+                .orElseThrow(() -> new IOException("Avatar yonlendirmesinde Location yok: " + current));
+        URI target;
+        try {
+            target = current.resolve(location);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Avatar yonlendirmesi gecersiz: " + location, e);
+        }
+        boolean schemeAllowed = "https".equalsIgnoreCase(target.getScheme())
+                || ("http".equalsIgnoreCase(target.getScheme()) && "http".equalsIgnoreCase(current.getScheme()));
+        if (!schemeAllowed || !GoogleAvatarImporter.isAllowedHost(target, properties.getAllowedHosts())) {
+            throw new IOException("Avatar yonlendirmesine izin verilmiyor: " + target);
+        }
+        return target;
+    }
+
+    // Sadece 200 yanıtının gövdesi okunur; diğerleri (hata, yönlendirme) atılır
+    private static HttpResponse.BodySubscriber<byte[]> bodySubscriber(HttpResponse.ResponseInfo responseInfo) {
+        if (responseInfo.statusCode() != 200) {
+            return HttpResponse.BodySubscribers.replacing(null);
+        }
+        long contentLength = responseInfo.headers().firstValueAsLong("Content-Length").orElse(-1);
+        return new BoundedBodySubscriber(contentLength);
+    }
+
+    /**
+     * Gövdeyi {@link ProfilePictureStorageService#MAX_UPLOAD_BYTES} sınırına kadar toplar;
+     * sınır aşılınca aboneliği iptal edip hata ile tamamlanır.
+     */
+    private static final class BoundedBodySubscriber implements HttpResponse.BodySubscriber<byte[]> {
+
+        private final CompletableFuture<byte[]> result = new CompletableFuture<>();
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final long contentLength;
+        private Flow.Subscription subscription;
+
+        private BoundedBodySubscriber(long contentLength) {
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public CompletionStage<byte[]> getBody() {
+            return result;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (contentLength > ProfilePictureStorageService.MAX_UPLOAD_BYTES) {
+                subscription.cancel();
+                result.completeExceptionally(new IOException("Avatar cok buyuk: " + contentLength + " byte"));
+                return;
+            }
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            if (result.isDone()) {
+                return;
+            }
+            for (ByteBuffer item : items) {
+                int length = item.remaining();
+                if (buffer.size() + length > ProfilePictureStorageService.MAX_UPLOAD_BYTES) {
+                    subscription.cancel();
+                    result.completeExceptionally(new IOException("Avatar cok buyuk: "
+                            + ProfilePictureStorageService.MAX_UPLOAD_BYTES + " byte siniri asildi"));
+                    return;
+                }
+                byte[] chunk = new byte[length];
+                item.get(chunk);
+                buffer.write(chunk, 0, length);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            result.complete(buffer.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.workflow.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Kodları node belleğinde tutan backend; gönderim ve hatalı denemeler veritabanına yazılmaz.
+ * Tek replika çalışan kurulumlar içindir: kod hangi node'da üretildiyse doğrulama da orada yapılmalıdır
+ * ve yeniden başlatmada bekleyen kodlar kaybolur (kullanıcı yeni kod ister).
+ *
+ * Süre aşımı Caffeine'in değişken süreli expiry'si ile yapılır (hiyerarşik timer wheel, O(1));
+ * scheduler süresi dolan kodları erişim beklemeden temizler. Süresi dolan kod bulunamamış sayılır.
+ */
+@Component
+@ConditionalOnProperty(name = "verification-code.store", havingValue = "memory")
+public class InMemoryVerificationCodeStore implements VerificationCodeStore {
+
+    // Kayıt kampanyası / kötüye kullanımda bellek sınırı
+    private static final int MAX_ENTRIES = 100_000;
+
+    private final Cache<Key, Entry> codes;
+
+    public InMemoryVerificationCodeStore() {
+        this(Ticker.systemTicker());
+    }
+
+    InMemoryVerificationCodeStore(Ticker ticker) {
+        this.codes = Caffeine.newBuilder()
+                .maximumSize(MAX_ENTRIES)
+                .expireAfter(new Expiry<Key, Entry>() {
+                    @Override
+                    public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+                        return entry.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos(); // yeni kod gönderildi
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .scheduler(Scheduler.systemScheduler())
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public void save(Purpose purpose, String subject, String code, Duration ttl) {
+        codes.put(new Key(purpose, subject), new Entry(code, ttl.toNanos(), new AtomicInteger()));
+    }
+
+    @Override
+    public Result verify(Purpose purpose, String subject, String code) {
+        return check(new Key(purpose, subject), code, false);
+    }
+
+    @Override
+    public Result consume(Purpose purpose, String subject, String code) {
+        return check(new Key(purpose, subject), code, true);
+    }
+
+    private Result check(Key key, String code, boolean consume) {
+        Entry entry = codes.getIfPresent(key);
+        if (entry == null) {
+            return Result.NOT_FOUND;
+        }
+        // Deneme hakkı karşılaştırmadan önce ayrılır; eş zamanlı tahminler sınırı aşamaz
+        if (entry.attempts().incrementAndGet() > MAX_ATTEMPTS) {
+            return Result.TOO_MANY_ATTEMPTS;
+        }
+        if (!VerificationCodeStore.codesMatch(entry.code(), code)) {
+            return Result.MISMATCH;
+        }
+        entry.attempts().decrementAndGet(); // doğru kod hak harcamaz
+        if (consume && !codes.asMap().remove(key, entry)) {
+            // Aynı kod başka bir istek tarafından tüketildi veya yeni kod gönderildi
+            return Result.NOT_FOUND;
+        }
+        return Result.MATCH;
+    }
+
+    private record Key(Purpose purpose, String subject) {
+    }
+
+    private record Entry(String code, long ttlNanos, AtomicInteger attempts) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.entity.EmailVerificationToken;
+import com.workflow.backend.entity.PasswordResetToken;
+import com.workflow.backend.entity.User;
+import com.workflow.backend.repository.EmailVerificationTokenRepository;
+import com.workflow.backend.repository.PasswordResetTokenRepository;
+import com.workflow.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Kodları email_verification_tokens / password_reset_tokens tablolarında tutan varsayılan backend.
+ * Kodlar tüm replikalarda görünür; her gönderim ve hatalı deneme bir veritabanı yazmasıdır.
+ */
+@Component
+@ConditionalOnProperty(name = "verification-code.store", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaVerificationCodeStore implements VerificationCodeStore {
+
+    private final EmailVerificationTokenRepository emailTokenRepository;
+    private final PasswordResetTokenRepository resetTokenRepository;
+    private final UserRepository userRepository;
+
+    @Override
+    @Transactional
+    public void save(Purpose purpose, String subject, String code, Duration ttl) {
+        Instant expiresAt = Instant.now().plus(ttl);
+        if (purpose == Purpose.EMAIL_VERIFICATION) {
+            emailTokenRepository.deleteByEmail(subject);
+
+            EmailVerificationToken token = new EmailVerificationToken();
+            token.setEmail(subject);
+            token.setCode(code);
+            token.setExpiresAt(expiresAt);
+            emailTokenRepository.save(token);
+            return;
+        }
+
+        User user = userRepository.findByEmailIgnoreCase(subject);
+        if (user == null) {
+            throw new IllegalArgumentException("Sifre sifirlama kodu icin kullanici bulunamadi");
+        }
+        resetTokenRepository.deleteByUser(user);
+
+        PasswordResetToken token = new PasswordResetToken();
+        token.setCode(code);
+        token.setUser(user);
+        token.setExpiresAt(expiresAt);
+        resetTokenRepository.save(token);
+    }
+
+    @Override
+    @Transactional
+    public Result verify(Purpose purpose, String subject, String code) {
+        return check(purpose, subject, code, false);
+    }
+
+    @Override
+    @Transactional
+    public Result consume(Purpose purpose, String subject, String code) {
+        return check(purpose, subject, code, true);
+    }
+
+    private Result check(Purpose purpose, String subject, String code, boolean consume) {
+        if (purpose == Purpose.EMAIL_VERIFICATION) {
+            return emailTokenRepository.findByEmailAndUsedFalse(subject)
+                    .map(token -> {
+                        Result result = evaluate(token.isExpired(), token.getAttempts(), token.getCode(), code);
+                        if (result == Result.MISMATCH) {
+                            token.setAttempts(token.getAttempts() + 1);
+                            emailTokenRepository.save(token);
+                        } else if (result == Result.MATCH && consume) {
+                            token.setUsed(true);
+                            emailTokenRepository.save(token);
+                        }
+                        return result;
+                    })
+                    .orElse(Result.NOT_FOUND);
+        }
+
+        return resetTokenRepository.findByUserEmailAndUsedFalse(subject)
+                .map(token -> {
+                    Result result = evaluate(token.isExpired(), token.getAttempts(), token.getCode(), code);
+                    if (result == Result.MISMATCH) {
+                        token.setAttempts(token.getAttempts() + 1);
+                        resetTokenRepository.save(token);
+                    } else if (result == Result.MATCH && consume) {
+                        token.setUsed(true);
+                        resetTokenRepository.save(token);
+                    }
+                    return result;
+                })
+                .orElse(Result.NOT_FOUND);
+    }
+
+    private static Result evaluate(boolean expired, int attempts, String expected, String code) {
+        if (expired) {
+            return Result.EXPIRED;
+        }
+        if (attempts >= MAX_ATTEMPTS) {
+            return Result.TOO_MANY_ATTEMPTS;
+        }
+        return VerificationCodeStore.codesMatch(expected, code) ? Result.MATCH : Result.MISMATCH;
+    }
+}
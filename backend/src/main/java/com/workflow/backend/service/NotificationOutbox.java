@@ -0,0 +1,329 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.dto.NotificationResponse;
+import com.workflow.backend.dto.UserSummary;
+import com.workflow.backend.entity.NotificationType;
+import com.workflow.backend.util.TransactionUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Bildirim yazma yolu için transactional outbox.
+ *
+ * - İş kodu ({@link #enqueue}) bildirimi kendi transaction'ı içinde notification_outbox tablosuna
+ *   tek bir insert ile ekler; notifications indeksleri, sayaçlar ve SSE push iş isteğinin yolunda değildir.
+ * - Worker satırları parça parça sahiplenir (FOR UPDATE SKIP LOCKED, birden fazla node güvenle çalışır),
+ *   aynı olayın tekrarlarını birleştirir, notifications tablosuna JDBC batch insert ile yazar ve
+ *   outbox satırlarını aynı transaction içinde siler.
+ * - Teslimat en az bir kez (at-least-once): worker commit öncesi düşerse satırlar outbox'ta kalır
+ *   ve sonraki turda tekrar işlenir. Sayaç ve push güncellemeleri yalnızca commit sonrası yapılır.
+ */
+@Slf4j
+@Component
+public class NotificationOutbox {
+
+    private static final int BATCH_SIZE = 200;
+    private static final int MAX_BATCHES_PER_RUN = 20;
+    // Bu sayının üzerindeki birikme, worker'ın yazma hızına yetişemediğini gösterir
+    private static final long BACKLOG_WARN_THRESHOLD = 10_000;
+
+    private static final String INSERT_OUTBOX_SQL =
+            "INSERT INTO notification_outbox (recipient_id, actor_id, type, message, reference_id, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String CLAIM_BATCH_SQL =
+            "SELECT id, recipient_id, actor_id, type, message, reference_id, created_at " +
+            "FROM notification_outbox ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String INSERT_NOTIFICATION_SQL =
+            "INSERT INTO notifications (version, recipient_id, actor_id, type, message, is_read, reference_id, created_at) " +
+            "VALUES (0, ?, ?, ?, ?, FALSE, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UnreadNotificationCounter unreadCounter;
+    private final NotificationStreamService notificationStreamService;
+    private final NotificationStreamRelay notificationStreamRelay;
+    private final UserSummaryCache userSummaryCache;
+    private final AvatarResolver avatarResolver;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestAgeSeconds = new AtomicLong();
+    private final Counter enqueuedCounter;
+    private final Counter deliveredCounter;
+    private final Counter coalescedCounter;
+    private final Timer drainTimer;
+
+    @Value("${notification.outbox.worker-enabled:true}")
+    private boolean workerEnabled;
+
+    public NotificationOutbox(DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              UnreadNotificationCounter unreadCounter,
+                              NotificationStreamService notificationStreamService,
+                              NotificationStreamRelay notificationStreamRelay,
+                              UserSummaryCache userSummaryCache,
+                              AvatarResolver avatarResolver,
+                              MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        // REQUIRED: dışarıda bir transaction varsa ona katılır (test rollback senaryosu bunu kullanır)
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.unreadCounter = unreadCounter;
+        this.notificationStreamService = notificationStreamService;
+        this.notificationStreamRelay = notificationStreamRelay;
+        this.userSummaryCache = userSummaryCache;
+        this.avatarResolver = avatarResolver;
+
+        Gauge.builder("notification.outbox.pending", pending, AtomicLong::get)
+                .description("Teslim edilmeyi bekleyen outbox satiri sayisi")
+                .register(meterRegistry);
+        Gauge.builder("notification.outbox.oldest.age", oldestAgeSeconds, AtomicLong::get)
+                .description("En eski bekleyen outbox satirinin yasi")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.enqueuedCounter = Counter.builder("notification.outbox.enqueued").register(meterRegistry);
+        this.deliveredCounter = Counter.builder("notification.outbox.delivered").register(meterRegistry);
+        this.coalescedCounter = Counter.builder("notification.outbox.coalesced")
+                .description("Tekrar eden oldugu icin birlestirilen olay sayisi")
+                .register(meterRegistry);
+        this.drainTimer = Timer.builder("notification.outbox.drain").register(meterRegistry);
+    }
+
+    /**
+     * Bildirimi outbox'a ekler. Çağıranın transaction'ına katılır; rollback olursa olay da kaybolur.
+     */
+    public void enqueue(Long recipientId, Long actorId, NotificationType type, String message, Long referenceId) {
+        jdbcTemplate.update(INSERT_OUTBOX_SQL, recipientId, actorId, type.name(), message, referenceId,
+                Timestamp.valueOf(LocalDateTime.now()));
+        enqueuedCounter.increment();
+        TransactionUtils.afterCommit(pending::incrementAndGet);
+    }
+
+    /**
+     * Henüz teslim edilmemiş olayları siler (ör. kabul edilen bağlantı isteğinin bildirimi).
+     * Worker'ın o an sahiplendiği satırlar varsa kilit bırakılana kadar bekler.
+     */
+    public int deleteByReference(Long referenceId, NotificationType type) {
+        int deleted = jdbcTemplate.update("DELETE FROM notification_outbox WHERE reference_id = ? AND type = ?",
+                referenceId, type.name());
+        if (deleted > 0) {
+            TransactionUtils.afterCommit(() -> decrementPending(deleted));
+        }
+        return deleted;
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:500}")
+    public void drain() {
+        if (!workerEnabled) {
+            return;
+        }
+        drainAll();
+    }
+
+    /**
+     * Outbox boşalana ya da tur başına parça sınırına ulaşılana kadar parça parça teslim eder.
+     */
+    public int drainAll() {
+        int total = 0;
+        try {
+            for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+                int claimed = drainBatch();
+                total += claimed;
+                if (claimed < BATCH_SIZE) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            // Transaction rollback oldu; satırlar outbox'ta kalır ve sonraki turda tekrar denenir
+            log.error("Bildirim outbox teslimati basarisiz, tekrar denenecek", e);
+        }
+        return total;
+    }
+
+    /**
+     * Tek bir parçayı sahiplenir, teslim eder ve siler. Sahiplenilen satır sayısını döner.
+     */
+    public int drainBatch() {
+        Integer claimed = drainTimer.record(() -> transactionTemplate.execute(status -> {
+            List<OutboxRow> rows = jdbcTemplate.query(CLAIM_BATCH_SQL, (rs, rowNum) -> new OutboxRow(
+                    rs.getLong("id"),
+                    rs.getLong("recipient_id"),
+                    rs.getLong("actor_id"),
+                    NotificationType.valueOf(rs.getString("type")),
+                    rs.getString("message"),
+                    rs.getObject("reference_id", Long.class),
+                    rs.getTimestamp("created_at").toLocalDateTime()), BATCH_SIZE);
+            if (rows.isEmpty()) {
+                return 0;
+            }
+
+            List<OutboxRow> events = coalesce(rows);
+            List<Long> notificationIds = insertNotifications(events);
+            namedJdbcTemplate.update("DELETE FROM notification_outbox WHERE id IN (:ids)",
+                    new MapSqlParameterSource("ids", rows.stream().map(OutboxRow::id).toList()));
+            // Alıcının bağlantısı başka bir node'da olabilir
+            notificationStreamRelay.publish(events.stream().map(OutboxRow::recipientId).collect(Collectors.toSet()));
+
+            publishAfterCommit(events, notificationIds);
+            TransactionUtils.afterCommit(() -> {
+                deliveredCounter.increment(events.size());
+                coalescedCounter.increment(rows.size() - events.size());
+                decrementPending(rows.size());
+            });
+            return rows.size();
+        }));
+        return claimed != null ? claimed : 0;
+    }
+
+    // Aynı alıcıya aynı aktörden aynı referans için gelen tekrar olaylar tek bildirim olur (son mesaj kazanır)
+    private List<OutboxRow> coalesce(List<OutboxRow> rows) {
+        Map<EventKey, OutboxRow> latest = new LinkedHashMap<>();
+        for (OutboxRow row : rows) {
+            EventKey key = new EventKey(row.recipientId(), row.actorId(), row.type(), row.referenceId());
+            latest.remove(key);
+            latest.put(key, row);
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    private List<Long> insertNotifications(List<OutboxRow> events) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_NOTIFICATION_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        OutboxRow event = events.get(i);
+                        ps.setLong(1, event.recipientId());
+                        ps.setLong(2, event.actorId());
+                        ps.setString(3, event.type().name());
+                        ps.setString(4, event.message());
+                        if (event.referenceId() != null) {
+                            ps.setLong(5, event.referenceId());
+                        } else {
+                            ps.setNull(5, Types.BIGINT);
+                        }
+                        ps.setTimestamp(6, Timestamp.valueOf(event.createdAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return events.size();
+                    }
+                },
+                keyHolder);
+
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.values().iterator().next()).longValue())
+                .toList();
+    }
+
+    private void publishAfterCommit(List<OutboxRow> events, List<Long> notificationIds) {
+        Map<Long, Long> deliveredByRecipient = events.stream()
+                .collect(Collectors.groupingBy(OutboxRow::recipientId, Collectors.counting()));
+        deliveredByRecipient.forEach(unreadCounter::increment);
+
+        // Sadece bu node'da açık SSE bağlantısı olan alıcılar için response oluşturulur
+        List<Integer> pushIndexes = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            if (notificationStreamService.hasSubscribers(events.get(i).recipientId())) {
+                pushIndexes.add(i);
+            }
+        }
+        if (pushIndexes.isEmpty()) {
+            return;
+        }
+
+        Set<Long> actorIds = pushIndexes.stream().map(i -> events.get(i).actorId()).collect(Collectors.toSet());
+        Map<Long, UserSummary> actors = userSummaryCache.findAllById(actorIds);
+        Map<Long, String> actorPictures = avatarResolver.resolveAll(actorIds);
+
+        for (int i : pushIndexes) {
+            OutboxRow event = events.get(i);
+            NotificationResponse response = new NotificationResponse();
+            response.setId(i < notificationIds.size() ? notificationIds.get(i) : null);
+            response.setType(event.type().name());
+            response.setMessage(event.message());
+            response.setIsRead(false);
+            response.setActorId(event.actorId());
+            UserSummary actor = actors.get(event.actorId());
+            response.setActorUsername(actor != null ? actor.username() : null);
+            response.setActorProfilePicture(actorPictures.get(event.actorId()));
+            response.setReferenceId(event.referenceId());
+            response.setCreatedAt(event.createdAt());
+            notificationStreamService.sendNotification(event.recipientId(), response);
+        }
+        pushIndexes.stream().map(i -> events.get(i).recipientId()).distinct().forEach(recipientId ->
+                notificationStreamService.sendUnreadCount(recipientId, () -> unreadCounter.get(recipientId)));
+    }
+
+    private void decrementPending(int rows) {
+        pending.updateAndGet(count -> Math.max(0, count - rows));
+    }
+
+    /**
+     * Bekleyen satır sayısını ve en eski satırın yaşını DB'den düzeltir. Arada bekleyen sayısı bu node'un
+     * ekleme ve teslimleriyle güncellenir; COUNT(*) her teslim turunda değil bu aralıkla çalışır.
+     */
+    @Scheduled(fixedDelayString = "${notification.outbox.metrics-interval-ms:60000}")
+    public void refreshBacklogMetrics() {
+        try {
+            jdbcTemplate.query("SELECT COUNT(*), MIN(created_at) FROM notification_outbox", (RowCallbackHandler) rs -> {
+                long count = rs.getLong(1);
+                Timestamp oldest = rs.getTimestamp(2);
+                pending.set(count);
+                oldestAgeSeconds.set(oldest != null
+                        ? Math.max(0, Duration.between(oldest.toLocalDateTime(), LocalDateTime.now()).toSeconds())
+                        : 0);
+                if (count > BACKLOG_WARN_THRESHOLD) {
+                    log.warn("Bildirim outbox birikiyor: bekleyen={}, en eski={} sn", count, oldestAgeSeconds.get());
+                }
+            });
+        } catch (RuntimeException e) {
+            log.debug("Outbox metrikleri okunamadi", e);
+        }
+    }
+
+    public long getPendingCount() {
+        return pending.get();
+    }
+
+    private record OutboxRow(long id, Long recipientId, Long actorId, NotificationType type, String message,
+                             Long referenceId, LocalDateTime createdAt) {
+    }
+
+    private record EventKey(Long recipientId, Long actorId, NotificationType type, Long referenceId) {
+    }
+}
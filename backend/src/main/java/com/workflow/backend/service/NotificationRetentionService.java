@@ -0,0 +1,287 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.config.NotificationRetentionProperties;
+import com.workflow.backend.repository.ConnectionRepository;
+import com.workflow.backend.repository.NotificationRepository;
+import com.workflow.backend.scheduling.ScheduledJobRunner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Bildirim tablosunun büyümesini sınırlayan arka plan işleri.
+ *
+ * - Partition bakımı (sadece PostgreSQL, V32): ileriye dönük aylık partition'ları oluşturur ve
+ *   saklama süresini aşan partition'ları DROP eder. Satır satır DELETE ve VACUUM yükü yoktur.
+ *   Default partition'a düşmüş satırlar varsa önce yeni partition'a taşınır, sonra ATTACH edilir.
+ * - Eski bağlantı isteği temizliği: artık PENDING olmayan bağlantılara ait CONNECTION_REQUEST
+ *   bildirimlerini id sırasıyla küçük parçalar halinde siler. {@link ScheduledJobRunner} ile tek bir
+ *   node'da çalışır; kaldığı yer kilit satırında saklanır. Tur başına iş sınırlıdır, uygulama
+ *   başlangıcını bloklamaz.
+ */
+@Slf4j
+@Service
+public class NotificationRetentionService {
+
+    private static final String PARENT_TABLE = "notifications";
+    private static final String PARTITION_PREFIX = "notifications_p";
+    private static final String DEFAULT_PARTITION = "notifications_default";
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARTITION_PREFIX + "(\\d{6})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    // Birden fazla node aynı anda DDL çalıştırmasın (pg_try_advisory_lock anahtarı)
+    private static final long MAINTENANCE_LOCK_KEY = 0x6E6F7469665F7031L;
+    private static final String STALE_CLEANUP_JOB = "notification-stale-request-cleanup";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationRepository notificationRepository;
+    private final ConnectionRepository connectionRepository;
+    private final UnreadNotificationCounter unreadCounter;
+    private final NotificationStreamRelay notificationStreamRelay;
+    private final ScheduledJobRunner jobRunner;
+    private final NotificationRetentionProperties properties;
+
+    private volatile Boolean partitioned;
+
+    public NotificationRetentionService(DataSource dataSource,
+                                        PlatformTransactionManager transactionManager,
+                                        NotificationRepository notificationRepository,
+                                        ConnectionRepository connectionRepository,
+                                        UnreadNotificationCounter unreadCounter,
+                                        NotificationStreamRelay notificationStreamRelay,
+                                        ScheduledJobRunner jobRunner,
+                                        NotificationRetentionProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.notificationRepository = notificationRepository;
+        this.connectionRepository = connectionRepository;
+        this.unreadCounter = unreadCounter;
+        this.notificationStreamRelay = notificationStreamRelay;
+        this.jobRunner = jobRunner;
+        this.properties = properties;
+    }
+
+    @Scheduled(initialDelayString = "${notification.retention.maintenance-initial-delay-ms:60000}",
+            fixedDelayString = "${notification.retention.maintenance-interval-ms:21600000}") // 6 saatte bir
+    public void maintainPartitions() {
+        if (!isPartitioned()) {
+            return;
+        }
+        boolean dropped = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                if (!tryLock(statement)) {
+                    log.debug("Bildirim partition bakimi baska bir node'da calisiyor");
+                    return false;
+                }
+                try {
+                    YearMonth current = YearMonth.now();
+                    for (int i = 0; i <= properties.getPremakeMonths(); i++) {
+                        createPartition(connection, statement, current.plusMonths(i));
+                    }
+                    return properties.getMonths() > 0 && dropExpiredPartitions(statement, current.minusMonths(properties.getMonths()));
+                } finally {
+                    statement.execute("SELECT pg_advisory_unlock(" + MAINTENANCE_LOCK_KEY + ")");
+                }
+            }
+        }));
+
+        if (dropped) {
+            // Silinen partition'lardaki okunmamış bildirimler sayaçlardan düşülmeli
+            unreadCounter.invalidateAll();
+            notificationStreamRelay.publishAll();
+        }
+    }
+
+    // Replikalardan sadece biri çalıştırır; kilit bir sonraki tura kadar tutulur
+    @Scheduled(initialDelayString = "${notification.retention.stale-cleanup-initial-delay-ms:120000}",
+            fixedDelayString = "${notification.retention.stale-cleanup-interval-ms:300000}") // 5 dakikada bir
+    public void cleanupStaleConnectionRequests() {
+        jobRunner.submit(STALE_CLEANUP_JOB, Duration.ofMinutes(30), Duration.ofMinutes(4),
+                this::purgeStaleConnectionRequests);
+    }
+
+    /**
+     * Eski CONNECTION_REQUEST bildirimlerini kilit satırındaki id'den devam ederek parça parça siler
+     * ve silinen sayısını döner. Tablonun sonuna gelinince bir sonraki tur baştan başlar.
+     */
+    public long purgeStaleConnectionRequests() {
+        int batchSize = properties.getStaleCleanupBatchSize();
+        long cursor = jobRunner.getCursor(STALE_CLEANUP_JOB);
+        long totalDeleted = 0;
+        for (int i = 0; i < properties.getStaleCleanupMaxBatches(); i++) {
+            long afterId = cursor;
+            ChunkResult result = transactionTemplate.execute(status -> cleanupStaleChunk(afterId, batchSize));
+            if (result == null) {
+                break;
+            }
+            totalDeleted += result.deleted();
+            if (result.scanned() < batchSize) {
+                cursor = 0;
+                break;
+            }
+            cursor = result.lastId();
+        }
+        jobRunner.saveCursor(STALE_CLEANUP_JOB, cursor);
+        if (totalDeleted > 0) {
+            log.info("Eski CONNECTION_REQUEST bildirimleri temizlendi: {}", totalDeleted);
+        }
+        return totalDeleted;
+    }
+
+    private ChunkResult cleanupStaleChunk(long afterId, int batchSize) {
+        List<Object[]> rows = notificationRepository.findConnectionRequestsAfter(afterId, PageRequest.of(0, batchSize));
+        if (rows.isEmpty()) {
+            return new ChunkResult(0, 0, afterId);
+        }
+
+        Set<Long> referenceIds = new HashSet<>();
+        for (Object[] row : rows) {
+            referenceIds.add((Long) row[1]);
+        }
+        Set<Long> pendingIds = new HashSet<>(connectionRepository.findPendingIds(referenceIds));
+
+        List<Long> staleIds = new ArrayList<>();
+        Map<Long, Long> unreadByRecipient = new HashMap<>();
+        for (Object[] row : rows) {
+            if (pendingIds.contains((Long) row[1])) {
+                continue;
+            }
+            staleIds.add((Long) row[0]);
+            if (!Boolean.TRUE.equals(row[3])) {
+                unreadByRecipient.merge((Long) row[2], 1L, Long::sum);
+            }
+        }
+
+        if (!staleIds.isEmpty()) {
+            notificationRepository.deleteAllByIdInBatch(staleIds);
+            unreadByRecipient.forEach(unreadCounter::decrement);
+            notificationStreamRelay.publish(unreadByRecipient.keySet());
+        }
+        return new ChunkResult(rows.size(), staleIds.size(), (Long) rows.get(rows.size() - 1)[0]);
+    }
+
+    private void createPartition(Connection connection, Statement statement, YearMonth month) {
+        String partition = partitionName(month);
+        String bounds = " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+        String range = " WHERE created_at >= '" + month.atDay(1) + "' AND created_at < '" + month.plusMonths(1).atDay(1) + "'";
+        try {
+            if (queryBoolean(statement, "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION + range + ")")) {
+                attachFromDefault(connection, statement, partition, bounds, range);
+            } else {
+                statement.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + PARENT_TABLE + bounds);
+            }
+        } catch (SQLException e) {
+            // Bir sonraki turda tekrar denenir
+            log.error("Bildirim partition'i olusturulamadi: {}", partition, e);
+        }
+    }
+
+    /**
+     * Default partition bu aya ait satır tutuyorsa PARTITION OF ile oluşturma hata verir (bakım gecikmiş
+     * ya da ileriye dönük partition oluşturulamamış). Satırlar tek transaction'da yeni tabloya taşınır ve
+     * tablo ATTACH edilir; default partition kilitli olduğundan bu arada aynı aya yeni satır düşmez.
+     */
+    private void attachFromDefault(Connection connection, Statement statement, String partition,
+                                   String bounds, String range) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            statement.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN ACCESS EXCLUSIVE MODE");
+            statement.execute("CREATE TABLE " + partition + " (LIKE " + PARENT_TABLE
+                    + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int moved = statement.executeUpdate("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION + range
+                    + " RETURNING *) INSERT INTO " + partition + " SELECT * FROM moved");
+            statement.execute("ALTER TABLE " + PARENT_TABLE + " ATTACH PARTITION " + partition + bounds);
+            connection.commit();
+            log.info("Default partition'daki {} bildirim {} partition'ina tasindi", moved, partition);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private boolean dropExpiredPartitions(Statement statement, YearMonth cutoff) throws SQLException {
+        List<String> expired = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery(
+                "SELECT child.relname FROM pg_inherits i " +
+                "JOIN pg_class parent ON parent.oid = i.inhparent " +
+                "JOIN pg_class child ON child.oid = i.inhrelid " +
+                "WHERE parent.relname = '" + PARENT_TABLE + "'")) {
+            while (rs.next()) {
+                Matcher matcher = PARTITION_NAME.matcher(rs.getString(1));
+                if (matcher.matches() && YearMonth.parse(matcher.group(1), PARTITION_SUFFIX).isBefore(cutoff)) {
+                    expired.add(rs.getString(1));
+                }
+            }
+        }
+
+        for (String partition : expired) {
+            statement.execute("DROP TABLE IF EXISTS " + partition);
+            log.info("Saklama suresi dolan bildirim partition'i silindi: {}", partition);
+        }
+        // Default partition'a düşmüş eski satırlar (bakım gecikmişse) normal DELETE ile
+        int deletedFromDefault = statement.executeUpdate(
+                "DELETE FROM " + DEFAULT_PARTITION + " WHERE created_at < '" + cutoff.atDay(1) + "'");
+        return !expired.isEmpty() || deletedFromDefault > 0;
+    }
+
+    private boolean tryLock(Statement statement) throws SQLException {
+        return queryBoolean(statement, "SELECT pg_try_advisory_lock(" + MAINTENANCE_LOCK_KEY + ")");
+    }
+
+    // Tek boolean döndüren sorgu
+    private static boolean queryBoolean(Statement statement, String sql) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    // H2 (testler) veya V32 uygulanmamış şemalarda partition bakımı atlanır
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            partitioned = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+                if (!"PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+                    return false;
+                }
+                try (Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery(
+                             "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt " +
+                             "JOIN pg_class c ON c.oid = pt.partrelid WHERE c.relname = '" + PARENT_TABLE + "')")) {
+                    return rs.next() && rs.getBoolean(1);
+                }
+            }));
+        }
+        return partitioned;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    private record ChunkResult(int scanned, int deleted, long lastId) {
+    }
+}
@@ -1,19 +1,21 @@
 package com.workflow.backend.service;
 
+import com.workflow.backend.dto.KeysetCursor;
 import com.workflow.backend.dto.NotificationResponse;
+import com.workflow.backend.dto.PaginatedResponse;
+import com.workflow.backend.dto.UserSummary;
 import com.workflow.backend.entity.*;
 import com.workflow.backend.exception.ResourceNotFoundException;
 import com.workflow.backend.repository.NotificationRepository;
-import com.workflow.backend.repository.UserProfilePictureRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.context.event.ApplicationReadyEvent;
-import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -26,41 +28,76 @@ import java.util.stream.Collectors;
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
-    private final UserProfilePictureRepository profilePictureRepository;
+    private final AvatarResolver avatarResolver;
     private final CurrentUserService currentUserService;
+    private final UserSummaryCache userSummaryCache;
+    private final NotificationStreamService notificationStreamService;
+    private final UnreadNotificationCounter unreadCounter;
+    private final NotificationStreamRelay notificationStreamRelay;
+    private final NotificationOutbox notificationOutbox;
+
+    /**
+     * Bildirimi outbox'a ekler; notifications tablosuna yazma, sayac ve push guncellemesi
+     * NotificationOutbox worker'i tarafindan toplu ve commit sonrasi yapilir.
+     */
+    public void createNotification(User recipient, User actor, NotificationType type, String message, Long referenceId) {
+        notificationOutbox.enqueue(recipient.getId(), actor.getId(), type, message, referenceId);
+    }
 
-    public Notification createNotification(User recipient, User actor, NotificationType type, String message, Long referenceId) {
-        Notification notification = new Notification();
-        notification.setRecipient(recipient);
-        notification.setActor(actor);
-        notification.setType(type);
-        notification.setMessage(message);
-        notification.setReferenceId(referenceId);
-        return notificationRepository.save(notification);
+    /**
+     * Mevcut kullanici icin bildirim akisi (SSE) acar.
+     * Polling (/notifications/unread-count) bu kanal kullanilamadiginda yedek olarak kalir.
+     */
+    public SseEmitter subscribe() {
+        Long currentUserId = currentUserService.getCurrentUserId();
+        return notificationStreamService.subscribe(currentUserId, unreadCounter.get(currentUserId));
     }
 
     public Page<NotificationResponse> getNotifications(Pageable pageable) {
         Long currentUserId = currentUserService.getCurrentUserId();
         Page<Notification> notificationPage = notificationRepository.findByRecipientIdPaged(currentUserId, pageable);
-        List<Notification> notifications = notificationPage.getContent();
+        List<NotificationResponse> content = mapToResponses(notificationPage.getContent());
+        return new PageImpl<>(content, pageable, notificationPage.getTotalElements());
+    }
 
+    /**
+     * Keyset sayfalama: imlecten sonraki {@code size} bildirim. Toplam sayı sadece istenirse hesaplanır.
+     */
+    public PaginatedResponse<NotificationResponse> getNotifications(String cursor, int size, boolean withTotal) {
+        Long currentUserId = currentUserService.getCurrentUserId();
+        KeysetCursor position = KeysetCursor.decode(cursor);
+
+        // Bir fazla satir istenir: sonraki sayfa olup olmadigi COUNT sorgusu olmadan anlasilir
+        List<Notification> rows = notificationRepository.findByRecipientIdBefore(
+                currentUserId, position.position(), position.id(), PageRequest.of(0, size + 1));
+        boolean hasNext = rows.size() > size;
+        List<Notification> notifications = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Notification last = notifications.get(notifications.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        Long total = withTotal ? notificationRepository.countByRecipientId(currentUserId) : null;
+        return PaginatedResponse.ofCursor(mapToResponses(notifications), size,
+                position.equals(KeysetCursor.start()), nextCursor, total);
+    }
+
+    private List<NotificationResponse> mapToResponses(List<Notification> notifications) {
         // Profil resimlerini toplu olarak ön-yükle (N+1 sorgu önleme)
         Set<Long> actorIds = notifications.stream()
                 .map(n -> n.getActor().getId())
                 .collect(Collectors.toSet());
-        Map<Long, String> profilePictureMap = actorIds.isEmpty() ? Map.of() :
-                profilePictureRepository.findFilePathsByUserIds(actorIds).stream()
-                        .collect(Collectors.toMap(row -> (Long) row[0],
-                                row -> "/users/" + row[0] + "/profile-picture"));
+        Map<Long, String> profilePictureMap = avatarResolver.resolveAll(actorIds);
 
-        List<NotificationResponse> content = notifications.stream()
+        return notifications.stream()
                 .map(n -> mapToResponse(n, profilePictureMap)).toList();
-        return new PageImpl<>(content, pageable, notificationPage.getTotalElements());
     }
 
+    // Bellekteki sayactan okunur (DB'ye sadece sayac yoksa gidilir)
     public long getUnreadCount() {
         Long currentUserId = currentUserService.getCurrentUserId();
-        return notificationRepository.countUnreadByRecipientId(currentUserId);
+        return unreadCounter.get(currentUserId);
     }
 
     @Transactional
@@ -73,8 +110,13 @@ public class NotificationService {
             throw new ResourceNotFoundException("Bildirim", "id", notificationId);
         }
 
+        boolean wasUnread = !Boolean.TRUE.equals(notification.getIsRead());
         notification.setIsRead(true);
         Notification saved = notificationRepository.save(notification);
+        if (wasUnread) {
+            unreadCounter.decrement(currentUserId, 1);
+            pushUnreadCount(currentUserId);
+        }
         return mapToResponse(saved);
     }
 
@@ -82,6 +124,9 @@ public class NotificationService {
     public void markAllAsRead() {
         Long currentUserId = currentUserService.getCurrentUserId();
         notificationRepository.markAllAsReadByRecipientId(currentUserId);
+        unreadCounter.reset(currentUserId);
+        notificationStreamService.sendUnreadCount(currentUserId, 0);
+        notificationStreamRelay.publish(List.of(currentUserId));
     }
 
     @Transactional
@@ -95,18 +140,37 @@ public class NotificationService {
         }
 
         notificationRepository.delete(notification);
+        if (!Boolean.TRUE.equals(notification.getIsRead())) {
+            unreadCounter.decrement(currentUserId, 1);
+            pushUnreadCount(currentUserId);
+        }
     }
 
     @Transactional
     public void deleteByReference(Long referenceId, NotificationType type) {
+        // Henuz teslim edilmemis olaylar once silinir: worker o an bu satirlari isliyorsa
+        // kilit birakilana kadar beklenir, boylece yazdigi bildirimler asagidaki silmeye dahil olur
+        notificationOutbox.deleteByReference(referenceId, type);
+
+        // Silinecek okunmamis bildirimlerin alicilarini once bul (sayaclari dusurmek icin)
+        Map<Long, Long> unreadByRecipient = notificationRepository.findUnreadRecipientIdsByReference(referenceId, type)
+                .stream()
+                .collect(Collectors.groupingBy(id -> id, Collectors.counting()));
+
         notificationRepository.deleteByReferenceIdAndType(referenceId, type);
+
+        unreadByRecipient.forEach((recipientId, count) -> {
+            unreadCounter.decrement(recipientId, count);
+            pushUnreadCount(recipientId);
+        });
     }
 
-    @EventListener(ApplicationReadyEvent.class)
-    @Transactional
-    public void cleanupStaleNotifications() {
-        notificationRepository.deleteStaleConnectionRequestNotifications();
-        log.info("Eski CONNECTION_REQUEST bildirimleri temizlendi");
+    // Kullanicinin acik baglantilarina guncel okunmamis sayisini gonder.
+    // Sayi commit sonrasinda (sayac guncellendikten sonra) bellekteki sayactan okunur.
+    // Diger node'lardaki baglantilar ve sayaclar NotificationStreamRelay ile guncellenir.
+    private void pushUnreadCount(Long userId) {
+        notificationStreamService.sendUnreadCount(userId, () -> unreadCounter.get(userId));
+        notificationStreamRelay.publish(List.of(userId));
     }
 
     private NotificationResponse mapToResponse(Notification notification, Map<Long, String> profilePictureMap) {
@@ -129,11 +193,11 @@ public class NotificationService {
         response.setType(notification.getType().name());
         response.setMessage(notification.getMessage());
         response.setIsRead(notification.getIsRead());
-        response.setActorId(notification.getActor().getId());
-        response.setActorUsername(notification.getActor().getUsername());
-        response.setActorProfilePicture(
-                profilePictureRepository.findFilePathByUserId(notification.getActor().getId())
-                        .map(fp -> "/users/" + notification.getActor().getId() + "/profile-picture").orElse(null));
+        // Actor proxy'si yuklenmez: username ozet cache'ten gelir
+        Long actorId = notification.getActor().getId();
+        response.setActorId(actorId);
+        response.setActorUsername(userSummaryCache.findById(actorId).map(UserSummary::username).orElse(null));
+        response.setActorProfilePicture(avatarResolver.resolve(actorId));
         response.setReferenceId(notification.getReferenceId());
         response.setCreatedAt(notification.getCreatedAt());
         return response;
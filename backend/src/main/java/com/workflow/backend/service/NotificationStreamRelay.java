@@ -0,0 +1,81 @@
+package com.workflow.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * SSE bağlantıları node-local olduğu için bildirim değişikliklerini node'lar arasında taşır.
+ *
+ * - Bildirim teslimi, okundu işaretleme ve silme aynı transaction içinde etkilenen alıcılar için
+ *   notification_stream_changes tablosuna kayıt atar.
+ * - Her node tabloyu periyodik okur: alıcının yerel okunmamış sayacı bırakılır (sonraki okuma DB'den
+ *   yükler) ve alıcının bu node'da açık bağlantısı varsa listeyi yenilemesi için olay ile güncel sayı gönderilir.
+ * - Değişikliği yapan node kendi kayıtlarını atlar; kendi bağlantılarına zaten commit sonrası push etmiştir.
+ */
+@Slf4j
+@Component
+public class NotificationStreamRelay {
+
+    private static final Duration CHANGE_RETENTION = Duration.ofMinutes(10);
+
+    private final ChangeFeed changeFeed;
+    private final UnreadNotificationCounter unreadCounter;
+    private final NotificationStreamService notificationStreamService;
+
+    public NotificationStreamRelay(DataSource dataSource,
+                                   UnreadNotificationCounter unreadCounter,
+                                   NotificationStreamService notificationStreamService) {
+        this.changeFeed = new ChangeFeed(new JdbcTemplate(dataSource), "notification_stream_changes");
+        this.unreadCounter = unreadCounter;
+        this.notificationStreamService = notificationStreamService;
+    }
+
+    /**
+     * Alıcıların bildirimleri değişti. Çağıranın transaction'ına katılır.
+     */
+    public void publish(Collection<Long> userIds) {
+        changeFeed.publish(userIds);
+    }
+
+    /**
+     * Etkilenen alıcılar bilinmeyen toplu silmelerden (ör. partition DROP) sonra çağrılır.
+     */
+    public void publishAll() {
+        changeFeed.publishAll();
+    }
+
+    @Scheduled(fixedDelayString = "${notification.stream.change-poll-interval-ms:1000}")
+    public void pollChanges() {
+        ChangeFeed.Batch batch = changeFeed.poll();
+        Set<Long> affected;
+        if (batch.reset() || batch.changes().stream().anyMatch(change -> change.userId() == null)) {
+            unreadCounter.invalidateAll();
+            affected = notificationStreamService.getSubscribedUserIds();
+        } else {
+            affected = batch.changes().stream().map(ChangeFeed.Change::userId).collect(Collectors.toSet());
+            affected.forEach(unreadCounter::invalidate);
+        }
+
+        for (Long userId : affected) {
+            if (notificationStreamService.hasSubscribers(userId)) {
+                notificationStreamService.sendRefresh(userId, unreadCounter.get(userId));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.stream.change-prune-interval-ms:600000}")
+    public void pruneChanges() {
+        int deleted = changeFeed.prune(CHANGE_RETENTION);
+        if (deleted > 0) {
+            log.debug("Eski bildirim akisi degisiklik kayitlari silindi: {}", deleted);
+        }
+    }
+}
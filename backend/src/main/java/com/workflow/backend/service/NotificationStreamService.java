@@ -0,0 +1,313 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.dto.NotificationResponse;
+import com.workflow.backend.util.TransactionUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Bildirim push kanalı (Server-Sent Events) için bağlantı registry'si.
+ *
+ * - Yayın yapan thread (iş transaction'ı) hiçbir zaman bloklanmaz: olaylar bağlantı başına
+ *   sınırlı bir kuyruğa eklenir ve ayrı bir sender thread havuzu tarafından gönderilir.
+ * - Kuyruğu dolan (yavaş) bağlantı kapatılır; istemci yeniden bağlanınca güncel sayıyı alır.
+ * - Tek bir gönderim sendTimeout'u aşarsa (istemcinin TCP penceresi dolu) bağlantı bırakılır ve gönderen
+ *   thread kesilir; takılan gönderimler havuzdaki diğer bağlantıları bekletmez (havuz gerektiğinde büyür).
+ * - Periyodik heartbeat, proxy'lerin bağlantıyı kapatmasını önler ve kopmuş bağlantıları temizler.
+ * - Olaylar transaction commit edildikten sonra kuyruğa alınır (rollback olan bildirim gönderilmez).
+ * - Registry node-local'dir; diğer node'lardaki değişiklikler {@link NotificationStreamRelay} ile gelir.
+ */
+@Slf4j
+@Service
+public class NotificationStreamService {
+
+    public static final String EVENT_NOTIFICATION = "notification";
+    public static final String EVENT_UNREAD_COUNT = "unread-count";
+    public static final String EVENT_CHANGED = "notifications-changed";
+
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L; // 30 dakika, sonra istemci yeniden bağlanır
+    private static final int MAX_BUFFERED_EVENTS = 32;
+    private static final int MAX_STREAMS_PER_USER = 5;
+    private static final int SENDER_CORE_THREADS = 2;
+    private static final int SENDER_MAX_THREADS = 64;
+    private static final Duration DEFAULT_SEND_TIMEOUT = Duration.ofSeconds(5);
+
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    // Kuyruksuz havuz: boşta thread yoksa yenisi açılır, sınır dolarsa olaylar tamponda kalır
+    private final ThreadPoolExecutor sender = new ThreadPoolExecutor(SENDER_CORE_THREADS, SENDER_MAX_THREADS,
+            60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+        Thread thread = new Thread(runnable, "sse-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicInteger activeStreams = new AtomicInteger();
+    private final long sendTimeoutNanos;
+
+    public NotificationStreamService() {
+        this(DEFAULT_SEND_TIMEOUT);
+    }
+
+    NotificationStreamService(Duration sendTimeout) {
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+    }
+
+    /**
+     * Kullanıcı için yeni bir SSE bağlantısı açar ve ilk olarak güncel okunmamış sayısını gönderir.
+     */
+    public SseEmitter subscribe(Long userId, long initialUnreadCount) {
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber = new Subscriber(userId, emitter);
+
+        // compute/computeIfPresent: ekleme ve bos listeyi silme ayni key icin atomik
+        List<Subscriber> userStreams = subscribers.compute(userId, (id, streams) -> {
+            List<Subscriber> list = streams != null ? streams : new CopyOnWriteArrayList<>();
+            list.add(subscriber);
+            return list;
+        });
+        activeStreams.incrementAndGet();
+
+        // Kullanıcı başına bağlantı sınırı: en eski bağlantı kapatılır
+        while (userStreams.size() > MAX_STREAMS_PER_USER) {
+            userStreams.get(0).close();
+        }
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        subscriber.enqueue(SseEmitter.event().name(EVENT_UNREAD_COUNT).data(Map.of("count", initialUnreadCount)));
+        return emitter;
+    }
+
+    public boolean hasSubscribers(Long userId) {
+        List<Subscriber> userStreams = subscribers.get(userId);
+        return userStreams != null && !userStreams.isEmpty();
+    }
+
+    public void sendNotification(Long userId, NotificationResponse notification) {
+        publish(userId, EVENT_NOTIFICATION, notification);
+    }
+
+    public void sendUnreadCount(Long userId, long count) {
+        publish(userId, EVENT_UNREAD_COUNT, Map.of("count", count));
+    }
+
+    /**
+     * Sayı commit sonrasında, gönderim anında hesaplanır (sayaç güncellemesi commit sonrası yapıldığı için).
+     */
+    public void sendUnreadCount(Long userId, LongSupplier count) {
+        if (!hasSubscribers(userId)) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> enqueueAll(userId, EVENT_UNREAD_COUNT, Map.of("count", count.getAsLong())));
+    }
+
+    /**
+     * Başka bir node'daki değişiklikten sonra: istemci listeyi yeniden yükler ve güncel sayıyı alır.
+     */
+    public void sendRefresh(Long userId, long unreadCount) {
+        enqueueAll(userId, EVENT_CHANGED, Map.of());
+        enqueueAll(userId, EVENT_UNREAD_COUNT, Map.of("count", unreadCount));
+    }
+
+    public Set<Long> getSubscribedUserIds() {
+        return Set.copyOf(subscribers.keySet());
+    }
+
+    public int getActiveStreamCount() {
+        return activeStreams.get();
+    }
+
+    // Proxy/load balancer idle timeout'larından kısa tutulur
+    @Scheduled(fixedRate = 25000)
+    public void sendHeartbeats() {
+        for (List<Subscriber> userStreams : subscribers.values()) {
+            for (Subscriber subscriber : userStreams) {
+                subscriber.enqueue(SseEmitter.event().comment("ping"));
+            }
+        }
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void closeStalledStreams() {
+        long now = System.nanoTime();
+        for (List<Subscriber> userStreams : subscribers.values()) {
+            for (Subscriber subscriber : userStreams) {
+                subscriber.abortIfStalled(now);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(userStreams -> userStreams.forEach(Subscriber::close));
+        sender.shutdownNow();
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(EMITTER_TIMEOUT_MS);
+    }
+
+    private void publish(Long userId, String eventName, Object data) {
+        if (!hasSubscribers(userId)) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> enqueueAll(userId, eventName, data));
+    }
+
+    private void enqueueAll(Long userId, String eventName, Object data) {
+        List<Subscriber> userStreams = subscribers.get(userId);
+        if (userStreams == null) {
+            return;
+        }
+        for (Subscriber subscriber : userStreams) {
+            subscriber.enqueue(SseEmitter.event().name(eventName).data(data));
+        }
+    }
+
+    private final class Subscriber {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> buffer = new ArrayBlockingQueue<>(MAX_BUFFERED_EVENTS);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        // Süren gönderim (yoksa null) ve başladığı an; watchdog ile paylaşılır
+        private Thread sendingThread;
+        private long sendStartedNanos;
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                log.debug("SSE kuyrugu doldu, baglanti kapatiliyor: userId={}", userId);
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RuntimeException e) {
+                    // Havuz dolu ya da kapatildi: olaylar tamponda kalir, sonraki olay/heartbeat tekrar dener
+                    draining.set(false);
+                    if (closed.get()) {
+                        completeEmitter();
+                    }
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && (event = buffer.poll()) != null) {
+                    sendStarted();
+                    try {
+                        emitter.send(event);
+                    } finally {
+                        sendFinished();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Istemci baglantiyi kapatmis ya da gonderim zaman asimiyla kesildi
+                deregister();
+            } finally {
+                draining.set(false);
+                if (closed.get()) {
+                    completeEmitter();
+                } else if (!buffer.isEmpty()) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        private synchronized void sendStarted() {
+            sendingThread = Thread.currentThread();
+            sendStartedNanos = System.nanoTime();
+        }
+
+        private synchronized void sendFinished() {
+            sendingThread = null;
+            // Watchdog'un kesmesi bu gonderime aitti; havuz thread'inde sonraki ise tasinmamali
+            Thread.interrupted();
+        }
+
+        synchronized void abortIfStalled(long now) {
+            if (sendingThread == null || now - sendStartedNanos < sendTimeoutNanos) {
+                return;
+            }
+            if (deregister()) {
+                log.debug("SSE gonderimi zaman asimina ugradi, baglanti kapatiliyor: userId={}", userId);
+                // complete() gonderim kilidini bekler: emitter'i gonderim donunce drain tamamlar
+                sendingThread.interrupt();
+            }
+        }
+
+        /**
+         * Bağlantıyı kapatır. Süren bir gönderim varsa emitter'i o gönderim bitince drain tamamlar
+         * (complete() gönderim kilidini beklediği için çağıran thread bloklanmaz).
+         */
+        void close() {
+            if (deregister() && !draining.get()) {
+                completeEmitter();
+            }
+        }
+
+        // Registry'den çıkarır; ilk çağrıda true döner
+        private boolean deregister() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            buffer.clear();
+            subscribers.computeIfPresent(userId, (id, streams) -> {
+                streams.remove(this);
+                return streams.isEmpty() ? null : streams;
+            });
+            activeStreams.decrementAndGet();
+            return true;
+        }
+
+        private void completeEmitter() {
+            if (!completed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                emitter.complete();
+            } catch (RuntimeException ignored) {
+                // Emitter zaten tamamlanmis
+            }
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package com.workflow.backend.service;
 
-import com.workflow.backend.entity.PasswordResetToken;
 import com.workflow.backend.entity.User;
 import com.workflow.backend.exception.ExpiredTokenException;
 import com.workflow.backend.exception.InvalidCredentialsException;
-import com.workflow.backend.repository.PasswordResetTokenRepository;
 import com.workflow.backend.repository.UserRepository;
+import com.workflow.backend.service.VerificationCodeStore.Purpose;
+import com.workflow.backend.service.VerificationCodeStore.Result;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,18 +14,16 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.security.SecureRandom;
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.Optional;
+import java.time.Duration;
 
 @Service
 @RequiredArgsConstructor
 public class PasswordResetService {
 
     private static final Logger logger = LoggerFactory.getLogger(PasswordResetService.class);
-    private static final int CODE_EXPIRY_MINUTES = 15;
+    private static final Duration CODE_TTL = Duration.ofMinutes(15);
 
-    private final PasswordResetTokenRepository tokenRepository;
+    private final VerificationCodeStore codeStore;
     private final UserRepository userRepository;
     private final EmailService emailService;
     private final PasswordEncoder passwordEncoder;
@@ -57,62 +55,31 @@ public class PasswordResetService {
             return; // Sessizce don, guvenlik icin
         }
 
-        // Onceki kullanilmamis tokenlari sil
-        tokenRepository.deleteByUser(user);
-
-        // Yeni kod olustur
+        // Yeni kod olustur ve kaydet (onceki kullanilmamis kod gecersiz olur)
+        String userEmail = user.getEmail();
         String code = generateCode();
-
-        // Token kaydet
-        PasswordResetToken token = new PasswordResetToken();
-        token.setCode(code);
-        token.setUser(user);
-        token.setExpiresAt(Instant.now().plus(CODE_EXPIRY_MINUTES, ChronoUnit.MINUTES));
-        token.setUsed(false);
-
-        tokenRepository.save(token);
+        codeStore.save(Purpose.PASSWORD_RESET, userEmail, code, CODE_TTL);
 
         // Email gonder (kullanicinin kayitli email adresine)
-        String userEmail = user.getEmail();
         emailService.sendPasswordResetCode(userEmail, code);
 
         logger.info("Sifre sifirlama kodu olusturuldu: {} (email: {})", usernameOrEmail, userEmail);
     }
 
-    private static final int MAX_ATTEMPTS = 5;
-
     /**
      * Dogrulama kodunu kontrol eder. Maksimum deneme sayisini asmissa kodu gecersiz kilar.
      */
     @Transactional
     public boolean verifyCode(String email, String code) {
-        Optional<PasswordResetToken> tokenOpt = tokenRepository.findByUserEmailAndUsedFalse(email);
-        if (tokenOpt.isEmpty()) {
-            return false;
-        }
-
-        PasswordResetToken token = tokenOpt.get();
-
-        if (token.isExpired()) {
-            logger.warn("Kod suresi dolmus: {}", email);
-            return false;
-        }
-
-        if (token.getAttempts() >= MAX_ATTEMPTS) {
-            logger.warn("Kod maksimum deneme sayisina ulasti: {}", email);
-            return false;
-        }
-
-        if (!java.security.MessageDigest.isEqual(
-                token.getCode().getBytes(java.nio.charset.StandardCharsets.UTF_8),
-                code.getBytes(java.nio.charset.StandardCharsets.UTF_8))) {
-            token.setAttempts(token.getAttempts() + 1);
-            tokenRepository.save(token);
-            logger.warn("Kod hatali: {} (deneme: {})", email, token.getAttempts());
-            return false;
+        Result result = codeStore.verify(Purpose.PASSWORD_RESET, email, code);
+        switch (result) {
+            case EXPIRED -> logger.warn("Kod suresi dolmus: {}", email);
+            case TOO_MANY_ATTEMPTS -> logger.warn("Kod maksimum deneme sayisina ulasti: {}", email);
+            case MISMATCH -> logger.warn("Kod hatali: {}", email);
+            default -> {
+            }
         }
-
-        return true;
+        return result == Result.MATCH;
     }
 
     /**
@@ -120,22 +87,24 @@ public class PasswordResetService {
      */
     @Transactional
     public void resetPassword(String email, String code, String newPassword) {
-        PasswordResetToken token = tokenRepository.findByUserEmailAndCodeAndUsedFalse(email, code)
-                .orElseThrow(() -> new InvalidCredentialsException("Geçersiz veya süresi dolmuş kod"));
-
-        if (token.isExpired()) {
+        // Kod tek seferliktir, eslesirse tuketilir
+        Result result = codeStore.consume(Purpose.PASSWORD_RESET, email, code);
+        if (result == Result.EXPIRED) {
             throw new ExpiredTokenException("Kodun süresi dolmuş. Lütfen yeni kod isteyin.");
         }
+        if (result != Result.MATCH) {
+            throw new InvalidCredentialsException("Geçersiz veya süresi dolmuş kod");
+        }
+
+        User user = userRepository.findByEmailIgnoreCase(email);
+        if (user == null) {
+            throw new InvalidCredentialsException("Geçersiz veya süresi dolmuş kod");
+        }
 
         // Sifreyi guncelle
-        User user = token.getUser();
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
 
-        // Token'i kullanildi olarak isaretle
-        token.setUsed(true);
-        tokenRepository.save(token);
-
         logger.info("Sifre basariyla sifirlandi: {}", email);
     }
 
@@ -0,0 +1,85 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.repository.UserProfilePictureRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Hiçbir kullanıcının referans vermediği profil resmi blob'larını siler.
+ *
+ * Shard dizinleri parçalar halinde taranır; her parça için user_profile_pictures.content_hash
+ * üzerinde tek bir IN sorgusu ile hâlâ kullanılan hash'ler bulunur. Bekleme süresinden yeni olan
+ * blob'lara dokunulmaz: henüz commit edilmemiş bir yükleme (veya dedup) referansını yazmamış
+ * olabilir. Silme idempotent olduğundan birden fazla node aynı anda çalışabilir.
+ */
+@Slf4j
+@Service
+public class ProfilePictureGarbageCollector {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final ProfilePictureStorageService storageService;
+    private final UserProfilePictureRepository profilePictureRepository;
+    private final long gracePeriodMs;
+
+    public ProfilePictureGarbageCollector(ProfilePictureStorageService storageService,
+                                          UserProfilePictureRepository profilePictureRepository,
+                                          @Value("${profile-picture.gc.grace-period-ms:3600000}") long gracePeriodMs) {
+        this.storageService = storageService;
+        this.profilePictureRepository = profilePictureRepository;
+        this.gracePeriodMs = gracePeriodMs;
+    }
+
+    @Scheduled(initialDelayString = "${profile-picture.gc.initial-delay-ms:600000}",
+            fixedDelayString = "${profile-picture.gc.interval-ms:21600000}") // 6 saatte bir
+    public void collect() {
+        long cutoff = System.currentTimeMillis() - gracePeriodMs;
+        int deleted = 0;
+
+        List<Path> batch = new ArrayList<>(BATCH_SIZE);
+        try (Stream<Path> blobs = storageService.walkBlobs()) {
+            for (Path blob : (Iterable<Path>) blobs::iterator) {
+                batch.add(blob);
+                if (batch.size() == BATCH_SIZE) {
+                    deleted += collectBatch(batch, cutoff);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            deleted += collectBatch(batch, cutoff);
+        }
+        int staleTemp = storageService.deleteStaleTempFiles(cutoff);
+
+        if (deleted > 0 || staleTemp > 0) {
+            log.info("Profil resmi GC: {} blob, {} gecici dosya silindi", deleted, staleTemp);
+        }
+    }
+
+    private int collectBatch(List<Path> blobs, long cutoff) {
+        Map<String, Path> byHash = new HashMap<>();
+        for (Path blob : blobs) {
+            byHash.put(ProfilePictureStorageService.contentHashOf(blob), blob);
+        }
+        Set<String> referenced = new HashSet<>(profilePictureRepository.findReferencedContentHashes(byHash.keySet()));
+
+        int deleted = 0;
+        for (Map.Entry<String, Path> entry : byHash.entrySet()) {
+            if (!referenced.contains(entry.getKey()) && storageService.deleteBlobIfOlderThan(entry.getValue(), cutoff)) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+}
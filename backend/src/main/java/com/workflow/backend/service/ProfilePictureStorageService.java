@@ -1,30 +1,105 @@
 package com.workflow.backend.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.workflow.backend.config.AvatarVariantProperties;
+import com.workflow.backend.exception.BadRequestException;
+import com.workflow.backend.exception.PayloadTooLargeException;
+import com.workflow.backend.util.TransactionUtils;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Base64;
-import java.util.UUID;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * Profil resimlerini dosya sisteminde saklar.
- * Base64 data URL formatindaki veriyi decode ederek diske yazar,
- * dosya yolunu dondurur.
+ * Dosyalar icerik adreslidir: SHA-256 hex adi ile iki seviyeli shard dizinine yazilir
+ * ("ab/cd/abcd....png"), ayni resim bir kez saklanir. Referans sayisi user_profile_pictures.content_hash
+ * uzerinden tutulur, referansi kalmayan blob'lari {@link ProfilePictureGarbageCollector} siler.
+ *
+ * Yuklemeden sonra orijinalin yanina kare kirpilmis, yeniden encode edilmis kucuk boyutlar
+ * (varsayilan 32/64/128/256 px, "ad_64.png") sinirli bir thread havuzunda uretilir. Variant
+ * hazir olana kadar orijinal sunulur; eksik variant'lar (eski yuklemeler, dolu kuyruk) ilk
+ * istendiklerinde tekrar planlanir.
  */
 @Slf4j
 @Service
 public class ProfilePictureStorageService {
 
-    @Value("${profile-picture.storage-dir:./uploads/profile-pictures}")
-    private String storageDir;
+    // Multipart yukleme siniri; base64 yolundaki @Size sinirinin karsiligi
+    public static final long MAX_UPLOAD_BYTES = 2 * 1024 * 1024;
+
+    private static final String TEMP_PREFIX = ".upload-";
+    private static final String VARIANT_TEMP_PREFIX = ".variant-";
+    // GC'nin silmeden once blob'u tasidigi karantina adi; walkBlobs bunlari gormez
+    private static final String QUARANTINE_PREFIX = ".gc-";
+    // Icerik adresli blob ("<sha256>") veya variant'i ("<sha256>_64")
+    private static final Pattern BLOB_STEM = Pattern.compile("[0-9a-f]{64}(_\\d+)?");
+
+    // Okunamayan resimler (ör. ImageIO'nun desteklemedigi webp) her istekte tekrar denenmesin
+    private static final Duration FAILED_RETRY_AFTER = Duration.ofHours(1);
+
+    private final String storageDir;
+    private final List<Integer> variantSizes; // kucukten buyuge
+    private final AvatarVariantProperties variantProperties;
+
+    private final Set<Path> pendingVariants = ConcurrentHashMap.newKeySet();
+    private final Cache<Path, Boolean> failedVariants = Caffeine.newBuilder()
+            .expireAfterWrite(FAILED_RETRY_AFTER)
+            .maximumSize(10_000)
+            .build();
 
     private Path storagePath;
+    private ThreadPoolExecutor variantExecutor;
+
+    public ProfilePictureStorageService(@Value("${profile-picture.storage-dir:./uploads/profile-pictures}") String storageDir,
+                                        AvatarVariantProperties variantProperties) {
+        this.storageDir = storageDir;
+        this.variantProperties = variantProperties;
+        this.variantSizes = variantProperties.getSizes().stream().filter(size -> size > 0).sorted().distinct().toList();
+    }
 
     @PostConstruct
     public void init() {
@@ -36,81 +111,438 @@ public class ProfilePictureStorageService {
             log.error("Profil resmi dizini olusturulamadi: {}", storagePath, e);
             throw new RuntimeException("Profil resmi dizini olusturulamadi", e);
         }
+
+        // Sinirli kuyruk: dolarsa is atlanir (istek geldiginde tekrar planlanir), yukleme bloklanmaz
+        variantExecutor = new ThreadPoolExecutor(variantProperties.getThreads(), variantProperties.getThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(variantProperties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "avatar-variants");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        variantExecutor.shutdownNow();
+        try {
+            // Yazilmakta olan variant bitsin (yarim kalan gecici dosya birakilmasin)
+            variantExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
-     * Base64 data URL formatindaki profil resmini diske kaydeder.
+     * Base64 data URL formatindaki profil resmini diske kaydeder (eski JSON yolu).
      * Ornek data URL: "data:image/png;base64,iVBORw0KGgo..."
+     * Tur, data URL basligi yerine icerikten belirlenir (bkz. {@link #store(Long, InputStream)}).
      *
      * @param userId kullanici ID
      * @param base64Data Base64 data URL veya salt Base64 verisi
-     * @return kaydedilen dosyanin yolu
+     * @return kaydedilen dosya
      */
-    public String save(Long userId, String base64Data) {
+    public StoredFile save(Long userId, String base64Data) {
+        String rawBase64 = base64Data;
+        // Data URL formatindaysa parse et: "data:image/png;base64,iVBORw0KGgo..."
+        if (base64Data.startsWith("data:")) {
+            String[] parts = base64Data.split(",", 2);
+            if (parts.length == 2) {
+                rawBase64 = parts[1];
+            }
+        }
+
+        byte[] imageBytes;
         try {
-            String extension = "png"; // varsayilan
-            String rawBase64 = base64Data;
-
-            // Data URL formatindaysa parse et
-            if (base64Data.startsWith("data:")) {
-                // "data:image/png;base64,iVBORw0KGgo..."
-                String[] parts = base64Data.split(",", 2);
-                if (parts.length == 2) {
-                    rawBase64 = parts[1];
-                    // MIME type'dan uzanti cikar
-                    String header = parts[0]; // "data:image/png;base64"
-                    if (header.contains("image/jpeg") || header.contains("image/jpg")) {
-                        extension = "jpg";
-                    } else if (header.contains("image/gif")) {
-                        extension = "gif";
-                    } else if (header.contains("image/webp")) {
-                        extension = "webp";
+            imageBytes = Base64.getDecoder().decode(rawBase64);
+        } catch (IllegalArgumentException e) {
+            log.error("Gecersiz Base64 verisi: userId={}", userId, e);
+            throw new RuntimeException("Gecersiz profil resmi verisi", e);
+        }
+        return store(userId, new ByteArrayInputStream(imageBytes));
+    }
+
+    /**
+     * Yuklenen profil resmini akis halinde diske yazar (multipart yukleme).
+     * Icerik heap'e alinmadan direct buffer ile storage dizinindeki gecici dosyaya kopyalanir,
+     * boyut siniri ve SHA-256 kopyalama sirasinda hesaplanir. Tur, uzanti/Content-Type yerine
+     * dosyanin ilk byte'larindan (magic bytes) belirlenir.
+     *
+     * Dosya icerik adresli saklanir: "ab/cd/abcd...(64 hex).png". Ayni icerik zaten varsa gecici
+     * dosya silinir ve mevcut blob kullanilir (dedup); yoksa atomik olarak yerine tasinir. Blob'lar
+     * kullanicilar arasinda paylasilabildigi icin hic silinmez, referansi kalmayanlari
+     * {@link ProfilePictureGarbageCollector} toplar.
+     *
+     * @param userId kullanici ID (log icin)
+     * @param content yuklenen icerik (cagiran kapatir)
+     * @return kaydedilen dosya ve icerik hash'i
+     * @throws PayloadTooLargeException icerik {@link #MAX_UPLOAD_BYTES} sinirini asarsa
+     * @throws BadRequestException icerik desteklenen bir resim formati degilse
+     */
+    public StoredFile store(Long userId, InputStream content) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(storagePath, TEMP_PREFIX, ".tmp");
+            MessageDigest digest = sha256Digest();
+            long written = 0;
+            ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+            try (ReadableByteChannel in = Channels.newChannel(content);
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    written += read;
+                    if (written > MAX_UPLOAD_BYTES) {
+                        throw new PayloadTooLargeException("Profil resmi en fazla 2MB olabilir");
                     }
-                    // png varsayilan olarak kalir
+                    buffer.flip();
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
                 }
             }
 
-            byte[] imageBytes = Base64.getDecoder().decode(rawBase64);
-
-            // Dosya adi: userId_uuid.ext (benzersiz, cakisma olmaz)
-            String fileName = userId + "_" + UUID.randomUUID() + "." + extension;
-            Path filePath = storagePath.resolve(fileName);
+            String extension = sniffExtension(temp);
+            if (extension == null) {
+                throw new BadRequestException("Desteklenmeyen profil resmi formati (png, jpg, gif veya webp olmali)");
+            }
 
-            Files.write(filePath, imageBytes);
-            log.info("Profil resmi kaydedildi: userId={}, dosya={}", userId, fileName);
+            String contentHash = HexFormat.of().formatHex(digest.digest());
+            Path filePath = blobPath(contentHash, extension);
+            Files.createDirectories(filePath.getParent());
+            if (touchIfExists(filePath)) {
+                // Ayni icerik zaten var; mtime guncellendi ki GC bekleme suresi yeni referansi korusun
+                log.info("Profil resmi mevcut blob ile eslesti: userId={}, blob={}", userId, filePath.getFileName());
+            } else {
+                Files.move(temp, filePath, StandardCopyOption.ATOMIC_MOVE);
+                temp = null;
+                log.info("Profil resmi kaydedildi: userId={}, blob={}, boyut={}", userId, filePath.getFileName(), written);
+            }
 
-            return filePath.toString();
+            // Rollback olursa kayit zaten gecersiz, variant'lar commit sonrasi uretilir
+            TransactionUtils.afterCommit(() -> scheduleVariants(filePath));
+            return new StoredFile(filePath.toString(), contentHash);
         } catch (IOException e) {
             log.error("Profil resmi kaydedilemedi: userId={}", userId, e);
             throw new RuntimeException("Profil resmi kaydedilemedi", e);
-        } catch (IllegalArgumentException e) {
-            log.error("Gecersiz Base64 verisi: userId={}", userId, e);
-            throw new RuntimeException("Gecersiz profil resmi verisi", e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("Gecici yukleme dosyasi silinemedi: {}", temp, e);
+                }
+            }
+        }
+    }
+
+    // "abcdef..." -> storage/ab/cd/abcdef....ext; iki seviye shard ile hicbir dizin buyumez
+    private Path blobPath(String contentHash, String extension) {
+        return storagePath.resolve(contentHash.substring(0, 2))
+                .resolve(contentHash.substring(2, 4))
+                .resolve(contentHash + "." + extension);
+    }
+
+    // Dosya imzasindan uzanti; desteklenmeyen icerik icin null
+    private static String sniffExtension(Path path) throws IOException {
+        byte[] header = new byte[12];
+        int length = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.wrap(header);
+            int read;
+            while (length < header.length && (read = channel.read(buffer)) != -1) {
+                length += read;
+            }
+        }
+        if (startsWith(header, length, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return "png";
+        }
+        if (startsWith(header, length, 0, 0xFF, 0xD8, 0xFF)) {
+            return "jpg";
         }
+        if (startsWith(header, length, 0, 'G', 'I', 'F', '8')) {
+            return "gif";
+        }
+        if (startsWith(header, length, 0, 'R', 'I', 'F', 'F') && startsWith(header, length, 8, 'W', 'E', 'B', 'P')) {
+            return "webp";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] header, int length, int offset, int... signature) {
+        if (length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((header[offset + i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
-     * Dosya sisteminden profil resmini okur.
+     * Profil resmini sunmak icin gereken meta veriyi dondurur: dosya yolu, boyut, son degisiklik
+     * zamani ve icerik hash'i olan ETag (blob'larda dosya adindan, eski duz dosyalarda direct buffer
+     * ile parca parca hesaplanir). Cagiran taraf sonucu cache'lemelidir (bkz. AvatarResolver).
      *
      * @param filePath dosya yolu
-     * @return dosya icerigi (byte[])
+     * @return dosya storage dizininde yoksa (ör. eski kayitlardaki harici URL'ler) bos
      */
-    public byte[] load(String filePath) {
-        try {
-            Path path = Paths.get(filePath).toAbsolutePath().normalize();
+    public Optional<StoredPicture> describe(String filePath) {
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        if (!path.startsWith(storagePath)) {
+            log.warn("Profil resmi storage dizini disinda, sunulmuyor: {}", filePath);
+            return Optional.empty();
+        }
+        Optional<StoredPicture> picture = describe(path, 0);
+        if (picture.isEmpty()) {
+            log.warn("Profil resmi dosyasi bulunamadi: {}", filePath);
+        }
+        return picture;
+    }
 
-            // Guvenlik kontrolu: dosya storage dizini icinde olmali
-            if (!path.startsWith(storagePath)) {
-                throw new SecurityException("Dosya yolu gecersiz: storage dizini disinda");
+    /**
+     * Orijinal resmin verilen boyuttaki variant'inin meta verisi. Variant henuz uretilmediyse bos
+     * doner ve (devam eden veya yakin zamanda basarisiz olan bir uretim yoksa) uretimi planlar.
+     *
+     * @param original {@link #describe(String)} ile donen orijinal dosya yolu
+     * @param size {@link #selectVariantSize(int)} ile secilmis variant boyutu
+     */
+    public Optional<StoredPicture> describeVariant(Path original, int size) {
+        Optional<StoredPicture> variant = describe(variantPath(original, size), size);
+        if (variant.isEmpty()) {
+            scheduleVariants(original);
+        }
+        return variant;
+    }
+
+    /**
+     * Istenen piksel boyutu icin sunulacak variant: istenenden kucuk olmayan en kucuk variant.
+     * Istenen boyut en buyuk variant'i asiyorsa (veya gecersizse) 0, yani orijinal.
+     */
+    public int selectVariantSize(int requestedSize) {
+        if (requestedSize <= 0) {
+            return 0;
+        }
+        for (int size : variantSizes) {
+            if (size >= requestedSize) {
+                return size;
             }
+        }
+        return 0;
+    }
 
-            return Files.readAllBytes(path);
+    public List<Integer> getVariantSizes() {
+        return variantSizes;
+    }
+
+    private Optional<StoredPicture> describe(Path path, int variantSize) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return Optional.of(new StoredPicture(
+                    path,
+                    getContentType(path.toString()),
+                    attributes.size(),
+                    attributes.lastModifiedTime().toMillis(),
+                    etagOf(path),
+                    variantSize));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
         } catch (IOException e) {
-            log.error("Profil resmi okunamadi: {}", filePath, e);
+            log.error("Profil resmi okunamadi: {}", path, e);
             throw new RuntimeException("Profil resmi okunamadi", e);
         }
     }
 
+    private void scheduleVariants(Path original) {
+        if (variantSizes.isEmpty() || failedVariants.getIfPresent(original) != null || !pendingVariants.add(original)) {
+            return;
+        }
+        try {
+            variantExecutor.execute(() -> {
+                try {
+                    generateVariants(original);
+                } finally {
+                    pendingVariants.remove(original);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingVariants.remove(original);
+            log.warn("Avatar variant kuyrugu dolu, uretim ertelendi: {}", original);
+        }
+    }
+
+    // En buyuk variant orijinalden, her kucuk variant bir oncekinden uretilir (kademeli kucultme)
+    void generateVariants(Path original) {
+        if (variantSizes.stream().allMatch(size -> Files.exists(variantPath(original, size)))) {
+            return; // dedup ile tekrar kullanilan blob, variant'lari zaten var
+        }
+        try {
+            BufferedImage image = readSquare(original, variantSizes.get(variantSizes.size() - 1));
+            if (image == null) {
+                failedVariants.put(original, Boolean.TRUE);
+                log.warn("Profil resmi decode edilemedi, variant uretilmedi: {}", original);
+                return;
+            }
+            String format = variantFormat(original);
+            for (int i = variantSizes.size() - 1; i >= 0; i--) {
+                int size = variantSizes.get(i);
+                image = resize(image, size, "png".equals(format));
+                writeAtomically(image, format, variantPath(original, size));
+            }
+            if (!Files.exists(original)) {
+                // Uretim sirasinda resim degistirildi/silindi, artik kimse bu variant'lari istemez
+                deleteVariants(original);
+            }
+        } catch (IOException | RuntimeException e) {
+            failedVariants.put(original, Boolean.TRUE);
+            log.error("Avatar variant'lari uretilemedi: {}", original, e);
+        }
+    }
+
+    // Ortadan kare kirpar; buyuk resimler decode sirasinda alt ornekleme ile kucultulur (heap sinirli kalir)
+    private static BufferedImage readSquare(Path path, int maxSize) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int side = Math.min(width, height);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(new Rectangle((width - side) / 2, (height - side) / 2, side, side));
+                // Kalite icin en buyuk variant'in en az iki kati cozunurlukte okunur
+                int subsampling = Math.max(1, side / (2 * maxSize));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Yariya bolerek kucultme: tek adimda buyuk oranli bilinear olcekleme aliasing uretir
+    private static BufferedImage resize(BufferedImage image, int targetSize, boolean alpha) {
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = image;
+        do {
+            int next = Math.max(targetSize, current.getWidth() / 2);
+            if (next >= current.getWidth() && current.getType() == type) {
+                return current; // orijinal hedeften kucuk, buyutme yapilmaz
+            }
+            next = Math.min(next, current.getWidth());
+            BufferedImage scaled = new BufferedImage(next, next, type);
+            Graphics2D graphics = scaled.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, next, next, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = scaled;
+        } while (current.getWidth() > targetSize);
+        return current;
+    }
+
+    // Gecici dosyaya yazip atomik tasinir: yarim yazilmis variant hicbir zaman sunulmaz
+    private void writeAtomically(BufferedImage image, String format, Path target) throws IOException {
+        Path temp = Files.createTempFile(storagePath, VARIANT_TEMP_PREFIX, ".tmp");
+        try {
+            if (!ImageIO.write(image, format, temp.toFile())) {
+                throw new IOException("ImageIO writer bulunamadi: " + format);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void deleteVariants(Path original) {
+        for (int size : variantSizes) {
+            try {
+                Files.deleteIfExists(variantPath(original, size));
+            } catch (IOException e) {
+                log.warn("Avatar variant'i silinemedi: {}", variantPath(original, size), e);
+            }
+        }
+    }
+
+    // "abcd...jpg" -> "abcd..._64.jpg"; jpeg disindaki formatlar (seffaflik olabilir) png'ye cevrilir
+    static Path variantPath(Path original, int size) {
+        return original.resolveSibling(stem(original) + "_" + size + "." + variantFormat(original));
+    }
+
+    private static String variantFormat(Path original) {
+        String lower = original.getFileName().toString().toLowerCase();
+        return lower.endsWith(".jpg") || lower.endsWith(".jpeg") ? "jpg" : "png";
+    }
+
+    // Icerik adresli blob ve variant'larinda ad zaten icerigin hash'i; eski duz dosyalarda hesaplanir
+    private static String etagOf(Path path) throws IOException {
+        String stem = stem(path);
+        if (BLOB_STEM.matcher(stem).matches()) {
+            return stem;
+        }
+        return sha256(path);
+    }
+
+    private static String stem(Path path) {
+        String fileName = path.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sha256(Path path) throws IOException {
+        MessageDigest digest = sha256Digest();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Diskteki profil resminin sunum icin gereken meta verisi.
+     *
+     * @param etag icerigin SHA-256 hex degeri (strong ETag olarak kullanilir)
+     * @param variantSize kucultulmus variant boyutu, orijinal icin 0
+     */
+    public record StoredPicture(Path path, String contentType, long size, long lastModified, String etag,
+                                int variantSize) {
+    }
+
+    /**
+     * Kaydedilen profil resmi.
+     *
+     * @param contentHash icerigin SHA-256 hex degeri; user_profile_pictures.content_hash'e yazilir
+     */
+    public record StoredFile(String filePath, String contentHash) {
+    }
+
     /**
      * Dosya uzantisindan MIME type belirler.
      *
@@ -130,27 +562,126 @@ public class ProfilePictureStorageService {
     }
 
     /**
-     * Dosya sisteminden profil resmini siler.
+     * Kullanicinin artik kullanmadigi profil resmini birakir. Icerik adresli blob'lar baska
+     * kullanicilar tarafindan da kullaniliyor olabilir, bu yuzden hemen silinmez; referansi kalmazsa
+     * {@link ProfilePictureGarbageCollector} siler. Eski duz dosyalar (userId_uuid.ext) hemen silinir.
      *
      * @param filePath dosya yolu
      */
-    public void delete(String filePath) {
+    public void release(String filePath) {
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        if (!path.startsWith(storagePath)) {
+            // Storage disindaki kayitlar (ör. eski harici URL'ler) icin silinecek dosya yok
+            return;
+        }
+        if (contentHashOf(path) != null) {
+            log.debug("Profil resmi blob'u GC'ye birakildi: {}", path.getFileName());
+            return;
+        }
         try {
-            Path path = Paths.get(filePath).toAbsolutePath().normalize();
-
-            // Guvenlik kontrolu: dosya storage dizini icinde olmali
-            if (!path.startsWith(storagePath)) {
-                throw new SecurityException("Dosya yolu gecersiz: storage dizini disinda");
-            }
-
             if (Files.deleteIfExists(path)) {
                 log.info("Profil resmi silindi: {}", filePath);
             } else {
                 log.warn("Silinecek profil resmi bulunamadi: {}", filePath);
             }
+            deleteVariants(path);
         } catch (IOException e) {
             log.error("Profil resmi silinemedi: {}", filePath, e);
             // Silme hatasi kritik degil, loglayip devam et
         }
     }
+
+    /**
+     * Shard dizinlerindeki tum blob'lar (variant'lar haric). Akis kapatilmalidir.
+     */
+    public Stream<Path> walkBlobs() {
+        try {
+            return Files.walk(storagePath, 3)
+                    .filter(path -> path.getNameCount() == storagePath.getNameCount() + 3)
+                    .filter(path -> contentHashOf(path) != null)
+                    .filter(Files::isRegularFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Dosyanin mtime'ini simdiye ceker. GC blob'u bu arada karantinaya almis/silmisse false doner
+     * ve cagiran yeni yuklemeyi yerine tasir; boylece exists kontrolu ile dokunus arasinda yaris kalmaz.
+     */
+    private static boolean touchIfExists(Path path) throws IOException {
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Blob icerik adresli ise ad'indaki SHA-256 hex degeri, degilse (eski duz dosya, variant) null.
+     */
+    public static String contentHashOf(Path path) {
+        String stem = stem(path);
+        return BLOB_STEM.matcher(stem).matches() && stem.indexOf('_') < 0 ? stem : null;
+    }
+
+    /**
+     * Referansi kalmamis blob'u ve variant'larini siler. Bekleme suresinden yeni dokunulmus
+     * (yeni yuklenmis veya dedup ile tekrar kullanilmis) blob'lar silinmez.
+     * <p>
+     * Blob once atomik olarak karantina adina tasinir, mtime tasimadan sonra tekrar okunur: kontrol ile
+     * tasima arasinda dedup dokunduysa blob geri konur, tasimadan sonra dokunmak isteyen yukleme ise
+     * dosyayi bulamayip kendi kopyasini yazar.
+     *
+     * @return silindiyse true
+     */
+    public boolean deleteBlobIfOlderThan(Path blob, long cutoffMillis) {
+        Path quarantine = storagePath.resolve(QUARANTINE_PREFIX + blob.getFileName());
+        try {
+            if (Files.getLastModifiedTime(blob).toMillis() >= cutoffMillis) {
+                return false;
+            }
+            Files.move(blob, quarantine, StandardCopyOption.ATOMIC_MOVE);
+            if (Files.getLastModifiedTime(quarantine).toMillis() >= cutoffMillis) {
+                // Ayni icerigi yeniden yazmis bir yukleme varsa onun yerine gecmesi zararsiz
+                Files.move(quarantine, blob, StandardCopyOption.ATOMIC_MOVE);
+                return false;
+            }
+            Files.delete(quarantine);
+            if (Files.notExists(blob)) {
+                deleteVariants(blob);
+            }
+            failedVariants.invalidate(blob);
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            log.warn("Profil resmi blob'u silinemedi: {}", blob, e);
+            return false;
+        }
+    }
+
+    /**
+     * Yarim kalmis yukleme/variant gecici dosyalarini ve GC karantina artiklarini (ör. process cokmesi) siler.
+     *
+     * @return silinen dosya sayisi
+     */
+    public int deleteStaleTempFiles(long cutoffMillis) {
+        int deleted = 0;
+        try (Stream<Path> files = Files.list(storagePath)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if ((name.startsWith(TEMP_PREFIX) || name.startsWith(VARIANT_TEMP_PREFIX)
+                        || name.startsWith(QUARANTINE_PREFIX))
+                        && Files.getLastModifiedTime(file).toMillis() < cutoffMillis
+                        && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Gecici profil resmi dosyalari temizlenemedi", e);
+        }
+        return deleted;
+    }
 }
@@ -4,84 +4,77 @@ import com.workflow.backend.config.JwtProperties;
 import com.workflow.backend.entity.RefreshToken;
 import com.workflow.backend.entity.User;
 import com.workflow.backend.exception.ExpiredTokenException;
-import com.workflow.backend.exception.ResourceNotFoundException;
 import com.workflow.backend.repository.RefreshTokenRepository;
 import com.workflow.backend.repository.UserRepository;
+import com.workflow.backend.scheduling.ScheduledJobRunner;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import org.hibernate.Hibernate;
-
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.Base64;
+import java.util.HexFormat;
 
 @Service
 @RequiredArgsConstructor
 public class RefreshTokenService {
 
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
     private final RefreshTokenRepository refreshTokenRepository;
     private final UserRepository userRepository;
     private final JwtProperties jwtProperties;
+    private final ScheduledJobRunner jobRunner;
+
+    private final SecureRandom secureRandom = new SecureRandom();
 
-    private static final int MAX_TOKENS_PER_USER = 5;
+    static final int MAX_TOKENS_PER_USER = 5;
+    private static final int TOKEN_BYTES = 32;
+    private static final String EXPIRED_CLEANUP_JOB = "refresh-token-cleanup";
 
     /**
      * Kullanıcı için yeni bir refresh token oluşturur.
-     * Kullanıcı başına maksimum MAX_TOKENS_PER_USER adet token tutulur.
-     * Limit aşılırsa en eski token'lar silinir.
+     * Tek bir insert ve ardından kullanıcının en yeni MAX_TOKENS_PER_USER token'ı dışındakileri
+     * silen tek bir set-based sorgu çalışır (kullanıcı SELECT edilmez, token'lar tek tek silinmez).
+     * Dönen entity'nin {@code token} alanı ham token'ı içerir; veritabanında sadece hash'i tutulur.
      */
     @Transactional
-    public RefreshToken createRefreshToken(String username) {
-        User user = userRepository.findByUsername(username);
-        if (user == null) {
-            throw new ResourceNotFoundException("Kullanıcı", "username", username);
-        }
+    public RefreshToken createRefreshToken(Long userId) {
+        String rawToken = generateRawToken();
 
-        // Eski token'ları temizle - maksimum MAX_TOKENS_PER_USER token per kullanıcı
-        long tokenCount = refreshTokenRepository.countByUser(user);
-        if (tokenCount >= MAX_TOKENS_PER_USER) {
-            List<RefreshToken> oldTokens = refreshTokenRepository.findByUserOrderByExpiryDateAsc(user);
-            long tokensToDelete = tokenCount - MAX_TOKENS_PER_USER + 1; // +1 yeni token için yer aç
-            for (int i = 0; i < tokensToDelete && i < oldTokens.size(); i++) {
-                refreshTokenRepository.delete(oldTokens.get(i));
-            }
-        }
-
-        // Yeni refresh token oluştur
         RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setUser(user);
-        refreshToken.setToken(UUID.randomUUID().toString());
+        refreshToken.setUser(userRepository.getReferenceById(userId));
+        refreshToken.setTokenHash(hash(rawToken));
         refreshToken.setExpiryDate(Instant.now().plusMillis(jwtProperties.getRefreshToken().getExpiration()));
 
-        return refreshTokenRepository.save(refreshToken);
-    }
+        RefreshToken saved = refreshTokenRepository.saveAndFlush(refreshToken);
+        refreshTokenRepository.trimTokensForUser(userId, MAX_TOKENS_PER_USER);
 
-    /**
-     * Refresh token'ı doğrular ve döner.
-     */
-    @Transactional(readOnly = true)
-    public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token);
+        saved.setToken(rawToken);
+        return saved;
     }
 
     /**
      * Refresh token'ı bulur, süresini doğrular ve ilişkili kullanıcıyı yükler.
-     * Tek bir transaction içinde çalışır, böylece lazy-loaded User proxy'si başarılı şekilde yüklenir.
+     * Token hash'i üzerinden unique index ile aranır, kullanıcı aynı sorguda (JOIN FETCH) gelir.
      */
     @Transactional
     public RefreshToken findAndVerifyToken(String token) {
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(token)
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHashWithUser(hash(token))
                 .orElse(null);
         if (refreshToken == null) {
             return null;
         }
         refreshToken = verifyExpiration(refreshToken);
-        // Lazy proxy'yi transaction içinde initialize et
-        Hibernate.initialize(refreshToken.getUser());
+        refreshToken.setToken(token);
         return refreshToken;
     }
 
@@ -104,7 +97,7 @@ public class RefreshTokenService {
      */
     @Transactional
     public void deleteByToken(String token) {
-        refreshTokenRepository.findByToken(token).ifPresent(refreshTokenRepository::delete);
+        refreshTokenRepository.deleteByTokenHash(hash(token));
     }
 
     /**
@@ -118,13 +111,38 @@ public class RefreshTokenService {
         }
     }
 
+    // Süresi dolmuş token'ları temizle (saatte bir, replikalardan sadece biri çalıştırır)
+    @Scheduled(fixedRate = 3600000) // 1 saat = 3600000 ms
+    public void deleteExpiredTokens() {
+        jobRunner.submit(EXPIRED_CLEANUP_JOB, Duration.ofMinutes(30), Duration.ofMinutes(50), this::purgeExpiredTokens);
+    }
+
     /**
-     * Süresi dolmuş tüm refresh token'ları temizler.
-     * Periyodik olarak çağrılabilir (Scheduled task ile).
+     * Süresi dolmuş refresh token'ları parça parça siler ve silinen sayısını döner.
+     * Her parça ayrı transaction'da silinir; tek bir büyük DELETE tabloyu uzun süre kilitlemez.
      */
-    @Scheduled(fixedRate = 3600000) // Her saat başı çalışır (1 saat = 3600000 ms)
-    @Transactional
-    public void deleteExpiredTokens() {
-        refreshTokenRepository.deleteExpiredTokens(Instant.now());
+    public long purgeExpiredTokens() {
+        Instant now = Instant.now();
+        long total = jobRunner.deleteInChunks(batchSize -> refreshTokenRepository.deleteExpiredTokensBatch(now, batchSize));
+        if (total > 0) {
+            logger.info("Suresi dolmus {} refresh token silindi", total);
+        }
+        return total;
+    }
+
+    private String generateRawToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // Token'ın SHA-256 hash'i, 64 karakter sabit uzunlukta hex
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 desteklenmiyor", e);
+        }
     }
 }
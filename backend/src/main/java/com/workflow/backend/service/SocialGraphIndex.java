@@ -0,0 +1,283 @@
+package com.workflow.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.workflow.backend.entity.Connection;
+import com.workflow.backend.entity.ConnectionStatus;
+import com.workflow.backend.repository.ConnectionRepository;
+import com.workflow.backend.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Node-local sosyal graf indeksi: kullanıcı -> bağlantı kenarları.
+ *
+ * - Kabul edilmiş bağlantılar sıralı primitive long dizisinde tutulur (ikili arama, kutulama yok);
+ *   bekleyen istekler yönleriyle ve reddedilenler küçük bir map'te durur.
+ * - Kullanıcının kenarları ilk erişimde tek sorgu ile yüklenir (lazy), sonra bağlantı durumu,
+ *   bağlantı id'si, sayı ve kesişim sorguları connections tablosuna gitmeden cevaplanır.
+ * - ConnectionService değişiklikleri commit sonrası iki tarafın kopyasına uygulanır (write-through).
+ *   Aynı transaction içinde social_graph_changes tablosuna kayıt atılır; diğer node'lar bu tabloyu
+ *   periyodik okuyup ilgili kullanıcıları geçersiz kılar. TTL son güvenlik ağıdır.
+ */
+@Slf4j
+@Component
+public class SocialGraphIndex {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+    private static final int MAX_USERS = 50_000;
+    private static final Duration CHANGE_RETENTION = Duration.ofHours(1);
+
+    private final ConnectionRepository connectionRepository;
+    private final ChangeFeed changeFeed;
+
+    private final Cache<Long, Adjacency> adjacency = Caffeine.newBuilder()
+            .expireAfterWrite(TTL)
+            .maximumSize(MAX_USERS)
+            .build();
+
+    public SocialGraphIndex(DataSource dataSource, ConnectionRepository connectionRepository) {
+        this.connectionRepository = connectionRepository;
+        this.changeFeed = new ChangeFeed(new JdbcTemplate(dataSource), "social_graph_changes");
+    }
+
+    /**
+     * Bir kullanıcının diğerine göre kenarı (userId'nin bakış açısından), yoksa boş.
+     */
+    public Optional<Edge> findEdge(Long userId, Long otherUserId) {
+        return Optional.ofNullable(get(userId).edgeTo(otherUserId));
+    }
+
+    public boolean isConnected(Long userId, Long otherUserId) {
+        return get(userId).isConnected(otherUserId);
+    }
+
+    public int getConnectionCount(Long userId) {
+        return get(userId).accepted.length;
+    }
+
+    /**
+     * Verilen kullanıcılardan userId ile kabul edilmiş bağlantısı olanlar.
+     */
+    public Set<Long> getConnectedAmong(Long userId, Collection<Long> targetUserIds) {
+        Adjacency self = get(userId);
+        if (self.accepted.length == 0) {
+            return Collections.emptySet();
+        }
+        Set<Long> connected = new HashSet<>();
+        for (Long target : targetUserIds) {
+            if (self.isConnected(target)) {
+                connected.add(target);
+            }
+        }
+        return connected;
+    }
+
+    /**
+     * Kaydedilen bağlantının güncel durumunu iki tarafa yansıtır. Çağıranın transaction'ına katılır.
+     */
+    public void put(Connection connection) {
+        Edge fromSender = new Edge(connection.getId(), connection.getStatus(), true);
+        Edge fromReceiver = new Edge(connection.getId(), connection.getStatus(), false);
+        apply(connection.getSender().getId(), connection.getReceiver().getId(), fromSender, fromReceiver);
+    }
+
+    /**
+     * Silinen bağlantıyı iki taraftan kaldırır. Çağıranın transaction'ına katılır.
+     */
+    public void remove(Connection connection) {
+        apply(connection.getSender().getId(), connection.getReceiver().getId(), null, null);
+    }
+
+    /**
+     * Kullanıcı silinmeden önce çağrılır: kullanıcı ve tüm komşuları geçersiz kılınır.
+     */
+    public void removeUser(Long userId) {
+        Set<Long> affected = new HashSet<>(get(userId).neighbours());
+        affected.add(userId);
+        changeFeed.publish(affected);
+        TransactionUtils.afterCommit(() -> adjacency.invalidateAll(affected));
+    }
+
+    /**
+     * Toplu silmelerde etkilenen kullanıcıları tüm node'larda geçersiz kılar. Çağıranın transaction'ına katılır.
+     */
+    public void invalidateUsers(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        changeFeed.publish(userIds);
+        TransactionUtils.afterCommit(() -> adjacency.invalidateAll(userIds));
+    }
+
+    /**
+     * Etkilenen kullanıcılar bilinmeyen toplu silmelerden sonra tüm node'larda indeksi bırakır.
+     */
+    public void invalidateAll() {
+        changeFeed.publishAll();
+        TransactionUtils.afterCommit(adjacency::invalidateAll);
+    }
+
+    /**
+     * Diğer node'ların değişikliklerini okur ve ilgili kullanıcıları geçersiz kılar.
+     */
+    @Scheduled(fixedDelayString = "${social-graph.change-poll-interval-ms:1000}")
+    public void pollChanges() {
+        ChangeFeed.Batch batch = changeFeed.poll();
+        if (batch.reset()) {
+            adjacency.invalidateAll();
+            return;
+        }
+        for (ChangeFeed.Change change : batch.changes()) {
+            if (change.userId() == null) {
+                adjacency.invalidateAll();
+            } else {
+                adjacency.invalidate(change.userId());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${social-graph.change-prune-interval-ms:600000}")
+    public void pruneChanges() {
+        int deleted = changeFeed.prune(CHANGE_RETENTION);
+        if (deleted > 0) {
+            log.debug("Eski sosyal graf degisiklik kayitlari silindi: {}", deleted);
+        }
+    }
+
+    private Adjacency get(Long userId) {
+        return adjacency.get(userId, this::load);
+    }
+
+    private Adjacency load(Long userId) {
+        List<long[]> accepted = new ArrayList<>();
+        Map<Long, Edge> others = new HashMap<>();
+        for (Object[] row : connectionRepository.findEdgesByUserId(userId)) {
+            long connectionId = (Long) row[0];
+            long senderId = (Long) row[1];
+            long receiverId = (Long) row[2];
+            ConnectionStatus status = (ConnectionStatus) row[3];
+            boolean outgoing = senderId == userId;
+            long otherId = outgoing ? receiverId : senderId;
+            if (status == ConnectionStatus.ACCEPTED) {
+                accepted.add(new long[]{otherId, connectionId});
+            } else {
+                others.put(otherId, new Edge(connectionId, status, outgoing));
+            }
+        }
+        accepted.sort((a, b) -> Long.compare(a[0], b[0]));
+        long[] ids = new long[accepted.size()];
+        long[] connectionIds = new long[accepted.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = accepted.get(i)[0];
+            connectionIds[i] = accepted.get(i)[1];
+        }
+        return new Adjacency(ids, connectionIds, others);
+    }
+
+    // Değişikliği kaydeder ve commit sonrası (varsa) iki tarafın kopyasına uygular
+    private void apply(Long senderId, Long receiverId, Edge fromSender, Edge fromReceiver) {
+        changeFeed.publish(List.of(senderId, receiverId));
+        TransactionUtils.afterCommit(() -> {
+            // Kopya o an yükleniyorsa computeIfPresent yüklemenin bitmesini bekler; uygulama idempotenttir
+            adjacency.asMap().computeIfPresent(senderId, (id, current) -> current.with(receiverId, fromSender));
+            adjacency.asMap().computeIfPresent(receiverId, (id, current) -> current.with(senderId, fromReceiver));
+        });
+    }
+
+    /**
+     * Kenar, sahibinin bakış açısından: outgoing = isteği sahibi gönderdi (ACCEPTED kenarlarda yön tutulmaz).
+     */
+    public record Edge(long connectionId, ConnectionStatus status, boolean outgoing) {
+    }
+
+    // Değişmez kopya; güncellemeler yeni bir nesne üretir (okuyucular kilitsiz okur)
+    private static final class Adjacency {
+
+        private final long[] accepted;
+        private final long[] acceptedConnectionIds;
+        // Bekleyen (yönlü) ve reddedilmiş kenarlar, diğer kullanıcı id'sine göre
+        private final Map<Long, Edge> others;
+
+        private Adjacency(long[] accepted, long[] acceptedConnectionIds, Map<Long, Edge> others) {
+            this.accepted = accepted;
+            this.acceptedConnectionIds = acceptedConnectionIds;
+            this.others = others;
+        }
+
+        boolean isConnected(long otherId) {
+            return Arrays.binarySearch(accepted, otherId) >= 0;
+        }
+
+        Edge edgeTo(long otherId) {
+            int index = Arrays.binarySearch(accepted, otherId);
+            if (index >= 0) {
+                return new Edge(acceptedConnectionIds[index], ConnectionStatus.ACCEPTED, false);
+            }
+            return others.get(otherId);
+        }
+
+        Set<Long> neighbours() {
+            Set<Long> ids = new HashSet<>(others.keySet());
+            for (long id : accepted) {
+                ids.add(id);
+            }
+            return ids;
+        }
+
+        // otherId ile kenarı verilen kenarla değiştirir (null: kenar kaldırılır)
+        Adjacency with(long otherId, Edge edge) {
+            long[] newAccepted = accepted;
+            long[] newConnectionIds = acceptedConnectionIds;
+            int index = Arrays.binarySearch(accepted, otherId);
+            if (index >= 0) {
+                newAccepted = removeAt(accepted, index);
+                newConnectionIds = removeAt(acceptedConnectionIds, index);
+            }
+            Map<Long, Edge> newOthers = others;
+            if (others.containsKey(otherId) || (edge != null && edge.status() != ConnectionStatus.ACCEPTED)) {
+                newOthers = new HashMap<>(others);
+                newOthers.remove(otherId);
+            }
+
+            if (edge != null && edge.status() == ConnectionStatus.ACCEPTED) {
+                int insertAt = -(Arrays.binarySearch(newAccepted, otherId) + 1);
+                newAccepted = insertAt(newAccepted, insertAt, otherId);
+                newConnectionIds = insertAt(newConnectionIds, insertAt, edge.connectionId());
+            } else if (edge != null) {
+                newOthers.put(otherId, edge);
+            }
+            return new Adjacency(newAccepted, newConnectionIds, newOthers);
+        }
+
+        private static long[] removeAt(long[] values, int index) {
+            long[] result = new long[values.length - 1];
+            System.arraycopy(values, 0, result, 0, index);
+            System.arraycopy(values, index + 1, result, index, values.length - index - 1);
+            return result;
+        }
+
+        private static long[] insertAt(long[] values, int index, long value) {
+            long[] result = new long[values.length + 1];
+            System.arraycopy(values, 0, result, 0, index);
+            result[index] = value;
+            System.arraycopy(values, index, result, index + 1, values.length - index);
+            return result;
+        }
+    }
+}
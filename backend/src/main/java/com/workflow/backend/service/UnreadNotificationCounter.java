@@ -0,0 +1,121 @@
+package com.workflow.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.workflow.backend.repository.NotificationRepository;
+import com.workflow.backend.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Kullanıcı başına okunmamış bildirim sayaçları (node-local, sınırlı boyutlu).
+ *
+ * - Okuma: sayaç bellekte yoksa tek bir COUNT sorgusu ile yüklenir (lazy rebuild), sonra bellekten okunur.
+ * - Yazma: NotificationService değişiklikleri commit sonrasında sayaca yansıtır (write-through).
+ *   Sayaç bellekte yoksa güncelleme atlanır; bir sonraki okuma DB'den yükler.
+ * - Diğer node'lardaki yazmalar NotificationStreamRelay üzerinden gelir ve ilgili sayacı bırakır.
+ * - Mutabakat: nadir yarış durumları nedeniyle oluşabilecek sapmalar periyodik olarak gruplanmış
+ *   COUNT sorgularıyla düzeltilir.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UnreadNotificationCounter {
+
+    private static final int MAX_TRACKED_USERS = 50_000;
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
+    private final NotificationRepository notificationRepository;
+
+    private final Cache<Long, AtomicLong> counters = Caffeine.newBuilder()
+            .maximumSize(MAX_TRACKED_USERS)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    public long get(Long userId) {
+        return counters.get(userId, id -> new AtomicLong(notificationRepository.countUnreadByRecipientId(id))).get();
+    }
+
+    public void increment(Long userId) {
+        increment(userId, 1);
+    }
+
+    public void increment(Long userId, long amount) {
+        TransactionUtils.afterCommit(() -> {
+            AtomicLong counter = counters.getIfPresent(userId);
+            if (counter != null) {
+                counter.addAndGet(amount);
+            }
+        });
+    }
+
+    public void decrement(Long userId, long amount) {
+        TransactionUtils.afterCommit(() -> {
+            AtomicLong counter = counters.getIfPresent(userId);
+            if (counter != null) {
+                counter.updateAndGet(value -> Math.max(0, value - amount));
+            }
+        });
+    }
+
+    public void reset(Long userId) {
+        TransactionUtils.afterCommit(() -> {
+            AtomicLong counter = counters.getIfPresent(userId);
+            if (counter != null) {
+                counter.set(0);
+            }
+        });
+    }
+
+    /**
+     * Başka bir node'daki değişiklikten sonra sayacı bırakır; sonraki okuma DB'den yükler.
+     */
+    public void invalidate(Long userId) {
+        counters.invalidate(userId);
+    }
+
+    /**
+     * Toplu silmelerden (ör. partition DROP) sonra tüm sayaçları bırakır; sonraki okuma DB'den yükler.
+     */
+    public void invalidateAll() {
+        counters.invalidateAll();
+    }
+
+    /**
+     * Bellekteki sayaçları DB ile karşılaştırıp düzeltir.
+     * Parça başına tek bir GROUP BY sorgusu çalışır; sonuçta olmayan kullanıcının sayacı 0'dır.
+     */
+    @Scheduled(fixedRate = 120000) // 2 dakikada bir
+    public void reconcile() {
+        List<Long> userIds = new ArrayList<>(counters.asMap().keySet());
+        int corrected = 0;
+
+        for (int from = 0; from < userIds.size(); from += RECONCILE_BATCH_SIZE) {
+            List<Long> batch = userIds.subList(from, Math.min(from + RECONCILE_BATCH_SIZE, userIds.size()));
+            Map<Long, Long> actual = new HashMap<>();
+            for (Object[] row : notificationRepository.countUnreadGroupedByRecipientIds(batch)) {
+                actual.put((Long) row[0], (Long) row[1]);
+            }
+            for (Long userId : batch) {
+                AtomicLong counter = counters.getIfPresent(userId);
+                long expected = actual.getOrDefault(userId, 0L);
+                if (counter != null && counter.getAndSet(expected) != expected) {
+                    corrected++;
+                }
+            }
+        }
+
+        if (corrected > 0) {
+            log.info("Okunmamis bildirim sayaci mutabakati: {} / {} sayac duzeltildi", corrected, userIds.size());
+        }
+    }
+}
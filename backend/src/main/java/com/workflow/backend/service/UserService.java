@@ -9,24 +9,33 @@ import com.workflow.backend.exception.ResourceNotFoundException;
 import com.workflow.backend.exception.UnauthorizedAccessException;
 import com.workflow.backend.repository.*;
 import com.workflow.backend.security.JwtService;
+import com.workflow.backend.service.ProfilePictureStorageService.StoredFile;
+import com.workflow.backend.util.TransactionUtils;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.LongPredicate;
 
-@Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
+    private static final int DEFAULT_SEARCH_LIMIT = 10;
+    // pg_trgm en az 3 karakterden trigram çıkarır; daha kısa sorgularda önek olmayan arama indeks kullanamaz
+    private static final int MIN_NON_PREFIX_QUERY_LENGTH = 3;
+
     private final UserRepository userRepository;
+    private final UserSearchRepository userSearchRepository;
+    private final UsernameIndex usernameIndex;
     private final UserProfilePictureRepository profilePictureRepository;
+    private final AvatarResolver avatarResolver;
+    private final SocialGraphIndex socialGraphIndex;
     private final UserPrivacySettingsRepository privacySettingsRepository;
     private final ProfilePictureStorageService profilePictureStorageService;
     private final JwtService jwtService;
@@ -35,6 +44,7 @@ public class UserService {
     private final AuthorizationService authorizationService;
     private final EmailVerificationService emailVerificationService;
     private final CurrentUserService currentUserService;
+    private final UserSummaryCache userSummaryCache;
     private final ConnectionService connectionService;
     private final BoardRepository boardRepository;
     private final TaskListRepository taskListRepository;
@@ -87,12 +97,13 @@ public class UserService {
 
         // 3. Kaydet
         User savedUser = userRepository.save(user);
+        usernameIndex.put(savedUser.getUsername(), savedUser.getId(), false);
 
         // 4. Access Token Üret (userId claim ile)
         String accessToken = jwtService.generateAccessToken(savedUser.getUsername(), savedUser.getId());
 
         // 5. Refresh Token Üret
-        RefreshToken refreshToken = refreshTokenService.createRefreshToken(savedUser.getUsername());
+        RefreshToken refreshToken = refreshTokenService.createRefreshToken(savedUser.getId());
 
         // 6. Response DTO'ya cevirip don (yeni kayit, profil resmi yok)
         UserResponse userResponse = mapToResponse(savedUser, null);
@@ -128,7 +139,7 @@ public class UserService {
         String accessToken = jwtService.generateAccessToken(user.getUsername(), user.getId());
 
         // 4. Refresh Token Üret
-        RefreshToken refreshToken = refreshTokenService.createRefreshToken(user.getUsername());
+        RefreshToken refreshToken = refreshTokenService.createRefreshToken(user.getId());
 
         // 5. Giris basarili, bilgileri ve token'lari don
         String profilePictureUrl = getProfilePictureUrl(user.getId());
@@ -171,6 +182,7 @@ public class UserService {
             if (existingUser != null && !existingUser.getId().equals(id)) {
                 throw new DuplicateResourceException("Kullanici adi", "username", newUsername);
             }
+            usernameIndex.rename(user.getUsername(), newUsername, id);
             user.setUsername(newUsername);
             usernameChanged = true;
         }
@@ -185,24 +197,13 @@ public class UserService {
             user.setLastName(request.getLastName());
         }
 
-        // Profil resmi guncelleme (dosya sisteminde saklaniyor)
+        // Profil resmi guncelleme (dosya sisteminde saklaniyor, eski base64 yolu)
         if (request.getProfilePicture() != null) {
-            UserProfilePicture profilePic = profilePictureRepository.findByUserId(id)
-                    .orElse(new UserProfilePicture(user, null));
-
-            // Eski dosyayi sil
-            if (profilePic.getFilePath() != null) {
-                profilePictureStorageService.delete(profilePic.getFilePath());
-            }
-
-            // Yeni dosyayi kaydet
-            String filePath = profilePictureStorageService.save(id, request.getProfilePicture());
-            profilePic.setFilePath(filePath);
-            profilePic.setUser(user);
-            profilePictureRepository.save(profilePic);
+            replaceProfilePicture(user, profilePictureStorageService.save(id, request.getProfilePicture()));
         }
 
         User savedUser = userRepository.save(user);
+        userSummaryCache.invalidate(id);
 
         // Profil resmi URL'ini al
         String profilePictureUrl = getProfilePictureUrl(id);
@@ -214,7 +215,7 @@ public class UserService {
         // Kullanici adi degistiyse yeni token'lar uret
         if (usernameChanged) {
             String accessToken = jwtService.generateAccessToken(savedUser.getUsername(), savedUser.getId());
-            RefreshToken refreshToken = refreshTokenService.createRefreshToken(savedUser.getUsername());
+            RefreshToken refreshToken = refreshTokenService.createRefreshToken(savedUser.getId());
             authResponse.setToken(accessToken);
             authResponse.setRefreshToken(refreshToken.getToken());
         }
@@ -222,6 +223,39 @@ public class UserService {
         return authResponse;
     }
 
+    // PROFIL RESMI YUKLEME (multipart, icerik akis halinde diske yazilir)
+    @Transactional
+    public UserResponse updateProfilePicture(Long id, InputStream content) {
+        authorizationService.verifyUserOwnership(id);
+
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Kullanici", "id", id));
+
+        replaceProfilePicture(user, profilePictureStorageService.store(id, content));
+        userSummaryCache.invalidate(id);
+
+        return mapToResponse(user, getProfilePictureUrl(id));
+    }
+
+    // Yeni dosyayi kullanicinin profil resmi yapar, eski dosyayi commit sonrasi birakir (paylasilan blob'lari GC siler).
+    // Rollback olursa kayit eski dosyayi gostermeye devam eder, dosya silinmemis olmali.
+    private void replaceProfilePicture(User user, StoredFile stored) {
+        UserProfilePicture profilePic = profilePictureRepository.findByUserId(user.getId())
+                .orElse(new UserProfilePicture(user, null));
+
+        String oldPath = profilePic.getFilePath();
+        if (oldPath != null && !oldPath.equals(stored.filePath())) {
+            TransactionUtils.afterCommit(() -> profilePictureStorageService.release(oldPath));
+        }
+
+        profilePic.setFilePath(stored.filePath());
+        profilePic.setContentHash(stored.contentHash());
+        profilePic.setUser(user);
+        profilePictureRepository.save(profilePic);
+        avatarResolver.invalidate(user.getId());
+        usernameIndex.markHasPicture(user.getUsername(), user.getId());
+    }
+
     // ŞİFRE GÜNCELLEME İŞLEMİ
     public void updatePassword(Long id, UpdatePasswordRequest request) {
         // Kullanıcı sadece kendi şifresini güncelleyebilir
@@ -251,98 +285,98 @@ public class UserService {
 
     // KULLANICI ARAMA
     public List<UserSearchResponse> searchUsers(String query) {
+        return searchUsers(query, DEFAULT_SEARCH_LIMIT, false);
+    }
+
+    /**
+     * Sonuclar her iki yolda da ayni siradadir: tam eslesme, onekler (alfabetik), sonra iceren/benzer adlar.
+     * Indeks hazirsa tam eslesme ve onekler bellekten gelir (DB'ye gidilmez); limit dolmazsa kalan kisim
+     * trigram indeksli DB aramasinin onek olmayan eslesmeleriyle tamamlanir.
+     * Indeks henuz kurulmadiysa (baslangic) tum arama DB'ye gider.
+     * connectedOnly: sadece kabul edilmis baglantilar. Filtre limitten once uygulanir (indekste tarama
+     * sirasinda sosyal graf ile, DB'de sorgu icinde).
+     *
+     * Onek olmayan tamamlama 3 karakterden kisa sorgularda yapilmaz (her tus vurusunda DB'ye gidilmesin).
+     */
+    public List<UserSearchResponse> searchUsers(String query, int limit, boolean connectedOnly) {
         Long currentUserId = currentUserService.getCurrentUserId();
-        List<User> users = userRepository.searchByUsername(query, currentUserId,
-                org.springframework.data.domain.PageRequest.of(0, 10));
 
-        // Batch: tüm profil fotoğraflarını tek sorguda kontrol et
-        List<Long> userIds = users.stream().map(User::getId).toList();
-        Set<Long> usersWithPicture = new java.util.HashSet<>();
-        if (!userIds.isEmpty()) {
-            profilePictureRepository.findFilePathsByUserIds(userIds)
-                    .forEach(row -> usersWithPicture.add((Long) row[0]));
+        if (!usernameIndex.isReady()) {
+            return toSearchResponses(userSearchRepository.search(query, currentUserId, limit, connectedOnly));
         }
 
-        return users.stream().map(user -> {
-            UserSearchResponse response = new UserSearchResponse();
-            response.setId(user.getId());
-            response.setUsername(user.getUsername());
-            response.setProfilePicture(
-                usersWithPicture.contains(user.getId())
-                    ? "/users/" + user.getId() + "/profile-picture"
-                    : null
-            );
-            return response;
-        }).toList();
+        LongPredicate filter = connectedOnly
+                ? userId -> socialGraphIndex.isConnected(currentUserId, userId)
+                : userId -> true;
+        List<UserSearchResponse> results = new ArrayList<>(limit);
+        usernameIndex.searchPrefix(query, currentUserId, limit, filter).forEach(match ->
+                results.add(toSearchResponse(match.userId(), match.username(),
+                        match.hasPicture() ? AvatarResolver.urlFor(match.userId()) : null)));
+        if (results.size() < limit && query.length() >= MIN_NON_PREFIX_QUERY_LENGTH) {
+            results.addAll(toSearchResponses(userSearchRepository.searchNonPrefix(
+                    query, currentUserId, limit - results.size(), connectedOnly)));
+        }
+        return results;
     }
 
-    public List<UserSearchResponse> searchUsers(String query, int limit) {
-        Long currentUserId = currentUserService.getCurrentUserId();
-        List<User> users = userRepository.searchByUsername(query, currentUserId,
-                org.springframework.data.domain.PageRequest.of(0, limit));
+    private List<UserSearchResponse> toSearchResponses(List<UserSearchRepository.Hit> hits) {
+        // Batch: profil fotoğrafları tek seferde çözülür
+        List<Long> userIds = hits.stream().map(UserSearchRepository.Hit::id).toList();
+        Map<Long, String> profilePictures = avatarResolver.resolveAll(userIds);
 
-        List<Long> userIds = users.stream().map(User::getId).toList();
-        Set<Long> usersWithPicture = new java.util.HashSet<>();
-        if (!userIds.isEmpty()) {
-            profilePictureRepository.findFilePathsByUserIds(userIds)
-                    .forEach(row -> usersWithPicture.add((Long) row[0]));
-        }
+        return hits.stream()
+                .map(hit -> toSearchResponse(hit.id(), hit.username(), profilePictures.get(hit.id())))
+                .toList();
+    }
 
-        return users.stream().map(user -> {
-            UserSearchResponse response = new UserSearchResponse();
-            response.setId(user.getId());
-            response.setUsername(user.getUsername());
-            response.setProfilePicture(
-                usersWithPicture.contains(user.getId())
-                    ? "/users/" + user.getId() + "/profile-picture"
-                    : null
-            );
-            return response;
-        }).toList();
+    private UserSearchResponse toSearchResponse(Long userId, String username, String profilePicture) {
+        UserSearchResponse response = new UserSearchResponse();
+        response.setId(userId);
+        response.setUsername(username);
+        response.setProfilePicture(profilePicture);
+        return response;
     }
 
     // BASKA KULLANICININ PROFILINI GORUNTULE
     public UserProfileResponse getUserProfile(String username) {
         Long currentUserId = currentUserService.getCurrentUserId();
 
-        User user = userRepository.findByUsernameIgnoreCase(username);
-        if (user == null) {
-            throw new ResourceNotFoundException("Kullanici", "username", username);
-        }
+        UserSummary user = userSummaryCache.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("Kullanici", "username", username));
 
-        String connectionStatus = connectionService.getConnectionStatus(currentUserId, user.getId());
-        long connectionCount = connectionService.getConnectionCount(user.getId());
-        Long connectionId = connectionService.getConnectionId(currentUserId, user.getId());
+        String connectionStatus = connectionService.getConnectionStatus(currentUserId, user.id());
+        long connectionCount = connectionService.getConnectionCount(user.id());
+        Long connectionId = connectionService.getConnectionId(currentUserId, user.id());
 
         UserProfileResponse response = new UserProfileResponse();
-        response.setId(user.getId());
-        response.setUsername(user.getUsername());
-        response.setFirstName(user.getFirstName());
-        response.setLastName(user.getLastName());
-        response.setPrivacyMode(user.getPrivacyMode().name());
+        response.setId(user.id());
+        response.setUsername(user.username());
+        response.setFirstName(user.firstName());
+        response.setLastName(user.lastName());
+        response.setPrivacyMode(user.privacyMode().name());
         response.setConnectionStatus(connectionStatus);
         response.setConnectionId(connectionId);
 
         boolean isSelfOrConnected = "SELF".equals(connectionStatus) || "ACCEPTED".equals(connectionStatus);
-        PrivacyMode mode = user.getPrivacyMode();
+        PrivacyMode mode = user.privacyMode();
 
         if (mode == PrivacyMode.PUBLIC || isSelfOrConnected) {
             // Tam gorunurluk
             response.setConnectionCount(connectionCount);
-            response.setProfilePicture(getProfilePictureUrl(user.getId()));
+            response.setProfilePicture(getProfilePictureUrl(user.id()));
         } else if (mode == PrivacyMode.PRIVATE) {
-            // Granular gorunurluk
-            UserPrivacySettings settings = privacySettingsRepository.findByUserId(user.getId())
-                    .orElse(new UserPrivacySettings(user));
+            // Granular gorunurluk (ayar kaydi yoksa varsayilanlar kullanilir)
+            UserPrivacySettings settings = privacySettingsRepository.findByUserId(user.id())
+                    .orElseGet(UserPrivacySettings::new);
             response.setProfilePicture(
-                    Boolean.TRUE.equals(settings.getShowProfilePicture()) ? getProfilePictureUrl(user.getId()) : null
+                    Boolean.TRUE.equals(settings.getShowProfilePicture()) ? getProfilePictureUrl(user.id()) : null
             );
             response.setConnectionCount(
                     Boolean.TRUE.equals(settings.getShowConnectionCount()) ? connectionCount : null
             );
 
             // Granular ayarlari response'a ekle (frontend hangi bolumu gosterecegini bilsin)
-            PrivacySettingsResponse privacyResponse = buildPrivacySettingsResponse(user.getPrivacyMode(), settings);
+            PrivacySettingsResponse privacyResponse = buildPrivacySettingsResponse(mode, settings);
             response.setPrivacySettings(privacyResponse);
         } else {
             // HIDDEN mod - baglanti disindakilere profil resmi ve baglanti sayisi gosterilmez
@@ -384,6 +418,7 @@ public class UserService {
         }
 
         userRepository.save(user);
+        userSummaryCache.invalidate(userId);
         return getPrivacySettings(userId);
     }
 
@@ -422,18 +457,16 @@ public class UserService {
     public UserProfileStatsResponse getUserProfileStats(String username) {
         Long currentUserId = currentUserService.getCurrentUserId();
 
-        User targetUser = userRepository.findByUsernameIgnoreCase(username);
-        if (targetUser == null) {
-            throw new ResourceNotFoundException("Kullanici", "username", username);
-        }
+        UserSummary targetUser = userSummaryCache.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("Kullanici", "username", username));
 
-        Long targetUserId = targetUser.getId();
+        Long targetUserId = targetUser.id();
 
         // Erisim kontrolu: SELF, ACCEPTED baglanti, herkese acik veya ozel profil
         String connectionStatus = connectionService.getConnectionStatus(currentUserId, targetUserId);
         boolean isSelf = "SELF".equals(connectionStatus);
         boolean isConnected = "ACCEPTED".equals(connectionStatus);
-        PrivacyMode mode = targetUser.getPrivacyMode();
+        PrivacyMode mode = targetUser.privacyMode();
 
         // HIDDEN modda sadece SELF ve ACCEPTED erisebilir
         if (mode == PrivacyMode.HIDDEN && !isSelf && !isConnected) {
@@ -448,7 +481,7 @@ public class UserService {
         calculateTotalStats(response);
         calculateOverallProgress(response, targetUserId);
         calculateCategoryStats(response, targetUserId);
-        applyPrivacyFilter(response, mode, isSelf, isConnected, targetUser);
+        applyPrivacyFilter(response, mode, isSelf, isConnected, targetUserId);
 
         return response;
     }
@@ -580,13 +613,13 @@ public class UserService {
     }
 
     private void applyPrivacyFilter(UserProfileStatsResponse response, PrivacyMode mode,
-                                     boolean isSelf, boolean isConnected, User targetUser) {
+                                     boolean isSelf, boolean isConnected, Long targetUserId) {
         if (mode != PrivacyMode.PRIVATE || isSelf || isConnected) {
             return;
         }
 
-        UserPrivacySettings settings = privacySettingsRepository.findByUserId(targetUser.getId())
-                .orElse(new UserPrivacySettings(targetUser));
+        UserPrivacySettings settings = privacySettingsRepository.findByUserId(targetUserId)
+                .orElseGet(UserPrivacySettings::new);
 
         if (!Boolean.TRUE.equals(settings.getShowOverallProgress())) {
             response.setOverallProgress(0);
@@ -680,36 +713,12 @@ public class UserService {
         return mapToResponse(savedUser, profilePictureUrl);
     }
 
-    // ZAMANLANMIS HESAPLARI SIL (Her gece 02:00'de calisir)
-    @Scheduled(cron = "0 0 2 * * *")
-    @Transactional
-    public void processScheduledDeletions() {
-        LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
-        List<User> usersToDelete = userRepository.findUsersScheduledForDeletion(cutoff);
-
-        for (User user : usersToDelete) {
-            log.info("Zamanlanmis hesap siliniyor: userId={}, username={}", user.getId(), user.getUsername());
-
-            // Profil resmi dosyasini sil
-            profilePictureRepository.findFilePathByUserId(user.getId())
-                    .ifPresent(profilePictureStorageService::delete);
-
-            userRepository.delete(user);
-        }
-
-        if (!usersToDelete.isEmpty()) {
-            log.info("Toplam {} hesap silindi", usersToDelete.size());
-        }
-    }
-
     /**
      * Kullanici ID'sine gore profil resmi URL'i dondurur.
      * Dosya yolu varsa "/users/{userId}/profile-picture" formatinda URL uretir.
      */
     private String getProfilePictureUrl(Long userId) {
-        return profilePictureRepository.findFilePathByUserId(userId)
-                .map(filePath -> "/users/" + userId + "/profile-picture")
-                .orElse(null);
+        return avatarResolver.resolve(userId);
     }
 
     // Yardimci Metot: Entity -> DTO Cevirici
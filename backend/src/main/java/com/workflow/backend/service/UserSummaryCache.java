@@ -0,0 +1,105 @@
+package com.workflow.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.workflow.backend.dto.UserSummary;
+import com.workflow.backend.entity.User;
+import com.workflow.backend.repository.UserRepository;
+import com.workflow.backend.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Node-local, kısa ömürlü kullanıcı özeti cache'i (id, username, isim, gizlilik modu).
+ *
+ * UserService, ConnectionService ve NotificationService aynı kullanıcıyı tekrar tekrar
+ * DB'den okumak yerine buradan alır. Profil veya gizlilik güncellemesinde {@link #invalidate(Long)}
+ * çağrılır; diğer node'lardaki kopyalar en geç TTL sonunda yenilenir.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserSummaryCache {
+
+    private static final Duration TTL = Duration.ofSeconds(60);
+    private static final int MAX_SIZE = 10_000;
+
+    private final UserRepository userRepository;
+
+    private final Cache<Long, UserSummary> byId = Caffeine.newBuilder()
+            .expireAfterWrite(TTL)
+            .maximumSize(MAX_SIZE)
+            .build();
+
+    // username (lowercase) -> userId
+    private final Cache<String, Long> idByUsername = Caffeine.newBuilder()
+            .expireAfterWrite(TTL)
+            .maximumSize(MAX_SIZE)
+            .build();
+
+    public Optional<UserSummary> findById(Long userId) {
+        UserSummary cached = byId.getIfPresent(userId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return userRepository.findById(userId).map(this::put);
+    }
+
+    public Optional<UserSummary> findByUsername(String username) {
+        String key = username.toLowerCase();
+        Long userId = idByUsername.getIfPresent(key);
+        if (userId != null) {
+            UserSummary cached = byId.getIfPresent(userId);
+            if (cached != null && cached.username().equalsIgnoreCase(key)) {
+                return Optional.of(cached);
+            }
+        }
+        return Optional.ofNullable(userRepository.findByUsernameIgnoreCase(key)).map(this::put);
+    }
+
+    /**
+     * Birden fazla kullanıcının özetini döner; cache'te olmayanlar tek sorguda yüklenir.
+     */
+    public Map<Long, UserSummary> findAllById(Collection<Long> userIds) {
+        Map<Long, UserSummary> result = new HashMap<>(byId.getAllPresent(userIds));
+        List<Long> missing = userIds.stream().filter(id -> !result.containsKey(id)).distinct().toList();
+        if (!missing.isEmpty()) {
+            for (User user : userRepository.findAllById(missing)) {
+                result.put(user.getId(), put(user));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Kullanıcının özetini cache'ten çıkarır. Aktif bir transaction varsa commit sonrasında
+     * tekrar çıkarılır; böylece commit öncesi okunan eski değer cache'te kalmaz.
+     */
+    public void invalidate(Long userId) {
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionUtils.afterCommit(() -> evict(userId));
+        }
+    }
+
+    private void evict(Long userId) {
+        UserSummary removed = byId.asMap().remove(userId);
+        if (removed != null) {
+            idByUsername.invalidate(removed.username().toLowerCase());
+        }
+    }
+
+    private UserSummary put(User user) {
+        UserSummary summary = UserSummary.from(user);
+        byId.put(summary.id(), summary);
+        idByUsername.put(summary.username().toLowerCase(), summary.id());
+        return summary;
+    }
+}
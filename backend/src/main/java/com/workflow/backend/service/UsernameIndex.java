@@ -0,0 +1,408 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * User picker önerileri için node-local kullanıcı adı indeksi (önek araması, DB'ye gidilmez).
+ *
+ * - Taban: küçük harfli kullanıcı adlarının sıralı dizisi + paralel id dizisi + "profil resmi var" bit'leri.
+ *   Başlangıçta ve periyodik olarak users tablosu akış halinde okunarak yeniden kurulur.
+ * - Delta: kayıt, kullanıcı adı değişikliği, silme ve profil resmi güncellemeleri commit sonrası
+ *   sıralı bir skip list'e yazılır (silmeler tombstone). Okumada delta tabana baskındır; delta büyüyünce
+ *   bellekte tabana birleştirilir.
+ * - Her yazma aynı transaction içinde username_index_changes tablosuna kullanıcı id'si ile kayıt atar;
+ *   diğer node'lar tabloyu periyodik okur, kullanıcının güncel satırını yükler ve kullanıcının indeksteki
+ *   eski adlarını tombstone ile kapatır (kayıt, ad değişikliği, silme ve profil resmi aynı yoldan gelir).
+ *   Periyodik yeniden kurulum son güvenlik ağıdır.
+ * - İndeks hazır olana kadar (ilk kurulum) arama UserSearchRepository üzerinden DB'ye gider.
+ */
+@Slf4j
+@Component
+public class UsernameIndex {
+
+    // Delta bu boyutu geçince tabana birleştirilir
+    private static final int COMPACT_THRESHOLD = 10_000;
+    private static final Duration CHANGE_RETENTION = Duration.ofHours(1);
+    private static final int STREAM_FETCH_SIZE = 5000;
+    // Filtreli aramada (ör. sadece bağlantılar) taranacak en fazla aday
+    private static final int MAX_SCAN = 5000;
+
+    private static final String LOAD_SQL =
+            "SELECT u.id, u.username, p.user_id AS picture_user_id FROM users u " +
+            "LEFT JOIN user_profile_pictures p ON p.user_id = u.id";
+
+    private static final String LOAD_USERS_SQL = LOAD_SQL + " WHERE u.id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ChangeFeed changeFeed;
+
+    private volatile Snapshot base;
+    private final ConcurrentSkipListMap<String, DeltaEntry> delta = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    // Değişiklik okuma başlangıç noktası ilk kurulumdan önce alınır (arada gelen değişiklik kaçmaz)
+    private volatile boolean changeFeedStarted;
+
+    @Value("${user-search.index.enabled:true}")
+    private boolean enabled = true;
+
+    public UsernameIndex(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(STREAM_FETCH_SIZE);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.changeFeed = new ChangeFeed(jdbcTemplate, "username_index_changes");
+        // PostgreSQL sürücüsü fetch size'ı sadece autocommit kapalıyken uygular (akış halinde okuma)
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public boolean isReady() {
+        return enabled && base != null;
+    }
+
+    /**
+     * Kullanıcı adı prefix ile başlayan kullanıcılar, alfabetik sırada (tam eşleşme doğal olarak ilk gelir).
+     * excludeUserId sonuçlardan çıkarılır; filter false dönen kullanıcılar atlanır.
+     */
+    public List<Match> searchPrefix(String prefix, Long excludeUserId, int limit, LongPredicate filter) {
+        String key = normalize(prefix);
+        Snapshot snapshot = base;
+        List<Match> matches = new ArrayList<>(limit);
+        if (snapshot == null) {
+            return matches;
+        }
+
+        int baseIndex = snapshot.lowerBound(key);
+        Iterator<Map.Entry<String, DeltaEntry>> deltaIterator =
+                delta.subMap(key, true, key + Character.MAX_VALUE, true).entrySet().iterator();
+        Map.Entry<String, DeltaEntry> deltaEntry = deltaIterator.hasNext() ? deltaIterator.next() : null;
+
+        int scanned = 0;
+        while (matches.size() < limit && scanned < MAX_SCAN) {
+            String baseName = baseIndex < snapshot.names.length && snapshot.names[baseIndex].startsWith(key)
+                    ? snapshot.names[baseIndex] : null;
+            if (baseName == null && deltaEntry == null) {
+                break;
+            }
+            scanned++;
+
+            int order = baseName == null ? 1 : deltaEntry == null ? -1 : baseName.compareTo(deltaEntry.getKey());
+            if (order < 0) {
+                // Sadece tabanda
+                addIfAccepted(matches, baseName, snapshot.ids[baseIndex], snapshot.pictures.get(baseIndex),
+                        excludeUserId, filter);
+                baseIndex++;
+            } else {
+                // Delta (aynı ad tabanda da varsa delta baskındır)
+                DeltaEntry entry = deltaEntry.getValue();
+                if (!entry.removed()) {
+                    addIfAccepted(matches, deltaEntry.getKey(), entry.userId(), entry.hasPicture(), excludeUserId, filter);
+                }
+                if (order == 0) {
+                    baseIndex++;
+                }
+                deltaEntry = deltaIterator.hasNext() ? deltaIterator.next() : null;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Yeni kullanıcı (kayıt / Google ile ilk giriş). Commit sonrası uygulanır.
+     * Yazma metotları çağıranın transaction'ına katılır ve değişikliği diğer node'lara bildirir.
+     */
+    public void put(String username, Long userId, boolean hasPicture) {
+        changeFeed.publish(List.of(userId));
+        TransactionUtils.afterCommit(() -> upsert(normalize(username), userId, hasPicture));
+    }
+
+    /**
+     * Kullanıcı adı değişikliği; profil resmi bit'i korunur.
+     */
+    public void rename(String oldUsername, String newUsername, Long userId) {
+        changeFeed.publish(List.of(userId));
+        TransactionUtils.afterCommit(() -> {
+            String oldKey = normalize(oldUsername);
+            boolean hasPicture = lookupPicture(oldKey);
+            delta.put(oldKey, DeltaEntry.tombstone(sequence.incrementAndGet()));
+            upsert(normalize(newUsername), userId, hasPicture);
+        });
+    }
+
+    public void markHasPicture(String username, Long userId) {
+        changeFeed.publish(List.of(userId));
+        TransactionUtils.afterCommit(() -> upsert(normalize(username), userId, true));
+    }
+
+    public void remove(String username, Long userId) {
+        changeFeed.publish(List.of(userId));
+        TransactionUtils.afterCommit(() -> delta.put(normalize(username), DeltaEntry.tombstone(sequence.incrementAndGet())));
+    }
+
+    /**
+     * Tabanı users tablosundan akış halinde yeniden kurar (başlangıçta ve periyodik).
+     */
+    @Scheduled(initialDelayString = "${user-search.index.initial-delay-ms:0}",
+            fixedDelayString = "${user-search.index.rebuild-interval-ms:900000}") // 15 dakikada bir
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        if (!changeFeedStarted) {
+            changeFeed.poll();
+            changeFeedStarted = true;
+        }
+        long startSequence = sequence.get();
+        long startedAt = System.currentTimeMillis();
+        List<String> names = new ArrayList<>();
+        List<long[]> rows = new ArrayList<>();
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(LOAD_SQL, rs -> {
+            names.add(normalize(rs.getString("username")));
+            rows.add(new long[]{rs.getLong("id"), rs.getObject("picture_user_id") != null ? 1 : 0});
+        }));
+
+        Integer[] order = new Integer[names.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> names.get(a).compareTo(names.get(b)));
+
+        String[] sortedNames = new String[order.length];
+        long[] sortedIds = new long[order.length];
+        BitSet pictures = new BitSet(order.length);
+        for (int i = 0; i < order.length; i++) {
+            sortedNames[i] = names.get(order[i]);
+            sortedIds[i] = rows.get(order[i])[0];
+            if (rows.get(order[i])[1] == 1) {
+                pictures.set(i);
+            }
+        }
+
+        publish(Snapshot.of(sortedNames, sortedIds, pictures), startSequence);
+        log.info("Kullanici adi indeksi kuruldu: {} kullanici, {} ms", sortedNames.length,
+                System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * Diğer node'ların değişikliklerini uygular; delta büyüdüyse tabana birleştirir.
+     */
+    @Scheduled(fixedDelayString = "${user-search.index.change-poll-interval-ms:2000}")
+    public void pollChanges() {
+        if (!isReady()) {
+            return;
+        }
+        ChangeFeed.Batch batch = changeFeed.poll();
+        if (batch.reset() || batch.changes().stream().anyMatch(change -> change.userId() == null)) {
+            // Değişiklikler tek tek bilinmiyor: taban yeniden kurulur
+            rebuild();
+            return;
+        }
+
+        Set<Long> userIds = batch.changes().stream().map(ChangeFeed.Change::userId).collect(Collectors.toSet());
+        if (!userIds.isEmpty()) {
+            // Sonuçta olmayan kullanıcı silinmiştir
+            Map<Long, Match> current = new HashMap<>();
+            namedJdbcTemplate.query(LOAD_USERS_SQL, new MapSqlParameterSource("ids", userIds), rs -> {
+                long id = rs.getLong("id");
+                current.put(id, new Match(id, normalize(rs.getString("username")), rs.getObject("picture_user_id") != null));
+            });
+            for (Long userId : userIds) {
+                Match match = current.get(userId);
+                applyChange(userId, match != null ? match.username() : null, match != null && match.hasPicture());
+            }
+        }
+
+        if (delta.size() > COMPACT_THRESHOLD) {
+            compact();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${user-search.index.change-prune-interval-ms:600000}")
+    public void pruneChanges() {
+        int deleted = changeFeed.prune(CHANGE_RETENTION);
+        if (deleted > 0) {
+            log.debug("Eski kullanici adi degisiklik kayitlari silindi: {}", deleted);
+        }
+    }
+
+    // Deltayı bellekte tabana birleştirir (DB'ye gitmeden)
+    void compact() {
+        Snapshot snapshot = base;
+        if (snapshot == null) {
+            return;
+        }
+        long startSequence = sequence.get();
+        int capacity = snapshot.names.length + delta.size();
+        String[] names = new String[capacity];
+        long[] ids = new long[capacity];
+        BitSet pictures = new BitSet(capacity);
+        int size = 0;
+
+        int baseIndex = 0;
+        Iterator<Map.Entry<String, DeltaEntry>> deltaIterator = delta.entrySet().iterator();
+        Map.Entry<String, DeltaEntry> deltaEntry = deltaIterator.hasNext() ? deltaIterator.next() : null;
+        while (baseIndex < snapshot.names.length || deltaEntry != null) {
+            int order = baseIndex >= snapshot.names.length ? 1
+                    : deltaEntry == null ? -1 : snapshot.names[baseIndex].compareTo(deltaEntry.getKey());
+            if (order < 0) {
+                names[size] = snapshot.names[baseIndex];
+                ids[size] = snapshot.ids[baseIndex];
+                pictures.set(size, snapshot.pictures.get(baseIndex));
+                size++;
+                baseIndex++;
+            } else {
+                DeltaEntry entry = deltaEntry.getValue();
+                if (!entry.removed()) {
+                    names[size] = deltaEntry.getKey();
+                    ids[size] = entry.userId();
+                    pictures.set(size, entry.hasPicture());
+                    size++;
+                }
+                if (order == 0) {
+                    baseIndex++;
+                }
+                deltaEntry = deltaIterator.hasNext() ? deltaIterator.next() : null;
+            }
+        }
+        publish(Snapshot.of(Arrays.copyOf(names, size), Arrays.copyOf(ids, size), pictures), startSequence);
+    }
+
+    // Yeni tabanı yayınlar; tabana yansımış (daha eski) delta kayıtları bırakılır
+    private void publish(Snapshot snapshot, long startSequence) {
+        base = snapshot;
+        delta.entrySet().removeIf(entry -> entry.getValue().sequence() <= startSequence);
+    }
+
+    /**
+     * Kullanıcının DB'deki güncel halini indekse yansıtır (currentKey null: kullanıcı silinmiş).
+     * Kullanıcının indeksteki diğer adları kapatılır; eski adı artık başka bir kullanıcıya aitse dokunulmaz.
+     * Tabandaki adlar id'ye göre sıralı yan dizide ikili arama ile bulunur; delta COMPACT_THRESHOLD ile
+     * sınırlı olduğundan taranır.
+     */
+    private void applyChange(long userId, String currentKey, boolean hasPicture) {
+        Set<String> staleKeys = new HashSet<>(base.namesOf(userId));
+        delta.forEach((key, entry) -> {
+            if (!entry.removed() && entry.userId() == userId) {
+                staleKeys.add(key);
+            }
+        });
+        staleKeys.remove(currentKey);
+
+        for (String key : staleKeys) {
+            DeltaEntry entry = delta.get(key);
+            if (entry == null || entry.removed() || entry.userId() == userId) {
+                delta.put(key, DeltaEntry.tombstone(sequence.incrementAndGet()));
+            }
+        }
+        if (currentKey != null) {
+            upsert(currentKey, userId, hasPicture);
+        }
+    }
+
+    private void upsert(String key, long userId, boolean hasPicture) {
+        delta.put(key, new DeltaEntry(userId, hasPicture, false, sequence.incrementAndGet()));
+    }
+
+    private boolean lookupPicture(String key) {
+        DeltaEntry entry = delta.get(key);
+        if (entry != null) {
+            return !entry.removed() && entry.hasPicture();
+        }
+        Snapshot snapshot = base;
+        if (snapshot == null) {
+            return false;
+        }
+        int index = snapshot.lowerBound(key);
+        return index < snapshot.names.length && snapshot.names[index].equals(key) && snapshot.pictures.get(index);
+    }
+
+    private void addIfAccepted(List<Match> matches, String username, long userId, boolean hasPicture,
+                               Long excludeUserId, LongPredicate filter) {
+        if ((excludeUserId == null || userId != excludeUserId) && filter.test(userId)) {
+            matches.add(new Match(userId, username, hasPicture));
+        }
+    }
+
+    private static String normalize(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    public record Match(Long userId, String username, boolean hasPicture) {
+    }
+
+    private record DeltaEntry(long userId, boolean hasPicture, boolean removed, long sequence) {
+        static DeltaEntry tombstone(long sequence) {
+            return new DeltaEntry(0, false, true, sequence);
+        }
+    }
+
+    // Değişmez taban: sıralı adlar, paralel id / profil resmi bit'leri ve id'ye göre sıralı pozisyonlar
+    private record Snapshot(String[] names, long[] ids, BitSet pictures, int[] positionsById) {
+
+        static Snapshot of(String[] names, long[] ids, BitSet pictures) {
+            Integer[] order = new Integer[ids.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingLong(i -> ids[i]));
+            int[] positionsById = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                positionsById[i] = order[i];
+            }
+            return new Snapshot(names, ids, pictures, positionsById);
+        }
+
+        // Kullanıcının tabandaki adları
+        List<String> namesOf(long userId) {
+            int low = 0;
+            int high = positionsById.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ids[positionsById[mid]] < userId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            List<String> result = new ArrayList<>(1);
+            for (int i = low; i < positionsById.length && ids[positionsById[i]] == userId; i++) {
+                result.add(names[positionsById[i]]);
+            }
+            return result;
+        }
+
+        // key'den büyük veya eşit ilk adın indeksi
+        int lowerBound(String key) {
+            int index = Arrays.binarySearch(names, key);
+            return index >= 0 ? index : -(index + 1);
+        }
+    }
+}
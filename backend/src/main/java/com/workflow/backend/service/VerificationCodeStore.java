@@ -0,0 +1,53 @@
+package com.workflow.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+
+/**
+ * Kısa ömürlü doğrulama kodlarının (kayıt doğrulama, şifre sıfırlama) saklandığı backend.
+ * Tek node için bellek içi, birden fazla replika için veritabanı (JPA) implementasyonu kullanılır.
+ * Seçim {@code verification-code.store} property'si ile yapılır.
+ *
+ * Her amaç + konu (e-posta adresi) için en fazla bir aktif kod vardır; yeni kod eskisinin yerine geçer.
+ * Hatalı girişler deneme sayacını artırır, {@link #MAX_ATTEMPTS} sonrası kod kullanılamaz.
+ */
+public interface VerificationCodeStore {
+
+    int MAX_ATTEMPTS = 5;
+
+    /**
+     * Konu için yeni kodu kaydeder, varsa öncekini geçersiz kılar.
+     */
+    void save(Purpose purpose, String subject, String code, Duration ttl);
+
+    /**
+     * Kodu kontrol eder; kod kullanılmış sayılmaz. Hatalı kod bir deneme hakkı harcar.
+     */
+    Result verify(Purpose purpose, String subject, String code);
+
+    /**
+     * Kodu kontrol eder ve eşleşirse tek seferlik olarak tüketir. Hatalı kod bir deneme hakkı harcar.
+     */
+    Result consume(Purpose purpose, String subject, String code);
+
+    // Zamanlama saldırısına karşı sabit süreli karşılaştırma
+    static boolean codesMatch(String expected, String actual) {
+        return actual != null && MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.UTF_8),
+                actual.getBytes(StandardCharsets.UTF_8));
+    }
+
+    enum Purpose {
+        EMAIL_VERIFICATION,
+        PASSWORD_RESET
+    }
+
+    enum Result {
+        MATCH,
+        MISMATCH,
+        NOT_FOUND,
+        EXPIRED,
+        TOO_MANY_ATTEMPTS
+    }
+}
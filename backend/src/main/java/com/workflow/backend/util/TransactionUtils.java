@@ -0,0 +1,26 @@
+package com.workflow.backend.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class TransactionUtils {
+    private TransactionUtils() {}
+
+    /**
+     * Aktif bir transaction varsa işi commit sonrasına erteler, yoksa hemen çalıştırır.
+     * Rollback olan işlemlerin yan etkileri (cache, push vb.) böylece dışarı sızmaz.
+     * Aynı transaction içindeki işler kayıt sırasıyla çalışır.
+     */
+    public static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+-- V28: Replikalar arası paylaşımlı rate limit bucket'ları (rate-limit.backend=jdbc)
+-- state: bucket4j tarafından serileştirilen bucket durumu
+
+CREATE TABLE IF NOT EXISTS rate_limit_buckets (
+    id VARCHAR(512) PRIMARY KEY,
+    state BYTEA
+);
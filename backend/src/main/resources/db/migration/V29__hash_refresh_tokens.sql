@@ -0,0 +1,15 @@
+-- V29: Refresh token'lar ham değer yerine SHA-256 hash (64 karakter hex) olarak saklanır.
+-- Mevcut token'lar yerinde hash'lenir, böylece açık oturumlar geçerli kalır.
+
+ALTER TABLE refresh_tokens ADD COLUMN token_hash VARCHAR(64);
+UPDATE refresh_tokens SET token_hash = encode(sha256(convert_to(token, 'UTF8')), 'hex');
+ALTER TABLE refresh_tokens ALTER COLUMN token_hash SET NOT NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS idx_refresh_tokens_token_hash ON refresh_tokens(token_hash);
+
+DROP INDEX IF EXISTS idx_refresh_tokens_token;
+ALTER TABLE refresh_tokens DROP COLUMN token;
+
+-- Kullanıcı başına token limiti (en yeni N token hariç silme) ve süresi dolmuş token temizliği için
+DROP INDEX IF EXISTS idx_refresh_tokens_user_id;
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user_expiry ON refresh_tokens(user_id, expiry_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expiry ON refresh_tokens(expiry_date);
@@ -0,0 +1,18 @@
+-- V30: Bildirim outbox tablosu.
+-- İş transaction'ları bildirimi buraya tek bir insert ile ekler; NotificationOutbox worker'ı
+-- satırları parça parça alıp (SKIP LOCKED) notifications tablosuna toplu yazar ve siler.
+
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    recipient_id BIGINT NOT NULL,
+    actor_id BIGINT NOT NULL,
+    type VARCHAR(30) NOT NULL,
+    message VARCHAR(500) NOT NULL,
+    reference_id BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT fk_notification_outbox_recipient FOREIGN KEY (recipient_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_notification_outbox_actor FOREIGN KEY (actor_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- deleteByReference (ör. bağlantı isteği kabul/red) henüz teslim edilmemiş satırları da siler
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_reference ON notification_outbox(reference_id, type);
@@ -0,0 +1,16 @@
+-- V31: Keyset (imleç) sayfalama için bileşik indeksler.
+-- Sorgular (zaman, id) çiftine göre DESC sıralı ilerler; indeks sırası sorgu sırasıyla aynıdır,
+-- böylece her sayfa OFFSET taraması ve COUNT olmadan doğrudan imleç konumundan okunur.
+
+-- Bildirimler: (recipient_id, created_at DESC) indeksinin yerine id tie-breaker'lı sürüm
+CREATE INDEX IF NOT EXISTS idx_notifications_recipient_created ON notifications(recipient_id, created_at DESC, id DESC);
+DROP INDEX IF EXISTS idx_notifications_created_at;
+
+-- Bekleyen/gönderilen istekler (created_at) ve kabul edilmiş bağlantılar (updated_at), her iki taraf için
+CREATE INDEX IF NOT EXISTS idx_connections_receiver_status_created ON connections(receiver_id, status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_connections_sender_status_created ON connections(sender_id, status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_connections_receiver_status_updated ON connections(receiver_id, status, updated_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_connections_sender_status_updated ON connections(sender_id, status, updated_at DESC, id DESC);
+
+-- Kullanıcının pano listesi
+CREATE INDEX IF NOT EXISTS idx_boards_user_created ON boards(user_id, created_at DESC, id DESC);
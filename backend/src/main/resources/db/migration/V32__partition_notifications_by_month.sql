@@ -0,0 +1,69 @@
+-- V32: notifications tablosu created_at üzerinden aylık range partition'lara bölünür.
+-- Eski bildirimler satır satır DELETE yerine bütün partition DROP edilerek silinir
+-- (NotificationRetentionService, notification.retention.months).
+--
+-- Partitioned tabloda primary key partition anahtarını içermelidir: (id, created_at).
+-- id hâlâ tek başına benzersizdir (sequence), JPA tarafında @Id id olarak kalır.
+
+ALTER TABLE notifications RENAME TO notifications_legacy;
+ALTER TABLE notifications_legacy ALTER COLUMN id DROP DEFAULT;
+
+CREATE TABLE notifications (
+    id BIGINT NOT NULL DEFAULT nextval('notifications_id_seq'),
+    version BIGINT DEFAULT 0,
+    recipient_id BIGINT NOT NULL,
+    actor_id BIGINT NOT NULL,
+    type VARCHAR(30) NOT NULL,
+    message VARCHAR(500) NOT NULL,
+    is_read BOOLEAN NOT NULL DEFAULT FALSE,
+    reference_id BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE notifications_id_seq OWNED BY notifications.id;
+
+-- Mevcut en eski aydan itibaren, ileriye dönük 3 ay dahil aylık partition'lar (notifications_pYYYYMM)
+DO $$
+DECLARE
+    month_start DATE;
+    last_month DATE := (date_trunc('month', NOW()) + INTERVAL '3 months')::date;
+BEGIN
+    SELECT COALESCE(date_trunc('month', MIN(created_at)), date_trunc('month', NOW()))::date
+    INTO month_start
+    FROM notifications_legacy;
+
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+                'notifications_p' || to_char(month_start, 'YYYYMM'),
+                month_start,
+                (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+-- Bakım job'u gecikirse insert'ler hata vermesin diye güvenlik ağı
+CREATE TABLE IF NOT EXISTS notifications_default PARTITION OF notifications DEFAULT;
+
+INSERT INTO notifications (id, version, recipient_id, actor_id, type, message, is_read, reference_id, created_at)
+SELECT id, version, recipient_id, actor_id, type, message, is_read, reference_id, created_at
+FROM notifications_legacy;
+
+DROP TABLE notifications_legacy;
+
+ALTER TABLE notifications ADD CONSTRAINT notifications_pkey PRIMARY KEY (id, created_at);
+ALTER TABLE notifications ADD CONSTRAINT fk_notifications_recipient
+    FOREIGN KEY (recipient_id) REFERENCES users(id) ON DELETE CASCADE;
+ALTER TABLE notifications ADD CONSTRAINT fk_notifications_actor
+    FOREIGN KEY (actor_id) REFERENCES users(id) ON DELETE CASCADE;
+ALTER TABLE notifications ADD CONSTRAINT notifications_type_check
+    CHECK (type IN ('CONNECTION_REQUEST', 'CONNECTION_ACCEPTED', 'CONNECTION_REJECTED'));
+
+-- Partitioned indeksler (her partition'da otomatik oluşturulur)
+CREATE INDEX IF NOT EXISTS idx_notifications_recipient_created ON notifications(recipient_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_notifications_is_read ON notifications(recipient_id, is_read);
+CREATE INDEX IF NOT EXISTS idx_notifications_recipient_type ON notifications(recipient_id, type);
+-- deleteByReference (bağlantı isteği kabul/red)
+CREATE INDEX IF NOT EXISTS idx_notifications_reference ON notifications(reference_id, type);
+-- Parça parça eski bağlantı isteği temizliği: id sırasıyla sadece CONNECTION_REQUEST satırları
+CREATE INDEX IF NOT EXISTS idx_notifications_connection_request ON notifications(id)
+    WHERE type = 'CONNECTION_REQUEST' AND reference_id IS NOT NULL;
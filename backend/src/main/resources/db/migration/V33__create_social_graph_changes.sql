@@ -0,0 +1,13 @@
+-- V33: Sosyal graf değişiklik günlüğü.
+-- ConnectionService değişiklikleri etkilenen kullanıcılar için buraya satır ekler; her node
+-- SocialGraphIndex üzerinden tabloyu periyodik okur ve kendi bellek içi kopyasını geçersiz kılar.
+-- Satırlar kısa ömürlüdür (1 saat), kullanıcı silinse de kalabilir (FK yok).
+
+CREATE TABLE IF NOT EXISTS social_graph_changes (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT,                   -- NULL: tüm kullanıcılar (toplu silme)
+    node_id VARCHAR(36) NOT NULL,     -- değişikliği yapan node (kendi değişikliğini atlar)
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_social_graph_changes_created_at ON social_graph_changes(created_at);
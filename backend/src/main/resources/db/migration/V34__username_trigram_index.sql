@@ -0,0 +1,9 @@
+-- V34: Kullanıcı arama için trigram indeksi.
+-- LOWER(username) LIKE '%q%' B-tree indeks kullanamaz ve her tuş vuruşunda users tablosunu tarar.
+-- pg_trgm GIN indeksi hem LIKE '%q%' / 'q%' hem de benzerlik (%) operatörünü indeksten cevaplar;
+-- UserSearchRepository sonuçları tam eşleşme, önek ve similarity() sırasıyla sıralar.
+
+-- pg_trgm PostgreSQL 13+ ile 'trusted' eklentidir; veritabanı sahibi superuser olmadan oluşturabilir
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_username_trgm ON users USING GIN (LOWER(username) gin_trgm_ops);
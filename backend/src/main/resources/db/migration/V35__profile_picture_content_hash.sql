@@ -0,0 +1,10 @@
+-- V35: İçerik adresli profil resmi depolama.
+-- Yeni resimler SHA-256 adıyla "ab/cd/<hash>.<ext>" shard dizinlerine yazılır ve aynı içerik
+-- tek dosya olarak paylaşılır. Bir blob'un referans sayısı bu kolonda aynı hash'e sahip satır
+-- sayısıdır; ProfilePictureGarbageCollector referansı kalmayan blob'ları indeks üzerinden bulur.
+-- Mevcut (userId_uuid.ext) kayıtlarda NULL kalır, bu dosyalar eskisi gibi değişimde silinir.
+
+ALTER TABLE user_profile_pictures ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_user_profile_pictures_content_hash
+    ON user_profile_pictures (content_hash);
@@ -0,0 +1,17 @@
+-- V36: E-posta outbox tablosu.
+-- Doğrulama/şifre sıfırlama kodları token ile aynı transaction'da buraya yazılır; EmailOutbox worker'ı
+-- satırları parça parça alıp (SKIP LOCKED) tek SMTP oturumunda gönderir, başarısızları geri çekilerek tekrar dener.
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    last_error VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- Worker sadece zamanı gelmiş satırları sahiplenir
+CREATE INDEX IF NOT EXISTS idx_email_outbox_next_attempt ON email_outbox(next_attempt_at, id);
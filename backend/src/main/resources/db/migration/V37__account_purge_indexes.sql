@@ -0,0 +1,11 @@
+-- V37: Parçalı hesap silme (AccountPurgeService) için index'ler.
+-- Silme zamanı gelen hesaplar kısmi index'ten seçilir; actor/recipient tarafındaki küme bazlı
+-- DELETE'ler tablo taraması yapmaz.
+
+CREATE INDEX IF NOT EXISTS idx_users_deletion_scheduled ON users(deletion_scheduled_at, id)
+    WHERE deletion_scheduled_at IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_notifications_actor_id ON notifications(actor_id);
+
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_recipient ON notification_outbox(recipient_id);
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_actor ON notification_outbox(actor_id);
@@ -0,0 +1,30 @@
+-- V38: Zamanlanmış işlerin replikalar arası kilidi ve çalışma geçmişi (ScheduledJobRunner)
+-- scheduled_job_locks: iş başına tek satır; locked_until geçmemişse başka node işi çalıştırmaz.
+--   Kilit süreye bağlıdır (lease): kilidi tutan node ölürse en geç locked_until'de serbest kalır.
+-- scheduled_job_runs: her çalışmanın node'u, süresi, etkilenen satır sayısı ve hatası.
+
+CREATE TABLE IF NOT EXISTS scheduled_job_locks (
+    job_name VARCHAR(100) PRIMARY KEY,
+    locked_until TIMESTAMP NOT NULL,
+    locked_at TIMESTAMP NOT NULL,
+    locked_by VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS scheduled_job_runs (
+    id BIGSERIAL PRIMARY KEY,
+    job_name VARCHAR(100) NOT NULL,
+    node_id VARCHAR(255) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    rows_affected BIGINT NOT NULL DEFAULT 0,
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+    error VARCHAR(500)
+);
+
+-- Son çalışmalar iş bazında okunur; geçmiş temizliği started_at üzerinden yapılır
+CREATE INDEX IF NOT EXISTS idx_scheduled_job_runs_job_started ON scheduled_job_runs(job_name, started_at);
+CREATE INDEX IF NOT EXISTS idx_scheduled_job_runs_started ON scheduled_job_runs(started_at);
+
+-- Parçalı silme işlerinin her parçada okuduğu aralıklar (tam tablo taraması yerine index)
+-- refresh_tokens(expiry_date) için V29'daki idx_refresh_tokens_expiry kullanılır
+CREATE INDEX IF NOT EXISTS idx_connections_pending_created ON connections(created_at) WHERE status = 'PENDING';
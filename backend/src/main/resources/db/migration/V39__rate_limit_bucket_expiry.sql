@@ -0,0 +1,8 @@
+-- V39: Paylaşımlı rate limit bucket'larının boşta kalma zamanı
+-- expires_at: bucket'ın tamamen dolacağı an (epoch ms). Periyodik temizlik sadece bu anı geçmiş
+-- satırları siler; pencere ortasındaki limitler (ör. /auth/login) sıfırlanmaz.
+-- Mevcut satırlar 0 ile başlar ve ilk temizlikte bir kez silinir.
+
+ALTER TABLE rate_limit_buckets ADD COLUMN IF NOT EXISTS expires_at BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_rate_limit_buckets_expires_at ON rate_limit_buckets(expires_at);
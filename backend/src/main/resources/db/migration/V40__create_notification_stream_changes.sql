@@ -0,0 +1,14 @@
+-- V40: Bildirim akışı değişiklik günlüğü.
+-- Bildirim teslimi, okundu işaretleme ve silme etkilenen alıcı için buraya satır ekler; her node
+-- NotificationStreamRelay üzerinden tabloyu periyodik okur, yerel sayacı bırakır ve kullanıcının
+-- bu node'da açık SSE bağlantısı varsa güncel durumu push eder.
+-- Satırlar kısa ömürlüdür (10 dakika), kullanıcı silinse de kalabilir (FK yok).
+
+CREATE TABLE IF NOT EXISTS notification_stream_changes (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT,                   -- NULL: tüm kullanıcılar (toplu silme)
+    node_id VARCHAR(36) NOT NULL,     -- değişikliği yapan node (kendi değişikliğini atlar)
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_notification_stream_changes_created_at ON notification_stream_changes(created_at);
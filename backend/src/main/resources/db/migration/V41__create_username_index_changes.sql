@@ -0,0 +1,13 @@
+-- V41: Kullanıcı adı indeksi değişiklik günlüğü.
+-- Kayıt, kullanıcı adı değişikliği, profil resmi ve hesap silme etkilenen kullanıcı için buraya satır
+-- ekler; her node UsernameIndex üzerinden tabloyu periyodik okur ve kullanıcının güncel halini yükler.
+-- Satırlar kısa ömürlüdür (1 saat), kullanıcı silinse de kalabilir (FK yok).
+
+CREATE TABLE IF NOT EXISTS username_index_changes (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT,                   -- NULL: tüm kullanıcılar (indeks yeniden kurulur)
+    node_id VARCHAR(36) NOT NULL,     -- değişikliği yapan node (kendi değişikliğini atlar)
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_username_index_changes_created_at ON username_index_changes(created_at);
@@ -0,0 +1,5 @@
+-- V42: Zamanlanmış işlerin kaldığı yer (ScheduledJobRunner.getCursor/saveCursor)
+-- Parça parça ilerleyen işler (ör. eski CONNECTION_REQUEST temizliği) son işledikleri id'yi kilit
+-- satırında saklar; kilidi sonraki turda başka bir node alsa da tarama baştan başlamaz.
+
+ALTER TABLE scheduled_job_locks ADD COLUMN IF NOT EXISTS job_cursor BIGINT NOT NULL DEFAULT 0;
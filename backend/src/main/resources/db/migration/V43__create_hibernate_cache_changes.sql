@@ -0,0 +1,23 @@
+-- V43: Hibernate second-level cache değişiklik günlükleri.
+-- User ve BoardMember insert/update/delete işlemleri etkilenen kullanıcı için buraya satır ekler; her node
+-- HibernateCacheRelay üzerinden tabloları periyodik okur ve ilgili kayıtları yerel L2 cache'ten siler
+-- (ör. başka node'da değişen şifre ya da kaldırılan pano üyeliği eski haliyle kullanılmaz).
+-- Satırlar kısa ömürlüdür (10 dakika), kullanıcı silinse de kalabilir (FK yok).
+
+CREATE TABLE IF NOT EXISTS user_cache_changes (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT,                   -- NULL: tüm kullanıcılar
+    node_id VARCHAR(36) NOT NULL,     -- değişikliği yapan node (kendi değişikliğini atlar)
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_cache_changes_created_at ON user_cache_changes(created_at);
+
+CREATE TABLE IF NOT EXISTS board_member_cache_changes (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT,                   -- üyeliği değişen kullanıcı (NULL: tüm üyelikler)
+    node_id VARCHAR(36) NOT NULL,     -- değişikliği yapan node (kendi değişikliğini atlar)
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_board_member_cache_changes_created_at ON board_member_cache_changes(created_at);
@@ -0,0 +1,13 @@
+-- V44: Gizlilik ayarı ve profil resmi L2 cache değişiklik günlüğü.
+-- UserPrivacySettings ve UserProfilePicture insert/update/delete işlemleri sahibi olan kullanıcı için buraya
+-- satır ekler; her node HibernateCacheRelay üzerinden okuyup iki region'ı ve query cache'i bırakır
+-- (ör. başka node'da gizlenen profil eski ayarlarla gösterilmez). Satırlar kısa ömürlüdür (10 dakika).
+
+CREATE TABLE IF NOT EXISTS user_profile_cache_changes (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT,                   -- ayarı/resmi değişen kullanıcı (NULL: tüm kullanıcılar)
+    node_id VARCHAR(36) NOT NULL,     -- değişikliği yapan node (kendi değişikliğini atlar)
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_profile_cache_changes_created_at ON user_profile_cache_changes(created_at);
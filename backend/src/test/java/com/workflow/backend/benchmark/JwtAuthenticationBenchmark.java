@@ -0,0 +1,100 @@
+package com.workflow.backend.benchmark;
+
+import com.workflow.backend.config.JwtProperties;
+import com.workflow.backend.security.JwtPrincipal;
+import com.workflow.backend.security.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtFilter'ın istek başına kimlik doğrulama maliyetini ölçer.
+ *
+ * - legacyFourParses: eski akış (extractUsername + isTokenValid + extractUserId),
+ *   her adımda yeni parser oluşturup imzayı tekrar doğrular.
+ * - verifyColdToken: token havuzu cache boyutunun katları kadar büyük, çağrıların
+ *   çoğu cache miss olur (tek parse + cache yazma).
+ * - verifyCachedToken: aynı token tekrar geliyor, cache hit (parse yok).
+ *
+ * Çalıştırma: test classpath ile main metodu veya IDE üzerinden
+ * (mvn test-compile sonrası annotation processor benchmark sınıflarını üretir).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET =
+            "benchmarksecretkeythatisatleast256bitslongandneedstobeatleast64characterslong";
+    private static final int COLD_TOKEN_COUNT = 1 << 16;
+
+    private JwtService jwtService;
+    private Key signingKey;
+    private String token;
+    private String[] coldTokens;
+    private int coldIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        properties.getAccessToken().setExpiration(TimeUnit.HOURS.toMillis(1));
+
+        jwtService = new JwtService(properties);
+        jwtService.init();
+        signingKey = Keys.hmacShaKeyFor(SECRET.getBytes());
+
+        token = jwtService.generateAccessToken("benchmark-user", 42L);
+        coldTokens = new String[COLD_TOKEN_COUNT];
+        for (int i = 0; i < COLD_TOKEN_COUNT; i++) {
+            coldTokens[i] = jwtService.generateAccessToken("user-" + i, (long) i);
+        }
+    }
+
+    @Benchmark
+    public void legacyFourParses(Blackhole blackhole) {
+        String username = parse(token).getSubject();
+        boolean valid = parse(token).getSubject().equals(username)
+                && !parse(token).getExpiration().before(new Date());
+        Long userId = parse(token).get("userId", Long.class);
+        blackhole.consume(valid);
+        blackhole.consume(userId);
+    }
+
+    @Benchmark
+    public JwtPrincipal verifyColdToken() {
+        String next = coldTokens[coldIndex++ & (COLD_TOKEN_COUNT - 1)];
+        return jwtService.verify(next);
+    }
+
+    @Benchmark
+    public JwtPrincipal verifyCachedToken() {
+        return jwtService.verify(token);
+    }
+
+    private Claims parse(String jwt) {
+        return Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build()
+                .parseClaimsJws(jwt)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
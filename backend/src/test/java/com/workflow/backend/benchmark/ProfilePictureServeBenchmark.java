@@ -0,0 +1,168 @@
+package com.workflow.backend.benchmark;
+
+import com.workflow.backend.BackendApplication;
+import com.workflow.backend.entity.User;
+import com.workflow.backend.entity.UserProfilePicture;
+import com.workflow.backend.repository.UserProfilePictureRepository;
+import com.workflow.backend.repository.UserRepository;
+import com.workflow.backend.service.AvatarResolver;
+import com.workflow.backend.service.ProfilePictureStorageService;
+import com.workflow.backend.service.ProfilePictureStorageService.StoredFile;
+import com.workflow.backend.service.ProfilePictureStorageService.StoredPicture;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Eş zamanlı avatar isteklerinde sunum yolunun throughput'unu ölçer (board sayfası açılışı).
+ *
+ * - legacyReadAllBytes: eski akış, her istekte path sorgusu + dosyanın tamamı heap'e kopyalanır.
+ * - transferTo: cache'teki meta veri + FileChannel.transferTo (Tomcat sendfile'ın yaptığı iş);
+ *   hedef kanal veriyi atar, ağ maliyeti ölçüme girmez.
+ * - revalidate: istemcide güncel kopya var, ETag karşılaştırması ile 304 (dosyaya dokunulmaz).
+ *
+ * HTTP üzerinden ölçüm anonim rate limit'e (dakikada 60 istek) takıldığından sunum katmanı
+ * doğrudan çağrılır. Uygulama test profiliyle (H2) ayağa kaldırılır.
+ *
+ * Çalıştırma: test classpath ile main metodu veya IDE üzerinden.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ProfilePictureServeBenchmark {
+
+    private static final int USER_COUNT = 256;
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+
+    // Gerçekçi avatar boyutları: küçük küçültülmüş resimler ve büyük orijinaller
+    @Param({"16384", "262144"})
+    private int pictureSize;
+
+    private ConfigurableApplicationContext context;
+    private UserProfilePictureRepository profilePictureRepository;
+    private AvatarResolver avatarResolver;
+    private Long[] userIds;
+    private String[] clientEtags;
+    private Path storageDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        storageDir = Files.createTempDirectory("avatar-bench");
+        context = SpringApplication.run(BackendApplication.class, "--server.port=0",
+                "--profile-picture.storage-dir=" + storageDir);
+        profilePictureRepository = context.getBean(UserProfilePictureRepository.class);
+        avatarResolver = context.getBean(AvatarResolver.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ProfilePictureStorageService storageService = context.getBean(ProfilePictureStorageService.class);
+
+        Random random = new Random(42);
+        byte[] content = new byte[pictureSize];
+        userIds = new Long[USER_COUNT];
+        for (int i = 0; i < USER_COUNT; i++) {
+            User user = new User();
+            user.setUsername("avatar" + i);
+            user.setEmail("avatar" + i + "@example.com");
+            user.setPassword("x");
+            user.setFirstName("Avatar");
+            user.setLastName("User" + i);
+            user = userRepository.save(user);
+
+            // Sunum içeriği decode etmez: PNG imzası + rastgele byte'lar yeterli (her kullanıcıya ayrı blob)
+            random.nextBytes(content);
+            System.arraycopy(PNG_SIGNATURE, 0, content, 0, PNG_SIGNATURE.length);
+            StoredFile stored = storageService.store(user.getId(), new ByteArrayInputStream(content));
+            UserProfilePicture picture = new UserProfilePicture(user, stored.filePath());
+            picture.setContentHash(stored.contentHash());
+            profilePictureRepository.save(picture);
+            userIds[i] = user.getId();
+        }
+
+        clientEtags = new String[USER_COUNT];
+        for (int i = 0; i < USER_COUNT; i++) {
+            clientEtags[i] = avatarResolver.findFile(userIds[i]).orElseThrow().etag();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        try (var files = Files.walk(storageDir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public byte[] legacyReadAllBytes() throws IOException {
+        String filePath = profilePictureRepository.findFilePathByUserId(nextUserId()).orElseThrow();
+        return Files.readAllBytes(Paths.get(filePath));
+    }
+
+    @Benchmark
+    public long transferTo() throws IOException {
+        StoredPicture picture = avatarResolver.findFile(nextUserId()).orElseThrow();
+        long sent = 0;
+        try (FileChannel channel = FileChannel.open(picture.path(), StandardOpenOption.READ)) {
+            while (sent < picture.size()) {
+                sent += channel.transferTo(sent, picture.size() - sent, DiscardChannel.INSTANCE);
+            }
+        }
+        return sent;
+    }
+
+    @Benchmark
+    public boolean revalidate() {
+        int index = ThreadLocalRandom.current().nextInt(USER_COUNT);
+        return clientEtags[index].equals(avatarResolver.findFile(userIds[index]).orElseThrow().etag());
+    }
+
+    private Long nextUserId() {
+        return userIds[ThreadLocalRandom.current().nextInt(USER_COUNT)];
+    }
+
+    // Sokete yazımın yerine geçer: veriyi okuyup atar
+    private enum DiscardChannel implements WritableByteChannel {
+        INSTANCE;
+
+        @Override
+        public int write(ByteBuffer src) {
+            int remaining = src.remaining();
+            src.position(src.limit());
+            return remaining;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProfilePictureServeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,76 @@
+package com.workflow.backend.benchmark;
+
+import com.workflow.backend.BackendApplication;
+import com.workflow.backend.entity.RefreshToken;
+import com.workflow.backend.entity.User;
+import com.workflow.backend.repository.UserRepository;
+import com.workflow.backend.service.RefreshTokenService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login fırtınası altında refresh token üretim throughput'unu ölçer.
+ *
+ * Uygulama test profiliyle (H2, src/test/resources/application.properties) ayağa kaldırılır,
+ * birden fazla thread aynı küçük kullanıcı havuzu için eş zamanlı token üretir. Böylece hem
+ * insert hem de kullanıcı başına limit (MAX_TOKENS_PER_USER) trim sorgusu sürekli çalışır.
+ *
+ * Çalıştırma: test classpath ile main metodu veya IDE üzerinden.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class RefreshTokenIssueBenchmark {
+
+    private static final int USER_COUNT = 64;
+
+    private ConfigurableApplicationContext context;
+    private RefreshTokenService refreshTokenService;
+    private Long[] userIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(BackendApplication.class, "--server.port=0");
+        refreshTokenService = context.getBean(RefreshTokenService.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+
+        userIds = new Long[USER_COUNT];
+        for (int i = 0; i < USER_COUNT; i++) {
+            User user = new User();
+            user.setUsername("storm" + i);
+            user.setEmail("storm" + i + "@example.com");
+            user.setPassword("x");
+            user.setFirstName("Storm");
+            user.setLastName("User" + i);
+            userIds[i] = userRepository.save(user).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public RefreshToken issueToken() {
+        Long userId = userIds[ThreadLocalRandom.current().nextInt(USER_COUNT)];
+        return refreshTokenService.createRefreshToken(userId);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RefreshTokenIssueBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,127 @@
+package com.workflow.backend.benchmark;
+
+import com.workflow.backend.BackendApplication;
+import com.workflow.backend.repository.UserSearchRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1M kullanıcılı tabloda user picker aramasının gecikmesini ölçer.
+ *
+ * Varsayılan olarak test profiliyle (H2) çalışır; H2'de trigram indeksi olmadığından bu sonuç
+ * tam tarama referansıdır. Gerçek ölçüm için PostgreSQL'e yönlendirin, Flyway V34 indeksini kurar:
+ * -Dspring.datasource.url=jdbc:postgresql://localhost:5432/bench -Dspring.datasource.username=...
+ * -Dspring.jpa.hibernate.ddl-auto=validate -Dspring.flyway.enabled=true
+ * Tabloda zaten USER_COUNT kadar kullanıcı varsa veri tekrar üretilmez.
+ *
+ * Çalıştırma: test classpath ile main metodu veya IDE üzerinden.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class UserSearchBenchmark {
+
+    private static final int USER_COUNT = 1_000_000;
+    private static final int INSERT_BATCH_SIZE = 10_000;
+    private static final int LIMIT = 10;
+    private static final String[] SYLLABLES = {
+            "an", "be", "ca", "de", "el", "fa", "ga", "ha", "in", "jo", "ka", "li", "ma", "ne",
+            "or", "pa", "ra", "se", "ta", "ur", "ve", "ya", "ze", "mi", "ko", "lu", "si", "to"
+    };
+
+    private ConfigurableApplicationContext context;
+    private UserSearchRepository userSearchRepository;
+    private String[] substringQueries;
+    private String[] prefixQueries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(BackendApplication.class, "--server.port=0");
+        userSearchRepository = context.getBean(UserSearchRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        if (existing == null || existing < USER_COUNT) {
+            seedUsers(jdbcTemplate, existing != null ? existing.intValue() : 0);
+        }
+
+        Random random = new Random(42);
+        substringQueries = new String[256];
+        prefixQueries = new String[256];
+        for (int i = 0; i < substringQueries.length; i++) {
+            substringQueries[i] = SYLLABLES[random.nextInt(SYLLABLES.length)] + SYLLABLES[random.nextInt(SYLLABLES.length)];
+            prefixQueries[i] = username(random.nextInt(USER_COUNT)).substring(0, 5);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Kullanıcı adının ortasında geçen 4 harfli parça (LIKE '%q%')
+    @Benchmark
+    public List<UserSearchRepository.Hit> searchSubstring() {
+        return userSearchRepository.search(pick(substringQueries), -1L, LIMIT);
+    }
+
+    // Var olan bir kullanıcı adının ilk 5 harfi (önek ilk sırada gelmeli)
+    @Benchmark
+    public List<UserSearchRepository.Hit> searchPrefix() {
+        return userSearchRepository.search(pick(prefixQueries), -1L, LIMIT);
+    }
+
+    // Hiçbir kullanıcıyla eşleşmeyen sorgu (tam tarama ile en kötü durum)
+    @Benchmark
+    public List<UserSearchRepository.Hit> searchNoMatch() {
+        return userSearchRepository.search("qxqxq", -1L, LIMIT);
+    }
+
+    private static String pick(String[] queries) {
+        return queries[ThreadLocalRandom.current().nextInt(queries.length)];
+    }
+
+    private static void seedUsers(JdbcTemplate jdbcTemplate, int from) {
+        String sql = "INSERT INTO users (version, username, email, first_name, last_name, auth_provider, privacy_mode) " +
+                "VALUES (0, ?, ?, 'Bench', 'User', 'LOCAL', 'HIDDEN')";
+        for (int start = from; start < USER_COUNT; start += INSERT_BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+            for (int i = start; i < Math.min(start + INSERT_BATCH_SIZE, USER_COUNT); i++) {
+                String username = username(i);
+                batch.add(new Object[]{username, username + "@bench.example.com"});
+            }
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    // Deterministik, benzersiz kullanıcı adı: hece dizisi + sıra numarası
+    private static String username(int index) {
+        Random random = new Random(index);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            builder.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return builder.append(index).toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
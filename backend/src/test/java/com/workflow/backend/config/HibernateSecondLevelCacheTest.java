@@ -0,0 +1,124 @@
+package com.workflow.backend.config;
+
+import com.workflow.backend.entity.User;
+import com.workflow.backend.entity.UserPrivacySettings;
+import com.workflow.backend.repository.UserPrivacySettingsRepository;
+import com.workflow.backend.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Second-level cache ve query cache entegrasyon testi.
+ * Test metodunda transaction yoktur; her repository çağrısı ayrı bir session açar,
+ * böylece tekrar eden okumaların session cache'inden değil second-level cache'ten geldiği doğrulanır.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "cors.allowed-origins=http://localhost:3000,http://localhost:5173",
+        "google.client-id=",
+        "profile-picture.storage-dir=${java.io.tmpdir}/cache-test-uploads"
+})
+@DisplayName("Hibernate Second-Level Cache Tests")
+class HibernateSecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserPrivacySettingsRepository privacySettingsRepository;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        User newUser = new User();
+        newUser.setUsername("cache_" + UUID.randomUUID().toString().substring(0, 8));
+        newUser.setFirstName("Cache");
+        newUser.setLastName("Test");
+        user = userRepository.save(newUser);
+
+        sessionFactory.getCache().evictAllRegions();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        privacySettingsRepository.findByUserId(user.getId()).ifPresent(privacySettingsRepository::delete);
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    @DisplayName("Repeated findById should be served from the user region")
+    void findById_secondCallHitsCache() {
+        userRepository.findById(user.getId()).orElseThrow();
+        userRepository.findById(user.getId()).orElseThrow();
+
+        assertThat(statistics.getDomainDataRegionStatistics(HibernateCacheConfig.USER_REGION).getHitCount())
+                .isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Repeated findByUsername should hit the query cache")
+    void findByUsername_secondCallHitsQueryCache() {
+        userRepository.findByUsername(user.getUsername());
+        long missesAfterFirst = statistics.getQueryCacheMissCount();
+
+        User found = userRepository.findByUsername(user.getUsername());
+
+        assertThat(found.getId()).isEqualTo(user.getId());
+        assertThat(statistics.getQueryCacheHitCount()).isGreaterThanOrEqualTo(1);
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(missesAfterFirst);
+    }
+
+    @Test
+    @DisplayName("Updating a user should invalidate cached entity and natural-key query")
+    void update_invalidatesEntityAndQueryCache() {
+        String oldUsername = user.getUsername();
+        userRepository.findById(user.getId()).orElseThrow();
+        userRepository.findByUsername(oldUsername);
+
+        User loaded = userRepository.findById(user.getId()).orElseThrow();
+        loaded.setFirstName("Updated");
+        loaded.setUsername(oldUsername + "_new");
+        userRepository.save(loaded);
+
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getFirstName()).isEqualTo("Updated");
+        assertThat(userRepository.findByUsername(oldUsername)).isNull();
+        assertThat(userRepository.findByUsername(oldUsername + "_new").getId()).isEqualTo(user.getId());
+    }
+
+    @Test
+    @DisplayName("Privacy settings lookup by user id should be cached and invalidated on update")
+    void privacySettings_cachedAndInvalidated() {
+        privacySettingsRepository.save(new UserPrivacySettings(userRepository.getReferenceById(user.getId())));
+
+        privacySettingsRepository.findByUserId(user.getId()).orElseThrow();
+        UserPrivacySettings settings = privacySettingsRepository.findByUserId(user.getId()).orElseThrow();
+        assertThat(statistics.getQueryCacheHitCount()).isGreaterThanOrEqualTo(1);
+
+        settings.setShowBoardStats(false);
+        privacySettingsRepository.save(settings);
+
+        assertThat(privacySettingsRepository.findByUserId(user.getId()).orElseThrow().getShowBoardStats()).isFalse();
+    }
+}
@@ -0,0 +1,153 @@
+package com.workflow.backend.controller;
+
+import com.workflow.backend.service.AvatarResolver;
+import com.workflow.backend.service.HotAvatarCache;
+import com.workflow.backend.service.ProfilePictureStorageService.StoredPicture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserControllerTest {
+
+    private static final String ETAG = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    @Mock
+    private AvatarResolver avatarResolver;
+
+    @Mock
+    private HotAvatarCache hotAvatarCache;
+
+    @InjectMocks
+    private UserController userController;
+
+    @TempDir
+    Path tempDir;
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        request = new MockHttpServletRequest("GET", "/users/1/profile-picture");
+        response = new MockHttpServletResponse();
+    }
+
+    @Nested
+    @DisplayName("GET /users/{id}/profile-picture")
+    class GetProfilePicture {
+
+        @Test
+        @DisplayName("Should stream the file as a resource with validators")
+        void shouldReturnResourceWithValidators() throws IOException {
+            StoredPicture picture = storedPicture(new byte[]{1, 2, 3});
+            when(avatarResolver.findFile(1L, null)).thenReturn(Optional.of(picture));
+
+            ResponseEntity<Resource> result = userController.getProfilePicture(1L, null, new ServletWebRequest(request, response));
+
+            assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(result.getHeaders().getETag()).isEqualTo("\"" + ETAG + "\"");
+            assertThat(result.getHeaders().getLastModified()).isEqualTo(picture.lastModified() / 1000 * 1000);
+            assertThat(result.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+            assertThat(result.getBody().contentLength()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Should serve hot avatars from memory")
+        void shouldServeFromHotCache() throws IOException {
+            StoredPicture picture = storedPicture(new byte[]{1, 2, 3});
+            Resource cached = new ByteArrayResource(new byte[]{1, 2, 3});
+            when(avatarResolver.findFile(1L, null)).thenReturn(Optional.of(picture));
+            when(hotAvatarCache.get(1L, picture)).thenReturn(Optional.of(cached));
+
+            ResponseEntity<Resource> result = userController.getProfilePicture(1L, null, new ServletWebRequest(request, response));
+
+            assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(result.getBody()).isSameAs(cached);
+        }
+
+        @Test
+        @DisplayName("Should return 404 when the file is deleted before it can be read")
+        void shouldReturnNotFoundWhenFileDisappears() throws IOException {
+            StoredPicture picture = storedPicture(new byte[]{1, 2, 3});
+            when(avatarResolver.findFile(1L, null)).thenReturn(Optional.of(picture));
+            when(hotAvatarCache.get(1L, picture)).thenAnswer(invocation -> {
+                // Resim kontrol ile okuma arasında değişti
+                Files.delete(picture.path());
+                return Optional.empty();
+            });
+
+            ResponseEntity<Resource> result = userController.getProfilePicture(1L, null, new ServletWebRequest(request, response));
+
+            assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        }
+
+        @Test
+        @DisplayName("Should answer 304 from cached metadata without touching the file")
+        void shouldReturnNotModifiedForMatchingEtag() {
+            // Dosya hiç yok: 304 dalı diske erişseydi 404/hata dönerdi
+            StoredPicture picture = new StoredPicture(tempDir.resolve("missing.png"), "image/png", 3, 1_000L, ETAG, 0);
+            when(avatarResolver.findFile(1L, null)).thenReturn(Optional.of(picture));
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + ETAG + "\"");
+
+            ResponseEntity<Resource> result = userController.getProfilePicture(1L, null, new ServletWebRequest(request, response));
+
+            assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+            assertThat(result.getBody()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should hand large files to the container's sendfile when supported")
+        void shouldUseSendfileWhenSupported() throws IOException {
+            StoredPicture picture = storedPicture(new byte[64 * 1024]);
+            when(avatarResolver.findFile(1L, null)).thenReturn(Optional.of(picture));
+            request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+
+            ResponseEntity<Resource> result = userController.getProfilePicture(1L, null, new ServletWebRequest(request, response));
+
+            assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(result.getBody()).isNull();
+            assertThat(result.getHeaders().getContentLength()).isEqualTo(64 * 1024);
+            assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isEqualTo(picture.path().toString());
+            assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(64L * 1024);
+        }
+
+        @Test
+        @DisplayName("Should return 404 when user has no picture")
+        void shouldReturnNotFound() {
+            when(avatarResolver.findFile(1L, null)).thenReturn(Optional.empty());
+
+            ResponseEntity<Resource> result = userController.getProfilePicture(1L, null, new ServletWebRequest(request, response));
+
+            assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    private StoredPicture storedPicture(byte[] content) throws IOException {
+        Path file = Files.write(tempDir.resolve("1_avatar.png"), content);
+        return new StoredPicture(file, "image/png", content.length,
+                Files.getLastModifiedTime(file).toMillis(), ETAG, 0);
+    }
+}
@@ -0,0 +1,36 @@
+package com.workflow.backend.dto;
+
+import com.workflow.backend.exception.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("KeysetCursor Tests")
+class KeysetCursorTest {
+
+    @Test
+    @DisplayName("Encoded cursor should decode to the same position")
+    void encode_decode_roundTrip() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2026, 3, 14, 9, 26, 53, 589_793_000), 42L);
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("Empty cursor should start from the first page")
+    void decode_emptyCursor_returnsStart() {
+        assertThat(KeysetCursor.decode("")).isEqualTo(KeysetCursor.start());
+        assertThat(KeysetCursor.decode(null)).isEqualTo(KeysetCursor.start());
+    }
+
+    @Test
+    @DisplayName("Tampered cursor should be rejected as a bad request")
+    void decode_invalidCursor_throwsBadRequest() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not-a-cursor"))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
@@ -0,0 +1,86 @@
+package com.workflow.backend.repository;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Kullanıcı arama sıralamasını H2 yedek sorgusu üzerinde test eder
+ * (PostgreSQL trigram yolu aynı filtre ve önceliklendirmeyi kullanır).
+ */
+@DisplayName("UserSearchRepository Tests")
+class UserSearchRepositoryTest {
+
+    private UserSearchRepository userSearchRepository;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:usersearch;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS users (id BIGINT PRIMARY KEY, username VARCHAR(255) NOT NULL)");
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("INSERT INTO users (id, username) VALUES " +
+                "(1, 'me_bob'), (2, 'abobo'), (3, 'bobby'), (4, 'Bob'), (5, 'bo_b'), (6, 'alice')");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS connections (id BIGINT PRIMARY KEY, sender_id BIGINT NOT NULL, " +
+                "receiver_id BIGINT NOT NULL, status VARCHAR(20) NOT NULL)");
+        jdbcTemplate.update("DELETE FROM connections");
+        // Kullanıcı 1: abobo ile bağlı (gelen istek), bobby isteği bekliyor
+        jdbcTemplate.update("INSERT INTO connections (id, sender_id, receiver_id, status) VALUES " +
+                "(1, 2, 1, 'ACCEPTED'), (2, 1, 3, 'PENDING'), (3, 4, 5, 'ACCEPTED')");
+
+        userSearchRepository = new UserSearchRepository(dataSource);
+    }
+
+    @Test
+    @DisplayName("Exact match comes first, then prefixes, then other matches; caller is excluded")
+    void search_ranksExactThenPrefix() {
+        assertThat(userSearchRepository.search("bob", 1L, 10))
+                .extracting(UserSearchRepository.Hit::username)
+                .containsExactly("Bob", "bobby", "abobo");
+    }
+
+    @Test
+    @DisplayName("LIKE wildcards in the query are matched literally")
+    void search_escapesWildcards() {
+        assertThat(userSearchRepository.search("o_b", 1L, 10))
+                .extracting(UserSearchRepository.Hit::username)
+                .containsExactly("bo_b");
+    }
+
+    @Test
+    @DisplayName("Non-prefix search skips exact and prefix matches")
+    void searchNonPrefix_returnsOnlyContainingMatches() {
+        assertThat(userSearchRepository.searchNonPrefix("bob", 2L, 10, false))
+                .extracting(UserSearchRepository.Hit::username)
+                .containsExactly("me_bob");
+    }
+
+    @Test
+    @DisplayName("Connection filter is applied before the limit")
+    void search_connectedOnly_filtersBeforeLimit() {
+        // Bağlı olmayan önek eşleşmeleri (Bob, bo_b, bobby) filtre olmadan limiti doldurur
+        assertThat(userSearchRepository.search("bo", 1L, 2))
+                .extracting(UserSearchRepository.Hit::username)
+                .doesNotContain("abobo");
+
+        assertThat(userSearchRepository.search("bo", 1L, 2, true))
+                .extracting(UserSearchRepository.Hit::username)
+                .containsExactly("abobo");
+        assertThat(userSearchRepository.searchNonPrefix("bo", 1L, 2, true))
+                .extracting(UserSearchRepository.Hit::username)
+                .containsExactly("abobo");
+    }
+
+    @Test
+    @DisplayName("Result size is limited")
+    void search_respectsLimit() {
+        assertThat(userSearchRepository.search("b", 1L, 2)).hasSize(2);
+    }
+}
@@ -0,0 +1,165 @@
+package com.workflow.backend.scheduling;
+
+import com.workflow.backend.config.ScheduledJobProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Zamanlanmış iş kilidi, geçmişi ve parçalı silme testi.
+ * Aynı veritabanını kullanan ikinci runner örneği ikinci bir replikayı temsil eder.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "cors.allowed-origins=http://localhost:3000,http://localhost:5173",
+        "google.client-id=",
+        "profile-picture.storage-dir=${java.io.tmpdir}/scheduled-job-test-uploads",
+        "notification.outbox.worker-enabled=false",
+        "scheduled-jobs.delete-batch-size=2",
+        "scheduled-jobs.max-chunks-per-run=3"
+})
+@DisplayName("Scheduled Job Runner Tests")
+class ScheduledJobRunnerTest {
+
+    private static final Duration LOCK_AT_MOST_FOR = Duration.ofMinutes(5);
+
+    @Autowired
+    private ScheduledJobRunner nodeA;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ScheduledJobProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ScheduledJobRunner nodeB;
+    private String jobName;
+
+    @BeforeEach
+    void setUp() {
+        nodeB = new ScheduledJobRunner(dataSource, properties, meterRegistry, "node-b");
+        jobName = "test-job-" + UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM scheduled_job_runs");
+        jdbcTemplate.update("DELETE FROM scheduled_job_locks");
+    }
+
+    @Test
+    @DisplayName("Second node should skip the job while the first one holds the lock")
+    void runLocked_skipsOnOtherNodeWhileRunning() {
+        AtomicBoolean nodeBRan = new AtomicBoolean();
+
+        boolean ran = nodeA.runLocked(jobName, LOCK_AT_MOST_FOR, Duration.ZERO, () -> {
+            nodeBRan.set(nodeB.runLocked(jobName, LOCK_AT_MOST_FOR, Duration.ZERO, () -> 1));
+            return 3;
+        });
+
+        assertThat(ran).isTrue();
+        assertThat(nodeBRan).isFalse();
+        assertThat(meterRegistry.counter("scheduled.job.skipped", "job", jobName, "reason", "locked").count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.counter("scheduled.job.rows", "job", jobName).count()).isEqualTo(3.0);
+
+        Map<String, Object> run = jdbcTemplate.queryForMap(
+                "SELECT node_id, status, rows_affected, finished_at FROM scheduled_job_runs WHERE job_name = ?", jobName);
+        assertThat(run.get("NODE_ID")).isEqualTo(nodeA.getNodeId());
+        assertThat(run.get("STATUS")).isEqualTo(ScheduledJobRunner.STATUS_SUCCEEDED);
+        assertThat(((Number) run.get("ROWS_AFFECTED")).longValue()).isEqualTo(3L);
+        assertThat(run.get("FINISHED_AT")).isNotNull();
+
+        // İş bitince kilit bırakılır
+        assertThat(nodeB.runLocked(jobName, LOCK_AT_MOST_FOR, Duration.ZERO, () -> 0)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Lock should be kept for lockAtLeastFor after a fast run")
+    void runLocked_keepsLockForMinimumDuration() {
+        nodeA.runLocked(jobName, LOCK_AT_MOST_FOR, Duration.ofMinutes(1), () -> 0);
+
+        assertThat(nodeB.runLocked(jobName, LOCK_AT_MOST_FOR, Duration.ZERO, () -> 0)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Failed run should be recorded and release the lock")
+    void runLocked_recordsFailure() {
+        boolean ran = nodeA.runLocked(jobName, LOCK_AT_MOST_FOR, Duration.ZERO, () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertThat(ran).isTrue();
+        Map<String, Object> run = jdbcTemplate.queryForMap(
+                "SELECT status, error FROM scheduled_job_runs WHERE job_name = ?", jobName);
+        assertThat(run.get("STATUS")).isEqualTo(ScheduledJobRunner.STATUS_FAILED);
+        assertThat((String) run.get("ERROR")).contains("boom");
+        assertThat(meterRegistry.timer("scheduled.job.duration", "job", jobName,
+                "status", ScheduledJobRunner.STATUS_FAILED).count()).isEqualTo(1L);
+
+        assertThat(nodeB.runLocked(jobName, LOCK_AT_MOST_FOR, Duration.ZERO, () -> 0)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Cursor saved by one node should be read by the next node holding the lock")
+    void cursor_sharedAcrossNodes() {
+        assertThat(nodeA.getCursor(jobName)).isZero();
+
+        nodeA.runLocked(jobName, LOCK_AT_MOST_FOR, Duration.ZERO, () -> {
+            nodeA.saveCursor(jobName, 42L);
+            return 0;
+        });
+
+        long[] seen = new long[1];
+        nodeB.runLocked(jobName, LOCK_AT_MOST_FOR, Duration.ZERO, () -> {
+            seen[0] = nodeB.getCursor(jobName);
+            return 0;
+        });
+        assertThat(seen[0]).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("Chunked delete should stop at a partial chunk or the per-run chunk limit")
+    void deleteInChunks_boundedPerRun() {
+        List<Integer> requested = new ArrayList<>();
+        long unbounded = nodeA.deleteInChunks(batchSize -> {
+            requested.add(batchSize);
+            return batchSize;
+        });
+
+        assertThat(unbounded).isEqualTo(6);
+        assertThat(requested).containsExactly(2, 2, 2);
+
+        int[] remaining = {3};
+        long partial = nodeA.deleteInChunks(batchSize -> {
+            int deleted = Math.min(batchSize, remaining[0]);
+            remaining[0] -= deleted;
+            return deleted;
+        });
+
+        assertThat(partial).isEqualTo(3);
+        assertThat(remaining[0]).isZero();
+    }
+}
@@ -0,0 +1,137 @@
+package com.workflow.backend.security;
+
+import com.workflow.backend.config.RateLimitProperties;
+import com.workflow.backend.config.ScheduledJobProperties;
+import com.workflow.backend.scheduling.ScheduledJobRunner;
+import io.github.bucket4j.BucketExceptions;
+import io.github.bucket4j.distributed.proxy.generic.select_for_update.SelectForUpdateBasedTransaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Paylaşımlı rate limit backend'ini gömülü H2 (PostgreSQL modu) üzerinde test eder.
+ * Aynı veritabanını kullanan iki store örneği, iki ayrı backend replikasını temsil eder.
+ */
+@DisplayName("JdbcRateLimitBucketStore Tests")
+class JdbcRateLimitBucketStoreTest {
+
+    private static final RateLimitConfig LOGIN_LIMIT = new RateLimitConfig(5, Duration.ofMinutes(5));
+
+    private JdbcRateLimitBucketStore nodeA;
+    private JdbcRateLimitBucketStore nodeB;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:ratelimit;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS rate_limit_buckets");
+        jdbcTemplate.execute("CREATE TABLE rate_limit_buckets (id VARCHAR(512) PRIMARY KEY, state BYTEA, "
+                + "expires_at BIGINT NOT NULL DEFAULT 0)");
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setBackend("jdbc");
+        // Sadece parçalı silme kullanılır; kilit tabloları gerekmez
+        ScheduledJobRunner jobRunner = new ScheduledJobRunner(dataSource, new ScheduledJobProperties(), new SimpleMeterRegistry());
+        nodeA = new JdbcRateLimitBucketStore(dataSource, properties, jobRunner);
+        nodeB = new JdbcRateLimitBucketStore(dataSource, properties, jobRunner);
+    }
+
+    @Test
+    @DisplayName("Login limit should be enforced across nodes, not per node")
+    void loginLimit_sharedAcrossNodes() {
+        int consumed = 0;
+        for (int i = 0; i < 10; i++) {
+            JdbcRateLimitBucketStore node = (i % 2 == 0) ? nodeA : nodeB;
+            if (node.resolveBucket("/auth/login", "10.0.0.1", LOGIN_LIMIT).tryConsume(1)) {
+                consumed++;
+            }
+        }
+
+        assertThat(consumed).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Different clients should have independent buckets")
+    void differentClients_independentBuckets() {
+        for (int i = 0; i < 5; i++) {
+            nodeA.resolveBucket("/auth/login", "10.0.0.1", LOGIN_LIMIT).tryConsume(1);
+        }
+
+        assertThat(nodeB.resolveBucket("/auth/login", "10.0.0.1", LOGIN_LIMIT).tryConsume(1)).isFalse();
+        assertThat(nodeB.resolveBucket("/auth/login", "10.0.0.2", LOGIN_LIMIT).tryConsume(1)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Cleanup should keep buckets that are still inside their window")
+    void cleanup_keepsActiveBuckets() {
+        for (int i = 0; i < 5; i++) {
+            nodeA.resolveBucket("/auth/login", "10.0.0.1", LOGIN_LIMIT).tryConsume(1);
+        }
+
+        assertThat(nodeA.deleteIdleBuckets()).isZero();
+        nodeB.deleteIdleBuckets();
+
+        assertThat(nodeB.resolveBucket("/auth/login", "10.0.0.1", LOGIN_LIMIT).tryConsume(1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Cleanup should remove idle buckets only")
+    void cleanup_removesIdleBuckets() {
+        nodeA.resolveBucket("/auth/login", "10.0.0.1", LOGIN_LIMIT).tryConsume(1);
+        nodeA.resolveBucket("/auth/login", "10.0.0.2", LOGIN_LIMIT).tryConsume(1);
+        // 10.0.0.1'in bucket'ı çoktan dolmuş gibi
+        jdbcTemplate.update("UPDATE rate_limit_buckets SET expires_at = 0 WHERE id = ?", "/auth/login|10.0.0.1");
+
+        assertThat(nodeA.deleteIdleBuckets()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM rate_limit_buckets", String.class))
+                .containsExactly("/auth/login|10.0.0.2");
+    }
+
+    @Test
+    @DisplayName("Writes should record when the bucket becomes idle")
+    void consume_setsExpiry() {
+        long before = System.currentTimeMillis();
+        nodeA.resolveBucket("/auth/login", "10.0.0.1", LOGIN_LIMIT).tryConsume(5);
+
+        Long expiresAt = jdbcTemplate.queryForObject(
+                "SELECT expires_at FROM rate_limit_buckets WHERE id = ?", Long.class, "/auth/login|10.0.0.1");
+        // Boşalan bucket en erken tam dolum süresi (5 dk) sonra silinebilir
+        assertThat(expiresAt).isGreaterThanOrEqualTo(before + Duration.ofMinutes(5).toMillis());
+    }
+
+    @Test
+    @DisplayName("Connection should be closed even when restoring autocommit fails")
+    void release_closesBrokenConnection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        doThrow(new SQLException("connection reset")).when(connection).setAutoCommit(true);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        JdbcBucketProxyManager proxyManager = new JdbcBucketProxyManager(dataSource, "rate_limit_buckets", Duration.ZERO);
+
+        SelectForUpdateBasedTransaction transaction = proxyManager.allocateTransaction("key", Optional.empty());
+
+        assertThatThrownBy(transaction::release).isInstanceOf(BucketExceptions.BucketExecutionException.class);
+        verify(connection).close();
+    }
+}
@@ -0,0 +1,114 @@
+package com.workflow.backend.security;
+
+import com.workflow.backend.config.JwtProperties;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Doğrulanmış token cache'i testi. Token üretimi, imza doğrulaması ve cache süresi elle ilerletilen saatle çalışır.
+ */
+@DisplayName("JwtService Tests")
+class JwtServiceTest {
+
+    private static final String SECRET = "testsecretkeythatisatleast256bitslongandneedstobeatleast64characterslongsoaddingmorecharactershere";
+    private static final Duration ACCESS_TOKEN_LIFETIME = Duration.ofMinutes(15);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T10:00:00Z"));
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = newService(SECRET);
+    }
+
+    @Test
+    @DisplayName("Second verification of the same token should come from the cache")
+    void verify_cacheHitReturnsSamePrincipal() {
+        String token = jwtService.generateAccessToken("alice", 7L);
+
+        JwtPrincipal first = jwtService.verify(token);
+        JwtPrincipal second = jwtService.verify(token);
+
+        assertThat(first.username()).isEqualTo("alice");
+        assertThat(first.userId()).isEqualTo(7L);
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Cached token should be rejected once its exp has passed")
+    void verify_rejectsCachedTokenAfterExpiry() {
+        String token = jwtService.generateAccessToken("alice", 7L);
+        jwtService.verify(token);
+
+        clock.advance(ACCESS_TOKEN_LIFETIME.minusSeconds(1));
+        assertThat(jwtService.isTokenValid(token, "alice")).isTrue();
+
+        clock.advance(Duration.ofSeconds(2));
+        assertThatThrownBy(() -> jwtService.verify(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    @DisplayName("Tokens with a bad signature or tampered payload should never be cached")
+    void verify_neverCachesInvalidTokens() {
+        String token = jwtService.generateAccessToken("alice", 7L);
+        jwtService.verify(token);
+        String forged = newService(SECRET.replace('t', 'x')).generateAccessToken("alice", 7L);
+        String[] other = jwtService.generateAccessToken("mallory", 8L).split("\\.");
+        String tampered = other[0] + "." + other[1] + "." + token.split("\\.")[2];
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            assertThatThrownBy(() -> jwtService.verify(forged)).isInstanceOf(JwtException.class);
+            assertThatThrownBy(() -> jwtService.verify(tampered)).isInstanceOf(JwtException.class);
+        }
+        assertThat(jwtService.verify(token).username()).isEqualTo("alice");
+    }
+
+    private JwtService newService(String secret) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(secret);
+        properties.getAccessToken().setExpiration(ACCESS_TOKEN_LIFETIME.toMillis());
+        JwtService service = new JwtService(properties, clock);
+        service.init();
+        return service;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.workflow.backend.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * IP (JwtFilter öncesi) ve kullanıcı (JwtFilter sonrası) rate limit filtrelerinin anahtarlama testi.
+ */
+@DisplayName("Rate Limit Filter Tests")
+class RateLimitFilterTest {
+
+    private static final String CLIENT_IP = "203.0.113.7";
+
+    private RateLimitRouteTable routeTable;
+    private RateLimitFilter ipFilter;
+    private UserRateLimitFilter userFilter;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        RateLimitBucketStore bucketStore = new InMemoryRateLimitBucketStore();
+        routeTable = mock(RateLimitRouteTable.class);
+        when(routeTable.resolveCost("GET", "/boards/user/1")).thenReturn(RateLimitRouteTable.DEFAULT_COST);
+        ipFilter = new RateLimitFilter(objectMapper, bucketStore);
+        userFilter = new UserRateLimitFilter(objectMapper, bucketStore, routeTable);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Users behind the same IP should get separate budgets")
+    void userFilter_keysByUserId() throws Exception {
+        authenticate(1L);
+        for (int i = 0; i < UserRateLimitFilter.USER_RATE_LIMIT.tokens(); i++) {
+            assertThat(perform(userFilter).getStatus()).isEqualTo(200);
+        }
+        assertThat(perform(userFilter).getStatus()).isEqualTo(429);
+
+        authenticate(2L);
+        MockHttpServletResponse response = perform(userFilter);
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader("RateLimit-Limit"))
+                .isEqualTo(String.valueOf(UserRateLimitFilter.USER_RATE_LIMIT.tokens()));
+    }
+
+    @Test
+    @DisplayName("Route cost should be charged against the user budget")
+    void userFilter_chargesRouteCost() throws Exception {
+        when(routeTable.resolveCost("GET", "/boards/user/1")).thenReturn(5);
+        authenticate(1L);
+
+        MockHttpServletResponse response = perform(userFilter);
+
+        assertThat(response.getHeader("RateLimit-Remaining"))
+                .isEqualTo(String.valueOf(UserRateLimitFilter.USER_RATE_LIMIT.tokens() - 5));
+    }
+
+    @Test
+    @DisplayName("Zero-cost routes should not touch the user budget")
+    void userFilter_skipsZeroCostRoute() throws Exception {
+        when(routeTable.resolveCost("GET", "/boards/user/1")).thenReturn(0);
+        authenticate(1L);
+        for (int i = 0; i < UserRateLimitFilter.USER_RATE_LIMIT.tokens() + 1; i++) {
+            MockHttpServletResponse response = perform(userFilter);
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getHeader("RateLimit-Limit")).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("Requests without an authenticated user should fall back to the anonymous IP budget")
+    void userFilter_anonymousFallsBackToIp() throws Exception {
+        MockHttpServletResponse response = perform(userFilter);
+
+        assertThat(response.getHeader("RateLimit-Limit"))
+                .isEqualTo(String.valueOf(UserRateLimitFilter.ANONYMOUS_RATE_LIMIT.tokens()));
+    }
+
+    @Test
+    @DisplayName("IP filter should charge every request, whatever token it carries")
+    void ipFilter_chargesBeforeAuthentication() throws Exception {
+        for (int i = 0; i < RateLimitFilter.IP_RATE_LIMIT.tokens(); i++) {
+            assertThat(perform(ipFilter).getStatus()).isEqualTo(200);
+        }
+
+        MockHttpServletResponse response = perform(ipFilter);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Auth endpoints should be limited only by the IP filter")
+    void authEndpoints_limitedPerEndpoint() throws Exception {
+        MockHttpServletRequest request = request("/auth/login");
+        MockHttpServletResponse ipResponse = new MockHttpServletResponse();
+        ipFilter.doFilter(request, ipResponse, new MockFilterChain());
+        assertThat(ipResponse.getHeader("RateLimit-Limit")).isEqualTo("5");
+
+        MockHttpServletResponse userResponse = new MockHttpServletResponse();
+        userFilter.doFilter(request("/auth/login"), userResponse, new MockFilterChain());
+        assertThat(userResponse.getHeader("RateLimit-Limit")).isNull();
+    }
+
+    private MockHttpServletResponse perform(AbstractRateLimitFilter filter) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockHttpServletRequest request = request("/boards/user/1");
+        request.addHeader("Authorization", "Bearer forged.token.value");
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(CLIENT_IP);
+        return request;
+    }
+
+    private void authenticate(Long userId) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user" + userId, userId, List.of()));
+    }
+}
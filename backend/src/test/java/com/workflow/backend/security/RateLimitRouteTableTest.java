@@ -0,0 +1,120 @@
+package com.workflow.backend.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Route tablosu testi. Tablo, test controller'ı kayıtlı küçük bir context'in handler mapping'inden kurulur.
+ */
+@DisplayName("Rate Limit Route Table Tests")
+class RateLimitRouteTableTest {
+
+    private AnnotationConfigApplicationContext context;
+    private RateLimitRouteTable routeTable;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(CostController.class);
+        context.registerBean(RequestMappingHandlerMapping.class);
+        context.refresh();
+        routeTable = new RateLimitRouteTable();
+        routeTable.onApplicationEvent(new ContextRefreshedEvent(context));
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Annotated route should resolve to its cost, path variables match any segment")
+    void resolveCost_pathVariable() {
+        assertThat(routeTable.resolveCost("GET", "/items/42")).isEqualTo(3);
+        assertThat(routeTable.resolveCost("GET", "/items/abc/details")).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Literal segment should win over a path variable")
+    void resolveCost_literalBeforeWildcard() {
+        assertThat(routeTable.resolveCost("GET", "/items/search")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Cost should depend on the HTTP method")
+    void resolveCost_perMethod() {
+        assertThat(routeTable.resolveCost("DELETE", "/items/42")).isEqualTo(4);
+        assertThat(routeTable.resolveCost("POST", "/items/42")).isEqualTo(RateLimitRouteTable.DEFAULT_COST);
+    }
+
+    @Test
+    @DisplayName("Zero cost should be kept, not raised to the default")
+    void resolveCost_zeroCost() {
+        assertThat(routeTable.resolveCost("GET", "/items/42/avatar")).isZero();
+    }
+
+    @Test
+    @DisplayName("Unannotated and unknown routes should cost the default")
+    void resolveCost_defaults() {
+        assertThat(routeTable.resolveCost("GET", "/items")).isEqualTo(RateLimitRouteTable.DEFAULT_COST);
+        assertThat(routeTable.resolveCost("GET", "/unknown/path")).isEqualTo(RateLimitRouteTable.DEFAULT_COST);
+        assertThat(routeTable.resolveCost("GET", "/")).isEqualTo(RateLimitRouteTable.DEFAULT_COST);
+    }
+
+    @Test
+    @DisplayName("Repeated slashes should not change the matched route")
+    void resolveCost_repeatedSlashes() {
+        assertThat(routeTable.resolveCost("GET", "//items//42")).isEqualTo(3);
+    }
+
+    @RestController
+    @RequestMapping("/items")
+    static class CostController {
+
+        @GetMapping
+        public String list() {
+            return "";
+        }
+
+        @RateLimitCost(3)
+        @GetMapping("/{id}")
+        public String get() {
+            return "";
+        }
+
+        @RateLimitCost(4)
+        @DeleteMapping("/{id}")
+        public String delete() {
+            return "";
+        }
+
+        @RateLimitCost(2)
+        @GetMapping("/search")
+        public String search() {
+            return "";
+        }
+
+        @RateLimitCost(5)
+        @GetMapping("/{slug}/details")
+        public String details() {
+            return "";
+        }
+
+        @RateLimitCost(0)
+        @GetMapping("/{id}/avatar")
+        public String avatar() {
+            return "";
+        }
+    }
+}
@@ -1,15 +1,11 @@
 package com.workflow.backend.security;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.boot.test.context.TestConfiguration;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
@@ -23,7 +19,6 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
-@Import(SecurityConfigTest.JacksonTestConfig.class)
 @TestPropertySource(properties = {
         "cors.allowed-origins=http://localhost:3000,http://localhost:5173",
         "google.client-id=",
@@ -32,14 +27,6 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @DisplayName("SecurityConfig Integration Tests")
 class SecurityConfigTest {
 
-    @TestConfiguration
-    static class JacksonTestConfig {
-        @Bean
-        ObjectMapper objectMapper() {
-            return new ObjectMapper();
-        }
-    }
-
     @Autowired
     private WebApplicationContext context;
 
@@ -161,6 +148,15 @@ class SecurityConfigTest {
                     .andExpect(jsonPath("$.status").value(401))
                     .andExpect(jsonPath("$.error").value("Unauthorized"));
         }
+
+        @Test
+        @DisplayName("Forged bearer token should be charged against the IP limit before the 401")
+        void forgedToken_chargedBeforeJwtValidation() throws Exception {
+            mockMvc.perform(get("/boards/user/1").header("Authorization", "Bearer forged.token.value"))
+                    .andExpect(status().isUnauthorized())
+                    .andExpect(header().string("RateLimit-Limit",
+                            String.valueOf(RateLimitFilter.IP_RATE_LIMIT.tokens())));
+        }
     }
 
     @Nested
@@ -0,0 +1,200 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.entity.Board;
+import com.workflow.backend.entity.Connection;
+import com.workflow.backend.entity.ConnectionStatus;
+import com.workflow.backend.entity.Label;
+import com.workflow.backend.entity.NotificationType;
+import com.workflow.backend.entity.Subtask;
+import com.workflow.backend.entity.Task;
+import com.workflow.backend.entity.TaskList;
+import com.workflow.backend.entity.User;
+import com.workflow.backend.repository.BoardRepository;
+import com.workflow.backend.repository.ConnectionRepository;
+import com.workflow.backend.repository.LabelRepository;
+import com.workflow.backend.repository.SubtaskRepository;
+import com.workflow.backend.repository.TaskListRepository;
+import com.workflow.backend.repository.TaskRepository;
+import com.workflow.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Parçalı hesap silme testi. Zamanlanmış tur test içinden tetiklenir.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "cors.allowed-origins=http://localhost:3000,http://localhost:5173",
+        "google.client-id=",
+        "profile-picture.storage-dir=${java.io.tmpdir}/account-purge-test-uploads",
+        "notification.outbox.worker-enabled=false",
+        "account-purge.chunk-size=2"
+})
+@DisplayName("Account Purge Tests")
+class AccountPurgeServiceTest {
+
+    @Autowired
+    private AccountPurgeService accountPurgeService;
+
+    @Autowired
+    private NotificationOutbox notificationOutbox;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private TaskListRepository taskListRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SubtaskRepository subtaskRepository;
+
+    @Autowired
+    private LabelRepository labelRepository;
+
+    @Autowired
+    private ConnectionRepository connectionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> createdUserIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        // Kalan test kullanıcıları da aynı yoldan silinir
+        for (Long userId : createdUserIds) {
+            jdbcTemplate.update("UPDATE users SET deletion_scheduled_at = ? WHERE id = ?",
+                    LocalDateTime.now().minusYears(1), userId);
+        }
+        accountPurgeService.purgeDue(LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("Purges due accounts with their boards and relations, keeps other users' data")
+    void purgeDue_deletesAccountGraph() {
+        User doomed = saveUser("doomed", LocalDateTime.now().minusDays(31));
+        User other = saveUser("other", null);
+
+        Board doomedBoard = saveBoard(doomed);
+        Task doomedTask = saveTask(saveList(doomedBoard), doomed);
+        Subtask subtask = new Subtask();
+        subtask.setTitle("alt");
+        subtask.setTask(doomedTask);
+        subtaskRepository.save(subtask);
+        Label label = new Label();
+        label.setName("etiket");
+        label.setColor("#ff5733");
+        label.setBoard(doomedBoard);
+        label = labelRepository.save(label);
+        doomedTask.setLabels(new HashSet<>(Set.of(label)));
+        taskRepository.save(doomedTask);
+
+        Task otherTask = saveTask(saveList(saveBoard(other)), doomed);
+
+        Connection connection = new Connection();
+        connection.setSender(doomed);
+        connection.setReceiver(other);
+        connection.setStatus(ConnectionStatus.ACCEPTED);
+        connectionRepository.save(connection);
+        notificationOutbox.enqueue(other.getId(), doomed.getId(), NotificationType.CONNECTION_ACCEPTED, "kabul", 1L);
+        long graphChangesBefore = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM social_graph_changes", Long.class);
+
+        int purged = accountPurgeService.purgeDue(LocalDateTime.now().minusDays(30));
+
+        assertThat(purged).isEqualTo(1);
+        assertThat(userRepository.findById(doomed.getId())).isEmpty();
+        assertThat(count("SELECT COUNT(*) FROM boards WHERE user_id = ?", doomed.getId())).isZero();
+        assertThat(count("SELECT COUNT(*) FROM tasks WHERE id = ?", doomedTask.getId())).isZero();
+        assertThat(count("SELECT COUNT(*) FROM labels WHERE id = ?", label.getId())).isZero();
+        assertThat(count("SELECT COUNT(*) FROM connections WHERE sender_id = ?", doomed.getId())).isZero();
+        assertThat(count("SELECT COUNT(*) FROM notification_outbox WHERE actor_id = ?", doomed.getId())).isZero();
+
+        // Başka kullanıcının görevi kalır, sadece ataması kaldırılır
+        assertThat(userRepository.findById(other.getId())).isPresent();
+        assertThat(jdbcTemplate.queryForObject("SELECT assignee_id FROM tasks WHERE id = ?", Long.class,
+                otherTask.getId())).isNull();
+        assertThat(accountPurgeService.getPendingCount()).isZero();
+
+        // Sosyal graf indeksinin tamamı değil, sadece silinen kullanıcı ve karşı tarafı bırakılır
+        List<Long> invalidated = jdbcTemplate.queryForList(
+                "SELECT user_id FROM social_graph_changes WHERE id > ?", Long.class, graphChangesBefore);
+        assertThat(invalidated).doesNotContainNull().contains(doomed.getId(), other.getId());
+    }
+
+    @Test
+    @DisplayName("Processes backlogs in chunks and skips accounts still in their grace period")
+    void purgeDue_chunksAndRespectsCutoff() {
+        List<User> due = List.of(
+                saveUser("due", LocalDateTime.now().minusDays(40)),
+                saveUser("due", LocalDateTime.now().minusDays(35)),
+                saveUser("due", LocalDateTime.now().minusDays(31)));
+        User recent = saveUser("recent", LocalDateTime.now().minusDays(3));
+
+        int purged = accountPurgeService.purgeDue(LocalDateTime.now().minusDays(30));
+
+        assertThat(purged).isEqualTo(3);
+        due.forEach(user -> assertThat(userRepository.findById(user.getId())).isEmpty());
+        assertThat(userRepository.findById(recent.getId())).isPresent();
+    }
+
+    private long count(String sql, Long id) {
+        return jdbcTemplate.queryForObject(sql, Long.class, id);
+    }
+
+    private User saveUser(String prefix, LocalDateTime deletionScheduledAt) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(prefix + "_" + suffix);
+        user.setEmail(prefix + "_" + suffix + "@example.com");
+        user.setFirstName("Purge");
+        user.setLastName("Test");
+        user.setDeletionScheduledAt(deletionScheduledAt);
+        User saved = userRepository.save(user);
+        createdUserIds.add(saved.getId());
+        return saved;
+    }
+
+    private Board saveBoard(User owner) {
+        Board board = new Board();
+        board.setName("pano");
+        board.setUser(owner);
+        return boardRepository.save(board);
+    }
+
+    private TaskList saveList(Board board) {
+        TaskList list = new TaskList();
+        list.setName("liste");
+        list.setBoard(board);
+        list.setCreatedAt(LocalDateTime.now());
+        return taskListRepository.save(list);
+    }
+
+    private Task saveTask(TaskList list, User assignee) {
+        Task task = new Task();
+        task.setTitle("gorev");
+        task.setPosition(0);
+        task.setTaskList(list);
+        task.setAssignee(assignee);
+        return taskRepository.save(task);
+    }
+}
@@ -0,0 +1,109 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.repository.UserProfilePictureRepository;
+import com.workflow.backend.service.ProfilePictureStorageService.StoredPicture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AvatarResolver Tests")
+class AvatarResolverTest {
+
+    @Mock
+    private UserProfilePictureRepository profilePictureRepository;
+
+    @Mock
+    private ProfilePictureStorageService storageService;
+
+    @Mock
+    private HotAvatarCache hotAvatarCache;
+
+    @InjectMocks
+    private AvatarResolver avatarResolver;
+
+    @Test
+    @DisplayName("Should resolve N users with a single IN query")
+    void resolveAll_loadsWithOneQuery() {
+        when(profilePictureRepository.findFilePathsByUserIds(Set.of(1L, 2L, 3L)))
+                .thenReturn(List.of(row(1L), row(3L)));
+
+        Map<Long, String> urls = avatarResolver.resolveAll(List.of(1L, 2L, 3L, 3L));
+
+        assertThat(urls).containsOnly(
+                Map.entry(1L, AvatarResolver.urlFor(1L)),
+                Map.entry(3L, AvatarResolver.urlFor(3L)));
+        verify(profilePictureRepository, times(1)).findFilePathsByUserIds(anyCollection());
+        verify(profilePictureRepository, never()).findFilePathByUserId(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should query only users missing from the cache, including users without a picture")
+    void resolveAll_skipsCachedUsers() {
+        when(profilePictureRepository.findFilePathsByUserIds(Set.of(1L, 2L))).thenReturn(List.<Object[]>of(row(1L)));
+        when(profilePictureRepository.findFilePathsByUserIds(Set.of(3L))).thenReturn(List.of());
+        avatarResolver.resolveAll(List.of(1L, 2L));
+
+        Map<Long, String> urls = avatarResolver.resolveAll(List.of(1L, 2L, 3L));
+        avatarResolver.resolveAll(List.of(1L, 2L, 3L));
+
+        assertThat(urls).containsOnlyKeys(1L);
+        // Tekil çözümleme de aynı cache'i kullanır
+        assertThat(avatarResolver.resolve(2L)).isNull();
+        assertThat(avatarResolver.resolve(1L)).isEqualTo(AvatarResolver.urlFor(1L));
+        verify(profilePictureRepository).findFilePathsByUserIds(Set.of(1L, 2L));
+        verify(profilePictureRepository).findFilePathsByUserIds(Set.of(3L));
+        verify(profilePictureRepository, times(2)).findFilePathsByUserIds(anyCollection());
+        verify(profilePictureRepository, never()).findFilePathByUserId(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should not query for an empty user list")
+    void resolveAll_empty() {
+        assertThat(avatarResolver.resolveAll(List.of())).isEmpty();
+
+        verify(profilePictureRepository, never()).findFilePathsByUserIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should reload presence and file metadata after invalidate")
+    void invalidate_evictsCachedEntries() {
+        StoredPicture picture = new StoredPicture(Path.of("/tmp/1.png"), "image/png", 4, 0, "etag-1", 0);
+        when(profilePictureRepository.findFilePathsByUserIds(Set.of(1L))).thenReturn(List.of(), List.<Object[]>of(row(1L)));
+        when(profilePictureRepository.findFilePathByUserId(1L)).thenReturn(Optional.empty(), Optional.of("/tmp/1.png"));
+        when(storageService.describe("/tmp/1.png")).thenReturn(Optional.of(picture));
+        when(storageService.getVariantSizes()).thenReturn(List.of(64, 128));
+        assertThat(avatarResolver.resolveAll(List.of(1L))).isEmpty();
+        assertThat(avatarResolver.findFile(1L)).isEmpty();
+
+        // Kullanıcı resim yükledi
+        avatarResolver.invalidate(1L);
+
+        assertThat(avatarResolver.resolveAll(List.of(1L))).containsOnlyKeys(1L);
+        assertThat(avatarResolver.findFile(1L)).contains(picture);
+        verify(profilePictureRepository, times(2)).findFilePathsByUserIds(anyCollection());
+        verify(profilePictureRepository, times(2)).findFilePathByUserId(1L);
+        verify(hotAvatarCache).invalidate(1L);
+    }
+
+    private static Object[] row(Long userId) {
+        return new Object[]{userId, "/tmp/" + userId + ".png"};
+    }
+}
@@ -8,7 +8,6 @@ import com.workflow.backend.entity.Board;
 import com.workflow.backend.entity.User;
 import com.workflow.backend.repository.BoardMemberRepository;
 import com.workflow.backend.repository.BoardRepository;
-import com.workflow.backend.repository.UserProfilePictureRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -42,7 +41,7 @@ class BoardServiceTest {
     private BoardMemberRepository boardMemberRepository;
 
     @Mock
-    private UserProfilePictureRepository profilePictureRepository;
+    private AvatarResolver avatarResolver;
 
     @Mock
     private CurrentUserService currentUserService;
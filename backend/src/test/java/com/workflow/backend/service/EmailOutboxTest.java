@@ -0,0 +1,143 @@
+package com.workflow.backend.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Outbox'tan gömülü SMTP sunucusuna (GreenMail) gönderim testi.
+ * Zamanlanmış worker kapalıdır; gönderim test içinden tetiklenir.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "cors.allowed-origins=http://localhost:3000,http://localhost:5173",
+        "google.client-id=",
+        "profile-picture.storage-dir=${java.io.tmpdir}/email-outbox-test-uploads",
+        // GreenMail düz SMTP dinler: kimlik doğrulama ve STARTTLS kapalı
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=",
+        "spring.mail.password=",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "email.outbox.worker-enabled=false"
+})
+@DisplayName("Email Outbox Tests")
+class EmailOutboxTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutbox emailOutbox;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM email_outbox");
+    }
+
+    @Test
+    @DisplayName("Committed emails are sent over SMTP and removed from the outbox")
+    void drain_committed_sentAndDeleted() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            emailService.sendPasswordResetCode("reset@example.com", "123456");
+            emailService.sendRegistrationVerificationCode("verify@example.com", "654321");
+        });
+
+        assertThat(emailOutbox.drainAll()).isEqualTo(2);
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(2);
+        assertThat(received[0].getSubject()).isEqualTo("WorkFlow - Sifre Sifirlama Kodu");
+        assertThat(received[0].getAllRecipients()[0].toString()).isEqualTo("reset@example.com");
+        assertThat(pendingRows()).isZero();
+        assertThat(emailOutbox.getPendingCount()).isZero();
+        assertThat(meterRegistry.get("email.outbox.send").timer().count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Emails from a rolled back transaction are never sent")
+    void enqueue_rolledBack_notSent() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            emailService.sendPasswordResetCode("reset@example.com", "123456");
+            status.setRollbackOnly();
+        });
+
+        assertThat(emailOutbox.drainAll()).isZero();
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Emails are retried with backoff while SMTP is down")
+    void drain_smtpDown_retriedLater() {
+        greenMail.stop();
+        emailService.sendRegistrationVerificationCode("verify@example.com", "654321");
+
+        assertThat(emailOutbox.drainAll()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT attempts FROM email_outbox", Integer.class)).isEqualTo(1);
+        Timestamp nextAttempt = jdbcTemplate.queryForObject("SELECT next_attempt_at FROM email_outbox", Timestamp.class);
+        assertThat(nextAttempt.toLocalDateTime()).isAfter(LocalDateTime.now());
+
+        // Sunucu geri geldi ama geri çekilme süresi dolmadan tekrar denenmez
+        greenMail.start();
+        assertThat(emailOutbox.drainAll()).isZero();
+
+        jdbcTemplate.update("UPDATE email_outbox SET next_attempt_at = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)));
+        assertThat(emailOutbox.drainAll()).isEqualTo(1);
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+        assertThat(pendingRows()).isZero();
+    }
+
+    @Test
+    @DisplayName("Emails older than the code lifetime are dropped instead of sent")
+    void drain_expired_droppedUnsent() throws Exception {
+        emailService.sendRegistrationVerificationCode("fresh@example.com", "111111");
+        // SMTP kesintisi sırasında bekleyip kodu çoktan geçersiz olmuş e-posta
+        Timestamp expiredAt = Timestamp.valueOf(LocalDateTime.now().minus(EmailOutbox.MAX_AGE).minusMinutes(1));
+        jdbcTemplate.update("INSERT INTO email_outbox (recipient, subject, body, attempts, next_attempt_at, created_at) "
+                + "VALUES (?, ?, ?, 3, ?, ?)", "stale@example.com", "Eski kod", "123456", expiredAt, expiredAt);
+        double expiredBefore = meterRegistry.get("email.outbox.expired").counter().count();
+
+        assertThat(emailOutbox.drainAll()).isEqualTo(1);
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(1);
+        assertThat(received[0].getAllRecipients()[0].toString()).isEqualTo("fresh@example.com");
+        assertThat(pendingRows()).isZero();
+        assertThat(meterRegistry.get("email.outbox.expired").counter().count()).isEqualTo(expiredBefore + 1);
+    }
+
+    private int pendingRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM email_outbox", Integer.class);
+    }
+}
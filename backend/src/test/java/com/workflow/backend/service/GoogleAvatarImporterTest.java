@@ -0,0 +1,223 @@
+package com.workflow.backend.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.workflow.backend.config.AvatarVariantProperties;
+import com.workflow.backend.config.GoogleAvatarImportProperties;
+import com.workflow.backend.entity.UserProfilePicture;
+import com.workflow.backend.repository.UserProfilePictureRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GoogleAvatarImporter Tests")
+class GoogleAvatarImporterTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 1, 2, 3};
+
+    @TempDir
+    Path storageDir;
+
+    @Mock
+    private UserProfilePictureRepository profilePictureRepository;
+
+    @Mock
+    private AvatarResolver avatarResolver;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ProfilePictureStorageService storageService;
+    private GoogleAvatarImporter importer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Google yerine yerel stub sunucu
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        handle("/photo.png", exchange -> {
+            exchange.sendResponseHeaders(200, PNG.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(PNG);
+            }
+        });
+        handle("/missing.png", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        handle("/moved.png", exchange -> redirect(exchange, "/photo.png"));
+        handle("/escape.png", exchange -> redirect(exchange,
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/photo.png"));
+        handle("/slow.png", exchange -> {
+            // Başlıklar hemen gelir, gövde toplam süreden yavaş akar
+            exchange.sendResponseHeaders(200, PNG.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(PNG, 0, 1);
+                body.flush();
+                Thread.sleep(10_000);
+                body.write(PNG, 1, PNG.length - 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+
+        AvatarVariantProperties variantProperties = new AvatarVariantProperties();
+        variantProperties.setSizes(List.of()); // variant üretimi bu testin konusu değil
+        storageService = new ProfilePictureStorageService(storageDir.toString(), variantProperties);
+        storageService.init();
+
+        GoogleAvatarImportProperties properties = new GoogleAvatarImportProperties();
+        properties.setAllowedHosts(List.of("localhost"));
+        properties.setConnectTimeout(Duration.ofSeconds(1));
+        properties.setReadTimeout(Duration.ofSeconds(2));
+        properties.setTotalTimeout(Duration.ofSeconds(1));
+        properties.setThreads(1); // planlanan aktarımlar sırayla çalışır
+        importer = new GoogleAvatarImporter(new HttpAvatarFetcher(properties), storageService,
+                profilePictureRepository, avatarResolver, transactionManager, properties);
+        importer.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        importer.shutdown();
+        storageService.shutdown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should download the picture into storage and point the record at it")
+    void importPicture_swapsRecordToLocalBlob() throws IOException {
+        String url = url("/photo.png");
+        UserProfilePicture picture = new UserProfilePicture(null, url);
+        when(profilePictureRepository.findByUserId(1L)).thenReturn(Optional.of(picture));
+
+        boolean swapped = importer.importPicture(1L, url);
+
+        assertThat(swapped).isTrue();
+        assertThat(picture.getContentHash()).hasSize(64);
+        assertThat(Files.readAllBytes(Path.of(picture.getFilePath()))).isEqualTo(PNG);
+        verify(profilePictureRepository).saveAndFlush(picture);
+        verify(avatarResolver).invalidate(1L);
+    }
+
+    @Test
+    @DisplayName("Should leave the record alone when the user uploaded a picture meanwhile")
+    void importPicture_skipsChangedRecord() {
+        String url = url("/photo.png");
+        UserProfilePicture picture = new UserProfilePicture(null, "/uploads/own.png");
+        when(profilePictureRepository.findByUserId(1L)).thenReturn(Optional.of(picture));
+
+        boolean swapped = importer.importPicture(1L, url);
+
+        assertThat(swapped).isFalse();
+        assertThat(picture.getFilePath()).isEqualTo("/uploads/own.png");
+        verify(profilePictureRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Should keep the remote URL when the download fails")
+    void importPicture_keepsRecordOnHttpError() {
+        boolean swapped = importer.importPicture(1L, url("/missing.png"));
+
+        assertThat(swapped).isFalse();
+        verify(profilePictureRepository, never()).findByUserId(any());
+    }
+
+    @Test
+    @DisplayName("Should follow redirects that stay on an allowed host")
+    void importPicture_followsAllowedRedirect() {
+        String url = url("/moved.png");
+        UserProfilePicture picture = new UserProfilePicture(null, url);
+        when(profilePictureRepository.findByUserId(1L)).thenReturn(Optional.of(picture));
+
+        boolean swapped = importer.importPicture(1L, url);
+
+        assertThat(swapped).isTrue();
+        assertThat(requests).containsExactly("/moved.png", "/photo.png");
+    }
+
+    @Test
+    @DisplayName("Should refuse redirects to hosts outside the allowlist")
+    void importPicture_refusesRedirectToUnknownHost() {
+        boolean swapped = importer.importPicture(1L, url("/escape.png"));
+
+        assertThat(swapped).isFalse();
+        assertThat(requests).containsExactly("/escape.png");
+        verify(profilePictureRepository, never()).findByUserId(any());
+    }
+
+    @Test
+    @DisplayName("Should give up on a body that does not finish within the total timeout")
+    void importPicture_abortsSlowBody() {
+        long start = System.nanoTime();
+
+        boolean swapped = importer.importPicture(1L, url("/slow.png"));
+
+        assertThat(swapped).isFalse();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        verify(profilePictureRepository, never()).findByUserId(any());
+    }
+
+    @Test
+    @DisplayName("Should only schedule imports for allowed hosts")
+    void scheduleImport_ignoresUnknownHosts() {
+        // Aynı stub sunucu, izin listesinde olmayan bir host adıyla
+        importer.scheduleImport(1L, "http://127.0.0.1:" + server.getAddress().getPort() + "/missing.png");
+        importer.scheduleImport(1L, "/uploads/local.png");
+        // Tek thread'li executor'da sıradaki izinli aktarım bitince öncekiler de işlenmiş olur
+        importer.scheduleImport(1L, url("/photo.png"));
+
+        verify(profilePictureRepository, timeout(5000)).findByUserId(1L);
+        assertThat(requests).containsExactly("/photo.png");
+    }
+
+    private void handle(String path, HttpHandler handler) {
+        server.createContext(path, exchange -> {
+            requests.add(path);
+            handler.handle(exchange);
+        });
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().set("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+        exchange.close();
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+}
@@ -0,0 +1,171 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.BackendApplication;
+import com.workflow.backend.entity.Board;
+import com.workflow.backend.entity.BoardMember;
+import com.workflow.backend.entity.User;
+import com.workflow.backend.entity.UserPrivacySettings;
+import com.workflow.backend.repository.BoardMemberRepository;
+import com.workflow.backend.repository.BoardRepository;
+import com.workflow.backend.repository.UserPrivacySettingsRepository;
+import com.workflow.backend.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Node'lar arası L2 cache testi.
+ * Uygulama context'i değişikliği yapan node'dur; aynı veritabanına bağlanan ikinci bir context
+ * kendi L2 cache'i olan diğer replikayı temsil eder. İkinci node'un zamanlanmış okuması seyrek
+ * tutulur, değişiklikler test içinden okunur.
+ */
+@DisplayName("Hibernate Cache Relay Tests")
+class HibernateCacheRelayTest extends ServiceIntegrationTest {
+
+    private static ConfigurableApplicationContext nodeB;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private BoardMemberRepository boardMemberRepository;
+
+    @Autowired
+    private UserPrivacySettingsRepository privacySettingsRepository;
+
+    private User owner;
+    private User member;
+
+    @BeforeEach
+    void startNodeB() {
+        if (nodeB != null) {
+            return;
+        }
+        // Komut satırı argümanları test application.properties'i ezer; şema bu context'e ait olduğundan
+        // ikinci node tabloları silip yeniden kurmamalı (ddl-auto=none)
+        nodeB = new SpringApplicationBuilder(BackendApplication.class).run(
+                "--server.port=0",
+                "--cors.allowed-origins=http://localhost:3000",
+                "--google.client-id=",
+                "--profile-picture.storage-dir=${java.io.tmpdir}/service-integration-test-uploads",
+                "--notification.outbox.worker-enabled=false",
+                "--spring.jpa.hibernate.ddl-auto=none",
+                "--hibernate-cache.change-poll-interval-ms=3600000");
+        // İlk okuma başlangıç noktasını alır
+        nodeB.getBean(HibernateCacheRelay.class).pollChanges();
+    }
+
+    @AfterAll
+    static void stopNodeB() {
+        if (nodeB != null) {
+            nodeB.close();
+            nodeB = null;
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_cache_changes");
+        jdbcTemplate.update("DELETE FROM board_member_cache_changes");
+        jdbcTemplate.update("DELETE FROM user_profile_cache_changes");
+        if (owner != null) {
+            jdbcTemplate.update("DELETE FROM user_privacy_settings WHERE user_id = ?", owner.getId());
+        }
+        if (member != null) {
+            jdbcTemplate.update("DELETE FROM board_members WHERE user_id = ?", member.getId());
+            jdbcTemplate.update("DELETE FROM boards WHERE user_id = ?", owner.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Password changed on one node should be seen by the other node's username lookup")
+    void passwordChange_onOtherNode_evictsLocalCache() {
+        owner = createUser("owner");
+        owner.setPassword("old-hash");
+        owner = userRepository.save(owner);
+        member = createUser("member");
+        UserRepository nodeBUsers = nodeB.getBean(UserRepository.class);
+        nodeB.getBean(HibernateCacheRelay.class).pollChanges();
+
+        assertThat(nodeBUsers.findByUsername(owner.getUsername()).getPassword()).isEqualTo("old-hash");
+        assertThat(nodeBCache().containsEntity(User.class, owner.getId())).isTrue();
+
+        owner.setPassword("new-hash");
+        owner = userRepository.save(owner);
+        // Değişiklik okunmadan önce ikinci node eski şifreyi cache'ten verir
+        assertThat(nodeBUsers.findByUsername(owner.getUsername()).getPassword()).isEqualTo("old-hash");
+
+        nodeB.getBean(HibernateCacheRelay.class).pollChanges();
+
+        assertThat(nodeBCache().containsEntity(User.class, owner.getId())).isFalse();
+        assertThat(nodeBUsers.findByUsername(owner.getUsername()).getPassword()).isEqualTo("new-hash");
+    }
+
+    @Test
+    @DisplayName("Member removed on one node should disappear from the other node's cache")
+    void memberRemoval_onOtherNode_evictsLocalCache() {
+        owner = createUser("owner");
+        member = createUser("member");
+        Board board = new Board();
+        board.setName("Relay Board");
+        board.setSlug("relay-" + UUID.randomUUID());
+        board.setCreatedAt(LocalDateTime.now());
+        board.setUser(owner);
+        board = boardRepository.save(board);
+        BoardMember boardMember = new BoardMember();
+        boardMember.setBoard(board);
+        boardMember.setUser(member);
+        boardMember.setCreatedAt(LocalDateTime.now());
+        boardMember = boardMemberRepository.save(boardMember);
+        Long memberId = boardMember.getId();
+
+        BoardMemberRepository nodeBMembers = nodeB.getBean(BoardMemberRepository.class);
+        assertThat(nodeBMembers.findById(memberId)).isPresent();
+        assertThat(nodeBCache().containsEntity(BoardMember.class, memberId)).isTrue();
+
+        boardMemberRepository.deleteById(memberId);
+        nodeB.getBean(HibernateCacheRelay.class).pollChanges();
+
+        assertThat(nodeBCache().containsEntity(BoardMember.class, memberId)).isFalse();
+        assertThat(nodeBMembers.findById(memberId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Privacy settings changed on one node should be applied by the other node")
+    void privacyChange_onOtherNode_evictsLocalCache() {
+        owner = createUser("owner");
+        UserPrivacySettings settings = privacySettingsRepository.save(new UserPrivacySettings(owner));
+        UserPrivacySettingsRepository nodeBSettings = nodeB.getBean(UserPrivacySettingsRepository.class);
+        nodeB.getBean(HibernateCacheRelay.class).pollChanges();
+
+        assertThat(nodeBSettings.findByUserId(owner.getId()).orElseThrow().getShowProfilePicture()).isTrue();
+        assertThat(nodeBCache().containsEntity(UserPrivacySettings.class, settings.getId())).isTrue();
+
+        settings.setShowProfilePicture(false);
+        privacySettingsRepository.save(settings);
+        // Değişiklik okunmadan önce ikinci node eski ayarı cache'ten verir
+        assertThat(nodeBSettings.findByUserId(owner.getId()).orElseThrow().getShowProfilePicture()).isTrue();
+
+        nodeB.getBean(HibernateCacheRelay.class).pollChanges();
+
+        assertThat(nodeBCache().containsEntity(UserPrivacySettings.class, settings.getId())).isFalse();
+        assertThat(nodeBSettings.findByUserId(owner.getId()).orElseThrow().getShowProfilePicture()).isFalse();
+    }
+
+    private static Cache nodeBCache() {
+        return nodeB.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getCache();
+    }
+}
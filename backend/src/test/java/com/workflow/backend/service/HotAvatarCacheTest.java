@@ -0,0 +1,93 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.service.ProfilePictureStorageService.StoredPicture;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("HotAvatarCache Tests")
+class HotAvatarCacheTest {
+
+    @TempDir
+    Path storageDir;
+
+    private SimpleMeterRegistry meterRegistry;
+    private HotAvatarCache hotAvatarCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hotAvatarCache = new HotAvatarCache(1024, 100, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should admit an avatar on its second request and then serve it from memory")
+    void get_cachesBytesAndReportsMetrics() throws IOException {
+        StoredPicture picture = picture("a.png", new byte[]{1, 2, 3, 4}, "etag-a");
+
+        Resource first = hotAvatarCache.get(1L, picture).orElseThrow();
+        assertThat(meterRegistry.get("avatar.cache.resident").gauge().value()).isZero();
+        Resource second = hotAvatarCache.get(1L, picture).orElseThrow();
+        Files.delete(picture.path()); // üçüncü okuma diske gitmemeli
+        Resource third = hotAvatarCache.get(1L, picture).orElseThrow();
+
+        assertThat(readAll(first)).containsExactly(1, 2, 3, 4);
+        assertThat(readAll(second)).containsExactly(1, 2, 3, 4);
+        assertThat(readAll(third)).containsExactly(1, 2, 3, 4);
+        assertThat(third.contentLength()).isEqualTo(4);
+        assertThat(meterRegistry.get("avatar.cache.hit.ratio").gauge().value()).isEqualTo(1.0 / 3);
+        assertThat(meterRegistry.get("avatar.cache.resident").gauge().value()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should skip files above the entry limit")
+    void get_skipsLargeFiles() throws IOException {
+        StoredPicture picture = picture("large.png", new byte[101], "etag-large");
+
+        assertThat(hotAvatarCache.get(1L, picture)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return empty when the file disappears before it is read")
+    void get_returnsEmptyForDeletedFile() throws IOException {
+        StoredPicture picture = picture("gone.png", new byte[]{7, 8}, "etag-gone");
+        Files.delete(picture.path());
+
+        assertThat(hotAvatarCache.get(1L, picture)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should drop a user's entries on invalidate")
+    void invalidate_removesUserEntries() throws IOException {
+        StoredPicture picture = picture("b.png", new byte[]{5, 6}, "etag-b");
+        hotAvatarCache.get(2L, picture);
+        hotAvatarCache.get(2L, picture);
+
+        hotAvatarCache.invalidate(2L);
+        Files.delete(picture.path()); // cache'ten çıktıysa okuma diske gider
+
+        assertThat(hotAvatarCache.get(2L, picture)).isEmpty();
+        assertThat(meterRegistry.get("avatar.cache.resident").gauge().value()).isZero();
+    }
+
+    private StoredPicture picture(String name, byte[] content, String etag) throws IOException {
+        Path file = Files.write(storageDir.resolve(name), content);
+        return new StoredPicture(file, "image/png", content.length, 0L, etag, 0);
+    }
+
+    private static byte[] readAll(Resource resource) throws IOException {
+        try (InputStream input = resource.getInputStream()) {
+            return input.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.service.VerificationCodeStore.Purpose;
+import com.workflow.backend.service.VerificationCodeStore.Result;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("InMemoryVerificationCodeStore Tests")
+class InMemoryVerificationCodeStoreTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    private final AtomicLong nanos = new AtomicLong();
+    private InMemoryVerificationCodeStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryVerificationCodeStore(nanos::get);
+    }
+
+    @Test
+    @DisplayName("Should verify without consuming and consume exactly once")
+    void consume_isSingleUse() {
+        store.save(Purpose.PASSWORD_RESET, EMAIL, "123456", Duration.ofMinutes(15));
+
+        assertThat(store.verify(Purpose.PASSWORD_RESET, EMAIL, "123456")).isEqualTo(Result.MATCH);
+        assertThat(store.consume(Purpose.PASSWORD_RESET, EMAIL, "123456")).isEqualTo(Result.MATCH);
+        assertThat(store.consume(Purpose.PASSWORD_RESET, EMAIL, "123456")).isEqualTo(Result.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("Should keep codes of different purposes apart")
+    void save_separatesPurposes() {
+        store.save(Purpose.EMAIL_VERIFICATION, EMAIL, "111111", Duration.ofMinutes(15));
+
+        assertThat(store.verify(Purpose.PASSWORD_RESET, EMAIL, "111111")).isEqualTo(Result.NOT_FOUND);
+        assertThat(store.verify(Purpose.EMAIL_VERIFICATION, EMAIL, "111111")).isEqualTo(Result.MATCH);
+    }
+
+    @Test
+    @DisplayName("Should lock the code after too many wrong attempts")
+    void verify_locksAfterMaxAttempts() {
+        store.save(Purpose.EMAIL_VERIFICATION, EMAIL, "123456", Duration.ofMinutes(15));
+
+        for (int i = 0; i < VerificationCodeStore.MAX_ATTEMPTS; i++) {
+            assertThat(store.verify(Purpose.EMAIL_VERIFICATION, EMAIL, "000000")).isEqualTo(Result.MISMATCH);
+        }
+        assertThat(store.verify(Purpose.EMAIL_VERIFICATION, EMAIL, "123456")).isEqualTo(Result.TOO_MANY_ATTEMPTS);
+
+        // Yeni kod sayacı sıfırlar
+        store.save(Purpose.EMAIL_VERIFICATION, EMAIL, "654321", Duration.ofMinutes(15));
+        assertThat(store.verify(Purpose.EMAIL_VERIFICATION, EMAIL, "654321")).isEqualTo(Result.MATCH);
+    }
+
+    @Test
+    @DisplayName("Should forget codes after their TTL")
+    void verify_expiresAfterTtl() {
+        store.save(Purpose.EMAIL_VERIFICATION, EMAIL, "123456", Duration.ofMinutes(15));
+
+        nanos.addAndGet(Duration.ofMinutes(16).toNanos());
+
+        assertThat(store.verify(Purpose.EMAIL_VERIFICATION, EMAIL, "123456")).isEqualTo(Result.NOT_FOUND);
+    }
+}
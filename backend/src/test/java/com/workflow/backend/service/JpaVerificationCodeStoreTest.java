@@ -0,0 +1,108 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.entity.User;
+import com.workflow.backend.service.VerificationCodeStore.Purpose;
+import com.workflow.backend.service.VerificationCodeStore.Result;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Varsayılan (verification-code.store tanımsız) kod deposunun testi. Sayaçlar ve kullanıldı
+ * işareti tabloya yazıldığından her kontrol ayrı transaction'da yapılır.
+ */
+@DisplayName("JpaVerificationCodeStore Tests")
+class JpaVerificationCodeStoreTest extends ServiceIntegrationTest {
+
+    @Autowired
+    private VerificationCodeStore store;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser("code");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM email_verification_tokens WHERE email = ?", user.getEmail());
+        jdbcTemplate.update("DELETE FROM password_reset_tokens WHERE user_id = ?", user.getId());
+    }
+
+    @Test
+    @DisplayName("Should be the default store")
+    void store_isDefault() {
+        assertThat(store).isInstanceOf(JpaVerificationCodeStore.class);
+    }
+
+    @Test
+    @DisplayName("Should verify without consuming and consume exactly once")
+    void consume_isSingleUse() {
+        store.save(Purpose.PASSWORD_RESET, user.getEmail(), "123456", Duration.ofMinutes(15));
+
+        assertThat(store.verify(Purpose.PASSWORD_RESET, user.getEmail(), "123456")).isEqualTo(Result.MATCH);
+        assertThat(store.consume(Purpose.PASSWORD_RESET, user.getEmail(), "123456")).isEqualTo(Result.MATCH);
+        assertThat(store.consume(Purpose.PASSWORD_RESET, user.getEmail(), "123456")).isEqualTo(Result.NOT_FOUND);
+        assertThat(store.verify(Purpose.PASSWORD_RESET, user.getEmail(), "123456")).isEqualTo(Result.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("Should count wrong attempts and lock the code at the limit")
+    void verify_locksAfterMaxAttempts() {
+        store.save(Purpose.EMAIL_VERIFICATION, user.getEmail(), "123456", Duration.ofMinutes(15));
+
+        for (int i = 0; i < VerificationCodeStore.MAX_ATTEMPTS; i++) {
+            assertThat(store.verify(Purpose.EMAIL_VERIFICATION, user.getEmail(), "000000")).isEqualTo(Result.MISMATCH);
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT attempts FROM email_verification_tokens WHERE email = ?",
+                Integer.class, user.getEmail())).isEqualTo(VerificationCodeStore.MAX_ATTEMPTS);
+        // Doğru kod da artık kabul edilmez
+        assertThat(store.consume(Purpose.EMAIL_VERIFICATION, user.getEmail(), "123456")).isEqualTo(Result.TOO_MANY_ATTEMPTS);
+
+        // Yeni kod eski satırın yerine geçer, sayaç sıfırlanır
+        store.save(Purpose.EMAIL_VERIFICATION, user.getEmail(), "654321", Duration.ofMinutes(15));
+        assertThat(store.verify(Purpose.EMAIL_VERIFICATION, user.getEmail(), "654321")).isEqualTo(Result.MATCH);
+    }
+
+    @Test
+    @DisplayName("Should share the attempt limit between verify and consume for reset codes")
+    void consume_countsMismatches() {
+        store.save(Purpose.PASSWORD_RESET, user.getEmail(), "123456", Duration.ofMinutes(15));
+
+        for (int i = 0; i < VerificationCodeStore.MAX_ATTEMPTS - 1; i++) {
+            assertThat(store.consume(Purpose.PASSWORD_RESET, user.getEmail(), "000000")).isEqualTo(Result.MISMATCH);
+        }
+        assertThat(store.verify(Purpose.PASSWORD_RESET, user.getEmail(), "000000")).isEqualTo(Result.MISMATCH);
+
+        assertThat(store.consume(Purpose.PASSWORD_RESET, user.getEmail(), "123456")).isEqualTo(Result.TOO_MANY_ATTEMPTS);
+    }
+
+    @Test
+    @DisplayName("Should reject expired codes without spending an attempt")
+    void verify_rejectsExpired() {
+        store.save(Purpose.EMAIL_VERIFICATION, user.getEmail(), "123456", Duration.ofMinutes(-1));
+        store.save(Purpose.PASSWORD_RESET, user.getEmail(), "123456", Duration.ofMinutes(-1));
+
+        assertThat(store.consume(Purpose.EMAIL_VERIFICATION, user.getEmail(), "123456")).isEqualTo(Result.EXPIRED);
+        assertThat(store.verify(Purpose.EMAIL_VERIFICATION, user.getEmail(), "000000")).isEqualTo(Result.EXPIRED);
+        assertThat(store.consume(Purpose.PASSWORD_RESET, user.getEmail(), "123456")).isEqualTo(Result.EXPIRED);
+        assertThat(jdbcTemplate.queryForObject("SELECT attempts FROM email_verification_tokens WHERE email = ?",
+                Integer.class, user.getEmail())).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep codes of different purposes apart")
+    void save_separatesPurposes() {
+        store.save(Purpose.EMAIL_VERIFICATION, user.getEmail(), "111111", Duration.ofMinutes(15));
+
+        assertThat(store.verify(Purpose.PASSWORD_RESET, user.getEmail(), "111111")).isEqualTo(Result.NOT_FOUND);
+        assertThat(store.verify(Purpose.EMAIL_VERIFICATION, user.getEmail(), "111111")).isEqualTo(Result.MATCH);
+    }
+}
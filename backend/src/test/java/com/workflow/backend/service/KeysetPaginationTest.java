@@ -0,0 +1,187 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.dto.BoardResponse;
+import com.workflow.backend.dto.ConnectionResponse;
+import com.workflow.backend.dto.NotificationResponse;
+import com.workflow.backend.dto.PaginatedResponse;
+import com.workflow.backend.entity.Board;
+import com.workflow.backend.entity.Connection;
+import com.workflow.backend.entity.ConnectionStatus;
+import com.workflow.backend.entity.Notification;
+import com.workflow.backend.entity.NotificationType;
+import com.workflow.backend.entity.User;
+import com.workflow.backend.repository.BoardRepository;
+import com.workflow.backend.repository.ConnectionRepository;
+import com.workflow.backend.repository.NotificationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset (imleç) sayfalama testleri. Satırların çoğu aynı zaman damgasını paylaşır; sayfalar
+ * imleçle sonuna kadar gezilir ve her satırın tam bir kez, (zaman, id) azalan sırada geldiği doğrulanır.
+ */
+@DisplayName("Keyset Pagination Tests")
+class KeysetPaginationTest extends ServiceIntegrationTest {
+
+    private static final int PAGE_SIZE = 2;
+
+    @Autowired
+    private ConnectionService connectionService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private BoardService boardService;
+
+    @Autowired
+    private ConnectionRepository connectionRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    private final LocalDateTime tie = LocalDateTime.now().minusHours(1).truncatedTo(ChronoUnit.SECONDS);
+    private final LocalDateTime earlier = tie.minusMinutes(5);
+
+    private User me;
+    private final List<User> others = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        me = createUser("me");
+        for (int i = 0; i < 7; i++) {
+            others.add(createUser("other" + i));
+        }
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(me.getUsername(), me.getId(), List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.update("DELETE FROM notifications WHERE recipient_id = ?", me.getId());
+        for (User user : others) {
+            jdbcTemplate.update("DELETE FROM connections WHERE sender_id = ? OR receiver_id = ?", user.getId(), user.getId());
+        }
+        jdbcTemplate.update("DELETE FROM boards WHERE user_id = ?", me.getId());
+        others.clear();
+    }
+
+    @Test
+    @DisplayName("Accepted connections split across sender and receiver sides page without duplicates or gaps")
+    void acceptedConnections_pagesAcrossBothSides() {
+        List<Connection> expected = new ArrayList<>();
+        for (int i = 0; i < others.size(); i++) {
+            // Çift indeksler kullanıcının gönderdiği, tek indeksler aldığı bağlantılar
+            User other = others.get(i);
+            Connection connection = new Connection();
+            connection.setSender(i % 2 == 0 ? me : other);
+            connection.setReceiver(i % 2 == 0 ? other : me);
+            connection.setStatus(ConnectionStatus.ACCEPTED);
+            connection = connectionRepository.save(connection);
+            LocalDateTime updatedAt = i < 5 ? tie : earlier;
+            jdbcTemplate.update("UPDATE connections SET updated_at = ? WHERE id = ?", Timestamp.valueOf(updatedAt), connection.getId());
+            connection.setUpdatedAt(updatedAt);
+            expected.add(connection);
+        }
+        // Aynı zaman damgalı, başka iki kullanıcı arasındaki bağlantı listede görünmemeli
+        Connection foreign = new Connection();
+        foreign.setSender(others.get(0));
+        foreign.setReceiver(others.get(1));
+        foreign.setStatus(ConnectionStatus.ACCEPTED);
+        connectionRepository.save(foreign);
+        jdbcTemplate.update("UPDATE connections SET updated_at = ? WHERE id = ?", Timestamp.valueOf(tie), foreign.getId());
+
+        List<Long> pagedIds = collectIds(cursor -> connectionService.getAcceptedConnections(cursor, PAGE_SIZE, false),
+                ConnectionResponse::getId);
+
+        assertThat(pagedIds).containsExactlyElementsOf(sortedIds(expected, Connection::getUpdatedAt, Connection::getId));
+    }
+
+    @Test
+    @DisplayName("Notifications with equal creation times page without duplicates or gaps")
+    void notifications_pagesThroughTies() {
+        List<Notification> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Notification notification = new Notification();
+            notification.setRecipient(me);
+            notification.setActor(others.get(i));
+            notification.setType(NotificationType.CONNECTION_REQUEST);
+            notification.setMessage("istek");
+            notification = notificationRepository.save(notification);
+            LocalDateTime createdAt = i < 5 ? tie : earlier;
+            jdbcTemplate.update("UPDATE notifications SET created_at = ? WHERE id = ?", Timestamp.valueOf(createdAt), notification.getId());
+            notification.setCreatedAt(createdAt);
+            expected.add(notification);
+        }
+
+        List<Long> pagedIds = collectIds(cursor -> notificationService.getNotifications(cursor, PAGE_SIZE, false),
+                NotificationResponse::getId);
+
+        assertThat(pagedIds).containsExactlyElementsOf(sortedIds(expected, Notification::getCreatedAt, Notification::getId));
+    }
+
+    @Test
+    @DisplayName("Boards with equal creation times page without duplicates or gaps")
+    void boards_pagesThroughTies() {
+        List<Board> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Board board = new Board();
+            board.setName("Board " + i);
+            board.setSlug("keyset-" + UUID.randomUUID());
+            board.setCreatedAt(i < 5 ? tie : earlier);
+            board.setUser(me);
+            expected.add(boardRepository.save(board));
+        }
+
+        List<Long> pagedIds = collectIds(cursor -> boardService.getAllBoardsFiltered(me.getId(), null, null, null,
+                cursor, PAGE_SIZE, false), BoardResponse::getId);
+
+        assertThat(pagedIds).containsExactlyElementsOf(sortedIds(expected, Board::getCreatedAt, Board::getId));
+    }
+
+    // İlk sayfadan başlayıp nextCursor bitene kadar gezer; her sayfa en fazla PAGE_SIZE satırdır
+    private <T> List<Long> collectIds(Function<String, PaginatedResponse<T>> fetch, Function<T, Long> id) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        boolean first = true;
+        do {
+            PaginatedResponse<T> page = fetch.apply(cursor);
+            assertThat(page.first()).isEqualTo(first);
+            assertThat(page.content()).hasSizeLessThanOrEqualTo(PAGE_SIZE);
+            assertThat(page.last()).isEqualTo(page.nextCursor() == null);
+            page.content().forEach(row -> ids.add(id.apply(row)));
+            cursor = page.nextCursor();
+            first = false;
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static <E> List<Long> sortedIds(List<E> rows, Function<E, LocalDateTime> time, Function<E, Long> id) {
+        return rows.stream()
+                .sorted((a, b) -> {
+                    int byTime = time.apply(b).compareTo(time.apply(a));
+                    return byTime != 0 ? byTime : id.apply(b).compareTo(id.apply(a));
+                })
+                .map(id)
+                .toList();
+    }
+}
@@ -0,0 +1,116 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.entity.NotificationType;
+import com.workflow.backend.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Outbox teslimat testi. Zamanlanmış worker kapalıdır; teslimat test içinden tetiklenir.
+ */
+@DisplayName("Notification Outbox Tests")
+class NotificationOutboxTest extends ServiceIntegrationTest {
+
+    @Autowired
+    private NotificationOutbox notificationOutbox;
+
+    @Autowired
+    private UnreadNotificationCounter unreadCounter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User recipient;
+    private User actor;
+
+    @BeforeEach
+    void setUp() {
+        recipient = createUser("recipient");
+        actor = createUser("actor");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM notification_outbox");
+        jdbcTemplate.update("DELETE FROM notifications WHERE recipient_id = ?", recipient.getId());
+    }
+
+    @Test
+    @DisplayName("Events survive a crashed drain and are delivered on retry")
+    void drain_rolledBack_deliveredOnRetry() {
+        notificationOutbox.refreshBacklogMetrics();
+        notificationOutbox.enqueue(recipient.getId(), actor.getId(), NotificationType.CONNECTION_REQUEST, "istek", 1L);
+        notificationOutbox.enqueue(recipient.getId(), actor.getId(), NotificationType.CONNECTION_ACCEPTED, "kabul", 2L);
+        assertThat(unreadCounter.get(recipient.getId())).isZero();
+        // Gauge arada COUNT(*) çalıştırılmadan ekleme ve teslimlerle güncellenir
+        assertThat(notificationOutbox.getPendingCount()).isEqualTo(2);
+
+        // Worker batch insert'ten sonra, commit'ten önce düşer
+        TransactionTemplate crashingTransaction = new TransactionTemplate(transactionManager);
+        assertThatThrownBy(() -> crashingTransaction.executeWithoutResult(status -> {
+            assertThat(notificationOutbox.drainBatch()).isEqualTo(2);
+            throw new IllegalStateException("worker crash");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(countNotifications()).isZero();
+        assertThat(countOutbox()).isEqualTo(2);
+        assertThat(unreadCounter.get(recipient.getId())).isZero();
+        assertThat(notificationOutbox.getPendingCount()).isEqualTo(2);
+
+        assertThat(notificationOutbox.drainAll()).isEqualTo(2);
+
+        assertThat(countNotifications()).isEqualTo(2);
+        assertThat(countOutbox()).isZero();
+        assertThat(unreadCounter.get(recipient.getId())).isEqualTo(2);
+        assertThat(notificationOutbox.getPendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Duplicate events in one batch are coalesced into a single notification")
+    void drain_duplicateEvents_coalesced() {
+        double coalescedBefore = meterRegistry.counter("notification.outbox.coalesced").count();
+
+        notificationOutbox.enqueue(recipient.getId(), actor.getId(), NotificationType.CONNECTION_REQUEST, "ilk", 7L);
+        notificationOutbox.enqueue(recipient.getId(), actor.getId(), NotificationType.CONNECTION_REQUEST, "son", 7L);
+
+        notificationOutbox.drainAll();
+
+        assertThat(countNotifications()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT message FROM notifications WHERE recipient_id = ?", String.class, recipient.getId()))
+                .isEqualTo("son");
+        assertThat(meterRegistry.counter("notification.outbox.coalesced").count() - coalescedBefore).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Undelivered events are removed together with their reference")
+    void deleteByReference_removesPendingEvents() {
+        notificationOutbox.enqueue(recipient.getId(), actor.getId(), NotificationType.CONNECTION_REQUEST, "istek", 9L);
+
+        notificationOutbox.deleteByReference(9L, NotificationType.CONNECTION_REQUEST);
+        notificationOutbox.drainAll();
+
+        assertThat(countNotifications()).isZero();
+    }
+
+    private long countNotifications() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notifications WHERE recipient_id = ?", Long.class, recipient.getId());
+    }
+
+    private long countOutbox() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_outbox", Long.class);
+    }
+}
@@ -0,0 +1,90 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.entity.Connection;
+import com.workflow.backend.entity.ConnectionStatus;
+import com.workflow.backend.entity.Notification;
+import com.workflow.backend.entity.NotificationType;
+import com.workflow.backend.entity.User;
+import com.workflow.backend.repository.ConnectionRepository;
+import com.workflow.backend.repository.NotificationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Eski bağlantı isteği temizliği testi. Küçük parça boyutu ile birden fazla parçanın işlendiği doğrulanır.
+ * H2'de partition bakımı atlanır.
+ */
+@DisplayName("Notification Retention Tests")
+class NotificationRetentionServiceTest extends ServiceIntegrationTest {
+
+    @Autowired
+    private NotificationRetentionService retentionService;
+
+    @Autowired
+    private UnreadNotificationCounter unreadCounter;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private ConnectionRepository connectionRepository;
+
+    private User sender;
+    private User receiver;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        sender = createUser("sender");
+        receiver = createUser("receiver");
+        other = createUser("other");
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll();
+        connectionRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Requests whose connection is no longer pending are removed across chunks")
+    void cleanup_removesOnlyStaleRequests() {
+        Connection pending = connectionRepository.save(newConnection(sender, receiver, ConnectionStatus.PENDING));
+        Connection accepted = connectionRepository.save(newConnection(other, receiver, ConnectionStatus.ACCEPTED));
+
+        Notification kept = notificationRepository.save(newRequestNotification(pending.getId()));
+        notificationRepository.save(newRequestNotification(accepted.getId()));
+        notificationRepository.save(newRequestNotification(Long.MAX_VALUE)); // bağlantı silinmiş
+        assertThat(unreadCounter.get(receiver.getId())).isEqualTo(3);
+
+        retentionService.purgeStaleConnectionRequests();
+
+        assertThat(notificationRepository.findAll())
+                .extracting(Notification::getId)
+                .containsExactly(kept.getId());
+        assertThat(unreadCounter.get(receiver.getId())).isEqualTo(1);
+    }
+
+    private Notification newRequestNotification(Long connectionId) {
+        Notification notification = new Notification();
+        notification.setRecipient(receiver);
+        notification.setActor(sender);
+        notification.setType(NotificationType.CONNECTION_REQUEST);
+        notification.setMessage("istek");
+        notification.setReferenceId(connectionId);
+        return notification;
+    }
+
+    private Connection newConnection(User from, User to, ConnectionStatus status) {
+        Connection connection = new Connection();
+        connection.setSender(from);
+        connection.setReceiver(to);
+        connection.setStatus(status);
+        return connection;
+    }
+}
@@ -0,0 +1,93 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.entity.NotificationType;
+import com.workflow.backend.entity.User;
+import com.workflow.backend.repository.NotificationRepository;
+import com.workflow.backend.service.RecordingNotificationStreamService.Event;
+import com.workflow.backend.service.RecordingNotificationStreamService.RecordingEmitter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Node'lar arası bildirim akışı testi.
+ * Uygulama context'i bildirimi teslim eden node'dur; elle kurulan relay, sayaç ve akış servisi
+ * kullanıcının SSE bağlantısını tutan ikinci replikayı temsil eder.
+ */
+@DisplayName("Notification Stream Relay Tests")
+class NotificationStreamRelayTest extends ServiceIntegrationTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Autowired
+    private NotificationOutbox notificationOutbox;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private RecordingNotificationStreamService nodeBStreams;
+    private UnreadNotificationCounter nodeBCounter;
+    private NotificationStreamRelay nodeB;
+    private User recipient;
+    private User actor;
+
+    @BeforeEach
+    void setUp() {
+        recipient = createUser("recipient");
+        actor = createUser("actor");
+        nodeBStreams = new RecordingNotificationStreamService();
+        nodeBCounter = new UnreadNotificationCounter(notificationRepository);
+        nodeB = new NotificationStreamRelay(dataSource, nodeBCounter, nodeBStreams);
+        // İlk okuma başlangıç noktasını alır
+        nodeB.pollChanges();
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeBStreams.shutdown();
+        jdbcTemplate.update("DELETE FROM notification_stream_changes");
+        jdbcTemplate.update("DELETE FROM notifications WHERE recipient_id = ?", recipient.getId());
+    }
+
+    @Test
+    @DisplayName("Notification delivered on another node should reach the stream on this node")
+    void delivery_onOtherNode_pushedToLocalStream() {
+        nodeBStreams.subscribe(recipient.getId(), nodeBCounter.get(recipient.getId()));
+
+        notificationOutbox.enqueue(recipient.getId(), actor.getId(), NotificationType.CONNECTION_REQUEST, "istek", 1L);
+        notificationOutbox.drainAll();
+        nodeB.pollChanges();
+
+        RecordingEmitter emitter = nodeBStreams.emitters.get(0);
+        await().atMost(TIMEOUT).untilAsserted(() -> assertThat(emitter.events).containsExactly(
+                new Event(NotificationStreamService.EVENT_UNREAD_COUNT, Map.of("count", 0L)),
+                new Event(NotificationStreamService.EVENT_CHANGED, Map.of()),
+                new Event(NotificationStreamService.EVENT_UNREAD_COUNT, Map.of("count", 1L))));
+    }
+
+    @Test
+    @DisplayName("Change on another node should drop the local unread counter")
+    void delivery_onOtherNode_invalidatesLocalCounter() {
+        assertThat(nodeBCounter.get(recipient.getId())).isZero();
+
+        notificationOutbox.enqueue(recipient.getId(), actor.getId(), NotificationType.CONNECTION_REQUEST, "istek", 1L);
+        notificationOutbox.drainAll();
+        assertThat(nodeBCounter.get(recipient.getId())).isZero();
+
+        nodeB.pollChanges();
+
+        assertThat(nodeBCounter.get(recipient.getId())).isEqualTo(1);
+    }
+}
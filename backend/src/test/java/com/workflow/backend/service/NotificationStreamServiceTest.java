@@ -0,0 +1,179 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.dto.NotificationResponse;
+import com.workflow.backend.service.RecordingNotificationStreamService.Event;
+import com.workflow.backend.service.RecordingNotificationStreamService.RecordingEmitter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * SSE registry testi. Olaylar sender thread'lerinde gönderildiği için asenkron beklenir.
+ */
+@DisplayName("Notification Stream Service Tests")
+class NotificationStreamServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private RecordingNotificationStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        streamService = new RecordingNotificationStreamService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.shutdown();
+    }
+
+    @Test
+    @DisplayName("New stream should receive the current unread count first")
+    void subscribe_sendsInitialUnreadCount() {
+        streamService.subscribe(1L, 3);
+
+        assertThat(streamService.hasSubscribers(1L)).isTrue();
+        assertThat(streamService.getActiveStreamCount()).isEqualTo(1);
+        RecordingEmitter emitter = streamService.emitters.get(0);
+        await().atMost(TIMEOUT).untilAsserted(() -> assertThat(emitter.events)
+                .containsExactly(new Event(NotificationStreamService.EVENT_UNREAD_COUNT, Map.of("count", 3L))));
+    }
+
+    @Test
+    @DisplayName("Events should reach every stream of the recipient only")
+    void sendNotification_deliveredToRecipientStreams() {
+        streamService.subscribe(1L, 0);
+        streamService.subscribe(1L, 0);
+        streamService.subscribe(2L, 0);
+
+        NotificationResponse notification = new NotificationResponse();
+        notification.setMessage("merhaba");
+        streamService.sendNotification(1L, notification);
+        streamService.sendUnreadCount(1L, 1);
+
+        for (RecordingEmitter emitter : streamService.emitters.subList(0, 2)) {
+            await().atMost(TIMEOUT).untilAsserted(() -> assertThat(emitter.events).containsExactly(
+                    new Event(NotificationStreamService.EVENT_UNREAD_COUNT, Map.of("count", 0L)),
+                    new Event(NotificationStreamService.EVENT_NOTIFICATION, notification),
+                    new Event(NotificationStreamService.EVENT_UNREAD_COUNT, Map.of("count", 1L))));
+        }
+        RecordingEmitter other = streamService.emitters.get(2);
+        await().atMost(TIMEOUT).untilAsserted(() -> assertThat(other.events).hasSize(1));
+        assertThat(other.events.get(0).name()).isEqualTo(NotificationStreamService.EVENT_UNREAD_COUNT);
+    }
+
+    @Test
+    @DisplayName("Refresh should ask the client to reload the list and send the count")
+    void sendRefresh_sendsChangedAndCount() {
+        streamService.subscribe(1L, 0);
+
+        streamService.sendRefresh(1L, 4);
+
+        RecordingEmitter emitter = streamService.emitters.get(0);
+        await().atMost(TIMEOUT).untilAsserted(() -> assertThat(emitter.events).containsExactly(
+                new Event(NotificationStreamService.EVENT_UNREAD_COUNT, Map.of("count", 0L)),
+                new Event(NotificationStreamService.EVENT_CHANGED, Map.of()),
+                new Event(NotificationStreamService.EVENT_UNREAD_COUNT, Map.of("count", 4L))));
+        assertThat(streamService.getSubscribedUserIds()).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Oldest stream should be closed when a user exceeds the stream limit")
+    void subscribe_overLimit_closesOldest() {
+        for (int i = 0; i < 6; i++) {
+            streamService.subscribe(1L, 0);
+        }
+
+        await().atMost(TIMEOUT).until(() -> streamService.emitters.get(0).completed);
+        assertThat(streamService.emitters.subList(1, 6)).noneMatch(emitter -> emitter.completed);
+        assertThat(streamService.getActiveStreamCount()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Shutdown should close every stream and empty the registry")
+    void shutdown_closesAllStreams() {
+        streamService.subscribe(1L, 0);
+        streamService.subscribe(2L, 0);
+
+        streamService.shutdown();
+
+        await().atMost(TIMEOUT).untilAsserted(() ->
+                assertThat(streamService.emitters).allMatch(emitter -> emitter.completed));
+        assertThat(streamService.hasSubscribers(1L)).isFalse();
+        assertThat(streamService.getSubscribedUserIds()).isEmpty();
+        assertThat(streamService.getActiveStreamCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Stalled sends should not hold up other streams and should be closed after the send timeout")
+    void stalledStreams_closedWithoutBlockingOthers() {
+        streamService.shutdown();
+        CountDownLatch released = new CountDownLatch(1);
+        streamService = new RecordingNotificationStreamService(Duration.ofMillis(100)) {
+            @Override
+            SseEmitter createEmitter() {
+                // İlk üç bağlantının istemcisi okumayı bırakmış: gönderim TCP penceresi dolunca bloklanır
+                RecordingEmitter emitter = emitters.size() < 3 ? new StalledEmitter(released) : new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        try {
+            for (long userId = 1; userId <= 3; userId++) {
+                streamService.subscribe(userId, 0);
+            }
+            streamService.subscribe(4L, 0);
+            await().atMost(TIMEOUT).until(() -> streamService.emitters.subList(0, 3).stream()
+                    .allMatch(emitter -> ((StalledEmitter) emitter).sending));
+
+            // Sabit havuz boyutundan fazla takılan gönderim varken diğer bağlantı olayını alır
+            RecordingEmitter healthy = streamService.emitters.get(3);
+            await().atMost(TIMEOUT).untilAsserted(() -> assertThat(healthy.events).hasSize(1));
+
+            await().pollDelay(Duration.ofMillis(150)).atMost(TIMEOUT).untilAsserted(() -> {
+                streamService.closeStalledStreams();
+                assertThat(streamService.getSubscribedUserIds()).containsExactly(4L);
+            });
+            assertThat(streamService.getActiveStreamCount()).isEqualTo(1);
+            await().atMost(TIMEOUT).untilAsserted(() -> assertThat(streamService.emitters.subList(0, 3))
+                    .allMatch(emitter -> emitter.completed));
+            assertThat(healthy.completed).isFalse();
+        } finally {
+            released.countDown();
+        }
+    }
+
+    /**
+     * İstemcisi okumayan bağlantı: gönderim serbest bırakılana ya da thread kesilene kadar bekler.
+     */
+    private static final class StalledEmitter extends RecordingEmitter {
+
+        private final CountDownLatch released;
+        volatile boolean sending;
+
+        private StalledEmitter(CountDownLatch released) {
+            this.released = released;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending = true;
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                throw new IOException("Gonderim kesildi", e);
+            }
+        }
+    }
+}
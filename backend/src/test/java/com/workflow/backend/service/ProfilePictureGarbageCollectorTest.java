@@ -0,0 +1,84 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.config.AvatarVariantProperties;
+import com.workflow.backend.repository.UserProfilePictureRepository;
+import com.workflow.backend.service.ProfilePictureStorageService.StoredFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProfilePictureGarbageCollector Tests")
+class ProfilePictureGarbageCollectorTest {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+
+    @TempDir
+    Path storageDir;
+
+    @Mock
+    private UserProfilePictureRepository profilePictureRepository;
+
+    private ProfilePictureStorageService storageService;
+    private ProfilePictureGarbageCollector garbageCollector;
+
+    @BeforeEach
+    void setUp() {
+        AvatarVariantProperties variantProperties = new AvatarVariantProperties();
+        variantProperties.setSizes(List.of()); // variant üretimi bu testin konusu değil
+        storageService = new ProfilePictureStorageService(storageDir.toString(), variantProperties);
+        storageService.init();
+        garbageCollector = new ProfilePictureGarbageCollector(storageService, profilePictureRepository, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        storageService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should delete unreferenced blobs past the grace period and keep the rest")
+    void collect_deletesOnlyUnreferencedOldBlobs() throws Exception {
+        StoredFile referenced = storeOld(1);
+        StoredFile unreferenced = storeOld(2);
+        StoredFile fresh = storageService.store(3L, new ByteArrayInputStream(png(3)));
+        when(profilePictureRepository.findReferencedContentHashes(anyCollection()))
+                .thenReturn(List.of(referenced.contentHash()));
+
+        garbageCollector.collect();
+
+        assertThat(Files.exists(Path.of(referenced.filePath()))).isTrue();
+        assertThat(Files.exists(Path.of(unreferenced.filePath()))).isFalse();
+        assertThat(Files.exists(Path.of(fresh.filePath()))).isTrue();
+    }
+
+    private StoredFile storeOld(int seed) throws Exception {
+        StoredFile stored = storageService.store((long) seed, new ByteArrayInputStream(png(seed)));
+        Files.setLastModifiedTime(Path.of(stored.filePath()),
+                FileTime.fromMillis(System.currentTimeMillis() - 3_600_000));
+        return stored;
+    }
+
+    // Farklı içerik -> farklı blob; GC içeriği decode etmez
+    private static byte[] png(int seed) {
+        byte[] content = new byte[PNG_SIGNATURE.length + 1];
+        System.arraycopy(PNG_SIGNATURE, 0, content, 0, PNG_SIGNATURE.length);
+        content[PNG_SIGNATURE.length] = (byte) seed;
+        return content;
+    }
+}
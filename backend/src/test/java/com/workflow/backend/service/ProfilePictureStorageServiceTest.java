@@ -0,0 +1,185 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.config.AvatarVariantProperties;
+import com.workflow.backend.exception.BadRequestException;
+import com.workflow.backend.exception.PayloadTooLargeException;
+import com.workflow.backend.service.ProfilePictureStorageService.StoredFile;
+import com.workflow.backend.service.ProfilePictureStorageService.StoredPicture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ProfilePictureStorageService Tests")
+class ProfilePictureStorageServiceTest {
+
+    @TempDir
+    Path storageDir;
+
+    private ProfilePictureStorageService storageService;
+
+    @BeforeEach
+    void setUp() {
+        storageService = new ProfilePictureStorageService(storageDir.toString(), new AvatarVariantProperties());
+        storageService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        storageService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should pick the smallest variant that is at least the requested size")
+    void selectVariantSize() {
+        assertThat(storageService.selectVariantSize(20)).isEqualTo(32);
+        assertThat(storageService.selectVariantSize(64)).isEqualTo(64);
+        assertThat(storageService.selectVariantSize(65)).isEqualTo(128);
+        assertThat(storageService.selectVariantSize(512)).isZero();
+        assertThat(storageService.selectVariantSize(0)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should generate square re-encoded variants next to the original")
+    void generatesVariants() throws Exception {
+        String filePath = storageService.save(1L, "data:image/png;base64," + encodePng(600, 400)).filePath();
+        Path original = Path.of(filePath);
+
+        Optional<StoredPicture> variant = awaitVariant(original, 64);
+        assertThat(variant).isPresent();
+        assertThat(variant.get().variantSize()).isEqualTo(64);
+        assertThat(variant.get().contentType()).isEqualTo("image/png");
+        BufferedImage image = ImageIO.read(variant.get().path().toFile());
+        assertThat(image.getWidth()).isEqualTo(64);
+        assertThat(image.getHeight()).isEqualTo(64);
+    }
+
+    @Test
+    @DisplayName("Should store identical content once under a two-level hash shard")
+    void store_deduplicatesIntoShardedBlob() throws Exception {
+        byte[] png = Base64.getDecoder().decode(encodePng(10, 10));
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(png));
+
+        StoredFile first = storageService.store(1L, new ByteArrayInputStream(png));
+        StoredFile second = storageService.store(2L, new ByteArrayInputStream(png));
+
+        assertThat(first.contentHash()).isEqualTo(hash);
+        assertThat(second.filePath()).isEqualTo(first.filePath());
+        assertThat(Path.of(first.filePath()))
+                .isEqualTo(storageDir.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash + ".png"));
+        assertThat(storageService.describe(first.filePath()).orElseThrow().etag()).isEqualTo(hash);
+
+        // Paylaşılan blob bırakılınca silinmez, GC'ye kalır
+        storageService.release(first.filePath());
+        assertThat(Files.exists(Path.of(first.filePath()))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should delete only blobs older than the cutoff")
+    void deleteBlobIfOlderThan_respectsGracePeriod() throws Exception {
+        Path blob = Path.of(storageService.store(1L, new ByteArrayInputStream(
+                Base64.getDecoder().decode(encodePng(10, 10)))).filePath());
+        long now = System.currentTimeMillis();
+
+        assertThat(storageService.deleteBlobIfOlderThan(blob, now - 60_000)).isFalse();
+        Files.setLastModifiedTime(blob, FileTime.fromMillis(now - 120_000));
+        assertThat(storageService.deleteBlobIfOlderThan(blob, now - 60_000)).isTrue();
+        assertThat(Files.exists(blob)).isFalse();
+        // Karantina adı diskte kalmaz
+        assertThat(listFiles()).noneMatch(Files::isRegularFile);
+    }
+
+    @Test
+    @DisplayName("Dedup should write the blob again when GC removed it in between")
+    void store_rewritesBlobCollectedByGc() throws Exception {
+        byte[] png = Base64.getDecoder().decode(encodePng(10, 10));
+        Path blob = Path.of(storageService.store(1L, new ByteArrayInputStream(png)).filePath());
+        long now = System.currentTimeMillis();
+        Files.setLastModifiedTime(blob, FileTime.fromMillis(now - 120_000));
+        assertThat(storageService.deleteBlobIfOlderThan(blob, now - 60_000)).isTrue();
+
+        StoredFile again = storageService.store(2L, new ByteArrayInputStream(png));
+
+        assertThat(Path.of(again.filePath())).isEqualTo(blob);
+        assertThat(Files.readAllBytes(blob)).isEqualTo(png);
+        assertThat(storageService.deleteBlobIfOlderThan(blob, now - 60_000)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should stream an upload to disk and name it after the sniffed format")
+    void store_sniffsFormatFromContent() throws Exception {
+        byte[] png = Base64.getDecoder().decode(encodePng(10, 10));
+
+        String filePath = storageService.store(1L, new ByteArrayInputStream(png)).filePath();
+
+        assertThat(filePath).endsWith(".png");
+        assertThat(Files.readAllBytes(Path.of(filePath))).isEqualTo(png);
+    }
+
+    @Test
+    @DisplayName("Should reject uploads that are not images and leave no temp file behind")
+    void store_rejectsUnknownContent() throws IOException {
+        byte[] text = "<svg xmlns=\"http://www.w3.org/2000/svg\"/>".getBytes();
+
+        assertThatThrownBy(() -> storageService.store(1L, new ByteArrayInputStream(text)))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(listFiles()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should abort uploads over the limit while streaming")
+    void store_rejectsOversizedUpload() throws IOException {
+        byte[] large = new byte[(int) ProfilePictureStorageService.MAX_UPLOAD_BYTES + 1];
+        large[0] = (byte) 0xFF;
+        large[1] = (byte) 0xD8;
+        large[2] = (byte) 0xFF;
+
+        assertThatThrownBy(() -> storageService.store(1L, new ByteArrayInputStream(large)))
+                .isInstanceOf(PayloadTooLargeException.class);
+        assertThat(listFiles()).isEmpty();
+    }
+
+    private List<Path> listFiles() throws IOException {
+        try (Stream<Path> files = Files.list(storageDir)) {
+            return files.toList();
+        }
+    }
+
+    // Üretim asenkron; kısa aralıklarla kontrol edilir
+    private Optional<StoredPicture> awaitVariant(Path original, int size) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Optional<StoredPicture> variant = storageService.describeVariant(original, size);
+            if (variant.isPresent()) {
+                return variant;
+            }
+            Thread.sleep(50);
+        }
+        return Optional.empty();
+    }
+
+    private static String encodePng(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return Base64.getEncoder().encodeToString(output.toByteArray());
+    }
+}
@@ -0,0 +1,63 @@
+package com.workflow.backend.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Gönderilen olayları HTTP bağlantısı olmadan kaydeden akış servisi (test yardımcısı).
+ */
+class RecordingNotificationStreamService extends NotificationStreamService {
+
+    final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    RecordingNotificationStreamService() {
+    }
+
+    RecordingNotificationStreamService(Duration sendTimeout) {
+        super(sendTimeout);
+    }
+
+    @Override
+    SseEmitter createEmitter() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    record Event(String name, Object data) {
+    }
+
+    static class RecordingEmitter extends SseEmitter {
+
+        final List<Event> events = new CopyOnWriteArrayList<>();
+        volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            String name = null;
+            Object data = null;
+            for (DataWithMediaType item : builder.build()) {
+                if (item.getData() instanceof String text) {
+                    int start = text.indexOf("event:");
+                    if (start >= 0) {
+                        name = text.substring(start + "event:".length(), text.indexOf('\n', start));
+                    }
+                } else {
+                    data = item.getData();
+                }
+            }
+            if (name != null) {
+                events.add(new Event(name, data));
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.entity.RefreshToken;
+import com.workflow.backend.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Refresh token saklama ve rotation testi: veritabanında sadece SHA-256 hash'i durur,
+ * kullanıcı başına en yeni MAX_TOKENS_PER_USER token kalır ve /auth/refresh token'ı tüketmez.
+ */
+@DisplayName("RefreshTokenService Tests")
+class RefreshTokenServiceTest extends ServiceIntegrationTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser("refresh");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM refresh_tokens WHERE user_id = ?", user.getId());
+    }
+
+    @Test
+    @DisplayName("Should store only the SHA-256 hash and find the token by it")
+    void createRefreshToken_storesHashOnly() throws Exception {
+        String rawToken = refreshTokenService.createRefreshToken(user.getId()).getToken();
+
+        List<String> storedHashes = jdbcTemplate.queryForList(
+                "SELECT token_hash FROM refresh_tokens WHERE user_id = ?", String.class, user.getId());
+        assertThat(storedHashes).containsExactly(sha256(rawToken));
+
+        RefreshToken found = refreshTokenService.findAndVerifyToken(rawToken);
+        assertThat(found).isNotNull();
+        assertThat(found.getUser().getId()).isEqualTo(user.getId());
+        // Sızan hash token yerine kullanılamaz
+        assertThat(refreshTokenService.findAndVerifyToken(storedHashes.get(0))).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep exactly the newest tokens per user")
+    void createRefreshToken_trimsToNewest() {
+        List<String> rawTokens = new ArrayList<>();
+        for (int i = 0; i < RefreshTokenService.MAX_TOKENS_PER_USER + 2; i++) {
+            rawTokens.add(refreshTokenService.createRefreshToken(user.getId()).getToken());
+        }
+
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM refresh_tokens WHERE user_id = ?", Long.class, user.getId());
+        assertThat(count).isEqualTo(RefreshTokenService.MAX_TOKENS_PER_USER);
+        assertThat(refreshTokenService.findAndVerifyToken(rawTokens.get(0))).isNull();
+        assertThat(refreshTokenService.findAndVerifyToken(rawTokens.get(1))).isNull();
+        for (String rawToken : rawTokens.subList(2, rawTokens.size())) {
+            assertThat(refreshTokenService.findAndVerifyToken(rawToken)).isNotNull();
+        }
+    }
+
+    @Test
+    @DisplayName("Verifying the same token twice should succeed, as two tabs refreshing at once do")
+    void findAndVerifyToken_isReusable() {
+        String rawToken = refreshTokenService.createRefreshToken(user.getId()).getToken();
+
+        RefreshToken first = refreshTokenService.findAndVerifyToken(rawToken);
+        RefreshToken second = refreshTokenService.findAndVerifyToken(rawToken);
+
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(second.getExpiryDate()).isEqualTo(first.getExpiryDate());
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM refresh_tokens WHERE user_id = ?", Long.class, user.getId());
+        assertThat(count).isEqualTo(1L);
+    }
+
+    private static String sha256(String value) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+}
@@ -0,0 +1,60 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.entity.User;
+import com.workflow.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Uygulama context'i ve H2 ile çalışan servis testlerinin ortak ayarları (test yardımcısı).
+ * Alt sınıflar aynı property setini kullandığı için Spring context'i sınıflar arasında paylaşılır;
+ * zamanlanmış worker'lar kapalıdır, teslimat ve temizlik test içinden tetiklenir.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "cors.allowed-origins=http://localhost:3000,http://localhost:5173",
+        "google.client-id=",
+        "profile-picture.storage-dir=${java.io.tmpdir}/service-integration-test-uploads",
+        "notification.outbox.worker-enabled=false",
+        // Parçalı temizliğin birden fazla parça işlediğini görmek için küçük tutulur
+        "notification.retention.stale-cleanup-batch-size=2"
+})
+abstract class ServiceIntegrationTest {
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    private final List<Long> createdUserIds = new ArrayList<>();
+
+    /**
+     * Benzersiz kullanıcı adıyla kullanıcı kaydeder; test sonunda silinir.
+     * Alt sınıfın @AfterEach'i önce çalışır, kullanıcıya bağlı satırlar orada silinmelidir.
+     */
+    protected User createUser(String prefix) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(prefix + "_" + suffix);
+        user.setEmail(prefix + "_" + suffix + "@example.com");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        User saved = userRepository.save(user);
+        createdUserIds.add(saved.getId());
+        return saved;
+    }
+
+    @AfterEach
+    void deleteCreatedUsers() {
+        userRepository.deleteAllById(createdUserIds);
+        createdUserIds.clear();
+    }
+}
@@ -0,0 +1,127 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.entity.Connection;
+import com.workflow.backend.entity.ConnectionStatus;
+import com.workflow.backend.entity.User;
+import com.workflow.backend.repository.ConnectionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sosyal graf indeksi testi: lazy yükleme, write-through güncelleme ve başka node'dan gelen geçersiz kılma.
+ */
+@DisplayName("Social Graph Index Tests")
+class SocialGraphIndexTest extends ServiceIntegrationTest {
+
+    @Autowired
+    private SocialGraphIndex socialGraphIndex;
+
+    @Autowired
+    private ConnectionRepository connectionRepository;
+
+    private User alice;
+    private User bob;
+    private User carol;
+
+    @BeforeEach
+    void setUp() {
+        alice = createUser("alice");
+        bob = createUser("bob");
+        carol = createUser("carol");
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM social_graph_changes");
+    }
+
+    @Test
+    @DisplayName("Pending direction is loaded lazily and acceptance is written through")
+    void pendingThenAccepted() {
+        Connection connection = connectionRepository.save(newConnection(alice, bob, ConnectionStatus.PENDING));
+
+        assertThat(socialGraphIndex.findEdge(alice.getId(), bob.getId()))
+                .hasValueSatisfying(edge -> {
+                    assertThat(edge.status()).isEqualTo(ConnectionStatus.PENDING);
+                    assertThat(edge.outgoing()).isTrue();
+                });
+        assertThat(socialGraphIndex.findEdge(bob.getId(), alice.getId()))
+                .hasValueSatisfying(edge -> assertThat(edge.outgoing()).isFalse());
+
+        connection.setStatus(ConnectionStatus.ACCEPTED);
+        // @Version: save birleştirilmiş yeni kopyayı döner, sonraki işlemler onunla yapılır
+        Connection accepted = connectionRepository.save(connection);
+        socialGraphIndex.put(accepted);
+
+        assertThat(socialGraphIndex.isConnected(alice.getId(), bob.getId())).isTrue();
+        assertThat(socialGraphIndex.getConnectionCount(bob.getId())).isEqualTo(1);
+        assertThat(socialGraphIndex.getConnectedAmong(alice.getId(), List.of(bob.getId(), carol.getId())))
+                .containsExactly(bob.getId());
+        assertThat(socialGraphIndex.findEdge(alice.getId(), bob.getId()))
+                .hasValueSatisfying(edge -> assertThat(edge.connectionId()).isEqualTo(connection.getId()));
+
+        socialGraphIndex.remove(accepted);
+        connectionRepository.delete(accepted);
+
+        assertThat(socialGraphIndex.findEdge(alice.getId(), bob.getId())).isEmpty();
+        assertThat(socialGraphIndex.getConnectionCount(alice.getId())).isZero();
+    }
+
+    @Test
+    @DisplayName("Changes recorded by another node invalidate the local copy")
+    void foreignChange_invalidatesUser() {
+        socialGraphIndex.pollChanges();
+        assertThat(socialGraphIndex.isConnected(alice.getId(), carol.getId())).isFalse();
+
+        // Başka bir node bağlantıyı kabul etti: yerel kopya henüz eski
+        connectionRepository.save(newConnection(alice, carol, ConnectionStatus.ACCEPTED));
+        jdbcTemplate.update("INSERT INTO social_graph_changes (user_id, node_id, created_at) VALUES (?, ?, ?)",
+                alice.getId(), "other-node", Timestamp.valueOf(LocalDateTime.now()));
+
+        socialGraphIndex.pollChanges();
+
+        assertThat(socialGraphIndex.isConnected(alice.getId(), carol.getId())).isTrue();
+    }
+
+    @Test
+    @DisplayName("A change committed after a higher id was read is still applied")
+    void outOfOrderCommit_appliedOnLaterPoll() {
+        socialGraphIndex.pollChanges();
+        assertThat(socialGraphIndex.isConnected(bob.getId(), carol.getId())).isFalse();
+
+        // Başka node'da iki transaction: düşük id'li olan (bob) yüksek id'li olandan (alice) sonra commit olur
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM social_graph_changes", Long.class);
+        connectionRepository.save(newConnection(bob, carol, ConnectionStatus.ACCEPTED));
+        insertChange(maxId + 2, alice.getId());
+        socialGraphIndex.pollChanges();
+        assertThat(socialGraphIndex.isConnected(bob.getId(), carol.getId())).isFalse();
+
+        insertChange(maxId + 1, bob.getId());
+        socialGraphIndex.pollChanges();
+
+        assertThat(socialGraphIndex.isConnected(bob.getId(), carol.getId())).isTrue();
+    }
+
+    private void insertChange(long id, Long userId) {
+        jdbcTemplate.update("INSERT INTO social_graph_changes (id, user_id, node_id, created_at) VALUES (?, ?, ?, ?)",
+                id, userId, "other-node", Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private Connection newConnection(User from, User to, ConnectionStatus status) {
+        Connection connection = new Connection();
+        connection.setSender(from);
+        connection.setReceiver(to);
+        connection.setStatus(status);
+        return connection;
+    }
+}
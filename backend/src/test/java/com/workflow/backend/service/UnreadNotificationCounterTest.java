@@ -0,0 +1,142 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.repository.NotificationRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UnreadNotificationCounter Tests")
+class UnreadNotificationCounterTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @InjectMocks
+    private UnreadNotificationCounter counter;
+
+    @Test
+    @DisplayName("Should load the count once and serve later reads from memory")
+    void get_loadsOnce() {
+        when(notificationRepository.countUnreadByRecipientId(1L)).thenReturn(3L);
+
+        assertThat(counter.get(1L)).isEqualTo(3);
+        assertThat(counter.get(1L)).isEqualTo(3);
+        verify(notificationRepository, times(1)).countUnreadByRecipientId(1L);
+    }
+
+    @Test
+    @DisplayName("Should apply increments to a loaded counter")
+    void increment_updatesLoadedCounter() {
+        when(notificationRepository.countUnreadByRecipientId(1L)).thenReturn(3L);
+        counter.get(1L);
+
+        counter.increment(1L);
+        counter.increment(1L, 4);
+
+        assertThat(counter.get(1L)).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("Should skip updates for users without a loaded counter")
+    void increment_skipsUnloadedCounter() {
+        counter.increment(1L, 5);
+        verify(notificationRepository, never()).countUnreadByRecipientId(1L);
+
+        when(notificationRepository.countUnreadByRecipientId(1L)).thenReturn(2L);
+        assertThat(counter.get(1L)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not let decrements drop below zero")
+    void decrement_clampsAtZero() {
+        when(notificationRepository.countUnreadByRecipientId(1L)).thenReturn(3L);
+        counter.get(1L);
+
+        counter.decrement(1L, 2);
+        assertThat(counter.get(1L)).isEqualTo(1);
+
+        counter.decrement(1L, 5);
+        assertThat(counter.get(1L)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reset a loaded counter to zero")
+    void reset_setsZero() {
+        when(notificationRepository.countUnreadByRecipientId(1L)).thenReturn(7L);
+        counter.get(1L);
+
+        counter.reset(1L);
+
+        assertThat(counter.get(1L)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should apply changes only after the transaction commits")
+    void increment_deferredUntilCommit() {
+        when(notificationRepository.countUnreadByRecipientId(1L)).thenReturn(3L);
+        counter.get(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counter.increment(1L);
+            // Rollback olsaydı sayaç değişmemeliydi
+            assertThat(counter.get(1L)).isEqualTo(3);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(counter.get(1L)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should reload the count after invalidate")
+    void invalidate_reloads() {
+        when(notificationRepository.countUnreadByRecipientId(1L)).thenReturn(3L, 6L);
+        counter.get(1L);
+
+        counter.invalidate(1L);
+
+        assertThat(counter.get(1L)).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Should correct drifted counters and zero users missing from the grouped count")
+    void reconcile_correctsDrift() {
+        when(notificationRepository.countUnreadByRecipientId(1L)).thenReturn(3L);
+        when(notificationRepository.countUnreadByRecipientId(2L)).thenReturn(4L);
+        counter.get(1L);
+        counter.get(2L);
+        when(notificationRepository.countUnreadGroupedByRecipientIds(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 5L}));
+
+        counter.reconcile();
+
+        assertThat(counter.get(1L)).isEqualTo(5);
+        assertThat(counter.get(2L)).isZero();
+        verify(notificationRepository, times(1)).countUnreadGroupedByRecipientIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should not query when no counters are loaded")
+    void reconcile_noCounters() {
+        counter.reconcile();
+
+        verify(notificationRepository, never()).countUnreadGroupedByRecipientIds(anyCollection());
+    }
+}
@@ -4,14 +4,18 @@ import com.workflow.backend.dto.AuthResponse;
 import com.workflow.backend.dto.LoginRequest;
 import com.workflow.backend.dto.RegisterRequest;
 import com.workflow.backend.dto.UpdatePasswordRequest;
+import com.workflow.backend.dto.UpdateProfileRequest;
 import com.workflow.backend.dto.UserSearchResponse;
 import com.workflow.backend.entity.AuthProvider;
 import com.workflow.backend.entity.RefreshToken;
 import com.workflow.backend.entity.User;
+import com.workflow.backend.entity.UserProfilePicture;
 import com.workflow.backend.exception.InvalidCredentialsException;
 import com.workflow.backend.repository.UserProfilePictureRepository;
 import com.workflow.backend.repository.UserRepository;
+import com.workflow.backend.repository.UserSearchRepository;
 import com.workflow.backend.security.JwtService;
+import com.workflow.backend.service.ProfilePictureStorageService.StoredFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -20,11 +24,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -41,6 +49,15 @@ class UserServiceTest {
     @Mock
     private UserProfilePictureRepository profilePictureRepository;
 
+    @Mock
+    private UserSearchRepository userSearchRepository;
+
+    @Mock
+    private UsernameIndex usernameIndex;
+
+    @Mock
+    private AvatarResolver avatarResolver;
+
     @Mock
     private ProfilePictureStorageService profilePictureStorageService;
 
@@ -62,6 +79,9 @@ class UserServiceTest {
     @Mock
     private CurrentUserService currentUserService;
 
+    @Mock
+    private UserSummaryCache userSummaryCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -108,7 +128,7 @@ class UserServiceTest {
 
             RefreshToken refreshToken = new RefreshToken();
             refreshToken.setToken("refreshToken");
-            when(refreshTokenService.createRefreshToken(anyString())).thenReturn(refreshToken);
+            when(refreshTokenService.createRefreshToken(anyLong())).thenReturn(refreshToken);
 
             registerRequest.setCode("123456");
 
@@ -165,11 +185,10 @@ class UserServiceTest {
             when(userRepository.findByUsernameIgnoreCase("testuser")).thenReturn(testUser);
             when(passwordEncoder.matches("password", "encodedPassword")).thenReturn(true);
             when(jwtService.generateAccessToken("testuser", 1L)).thenReturn("accessToken");
-            when(profilePictureRepository.findFilePathByUserId(1L)).thenReturn(Optional.empty());
 
             RefreshToken refreshToken = new RefreshToken();
             refreshToken.setToken("refreshToken");
-            when(refreshTokenService.createRefreshToken("testuser")).thenReturn(refreshToken);
+            when(refreshTokenService.createRefreshToken(1L)).thenReturn(refreshToken);
 
             // Act
             AuthResponse response = userService.login(loginRequest);
@@ -207,6 +226,55 @@ class UserServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Profile Picture Tests")
+    class ProfilePictureTests {
+
+        @Test
+        @DisplayName("Should release the previous file only after the transaction commits")
+        void updateProfilePicture_ReleasesOldFileAfterCommit() {
+            InputStream content = new ByteArrayInputStream(new byte[]{1, 2, 3});
+            when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+            when(profilePictureStorageService.store(1L, content)).thenReturn(new StoredFile("/uploads/new.png", "new"));
+            when(profilePictureRepository.findByUserId(1L))
+                    .thenReturn(Optional.of(new UserProfilePicture(testUser, "/uploads/old.png")));
+
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                userService.updateProfilePicture(1L, content);
+
+                // Rollback olsaydı kayıt eski dosyayı göstermeye devam ederdi
+                verify(profilePictureStorageService, never()).release(any());
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            verify(profilePictureStorageService).release("/uploads/old.png");
+            verify(userSummaryCache).invalidate(1L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Profile Update Tests")
+    class ProfileUpdateTests {
+
+        @Test
+        @DisplayName("Should invalidate the cached summary after a profile update")
+        void updateProfile_InvalidatesSummaryCache() {
+            UpdateProfileRequest request = new UpdateProfileRequest();
+            request.setFirstName("Yeni");
+
+            when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+            when(userRepository.save(testUser)).thenReturn(testUser);
+
+            AuthResponse response = userService.updateProfile(1L, request);
+
+            assertThat(response.getUser().getFirstName()).isEqualTo("Yeni");
+            verify(userSummaryCache).invalidate(1L);
+        }
+    }
+
     @Nested
     @DisplayName("Password Update Tests")
     class PasswordUpdateTests {
@@ -307,21 +375,12 @@ class UserServiceTest {
         @DisplayName("Should return matching users when searching by query")
         void searchUsers_ReturnsMatchingUsers() {
             // Arrange
-            User user1 = new User();
-            user1.setId(10L);
-            user1.setUsername("alice");
-
-            User user2 = new User();
-            user2.setId(11L);
-            user2.setUsername("alicewonder");
-
-            List<User> users = List.of(user1, user2);
-
             when(currentUserService.getCurrentUserId()).thenReturn(1L);
-            when(userRepository.searchByUsername(eq("ali"), eq(1L), any(PageRequest.class)))
-                    .thenReturn(users);
-            when(profilePictureRepository.findFilePathsByUserIds(List.of(10L, 11L)))
-                    .thenReturn(Collections.singletonList(new Object[]{10L, "/path/to/pic"}));
+            when(userSearchRepository.search("ali", 1L, 10, false)).thenReturn(List.of(
+                    new UserSearchRepository.Hit(10L, "alice"),
+                    new UserSearchRepository.Hit(11L, "alicewonder")));
+            when(avatarResolver.resolveAll(List.of(10L, 11L)))
+                    .thenReturn(Map.of(10L, "/users/10/profile-picture"));
 
             // Act
             List<UserSearchResponse> results = userService.searchUsers("ali");
@@ -330,6 +389,8 @@ class UserServiceTest {
             assertThat(results).hasSize(2);
             assertThat(results.get(0).getUsername()).isEqualTo("alice");
             assertThat(results.get(1).getUsername()).isEqualTo("alicewonder");
+            assertThat(results.get(0).getProfilePicture()).isEqualTo("/users/10/profile-picture");
+            assertThat(results.get(1).getProfilePicture()).isNull();
         }
 
         @Test
@@ -337,8 +398,7 @@ class UserServiceTest {
         void searchUsers_NoMatches_ReturnsEmptyList() {
             // Arrange
             when(currentUserService.getCurrentUserId()).thenReturn(1L);
-            when(userRepository.searchByUsername(eq("zzz"), eq(1L), any(PageRequest.class)))
-                    .thenReturn(Collections.emptyList());
+            when(userSearchRepository.search("zzz", 1L, 10, false)).thenReturn(Collections.emptyList());
 
             // Act
             List<UserSearchResponse> results = userService.searchUsers("zzz");
@@ -346,5 +406,82 @@ class UserServiceTest {
             // Assert
             assertThat(results).isEmpty();
         }
+
+        @Test
+        @DisplayName("Index prefix matches should be topped up with non-prefix matches from the database")
+        void searchUsers_IndexReady_TopsUpWithNonPrefixMatches() {
+            // Arrange
+            when(currentUserService.getCurrentUserId()).thenReturn(1L);
+            when(usernameIndex.isReady()).thenReturn(true);
+            when(usernameIndex.searchPrefix(eq("ali"), eq(1L), eq(10), any()))
+                    .thenReturn(List.of(new UsernameIndex.Match(10L, "alice", true)));
+            when(userSearchRepository.searchNonPrefix("ali", 1L, 9, false))
+                    .thenReturn(List.of(new UserSearchRepository.Hit(12L, "malik")));
+            when(avatarResolver.resolveAll(List.of(12L))).thenReturn(Map.of());
+
+            // Act
+            List<UserSearchResponse> results = userService.searchUsers("ali");
+
+            // Assert
+            assertThat(results).extracting(UserSearchResponse::getUsername).containsExactly("alice", "malik");
+            assertThat(results.get(0).getProfilePicture()).isEqualTo(AvatarResolver.urlFor(10L));
+            verify(userSearchRepository, never()).search(anyString(), any(), anyInt(), anyBoolean());
+        }
+
+        @Test
+        @DisplayName("Database should not be queried when the index fills the limit")
+        void searchUsers_IndexFillsLimit_SkipsDatabase() {
+            // Arrange
+            when(currentUserService.getCurrentUserId()).thenReturn(1L);
+            when(usernameIndex.isReady()).thenReturn(true);
+            when(usernameIndex.searchPrefix(eq("a"), eq(1L), eq(1), any()))
+                    .thenReturn(List.of(new UsernameIndex.Match(10L, "alice", false)));
+
+            // Act
+            List<UserSearchResponse> results = userService.searchUsers("a", 1, false);
+
+            // Assert
+            assertThat(results).extracting(UserSearchResponse::getId).containsExactly(10L);
+            verifyNoInteractions(userSearchRepository);
+        }
+
+        @Test
+        @DisplayName("Connected-only search should filter in the database query, not after its limit")
+        void searchUsers_ConnectedOnly_FiltersInQuery() {
+            // Arrange
+            when(currentUserService.getCurrentUserId()).thenReturn(1L);
+            when(userSearchRepository.search("ali", 1L, 2, true))
+                    .thenReturn(List.of(new UserSearchRepository.Hit(12L, "malik")));
+            when(avatarResolver.resolveAll(List.of(12L))).thenReturn(Map.of());
+
+            // Act
+            List<UserSearchResponse> results = userService.searchUsers("ali", 2, true);
+
+            // Assert
+            assertThat(results).extracting(UserSearchResponse::getId).containsExactly(12L);
+            verify(userSearchRepository, never()).search(anyString(), any(), anyInt(), eq(false));
+        }
+
+        @Test
+        @DisplayName("Non-prefix top-up should be skipped for short queries and run for every longer one")
+        void searchUsers_SkipsTopUpForShortQueries() {
+            // Arrange
+            when(currentUserService.getCurrentUserId()).thenReturn(1L);
+            when(usernameIndex.isReady()).thenReturn(true);
+            when(usernameIndex.searchPrefix(anyString(), eq(1L), eq(10), any())).thenReturn(List.of());
+            when(userSearchRepository.searchNonPrefix(anyString(), eq(1L), eq(10), eq(false))).thenReturn(List.of());
+            when(avatarResolver.resolveAll(List.of())).thenReturn(Map.of());
+
+            // Act
+            userService.searchUsers("al");
+            userService.searchUsers("ali");
+            List<UserSearchResponse> results = userService.searchUsers("alic");
+
+            // Assert
+            assertThat(results).isEmpty();
+            // Boş sonuç hatırlanmaz: trigram benzerliği uzayan sorguda yeni öneri bulabilir
+            verify(userSearchRepository, never()).searchNonPrefix(eq("al"), any(), anyInt(), anyBoolean());
+            verify(userSearchRepository, times(2)).searchNonPrefix(anyString(), any(), anyInt(), anyBoolean());
+        }
     }
 }
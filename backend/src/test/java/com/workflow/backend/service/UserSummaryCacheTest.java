@@ -0,0 +1,137 @@
+package com.workflow.backend.service;
+
+import com.workflow.backend.dto.UserSummary;
+import com.workflow.backend.entity.User;
+import com.workflow.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserSummaryCache Tests")
+class UserSummaryCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserSummaryCache userSummaryCache;
+
+    private User alice;
+
+    @BeforeEach
+    void setUp() {
+        alice = newUser(1L, "Alice", "Alice");
+    }
+
+    @Test
+    @DisplayName("Should load a user once and serve later reads from memory")
+    void findById_populatesCache() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(alice));
+
+        Optional<UserSummary> first = userSummaryCache.findById(1L);
+        Optional<UserSummary> second = userSummaryCache.findById(1L);
+
+        assertThat(first).contains(UserSummary.from(alice));
+        assertThat(second).isEqualTo(first);
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should look up usernames case-insensitively and share the entry with id lookups")
+    void findByUsername_populatesBothLookups() {
+        when(userRepository.findByUsernameIgnoreCase("alice")).thenReturn(alice);
+
+        assertThat(userSummaryCache.findByUsername("ALICE")).map(UserSummary::id).contains(1L);
+        assertThat(userSummaryCache.findByUsername("alice")).map(UserSummary::id).contains(1L);
+        assertThat(userSummaryCache.findById(1L)).map(UserSummary::username).contains("Alice");
+
+        verify(userRepository, times(1)).findByUsernameIgnoreCase("alice");
+        verify(userRepository, never()).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should load only the missing users in a single query")
+    void findAllById_loadsOnlyMissing() {
+        User bob = newUser(2L, "bob", "Bob");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(alice));
+        when(userRepository.findAllById(List.of(2L))).thenReturn(List.of(bob));
+        userSummaryCache.findById(1L);
+
+        Map<Long, UserSummary> summaries = userSummaryCache.findAllById(List.of(1L, 2L, 2L));
+
+        assertThat(summaries).containsOnlyKeys(1L, 2L);
+        assertThat(summaries.get(2L).username()).isEqualTo("bob");
+        verify(userRepository).findAllById(List.of(2L));
+    }
+
+    @Test
+    @DisplayName("Should reload a user after a profile update invalidates it")
+    void invalidate_reloadsUpdatedProfile() {
+        User renamed = newUser(1L, "alice2", "Alicia");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(alice), Optional.of(renamed));
+        userSummaryCache.findById(1L);
+
+        userSummaryCache.invalidate(1L);
+
+        assertThat(userSummaryCache.findById(1L)).map(UserSummary::firstName).contains("Alicia");
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should drop the old username mapping on invalidate")
+    void invalidate_dropsOldUsername() {
+        when(userRepository.findByUsernameIgnoreCase("alice")).thenReturn(alice, (User) null);
+        userSummaryCache.findByUsername("alice");
+
+        userSummaryCache.invalidate(1L);
+
+        // Kullanıcı adı değişti: eski ad artık DB'de yok
+        assertThat(userSummaryCache.findByUsername("alice")).isEmpty();
+        verify(userRepository, times(2)).findByUsernameIgnoreCase("alice");
+    }
+
+    @Test
+    @DisplayName("Should evict again after commit so a value read mid-transaction is not kept")
+    void invalidate_evictsAgainAfterCommit() {
+        User renamed = newUser(1L, "alice", "Alicia");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(alice), Optional.of(renamed));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userSummaryCache.invalidate(1L);
+            // Commit öncesi başka bir istek eski satırı okuyup cache'e koyar
+            assertThat(userSummaryCache.findById(1L)).map(UserSummary::firstName).contains("Alice");
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(userSummaryCache.findById(1L)).map(UserSummary::firstName).contains("Alicia");
+    }
+
+    private static User newUser(Long id, String username, String firstName) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setFirstName(firstName);
+        user.setLastName("Test");
+        return user;
+    }
+}
@@ -0,0 +1,130 @@
+package com.workflow.backend.service;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Kullanıcı adı indeksini gömülü H2 üzerinde test eder: kurulum, delta güncellemeleri ve birleştirme.
+ */
+@DisplayName("UsernameIndex Tests")
+class UsernameIndexTest {
+
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private UsernameIndex usernameIndex;
+    // Aynı veritabanını kullanan ikinci replika
+    private UsernameIndex otherNode;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:usernameindex;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS users (id BIGINT PRIMARY KEY, username VARCHAR(255) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS user_profile_pictures (user_id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS username_index_changes (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "user_id BIGINT, node_id VARCHAR(36) NOT NULL, created_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.update("DELETE FROM username_index_changes");
+        jdbcTemplate.update("DELETE FROM user_profile_pictures");
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("INSERT INTO users (id, username) VALUES (1, 'me'), (2, 'bobby'), (3, 'bob'), (4, 'alice'), (5, 'bobcat')");
+        jdbcTemplate.update("INSERT INTO user_profile_pictures (user_id) VALUES (2)");
+
+        usernameIndex = newIndex();
+        otherNode = newIndex();
+    }
+
+    @Test
+    @DisplayName("Prefix matches are returned in order with the picture bit")
+    void searchPrefix_returnsSortedMatches() {
+        assertThat(usernameIndex.isReady()).isTrue();
+        assertThat(usernameIndex.searchPrefix("Bob", 1L, 10, id -> true))
+                .extracting(UsernameIndex.Match::username, UsernameIndex.Match::hasPicture)
+                .containsExactly(tuple("bob", false), tuple("bobby", true), tuple("bobcat", false));
+    }
+
+    @Test
+    @DisplayName("Register, rename and delete are visible before and after compaction")
+    void deltaUpdates_visibleBeforeAndAfterCompaction() {
+        usernameIndex.put("bobafett", 6L, false);
+        usernameIndex.rename("bobby", "robby", 2L);
+        usernameIndex.remove("bobcat", 5L);
+
+        assertThat(usernameIndex.searchPrefix("bob", 1L, 10, id -> true))
+                .extracting(UsernameIndex.Match::username)
+                .containsExactly("bob", "bobafett");
+        assertThat(usernameIndex.searchPrefix("rob", 1L, 10, id -> true))
+                .extracting(UsernameIndex.Match::hasPicture)
+                .containsExactly(true);
+
+        usernameIndex.compact();
+
+        assertThat(usernameIndex.searchPrefix("bob", 1L, 10, id -> true))
+                .extracting(UsernameIndex.Match::username)
+                .containsExactly("bob", "bobafett");
+        assertThat(usernameIndex.searchPrefix("rob", 1L, 10, id -> true))
+                .extracting(UsernameIndex.Match::userId)
+                .containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Filter and limit are applied while scanning")
+    void searchPrefix_appliesFilterAndLimit() {
+        assertThat(usernameIndex.searchPrefix("bob", 1L, 10, id -> id != 3L))
+                .extracting(UsernameIndex.Match::userId)
+                .containsExactly(2L, 5L);
+        assertThat(usernameIndex.searchPrefix("bob", 1L, 1, id -> true)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Register, rename and delete on another node are applied on the next poll")
+    void changesOnOtherNode_appliedOnPoll() {
+        jdbcTemplate.update("INSERT INTO users (id, username) VALUES (6, 'bobafett')");
+        usernameIndex.put("bobafett", 6L, false);
+        jdbcTemplate.update("UPDATE users SET username = 'robby' WHERE id = 2");
+        usernameIndex.rename("bobby", "robby", 2L);
+        jdbcTemplate.update("DELETE FROM users WHERE id = 5");
+        usernameIndex.remove("bobcat", 5L);
+
+        assertThat(otherNode.searchPrefix("bob", 1L, 10, id -> true))
+                .extracting(UsernameIndex.Match::username)
+                .containsExactly("bob", "bobby", "bobcat");
+
+        otherNode.pollChanges();
+
+        assertThat(otherNode.searchPrefix("bob", 1L, 10, id -> true))
+                .extracting(UsernameIndex.Match::username)
+                .containsExactly("bob", "bobafett");
+        assertThat(otherNode.searchPrefix("rob", 1L, 10, id -> true))
+                .extracting(UsernameIndex.Match::userId, UsernameIndex.Match::hasPicture)
+                .containsExactly(tuple(2L, true));
+    }
+
+    @Test
+    @DisplayName("Own changes are not reloaded from the change log")
+    void ownChanges_skippedOnPoll() {
+        usernameIndex.put("bobafett", 6L, false);
+
+        // Kullanıcı DB'de yok; kendi değişikliği tekrar uygulansaydı silinmiş sayılırdı
+        usernameIndex.pollChanges();
+
+        assertThat(usernameIndex.searchPrefix("bobaf", 1L, 10, id -> true))
+                .extracting(UsernameIndex.Match::userId)
+                .containsExactly(6L);
+    }
+
+    private UsernameIndex newIndex() {
+        UsernameIndex index = new UsernameIndex(dataSource, new DataSourceTransactionManager(dataSource));
+        index.rebuild();
+        return index;
+    }
+}
@@ -1,3 +1,4 @@
+import { useEffect, useState } from 'react';
 import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query';
 import { notificationService } from '../../services/api';
 import { queryKeys } from '../../lib/queryClient';
@@ -11,11 +12,67 @@ export const useNotifications = () => {
   });
 };
 
+const STREAM_RETRY_DELAY = 30 * 1000;
+// Akis acikken kacirilan olaylara karsi seyrek polling devam eder
+const STREAM_FALLBACK_POLL_INTERVAL = 5 * 60 * 1000;
+
+/**
+ * Bildirim SSE akisina baglanir; gelen olaylar query cache'ini gunceller.
+ * Baglanti acik oldugu surece true doner (polling yavaslatilir).
+ */
+export const useNotificationStream = () => {
+  const queryClient = useQueryClient();
+  const [connected, setConnected] = useState(false);
+
+  useEffect(() => {
+    if (typeof EventSource === 'undefined') return;
+
+    let source: EventSource | null = null;
+    let retryTimer: ReturnType<typeof setTimeout> | undefined;
+
+    const connect = () => {
+      source = notificationService.openStream();
+      source.onopen = () => setConnected(true);
+      source.onerror = () => {
+        setConnected(false);
+        // Tarayici gecici hatalarda kendisi yeniden baglanir; 401 gibi durumlarda baglanti
+        // kapanir, bu durumda (polling token'i yeniledikten sonra) tekrar denenir
+        if (source?.readyState === EventSource.CLOSED) {
+          source.close();
+          retryTimer = setTimeout(connect, STREAM_RETRY_DELAY);
+        }
+      };
+      source.addEventListener('unread-count', (event) => {
+        const { count } = JSON.parse((event as MessageEvent).data) as { count: number };
+        queryClient.setQueryData(queryKeys.notifications.unreadCount, count);
+      });
+      source.addEventListener('notification', () => {
+        queryClient.invalidateQueries({ queryKey: queryKeys.notifications.all, exact: true });
+      });
+      // Baska bir sunucuda olusan/okunan bildirimler: liste yeniden yuklenir
+      source.addEventListener('notifications-changed', () => {
+        queryClient.invalidateQueries({ queryKey: queryKeys.notifications.all, exact: true });
+      });
+    };
+
+    connect();
+    return () => {
+      clearTimeout(retryTimer);
+      source?.close();
+    };
+  }, [queryClient]);
+
+  return connected;
+};
+
 export const useUnreadNotificationCount = () => {
+  const streamConnected = useNotificationStream();
+
   return useQuery({
     queryKey: queryKeys.notifications.unreadCount,
     queryFn: () => notificationService.getUnreadCount(),
-    refetchInterval: 30 * 1000, // 30 saniye polling
+    // SSE baglantisi yoksa 30 saniyelik polling yedek olarak calisir
+    refetchInterval: streamConnected ? STREAM_FALLBACK_POLL_INTERVAL : 30 * 1000,
     staleTime: 10 * 1000,
   });
 };
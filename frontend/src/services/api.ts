@@ -459,6 +459,10 @@ export const notificationService = {
   deleteNotification: async (notificationId: number): Promise<void> => {
     await apiClient.delete(`/notifications/${notificationId}`);
   },
+  // SSE: yeni bildirim ("notification") ve okunmamis sayi ("unread-count") olaylari. Cookie ile dogrulanir.
+  openStream: (): EventSource => {
+    return new EventSource(`${API_BASE_URL}/notifications/stream`, { withCredentials: true });
+  },
 };
 
 // RESPONSE INTERCEPTOR (Cevap Kontrolü + Token Yenileme)